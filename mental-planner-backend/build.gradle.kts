@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "4.1.0"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "dev.iainkirkham"
@@ -26,8 +27,17 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-flyway")
 	implementation("org.flywaydb:flyway-database-postgresql")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	// Binary response formats, negotiated via Accept: application/cbor or application/x-jackson-smile
+	implementation("tools.jackson.dataformat:jackson-dataformat-cbor")
+	implementation("tools.jackson.dataformat:jackson-dataformat-smile")
+
+	// Metrics: Actuator + Micrometer, scraped in Prometheus format from the management port
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 	compileOnly("org.projectlombok:lombok")
-	runtimeOnly("org.postgresql:postgresql")
+	// Compiled against for LISTEN/NOTIFY in the cluster bus
+	implementation("org.postgresql:postgresql")
 	annotationProcessor("org.projectlombok:lombok")
 
 	// Spring Security & JWT validation for Clerk authentication
@@ -41,6 +51,8 @@ dependencies {
 	testImplementation("org.springframework.boot:spring-boot-resttestclient")
 	testImplementation("org.springframework.boot:spring-boot-restclient")
 	testImplementation("org.springframework.security:spring-security-test")
+	// COPY-based bulk seeding in the load tests
+	testImplementation("org.postgresql:postgresql")
 
 	// Use the Testcontainers BOM to manage versions in one place and avoid mixed-version issues
 	testImplementation(platform("org.testcontainers:testcontainers-bom:2.0.5"))
@@ -56,6 +68,47 @@ tasks.withType<Test> {
 	useJUnitPlatform()
 }
 
+// Load tests are slow and noisy, so they're kept out of the regular test run.
+tasks.named<Test>("test") {
+	useJUnitPlatform {
+		excludeTags("load")
+	}
+}
+
+val loadTest by tasks.registering(Test::class) {
+	description = "Runs the load tests against a Testcontainers Postgres database. Tune with -Pload.users, -Pload.years, -Pload.clients, -Pload.durationSeconds."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("load")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+	providers.gradlePropertiesPrefixedBy("load.").get().forEach { (key, value) -> systemProperty(key, value) }
+	systemProperty("load.report", layout.buildDirectory.file("reports/load/planner-load.json").get().asFile.absolutePath)
+	outputs.upToDateWhen { false }
+	shouldRunAfter(tasks.test)
+}
+
+// Microbenchmarks for mapping and serialization hot paths (src/jmh/java).
+// Run with ./gradlew jmh; results are written to build/results/jmh/results.json.
+jmh {
+	profilers = listOf("gc")
+	resultFormat = "JSON"
+	fork = 1
+	warmupIterations = 3
+	warmup = "2s"
+	iterations = 5
+	timeOnIteration = "3s"
+}
+
+// Local runs report SQL statements per request (X-DB-Statements / X-DB-Time); deployed jars don't.
+tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
+	systemProperty("sql.statement-headers.enabled", "true")
+}
+
 tasks.named<org.springframework.boot.gradle.tasks.bundling.BootJar>("bootJar") {
 	mainClass.set("dev.iainkirkham.mental_planner_backend.AdhdFocusCompanionApplication")
 }
@@ -0,0 +1,145 @@
+package dev.iainkirkham.mental_planner_backend;
+
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntry;
+import dev.iainkirkham.mental_planner_backend.pomodoro.EnergyRating;
+import dev.iainkirkham.mental_planner_backend.pomodoro.PomodoroSession;
+import dev.iainkirkham.mental_planner_backend.tasks.Subtask;
+import dev.iainkirkham.mental_planner_backend.tasks.Task;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskPriority;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskTimeEntry;
+import dev.iainkirkham.mental_planner_backend.tasks.TimeEntrySource;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Realistic, fully populated entities for the benchmarks, plus lightweight repository stubs.
+ * Stubs are plain JDK proxies rather than Mockito mocks, whose invocation recording would
+ * dominate both the timings and the allocation profile.
+ */
+public final class BenchmarkFixtures {
+
+    public static final Long USER_ID = 42L;
+    public static final LocalDate WEEK_START = LocalDate.parse("2025-12-01");
+    private static final Instant DAY_START = Instant.parse("2025-12-01T09:00:00Z");
+
+    private BenchmarkFixtures() {
+    }
+
+    public static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId((long) i + 1);
+            task.setTitle("Task " + i);
+            task.setDescription("Break the work down and start with the smallest step");
+            task.setScheduledDate(WEEK_START.plusDays(i % 7));
+            task.setStartTime(DAY_START.plus(Duration.ofMinutes(30L * i)));
+            task.setEndTime(DAY_START.plus(Duration.ofMinutes(30L * i + 25)));
+            task.setCompleted(i % 3 == 0);
+            task.setSortOrder(i);
+            task.setPlannedMinutes(25);
+            task.setActualMinutes(i % 40);
+            task.setCategory("work");
+            task.setPriority(TaskPriority.values()[i % TaskPriority.values().length]);
+            task.setUserId(USER_ID);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * @return subtasks for every task, ordered by task ID then sort order as the repository returns them
+     */
+    public static List<Subtask> subtasks(List<Task> tasks, int perTask) {
+        List<Subtask> subtasks = new ArrayList<>(tasks.size() * perTask);
+        long id = 1;
+        for (Task task : tasks) {
+            for (int i = 0; i < perTask; i++) {
+                Subtask subtask = new Subtask();
+                subtask.setId(id++);
+                subtask.setTaskId(task.getId());
+                subtask.setTitle("Step " + i);
+                subtask.setCompleted(i % 2 == 0);
+                subtask.setSortOrder(i);
+                subtask.setPlannedMinutes(10);
+                subtasks.add(subtask);
+            }
+        }
+        return subtasks;
+    }
+
+    public static List<TaskTimeEntry> timeEntries(int count) {
+        List<TaskTimeEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TaskTimeEntry entry = new TaskTimeEntry();
+            entry.setId((long) i + 1);
+            entry.setTaskId((long) i % 10 + 1);
+            entry.setUserId(USER_ID);
+            entry.setStartedAt(DAY_START.plus(Duration.ofMinutes(30L * i)));
+            entry.setEndedAt(DAY_START.plus(Duration.ofMinutes(30L * i + 25)));
+            entry.setMinutes(25);
+            entry.setEntryDate(WEEK_START.plusDays(i % 7));
+            entry.setSource(i % 2 == 0 ? TimeEntrySource.STOPWATCH : TimeEntrySource.MANUAL);
+            entry.setNote("Focused session");
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public static List<MoodEntry> moodEntries(int count) {
+        List<MoodEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MoodEntry entry = new MoodEntry();
+            entry.setId((long) i + 1);
+            entry.setMoodScore((short) (i % 5 + 1));
+            entry.setDateTime(DAY_START.plus(Duration.ofHours(3L * i)));
+            entry.setFactors(List.of("sleep", "exercise", "work"));
+            entry.setNotes("Felt steady after a walk");
+            entry.setUserId(USER_ID);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public static List<PomodoroSession> pomodoroSessions(int count) {
+        List<PomodoroSession> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PomodoroSession session = new PomodoroSession();
+            session.setId((long) i + 1);
+            session.setStartTime(DAY_START.plus(Duration.ofMinutes(30L * i)));
+            session.setEndTime(DAY_START.plus(Duration.ofMinutes(30L * i + 25)));
+            session.setDuration(25);
+            session.setScore((short) (i % 5 + 1));
+            session.setNotes("Good focus");
+            session.setEnergyRating(EnergyRating.values()[i % EnergyRating.values().length]);
+            session.setUserId(USER_ID);
+            session.setTaskId((long) i % 10 + 1);
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    /**
+     * Creates a repository stub answering the named methods; any other call fails loudly.
+     *
+     * @param type the repository interface
+     * @param answers method name to answer, given the call's arguments
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            }
+            return answer.apply(args);
+        });
+    }
+}
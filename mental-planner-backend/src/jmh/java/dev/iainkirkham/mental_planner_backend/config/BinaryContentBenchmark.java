@@ -0,0 +1,95 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntryMapper;
+import dev.iainkirkham.mental_planner_backend.tasks.SubtaskMapper;
+import dev.iainkirkham.mental_planner_backend.tasks.Task;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskMapper;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost of the two largest list responses in each negotiated format: a 500-task
+ * range with subtasks and a 5,000-entry mood history. Payload sizes, raw and gzipped, are
+ * printed once per trial since JMH only reports time and allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class BinaryContentBenchmark {
+
+    private static final int TASK_COUNT = 500;
+    private static final int SUBTASKS_PER_TASK = 4;
+    private static final int MOOD_ENTRY_COUNT = 5_000;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"tasks", "moods"})
+    private String payload;
+
+    private ObjectMapper mapper;
+    private Object response;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> BinaryContentConfig.compactTimestamps(CBORMapper.builder()).build();
+            case "smile" -> BinaryContentConfig.smileMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        response = switch (payload) {
+            case "tasks" -> taskRange();
+            case "moods" -> new MoodEntryMapper().toResponseDTOList(BenchmarkFixtures.moodEntries(MOOD_ENTRY_COUNT));
+            default -> throw new IllegalArgumentException("Unknown payload: " + payload);
+        };
+
+        byte[] body = serialize();
+        System.out.printf("%n%s/%s: %,d bytes, %,d gzipped%n", payload, format, body.length, gzip(body).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    private static List<TaskResponseDTO> taskRange() {
+        List<Task> tasks = BenchmarkFixtures.tasks(TASK_COUNT);
+        SubtaskMapper subtaskMapper = new SubtaskMapper();
+        Map<Long, List<SubtaskResponseDTO>> subtasksByTaskId = BenchmarkFixtures.subtasks(tasks, SUBTASKS_PER_TASK).stream()
+                .map(subtaskMapper::toResponseDTO)
+                .collect(Collectors.groupingBy(SubtaskResponseDTO::getTaskId));
+
+        List<TaskResponseDTO> response = new TaskMapper().toResponseDTOList(tasks);
+        response.forEach(dto -> dto.setSubtasks(subtasksByTaskId.get(dto.getId())));
+        return response;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
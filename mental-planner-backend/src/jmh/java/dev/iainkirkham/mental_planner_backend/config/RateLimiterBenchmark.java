@@ -0,0 +1,59 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the rate limit check, which every authenticated API request pays: one
+ * user calling repeatedly, many users spread across the bucket map, and several threads
+ * contending for the same user's bucket. The limits are high enough that no call is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    private RateLimiter rateLimiter;
+    private String[] subjects;
+
+    @Setup
+    public void setUp() {
+        RateLimiter.Limit unlimited = new RateLimiter.Limit(Integer.MAX_VALUE / 2, 1_000_000_000);
+        rateLimiter = new RateLimiter(Map.of(EndpointClass.READ, unlimited, EndpointClass.WRITE, unlimited),
+                Duration.ofMinutes(10), System::nanoTime);
+        subjects = new String[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            subjects[i] = "user_benchmark_" + i;
+            rateLimiter.tryAcquire(subjects[i], EndpointClass.READ);
+        }
+    }
+
+    @Benchmark
+    public long singleUser() {
+        return rateLimiter.tryAcquire(subjects[0], EndpointClass.READ);
+    }
+
+    @Benchmark
+    public long manyUsers() {
+        return rateLimiter.tryAcquire(subjects[ThreadLocalRandom.current().nextInt(USER_COUNT)], EndpointClass.WRITE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long contendedUser() {
+        return rateLimiter.tryAcquire(subjects[0], EndpointClass.WRITE);
+    }
+}
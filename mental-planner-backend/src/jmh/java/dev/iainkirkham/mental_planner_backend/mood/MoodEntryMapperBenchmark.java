@@ -0,0 +1,37 @@
+package dev.iainkirkham.mental_planner_backend.mood;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Entity to DTO mapping for mood entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class MoodEntryMapperBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private final MoodEntryMapper mapper = new MoodEntryMapper();
+    private List<MoodEntry> entries;
+
+    @Setup
+    public void setUp() {
+        entries = BenchmarkFixtures.moodEntries(size);
+    }
+
+    @Benchmark
+    public List<MoodEntryResponseDTO> toResponseDTOList() {
+        return mapper.toResponseDTOList(entries);
+    }
+}
@@ -0,0 +1,37 @@
+package dev.iainkirkham.mental_planner_backend.pomodoro;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Entity to DTO mapping for pomodoro sessions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class PomodoroSessionMapperBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private final PomodoroSessionMapper mapper = new PomodoroSessionMapper();
+    private List<PomodoroSession> sessions;
+
+    @Setup
+    public void setUp() {
+        sessions = BenchmarkFixtures.pomodoroSessions(size);
+    }
+
+    @Benchmark
+    public List<PomodoroSessionResponseDTO> toResponseDTOList() {
+        return mapper.toResponseDTOList(sessions);
+    }
+}
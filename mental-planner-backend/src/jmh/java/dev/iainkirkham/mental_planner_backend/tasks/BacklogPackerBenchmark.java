@@ -0,0 +1,73 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto-scheduling a week: {@code backlogTasks} backlog tasks of 15 minutes to 2 hours, spread over
+ * the week's days and priorities, packed into the free slots of seven 09:00-18:00 days that already
+ * hold 100 timeline tasks. Slot finding and packing are measured together, as a request runs them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BacklogPackerBenchmark {
+
+    @Param({"20", "100", "300"})
+    private int backlogTasks;
+
+    private Timeline week;
+    private final List<BacklogPacker.Candidate> candidates = new ArrayList<>();
+    private Instant[] workStarts;
+    private Instant[] workEnds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        workStarts = new Instant[7];
+        workEnds = new Instant[7];
+        List<TimelineBlock> blocks = new ArrayList<>();
+        long id = 1;
+        for (int day = 0; day < 7; day++) {
+            Instant midnight = BenchmarkFixtures.WEEK_START.plusDays(day).atStartOfDay(ZoneOffset.UTC).toInstant();
+            workStarts[day] = midnight.plus(Duration.ofHours(9));
+            workEnds[day] = midnight.plus(Duration.ofHours(18));
+            for (int i = 0; i < 100 / 7; i++) {
+                Instant start = midnight.plus(Duration.ofMinutes(8 * 60 + random.nextInt(10 * 60)));
+                blocks.add(new TimelineBlock(id++, start, start.plus(Duration.ofMinutes(15 + random.nextInt(46)))));
+            }
+        }
+        week = Timeline.of(blocks);
+        for (int i = 0; i < backlogTasks; i++) {
+            int day = random.nextInt(7);
+            LocalDate date = BenchmarkFixtures.WEEK_START.plusDays(day);
+            candidates.add(new BacklogPacker.Candidate(id++, TaskPriority.values()[random.nextInt(4)], date,
+                    random.nextInt(20), 15 + 15 * random.nextInt(8), workStarts[day]));
+        }
+    }
+
+    @Benchmark
+    public BacklogPacker.Plan planWeek() {
+        List<Timeline.Slot> slots = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            slots.addAll(week.freeSlots(workStarts[day], workEnds[day], Duration.ZERO));
+        }
+        return BacklogPacker.pack(candidates, slots);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskTimeEntryResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Entity to DTO mapping for tasks and their time entries, at day-view and busy-week sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class TaskMapperBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private final TaskMapper taskMapper = new TaskMapper();
+    private final TaskTimeEntryMapper taskTimeEntryMapper = new TaskTimeEntryMapper();
+    private List<Task> tasks;
+    private List<TaskTimeEntry> timeEntries;
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkFixtures.tasks(size);
+        timeEntries = BenchmarkFixtures.timeEntries(size);
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> taskToResponseDTOList() {
+        return taskMapper.toResponseDTOList(tasks);
+    }
+
+    @Benchmark
+    public List<TaskTimeEntryResponseDTO> timeEntryToResponseDTOList() {
+        return taskTimeEntryMapper.toResponseDTOList(timeEntries);
+    }
+}
@@ -0,0 +1,51 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of the week-view response body. The mapper is built with Jackson's
+ * defaults, which is what the application uses since no spring.jackson.* properties are set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class TaskSerializationBenchmark {
+
+    private static final int SUBTASKS_PER_TASK = 4;
+
+    @Param({"20", "200"})
+    private int taskCount;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<TaskResponseDTO> response;
+
+    @Setup
+    public void setUp() {
+        List<Task> tasks = BenchmarkFixtures.tasks(taskCount);
+        SubtaskMapper subtaskMapper = new SubtaskMapper();
+        Map<Long, List<SubtaskResponseDTO>> subtasksByTaskId = BenchmarkFixtures.subtasks(tasks, SUBTASKS_PER_TASK).stream()
+                .map(subtaskMapper::toResponseDTO)
+                .collect(Collectors.groupingBy(SubtaskResponseDTO::getTaskId));
+
+        response = new TaskMapper().toResponseDTOList(tasks);
+        response.forEach(dto -> dto.setSubtasks(subtasksByTaskId.get(dto.getId())));
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,84 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.config.OwnedEntityLookup;
+import dev.iainkirkham.mental_planner_backend.config.ReadCoalescer;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskReorderItemDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The in-memory assembly done by TaskService around its queries, with the repositories stubbed:
+ * attaching batch-fetched subtasks to each task (week view) and building the owned-task map
+ * that validates and applies a reorder batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class TaskServiceBenchmark {
+
+    private static final int SUBTASKS_PER_TASK = 4;
+
+    @Param({"20", "200"})
+    private int taskCount;
+
+    private TaskService taskService;
+    private List<TaskReorderItemDTO> reorderItems;
+
+    @Setup
+    public void setUp() {
+        List<Task> tasks = BenchmarkFixtures.tasks(taskCount);
+        List<Subtask> subtasks = BenchmarkFixtures.subtasks(tasks, SUBTASKS_PER_TASK);
+        reorderItems = tasks.stream()
+                .map(task -> new TaskReorderItemDTO(task.getId(), taskCount - task.getSortOrder()))
+                .toList();
+
+        TaskRepository taskRepository = BenchmarkFixtures.stub(TaskRepository.class, Map.<String, Function<Object[], Object>>of(
+                "findByUserIdAndScheduledDateBetweenAndArchivedFalseOrderByScheduledDateAscSortOrderAsc", args -> tasks,
+                "findByIdInAndUserId", args -> tasks,
+                "saveAll", args -> args[0]));
+        SubtaskRepository subtaskRepository = BenchmarkFixtures.stub(SubtaskRepository.class, Map.<String, Function<Object[], Object>>of(
+                "findByTaskIdInOrderByTaskIdAscSortOrderAsc", args -> subtasks));
+        AuthenticationContext authenticationContext = new AuthenticationContext(null) {
+            @Override
+            public Long getCurrentUserId() {
+                return BenchmarkFixtures.USER_ID;
+            }
+        };
+
+        TaskSeriesRepository taskSeriesRepository = BenchmarkFixtures.stub(TaskSeriesRepository.class, Map.<String, Function<Object[], Object>>of(
+                "findActiveWithOverrides", args -> List.of()));
+        OwnedEntityLookup ownedEntityLookup = new OwnedEntityLookup(authenticationContext, Duration.ofMinutes(1));
+        ChangeEvents changeEvents = new ChangeEvents(event -> { });
+        TaskSeriesService taskSeriesService = new TaskSeriesService(taskSeriesRepository, taskRepository, subtaskRepository,
+                authenticationContext, ownedEntityLookup, new TaskSeriesMapper(), new TaskMapper(), new SubtaskMapper(), changeEvents);
+
+        taskService = new TaskService(taskRepository, authenticationContext, ownedEntityLookup,
+                new TaskMapper(), subtaskRepository, new SubtaskMapper(), null, new TaskTimeEntryMapper(), null, changeEvents,
+                new ReadCoalescer(TransactionOperations.withoutTransaction(), new SimpleMeterRegistry()), taskSeriesService, null, null);
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> weekViewWithSubtasks() {
+        return taskService.getTasksForDateRange(BenchmarkFixtures.WEEK_START, BenchmarkFixtures.WEEK_START.plusDays(6));
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> reorderTasks() {
+        return taskService.reorderTasks(reorderItems);
+    }
+}
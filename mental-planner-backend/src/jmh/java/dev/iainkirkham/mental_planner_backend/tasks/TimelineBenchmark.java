@@ -0,0 +1,87 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The timeline work behind free-slot lookups and overlap warnings, for a user with
+ * {@code blocksPerWeek} timeline tasks spread over a week, some of them overlapping: building
+ * each day's {@link Timeline} from its projected blocks, finding a week of free slots, and
+ * checking one placement for overlaps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimelineBenchmark {
+
+    private static final Duration MIN_SLOT = Duration.ofMinutes(15);
+
+    @Param({"100", "300", "700"})
+    private int blocksPerWeek;
+
+    private final List<List<TimelineBlock>> blocksByDay = new ArrayList<>();
+    private final List<Timeline> week = new ArrayList<>();
+    private Instant[] dayStarts;
+    private Instant placementStart;
+    private Instant placementEnd;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dayStarts = new Instant[8];
+        for (int day = 0; day < 8; day++) {
+            dayStarts[day] = BenchmarkFixtures.WEEK_START.plusDays(day).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        long id = 1;
+        for (int day = 0; day < 7; day++) {
+            List<TimelineBlock> blocks = new ArrayList<>();
+            for (int i = 0; i < blocksPerWeek / 7; i++) {
+                // Between 07:00 and 22:00, 15 minutes to 2 hours long
+                Instant start = dayStarts[day].plus(Duration.ofMinutes(7 * 60 + random.nextInt(15 * 60)));
+                blocks.add(new TimelineBlock(id++, start, start.plus(Duration.ofMinutes(15 + random.nextInt(106)))));
+            }
+            blocksByDay.add(blocks);
+            week.add(Timeline.of(blocks));
+        }
+        placementStart = dayStarts[3].plus(Duration.ofHours(14));
+        placementEnd = placementStart.plus(Duration.ofMinutes(45));
+    }
+
+    @Benchmark
+    public int buildWeek() {
+        int size = 0;
+        for (List<TimelineBlock> blocks : blocksByDay) {
+            size += Timeline.of(blocks).size();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int freeSlotsForWeek() {
+        int slots = 0;
+        for (int day = 0; day < 7; day++) {
+            slots += week.get(day).freeSlots(dayStarts[day], dayStarts[day + 1], MIN_SLOT).size();
+        }
+        return slots;
+    }
+
+    @Benchmark
+    public List<Long> overlapCheck() {
+        return week.get(3).overlapping(null, placementStart, placementEnd);
+    }
+}
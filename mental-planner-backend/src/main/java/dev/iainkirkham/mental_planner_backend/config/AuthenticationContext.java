@@ -1,5 +1,11 @@
 package dev.iainkirkham.mental_planner_backend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -10,7 +16,51 @@ import org.springframework.stereotype.Component;
  * This class extracts user details from the Clerk JWT that has been validated by Spring Security.
  */
 @Component
-public class AuthenticationContext {
+public class AuthenticationContext implements MeterBinder {
+
+    /**
+     * Upper bound on cached Clerk ID to internal ID mappings. The mapping never changes
+     * once created, so entries only leave the cache through size-based eviction.
+     */
+    private static final long USER_ID_CACHE_MAX_SIZE = 10_000;
+
+    private final AppUserService appUserService;
+    private final Cache<String, Long> userIdsBySubject = Caffeine.newBuilder()
+            .maximumSize(USER_ID_CACHE_MAX_SIZE)
+            .recordStats()
+            .build();
+
+    public AuthenticationContext(AppUserService appUserService) {
+        this.appUserService = appUserService;
+    }
+
+    /**
+     * Gets the current authenticated user's internal numeric ID, used as the owner key on every
+     * user-scoped table. Resolved from the Clerk user ID through an in-memory cache, so only the
+     * first request per user (per instance) touches the app_user table. A miss is resolved outside
+     * the cache's own locking, which would pin a virtual thread to its carrier for the whole
+     * database round trip; two first requests racing each other both resolve to the same row.
+     *
+     * @return the internal app_user ID
+     * @throws IllegalStateException if no JWT authentication is present in the security context
+     */
+    public Long getCurrentUserId() {
+        String subject = getCurrentUserSubject();
+        Long userId = userIdsBySubject.getIfPresent(subject);
+        if (userId == null) {
+            userId = appUserService.resolveOrCreate(subject);
+            userIdsBySubject.put(subject, userId);
+        }
+        return userId;
+    }
+
+    /**
+     * @return true if the current request carries a JWT, i.e. the current user can be resolved
+     */
+    public boolean hasCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof Jwt;
+    }
 
     /**
      * Gets the current authenticated user's Clerk user ID.
@@ -19,7 +69,7 @@ public class AuthenticationContext {
      * @return the Clerk user ID (e.g., "user_2abc123def456")
      * @throws IllegalStateException if no JWT authentication is present in the security context
      */
-    public String getCurrentUserId() {
+    public String getCurrentUserSubject() {
         return getJwt().getSubject();
     }
 
@@ -44,6 +94,14 @@ public class AuthenticationContext {
         return (String) getClaim("email");
     }
 
+    /**
+     * Publishes the user ID cache's size, hit/miss counts and evictions.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, userIdsBySubject, "user-ids");
+    }
+
     /**
      * Extracts the JWT from the current security context with proper null safety.
      *
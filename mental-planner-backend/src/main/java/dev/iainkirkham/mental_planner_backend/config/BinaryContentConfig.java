@@ -0,0 +1,57 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.boot.jackson.autoconfigure.CborMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.LocalDate;
+
+/**
+ * Binary alternatives to JSON for clients that send {@code Accept: application/cbor} or
+ * {@code Accept: application/x-jackson-smile}; JSON stays the default.
+ * Both encodings drop the repeated field names and quoting of JSON, and write Instants as epoch
+ * milliseconds instead of ISO-8601 strings. LocalDates stay ISO strings, since a [y, m, d] array
+ * saves little and is awkward to consume.
+ */
+@Configuration
+public class BinaryContentConfig {
+
+    /**
+     * Applies the binary encodings' compact timestamp settings to a mapper builder.
+     */
+    public static <B extends MapperBuilder<?, B>> B compactTimestamps(B builder) {
+        return builder
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .disable(DateTimeFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .withConfigOverride(LocalDate.class,
+                        override -> override.setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.STRING)));
+    }
+
+    /**
+     * @return a Smile mapper configured like the CBOR one (Spring Boot has no Smile auto-configuration)
+     */
+    public static SmileMapper smileMapper() {
+        return compactTimestamps(SmileMapper.builder()).build();
+    }
+
+    @Bean
+    public CborMapperBuilderCustomizer compactCborTimestamps() {
+        return BinaryContentConfig::compactTimestamps;
+    }
+
+    @Bean
+    public ServerHttpMessageConvertersCustomizer binaryMessageConverters(CBORMapper cborMapper) {
+        return builder -> builder
+                .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()));
+    }
+}
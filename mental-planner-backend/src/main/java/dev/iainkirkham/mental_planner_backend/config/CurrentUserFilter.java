@@ -0,0 +1,34 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolves the current user's internal ID before the request reaches anything transactional, so a
+ * first-time user's app_user row is registered in a transaction of its own, and every later
+ * lookup in the request is a cache hit. Services that resolve the user inside a read-only
+ * transaction, which can't register anyone, rely on this. Runs after the security filters, which
+ * establish the user.
+ */
+public class CurrentUserFilter extends OncePerRequestFilter {
+
+    private final AuthenticationContext authenticationContext;
+
+    public CurrentUserFilter(AuthenticationContext authenticationContext) {
+        this.authenticationContext = authenticationContext;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (authenticationContext.hasCurrentUser()) {
+            authenticationContext.getCurrentUserId();
+        }
+        filterChain.doFilter(request, response);
+    }
+}
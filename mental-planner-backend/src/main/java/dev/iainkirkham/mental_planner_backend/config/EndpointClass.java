@@ -0,0 +1,20 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+/**
+ * The classes of endpoint that get separate rate limits, so a burst of writes (e.g. a client
+ * spamming the stopwatch persist) doesn't stop the same user's reads, and vice versa.
+ */
+public enum EndpointClass {
+    READ,
+    WRITE;
+
+    /**
+     * @return the class of a request with the given HTTP method
+     */
+    public static EndpointClass of(String method) {
+        return switch (method) {
+            case "GET", "HEAD", "OPTIONS", "TRACE" -> READ;
+            default -> WRITE;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import dev.iainkirkham.mental_planner_backend.exception.InvalidPatchException;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Applies JSON Merge Patches (RFC 7396) to request DTOs, for the {@code PATCH} endpoints. The
+ * current state of a resource is rendered as its request DTO, the patch is merged into it, and the
+ * result is read back and validated like a full {@code PUT} body. Mapping that DTO onto the
+ * managed entity then only dirties the fields the patch changed, and the entities'
+ * {@code @DynamicUpdate} turns that into an UPDATE of just those columns.
+ */
+@Component
+public class JsonMergePatcher {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final JsonMapper jsonMapper;
+    private final SpringValidatorAdapter validator;
+
+    public JsonMergePatcher(JsonMapper jsonMapper, Validator validator) {
+        this.jsonMapper = jsonMapper;
+        this.validator = new SpringValidatorAdapter(validator);
+    }
+
+    /**
+     * Merges a patch into a DTO holding a resource's current state.
+     *
+     * @param patch the merge patch; members set to null clear the field, absent members keep it
+     * @param current the resource's current state as a request DTO
+     * @param type the DTO's type
+     * @return a new DTO with the patch applied, valid against the DTO's constraints
+     * @throws InvalidPatchException if the patch isn't an object, doesn't fit the DTO, or yields an invalid DTO
+     */
+    public <T> T apply(JsonNode patch, T current, Class<T> type) {
+        if (!patch.isObject()) {
+            throw new InvalidPatchException("A merge patch must be a JSON object", null);
+        }
+
+        T patched;
+        try {
+            patched = jsonMapper.treeToValue(merge(jsonMapper.valueToTree(current), patch), type);
+        } catch (JacksonException ex) {
+            throw new InvalidPatchException("The merge patch does not fit the resource", ex);
+        }
+
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(patched, type.getSimpleName());
+        validator.validate(patched, errors);
+        if (errors.hasErrors()) {
+            throw new InvalidPatchException(errors);
+        }
+        return patched;
+    }
+
+    /**
+     * The MergePatch algorithm of RFC 7396, section 2. Mutates and returns the target when it is
+     * an object.
+     */
+    private JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject() ? (ObjectNode) target : jsonMapper.createObjectNode();
+        for (String name : patch.propertyNames()) {
+            JsonNode value = patch.get(name);
+            if (value.isNull()) {
+                result.remove(name);
+            } else {
+                result.set(name, merge(result.get(name), value));
+            }
+        }
+        return result;
+    }
+}
@@ -1,22 +1,33 @@
 package dev.iainkirkham.mental_planner_backend.config;
 
 import dev.iainkirkham.mental_planner_backend.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 
 /**
  * Shared seam for the "find an entity scoped to the current user, or 404" idiom
  * repeated across every feature service (tasks, pomodoro sessions, mood entries).
+ * Callers that only need to prove ownership use the existence-only path, which is
+ * answered from an {@link OwnershipCache} when the same entity was checked recently.
  */
 @Component
 public class OwnedEntityLookup {
 
     private final AuthenticationContext authenticationContext;
+    private final Duration ownershipCacheTtl;
+    private final Map<String, OwnershipCache> ownershipCaches = new ConcurrentHashMap<>();
 
-    public OwnedEntityLookup(AuthenticationContext authenticationContext) {
+    public OwnedEntityLookup(AuthenticationContext authenticationContext,
+                             @Value("${ownership.cache.ttl:60s}") Duration ownershipCacheTtl) {
         this.authenticationContext = authenticationContext;
+        this.ownershipCacheTtl = ownershipCacheTtl;
     }
 
     /**
@@ -27,9 +38,45 @@ public class OwnedEntityLookup {
      * @param entityName the entity's display name, used in the not-found message (e.g. "Task")
      * @throws ResourceNotFoundException if no matching entity is found for the current user
      */
-    public <T> T findOwnedOrThrow(BiFunction<Long, String, Optional<T>> finder, Long id, String entityName) {
-        String userId = authenticationContext.getCurrentUserId();
+    public <T> T findOwnedOrThrow(BiFunction<Long, Long, Optional<T>> finder, Long id, String entityName) {
+        Long userId = authenticationContext.getCurrentUserId();
         return finder.apply(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException(entityName + " not found with ID: " + id));
     }
+
+    /**
+     * Verifies that an entity belongs to the current user without loading it, or throws. The
+     * owner is taken from the cache when present; otherwise the existence check runs and a
+     * positive result is cached.
+     *
+     * @param cache the cache of owners for this kind of check, from {@link #ownershipCache}
+     * @param existsCheck the repository's existsByIdAndUserId method reference
+     * @param id the entity's ID
+     * @param entityName the entity's display name, used in the not-found message (e.g. "Task")
+     * @throws ResourceNotFoundException if no matching entity is found for the current user
+     */
+    public void assertOwnedOrThrow(OwnershipCache cache, BiPredicate<Long, Long> existsCheck, Long id,
+                                   String entityName) {
+        Long userId = authenticationContext.getCurrentUserId();
+        Long cachedOwner = cache.ownerOf(id);
+        long stamp = cache.stamp();
+        boolean owned = cachedOwner != null ? cachedOwner.equals(userId) : existsCheck.test(id, userId);
+        if (!owned) {
+            throw new ResourceNotFoundException(entityName + " not found with ID: " + id);
+        }
+        if (cachedOwner == null) {
+            cache.remember(id, userId, stamp);
+        }
+    }
+
+    /**
+     * Returns the ownership cache with the given name, creating it on first use. Each distinct
+     * existence check needs its own cache, since a positive answer to one (e.g. "in the task or
+     * archive table") doesn't imply a positive answer to another (e.g. "in the task table").
+     *
+     * @param name the cache's name, shared by every caller that runs the same check
+     */
+    public OwnershipCache ownershipCache(String name) {
+        return ownershipCaches.computeIfAbsent(name, ignored -> new OwnershipCache(ownershipCacheTtl));
+    }
 }
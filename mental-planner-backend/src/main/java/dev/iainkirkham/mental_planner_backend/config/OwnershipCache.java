@@ -0,0 +1,98 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived, in-memory record of which user owns which entity ID, filled by the ownership checks
+ * in {@link OwnedEntityLookup}. An entity's owner never changes, so an entry only goes stale when
+ * the entity is deleted; services {@link #forget} IDs when they delete them, and when another
+ * instance reports a delete over the cluster bus. Rows that leave a table any other way, such as
+ * tasks moved to cold storage on another instance, are only picked up when the entry expires,
+ * which is why the time-to-live is kept short. Only positive results are cached, and a result is
+ * not cached if anything was forgotten while it was being checked: the check may have seen a row
+ * whose delete committed just after.
+ */
+public class OwnershipCache {
+
+    private static final long MAX_ENTRIES = 100_000;
+
+    private final Cache<Long, Long> ownersById;
+    private final AtomicLong forgets = new AtomicLong();
+
+    OwnershipCache(Duration timeToLive) {
+        this.ownersById = Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(MAX_ENTRIES)
+                .build();
+    }
+
+    /**
+     * @return the cached owner of the entity, or null if it isn't cached
+     */
+    Long ownerOf(Long id) {
+        return ownersById.getIfPresent(id);
+    }
+
+    /**
+     * @return a stamp to take before running the check whose result is then passed to {@link #remember}
+     */
+    long stamp() {
+        return forgets.get();
+    }
+
+    /**
+     * Caches an owner found by a check, unless an ID was forgotten since the check's stamp was
+     * taken. The entry is written before the stamp is compared, and {@link #forget} counts before
+     * it invalidates, so one of the two always removes an entry that raced a forget.
+     */
+    void remember(Long id, Long ownerId, long stamp) {
+        ownersById.put(id, ownerId);
+        if (forgets.get() != stamp) {
+            ownersById.invalidate(id);
+        }
+    }
+
+    /**
+     * Drops the given IDs, e.g. because they are being deleted. Inside a transaction they are
+     * dropped again once it completes, so a check that ran while the delete was still uncommitted
+     * cannot leave a stale entry behind.
+     *
+     * @param ids the entity IDs to drop
+     */
+    public void forget(Collection<Long> ids) {
+        forgets.incrementAndGet();
+        ownersById.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    forgets.incrementAndGet();
+                    ownersById.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops a single ID; see {@link #forget(Collection)}.
+     */
+    public void forget(Long id) {
+        forget(List.of(id));
+    }
+
+    /**
+     * Drops every entry, e.g. because deletes made elsewhere may have been missed.
+     */
+    public void forgetAll() {
+        forgets.incrementAndGet();
+        ownersById.invalidateAll();
+    }
+}
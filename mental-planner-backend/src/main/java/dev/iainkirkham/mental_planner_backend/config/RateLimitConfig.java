@@ -0,0 +1,47 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-user rate limiting of the API, so one misbehaving client can't tie up the connection pool
+ * for everyone else. Enabled unless {@code rate-limit.enabled} is false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    RateLimiter rateLimiter(@Value("${rate-limit.read.capacity:120}") int readCapacity,
+                            @Value("${rate-limit.read.per-second:20}") double readPerSecond,
+                            @Value("${rate-limit.write.capacity:60}") int writeCapacity,
+                            @Value("${rate-limit.write.per-second:10}") double writePerSecond,
+                            @Value("${rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        return new RateLimiter(Map.of(
+                EndpointClass.READ, new RateLimiter.Limit(readCapacity, readPerSecond),
+                EndpointClass.WRITE, new RateLimiter.Limit(writeCapacity, writePerSecond)),
+                idleTimeout, System::nanoTime);
+    }
+
+    /**
+     * Registered just after the security filters, which establish the user it is keyed by.
+     */
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter,
+                                                            AuthenticationContext authenticationContext,
+                                                            JsonMapper jsonMapper) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, authenticationContext, jsonMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityFilterProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,63 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects a user's request with 429 (Too Many Requests) and a {@code Retry-After} when their
+ * {@link RateLimiter} bucket for the endpoint's class is empty, before it can reach a service or
+ * take a connection. Runs after the security filters, since buckets are keyed by the JWT subject;
+ * requests without a user are left to those filters.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final AuthenticationContext authenticationContext;
+    private final JsonMapper jsonMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, AuthenticationContext authenticationContext, JsonMapper jsonMapper) {
+        this.rateLimiter = rateLimiter;
+        this.authenticationContext = authenticationContext;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!authenticationContext.hasCurrentUser()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire(
+                authenticationContext.getCurrentUserSubject(), EndpointClass.of(request.getMethod()));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too many requests");
+        body.put("message", "Too many requests. Please try again in " + retryAfterSeconds + " second(s).");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,107 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user token buckets, one per {@link EndpointClass}. Each bucket is kept as a single
+ * "theoretical arrival time" (the generic cell rate algorithm), which behaves exactly like a token
+ * bucket of the same capacity and refill rate but is updated with one compare-and-set, so
+ * concurrent requests from the same user never take a lock. A user's buckets are evicted once
+ * idle for the idle timeout, or for as long as a full refill takes if that is longer, by which
+ * point they would be full again anyway.
+ */
+public class RateLimiter implements MeterBinder {
+
+    private static final long MAX_USERS = 1_000_000;
+
+    private final long[] emissionIntervals;
+    private final long[] burstTolerances;
+    private final Cache<String, AtomicLongArray> bucketsBySubject;
+    private final LongSupplier clock;
+    private final long origin;
+    private final AtomicLongArray rejections = new AtomicLongArray(EndpointClass.values().length);
+
+    /**
+     * @param limits the limit of each endpoint class
+     * @param idleTimeout how long a user's buckets are kept after their last request
+     * @param clock a monotonic nanosecond clock, such as {@link System#nanoTime}
+     */
+    public RateLimiter(Map<EndpointClass, Limit> limits, Duration idleTimeout, LongSupplier clock) {
+        EndpointClass[] classes = EndpointClass.values();
+        this.emissionIntervals = new long[classes.length];
+        this.burstTolerances = new long[classes.length];
+        for (EndpointClass endpointClass : classes) {
+            Limit limit = limits.get(endpointClass);
+            long interval = Math.round(1_000_000_000 / limit.perSecond());
+            emissionIntervals[endpointClass.ordinal()] = interval;
+            burstTolerances[endpointClass.ordinal()] = interval * limit.capacity();
+        }
+        long fullRefill = Arrays.stream(burstTolerances).max().orElse(0);
+        this.bucketsBySubject = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos(Math.max(idleTimeout.toNanos(), fullRefill)))
+                .maximumSize(MAX_USERS)
+                .build();
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Takes a token from the user's bucket for the endpoint class, if it has one.
+     *
+     * @param subject the user's Clerk ID
+     * @param endpointClass the class of the endpoint being called
+     * @return 0 if the request may proceed, otherwise how many nanoseconds until it would be allowed
+     */
+    public long tryAcquire(String subject, EndpointClass endpointClass) {
+        int index = endpointClass.ordinal();
+        long interval = emissionIntervals[index];
+        long tolerance = burstTolerances[index];
+        AtomicLongArray arrivalTimes = bucketsBySubject.get(subject, ignored -> new AtomicLongArray(emissionIntervals.length));
+        long now = clock.getAsLong() - origin;
+        while (true) {
+            long arrivalTime = arrivalTimes.get(index);
+            long next = Math.max(arrivalTime, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                rejections.incrementAndGet(index);
+                return wait;
+            }
+            if (arrivalTimes.compareAndSet(index, arrivalTime, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Publishes rejected requests per endpoint class and the number of users with buckets.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            FunctionCounter.builder("rate_limit.rejected", rejections, counts -> counts.get(endpointClass.ordinal()))
+                    .tag("class", endpointClass.name().toLowerCase())
+                    .register(registry);
+        }
+        Gauge.builder("rate_limit.users", bucketsBySubject, Cache::estimatedSize).register(registry);
+    }
+
+    /**
+     * A bucket's size and refill rate.
+     *
+     * @param capacity the most requests allowed in a burst
+     * @param perSecond the sustained rate of requests allowed
+     */
+    public record Limit(int capacity, double perSecond) {
+    }
+}
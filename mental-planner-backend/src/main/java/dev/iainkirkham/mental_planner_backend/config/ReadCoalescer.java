@@ -0,0 +1,147 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvent;
+import dev.iainkirkham.mental_planner_backend.events.ClusterBusReconnectedEvent;
+import dev.iainkirkham.mental_planner_backend.events.RemoteChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one query. The first caller of a read for a given
+ * user and arguments runs it, in a read-only transaction of its own; callers arriving while it is
+ * in flight wait for it and get the same result, or the same exception. Nothing is kept once the
+ * read completes, so this only ever merges calls that overlap.
+ * <p>
+ * Callers resolve the user before calling, and the loader must only use the user and arguments it
+ * was given, so the result doesn't depend on whose request happens to run it. Reads made inside a
+ * transaction run directly, since they may need to see that transaction's uncommitted writes, and
+ * a committed change drops its owner's in-flight reads from the map, so a read that starts after a
+ * write has been acknowledged never joins one that may predate it. Shared results must not be
+ * modified.
+ */
+@Component
+public class ReadCoalescer {
+
+    private final TransactionOperations readTransactions;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> executedByRead = new ConcurrentHashMap<>();
+    private final Map<String, Counter> collapsedByRead = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReadCoalescer(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this(readOnlyTemplate(transactionManager), meterRegistry);
+    }
+
+    public ReadCoalescer(TransactionOperations readTransactions, MeterRegistry meterRegistry) {
+        this.readTransactions = readTransactions;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private static TransactionTemplate readOnlyTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * Runs a read, or joins an identical one already in flight.
+     *
+     * @param read the read's name, shared by every caller of the same query (e.g. "tasks.range")
+     * @param userId the user the read is for
+     * @param loader runs the read for that user and those arguments
+     * @param args the read's arguments, compared with {@code equals}
+     * @return the read's result, possibly shared with other callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String read, Long userId, Supplier<T> loader, Object... args) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+
+        Key key = new Key(read, userId, Arrays.asList(args));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            counter(collapsedByRead, "reads.collapsed", read).increment();
+            return (T) await(existing);
+        }
+
+        counter(executedByRead, "reads.executed", read).increment();
+        try {
+            T result = readTransactions.execute(status -> loader.get());
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String read) {
+        return counters.computeIfAbsent(read, ignored -> Counter.builder(name).tag("read", read).register(meterRegistry));
+    }
+
+    /**
+     * Stops later reads of the user's data joining reads that started before this change committed.
+     */
+    @TransactionalEventListener
+    public void onChange(ChangeEvent event) {
+        forgetInFlight(event.userId());
+    }
+
+    /**
+     * Does the same for changes committed on other instances.
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        forgetInFlight(event.change().userId());
+    }
+
+    /**
+     * Stops later reads joining any current one, since changes made on other instances were missed.
+     */
+    @EventListener
+    public void onClusterBusReconnected(ClusterBusReconnectedEvent event) {
+        inFlight.clear();
+    }
+
+    private void forgetInFlight(Long userId) {
+        inFlight.keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    private record Key(String read, Long userId, List<Object> args) {
+    }
+}
@@ -0,0 +1,78 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read-replica routing, enabled by setting {@code database.replica.url} (DATABASE_REPLICA_URL).
+ * The auto-configured pool stays the primary; a second pool is opened against the replica, and
+ * the primary DataSource bean is wrapped in a {@link ReadReplicaRoutingDataSource} so that the
+ * services' {@code @Transactional(readOnly = true)} reads go to the replica. A user who has just
+ * sent a mutating request reads from the primary for {@code database.replica.pin-window}, which
+ * should comfortably exceed the replica's normal replay lag. Writes on other instances pin the user
+ * here too, once they arrive over the cluster bus.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "database.replica", name = "url")
+public class ReadReplicaConfig {
+
+    @Bean
+    ReadYourWritesPins readYourWritesPins(@Value("${database.replica.pin-window:5s}") Duration pinWindow,
+                                          AppUserService appUserService) {
+        return new ReadYourWritesPins(pinWindow, appUserService);
+    }
+
+    @Bean
+    ReadYourWritesInterceptor readYourWritesInterceptor(ReadYourWritesPins pins) {
+        return new ReadYourWritesInterceptor(pins);
+    }
+
+    /**
+     * Wraps the primary DataSource once it is fully initialised. When the primary sits behind the
+     * virtual-thread concurrency gate, the replica pool gets a gate of its own. Runs just before
+     * the statement counter's wrapper, so it still sees the gate and the counter wraps the router.
+     */
+    @Bean
+    static BeanPostProcessor readReplicaRouting(
+            @Value("${database.replica.url}") String url,
+            @Value("${database.replica.username:${spring.datasource.username}}") String username,
+            @Value("${database.replica.password:${spring.datasource.password}}") String password,
+            @Value("${database.replica.maximum-pool-size:10}") int maximumPoolSize,
+            ObjectProvider<ReadYourWritesPins> pins,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ThreadingConfig.OrderedBeanPostProcessor(Ordered.LOWEST_PRECEDENCE - 1) {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                    return bean;
+                }
+                HikariDataSource replicaPool = new HikariDataSource();
+                replicaPool.setPoolName("replica");
+                replicaPool.setJdbcUrl(url);
+                replicaPool.setUsername(username);
+                replicaPool.setPassword(password);
+                replicaPool.setMaximumPoolSize(maximumPoolSize);
+                replicaPool.setReadOnly(true);
+                meterRegistry.ifAvailable(registry ->
+                        replicaPool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+                DataSource replica = primary instanceof ConcurrencyLimitedDataSource gate
+                        ? gate.gateFor(replicaPool, maximumPoolSize)
+                        : replicaPool;
+                return new ReadReplicaRoutingDataSource(primary, replica, pins.getObject());
+            }
+        };
+    }
+}
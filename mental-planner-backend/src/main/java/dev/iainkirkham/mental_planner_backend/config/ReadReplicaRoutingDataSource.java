@@ -0,0 +1,76 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * Connections are fetched lazily, on the first statement, by which point the transaction
+ * manager has marked the connection read-only for {@code @Transactional(readOnly = true)}.
+ * Read-only work for a user pinned by {@link ReadYourWritesPins} still goes to the primary.
+ */
+public final class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesPins pins) {
+        super(primary);
+        this.primary = primary;
+        this.replica = replica;
+        setReadOnlyDataSource(new ReplicaUnlessPinned(primary, replica, pins));
+    }
+
+    /**
+     * Closes both pools. This wrapper replaces the primary pool's bean, so the pool would
+     * otherwise not be closed on shutdown.
+     */
+    @Override
+    public void close() throws IOException {
+        closePool(replica);
+        closePool(primary);
+    }
+
+    private static void closePool(DataSource dataSource) throws IOException {
+        try {
+            if (dataSource.isWrapperFor(Closeable.class)) {
+                dataSource.unwrap(Closeable.class).close();
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static final class ReplicaUnlessPinned extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final DataSource replica;
+        private final ReadYourWritesPins pins;
+
+        ReplicaUnlessPinned(DataSource primary, DataSource replica, ReadYourWritesPins pins) {
+            this.primary = primary;
+            this.replica = replica;
+            this.pins = pins;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return target().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return target().getConnection(username, password);
+        }
+
+        private DataSource target() {
+            return pins.isCurrentUserPinned() ? primary : replica;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Pins the user to the primary whenever they send a mutating request. The pin is taken before
+ * the handler runs, so it is in place before the response can reach the client, and renewed
+ * afterwards so the window starts from the commit rather than from the request's arrival.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private final ReadYourWritesPins pins;
+
+    public ReadYourWritesInterceptor(ReadYourWritesPins pins) {
+        this.pins = pins;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isMutating(request)) {
+            pins.pinCurrentUser();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (isMutating(request)) {
+            pins.pinCurrentUser();
+        }
+    }
+
+    private static boolean isMutating(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS", "TRACE" -> false;
+            default -> true;
+        };
+    }
+}
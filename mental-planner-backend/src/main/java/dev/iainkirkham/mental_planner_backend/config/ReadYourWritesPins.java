@@ -0,0 +1,85 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.iainkirkham.mental_planner_backend.events.RemoteChangeEvent;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users have written recently, so their reads stay on the primary until the
+ * replica has had time to replay those writes. Users are keyed by their Clerk ID, read straight
+ * from the security context: this is consulted while a connection is being chosen, so it can't
+ * go through {@link AuthenticationContext}, which itself needs a connection on a cache miss.
+ * <p>
+ * Pins live in memory, so writes made on other instances are pinned here as their changes arrive
+ * over the cluster bus. Such a pin starts on arrival rather than at the commit, so a read that
+ * beats the notification to this instance can still miss the write.
+ */
+public class ReadYourWritesPins {
+
+    private static final long MAX_PINNED_USERS = 100_000;
+
+    private final Cache<String, Boolean> pinnedSubjects;
+    private final Cache<Long, String> subjectsByUserId = Caffeine.newBuilder()
+            .maximumSize(MAX_PINNED_USERS)
+            .build();
+    private final AppUserService appUserService;
+
+    public ReadYourWritesPins(Duration pinWindow, AppUserService appUserService) {
+        this.pinnedSubjects = Caffeine.newBuilder()
+                .expireAfterWrite(pinWindow)
+                .maximumSize(MAX_PINNED_USERS)
+                .build();
+        this.appUserService = appUserService;
+    }
+
+    /**
+     * Pins the current user to the primary for the pin window, restarting it if already pinned.
+     */
+    public void pinCurrentUser() {
+        String subject = currentSubject();
+        if (subject != null) {
+            pinnedSubjects.put(subject, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Pins the owner of a change committed on another instance, whose next read may come here.
+     * Changes carry internal user IDs; the Clerk ID they map to never changes, so it is cached.
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        Long userId = event.change().userId();
+        if (userId == null) {
+            return;
+        }
+        String subject = subjectsByUserId.getIfPresent(userId);
+        if (subject == null) {
+            subject = appUserService.findClerkUserId(userId).orElse(null);
+            if (subject == null) {
+                return;
+            }
+            subjectsByUserId.put(userId, subject);
+        }
+        pinnedSubjects.put(subject, Boolean.TRUE);
+    }
+
+    /**
+     * @return true if the current user wrote within the pin window; false if they didn't or there is no user
+     */
+    public boolean isCurrentUserPinned() {
+        String subject = currentSubject();
+        return subject != null && pinnedSubjects.getIfPresent(subject) != null;
+    }
+
+    private static String currentSubject() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof Jwt jwt ? jwt.getSubject() : null;
+    }
+}
@@ -1,12 +1,19 @@
 package dev.iainkirkham.mental_planner_backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.security.autoconfigure.actuate.web.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -33,6 +40,47 @@ public class SecurityConfig {
     @Value("${cors.allowed.origins}")
     private String allowedOrigins;
 
+    @Value("${actuator.username}")
+    private String actuatorUsername;
+
+    @Value("${actuator.password}")
+    private String actuatorPassword;
+
+    /**
+     * Secures the Actuator endpoints (served on the separate management port) independently of
+     * the API: health stays public for probes, everything else needs HTTP Basic credentials
+     * for the metrics scraper. With no password configured, only health is reachable.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(auth -> {
+                auth.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll();
+                if (actuatorPassword.isBlank()) {
+                    auth.anyRequest().denyAll();
+                } else {
+                    auth.anyRequest().hasRole("ACTUATOR");
+                }
+            })
+            .httpBasic(Customizer.withDefaults())
+            .userDetailsService(actuatorUsers())
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            );
+
+        return http.build();
+    }
+
+    private UserDetailsService actuatorUsers() {
+        return new InMemoryUserDetailsManager(User.withUsername(actuatorUsername)
+                .password("{noop}" + actuatorPassword)
+                .roles("ACTUATOR")
+                .build());
+    }
+
     /**
      * Configures the security filter chain with JWT authentication and CORS.
      * - Disables CSRF (not needed for stateless JWT APIs)
@@ -47,8 +95,6 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable) // Disable CSRF for stateless API
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
-                // Allow health checks or public endpoints if needed
-                .requestMatchers("/actuator/health").permitAll()
                 // Require authentication for all API endpoints
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().permitAll()
@@ -80,7 +126,7 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of(allowedOrigins.split(",")));
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setAllowCredentials(true);
 
@@ -0,0 +1,59 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import java.time.Duration;
+
+/**
+ * Running total of the JDBC statements executed on the current thread, and the time spent
+ * executing them, between {@link #start()} and {@link #stop()}.
+ * Fed by {@link StatementCountingDataSource}; nothing is recorded while no counter is active.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<SqlStatementCounter> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long executionNanos;
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Starts counting on the current thread, replacing any counter already active.
+     *
+     * @return the new counter
+     */
+    public static SqlStatementCounter start() {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /**
+     * Stops counting on the current thread. The counter returned by {@link #start()} keeps its totals.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void record(long executionNanos) {
+        SqlStatementCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.statements++;
+            counter.executionNanos += executionNanos;
+        }
+    }
+
+    /**
+     * @return the number of statements (or JDBC batches) executed so far
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the total time spent executing those statements
+     */
+    public Duration getExecutionTime() {
+        return Duration.ofNanos(executionNanos);
+    }
+}
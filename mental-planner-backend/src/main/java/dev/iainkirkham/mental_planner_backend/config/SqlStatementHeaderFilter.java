@@ -0,0 +1,61 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Counts the SQL statements each request executes and reports them as response headers:
+ * {@code X-DB-Statements} (count) and {@code X-DB-Time} (milliseconds spent executing them).
+ * Headers are added just before the response is committed, so statements run while the body
+ * is being written after that point are not included.
+ */
+public class SqlStatementHeaderFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-DB-Statements";
+    public static final String TIME_HEADER = "X-DB-Time";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter counter = SqlStatementCounter.start();
+        StatementHeaderResponse wrapped = new StatementHeaderResponse(response, counter);
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            SqlStatementCounter.stop();
+            wrapped.writeHeaders();
+        }
+    }
+
+    private static final class StatementHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatementCounter counter;
+        private boolean written;
+
+        StatementHeaderResponse(HttpServletResponse response, SqlStatementCounter counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, Integer.toString(counter.getStatements()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", counter.getExecutionTime().toNanos() / 1_000_000.0));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statement counting for development and tests, enabled with
+ * {@code sql.statement-headers.enabled=true}. It is off by default, since it proxies every
+ * connection and statement and exposes query timings to clients. Responses carry X-DB-Statements /
+ * X-DB-Time headers, which the integration tests use to fail the build when an endpoint starts
+ * issuing more queries than expected (e.g. an N+1 regression).
+ * Statements are counted at the DataSource, so JdbcTemplate work on the request thread counts as
+ * well as Hibernate's. Work on other threads (job workers, the outbox relay, the cluster bus,
+ * partition maintenance) belongs to no request and isn't counted.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sql.statement-headers", name = "enabled", havingValue = "true")
+public class SqlStatementMetricsConfig {
+
+    /**
+     * Wraps the application's DataSource last, outside the concurrency gate and replica routing,
+     * so statements on either pool are counted.
+     */
+    @Bean
+    static BeanPostProcessor sqlStatementCountingDataSource() {
+        return new ThreadingConfig.OrderedBeanPostProcessor(Ordered.LOWEST_PRECEDENCE) {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registered ahead of the security filters so the count covers the whole request.
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatementHeaderFilter> sqlStatementHeaderFilter() {
+        FilterRegistrationBean<SqlStatementHeaderFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
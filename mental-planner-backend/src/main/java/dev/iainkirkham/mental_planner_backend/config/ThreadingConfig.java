@@ -0,0 +1,93 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Threading setup for request handling, @Async work and @Scheduled jobs.
+ * Virtual threads are opt-in via {@code spring.threads.virtual.enabled} (VIRTUAL_THREADS_ENABLED),
+ * which Spring Boot applies to Tomcat and the async task executor. Because virtual threads remove
+ * the request thread pool as an implicit cap on concurrent database work, enabling them also
+ * puts the connection pool behind a {@link ConcurrencyLimitedDataSource}.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ThreadingConfig {
+
+    /**
+     * Wraps the Hikari pool in a fair gate sized to the pool itself, so excess callers wait
+     * in order for at most the configured queue timeout before being shed with a 503.
+     * Ordered ahead of {@link ReadReplicaConfig}'s routing, which wraps the gated pool in turn.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static BeanPostProcessor databaseConcurrencyGate(
+            @Value("${database.concurrency-gate.queue-timeout:2s}") Duration queueTimeout) {
+        return new OrderedBeanPostProcessor(Ordered.HIGHEST_PRECEDENCE) {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConcurrencyLimitedDataSource(hikari, hikari.getMaximumPoolSize(), queueTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Publishes how many callers hold a connection through the gate and how many are queued for one.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    MeterBinder databaseConcurrencyGateMetrics(DataSource dataSource) {
+        return registry -> {
+            ConcurrencyLimitedDataSource gate = unwrapGate(dataSource);
+            if (gate != null) {
+                Gauge.builder("db.gate.active", gate, ConcurrencyLimitedDataSource::getActiveCount).register(registry);
+                Gauge.builder("db.gate.queued", gate, ConcurrencyLimitedDataSource::getQueuedCount).register(registry);
+            }
+        };
+    }
+
+    private static ConcurrencyLimitedDataSource unwrapGate(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)
+                    ? dataSource.unwrap(ConcurrencyLimitedDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A BeanPostProcessor with an explicit position, for the post-processors that wrap the DataSource.
+     */
+    abstract static class OrderedBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final int order;
+
+        OrderedBeanPostProcessor(int order) {
+            this.order = order;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+}
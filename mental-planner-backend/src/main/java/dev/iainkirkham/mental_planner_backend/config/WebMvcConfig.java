@@ -0,0 +1,40 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC and servlet filter customisations for the API.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    public WebMvcConfig(ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor) {
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
+    /**
+     * Registered for every path, after the security filters and the rate limiter, so a rejected
+     * request doesn't touch the database.
+     */
+    @Bean
+    FilterRegistrationBean<CurrentUserFilter> currentUserFilter(AuthenticationContext authenticationContext) {
+        FilterRegistrationBean<CurrentUserFilter> registration =
+                new FilterRegistrationBean<>(new CurrentUserFilter(authenticationContext));
+        registration.setOrder(SecurityFilterProperties.DEFAULT_FILTER_ORDER + 2);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Only present when a read replica is configured
+        readYourWritesInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+    }
+}
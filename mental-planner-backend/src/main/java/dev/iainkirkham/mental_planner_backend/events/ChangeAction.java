@@ -0,0 +1,10 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+/**
+ * What happened to a changed resource.
+ */
+public enum ChangeAction {
+    CREATED,
+    UPDATED,
+    DELETED
+}
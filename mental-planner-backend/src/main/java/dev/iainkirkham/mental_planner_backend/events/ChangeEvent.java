@@ -0,0 +1,14 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+/**
+ * A committed change to one of a user's resources. It only says what changed, not how: clients
+ * refetch the resource if they need it.
+ *
+ * @param userId the owner of the resource, who is notified; not sent to the client
+ * @param resource the kind of resource that changed
+ * @param id the resource's ID, or null when a background job changed several of the user's
+ *           resources of that kind at once
+ * @param action what happened to it
+ */
+public record ChangeEvent(Long userId, ChangedResource resource, Long id, ChangeAction action) {
+}
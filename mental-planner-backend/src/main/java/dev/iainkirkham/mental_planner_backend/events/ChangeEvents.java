@@ -0,0 +1,31 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entry point for services to announce changes to a user's resources. Events are published as
+ * application events and picked up by after-commit listeners such as {@link EventStreams}, so a
+ * change is only announced once its transaction commits, and never if it rolls back.
+ */
+@Component
+public class ChangeEvents {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ChangeEvents(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Announces a change. Must run in the write's transaction.
+     *
+     * @param userId the owner of the resource
+     * @param resource the kind of resource that changed
+     * @param id the resource's ID
+     * @param action what happened to it
+     */
+    public void publish(Long userId, ChangedResource resource, Long id, ChangeAction action) {
+        eventPublisher.publishEvent(new ChangeEvent(userId, resource, id, action));
+    }
+}
@@ -0,0 +1,12 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+/**
+ * The kinds of resource whose changes are pushed to a user's event streams. Changes to a task's
+ * subtasks and time entries are reported as a change to the task.
+ */
+public enum ChangedResource {
+    TASK,
+    MOOD_ENTRY,
+    POMODORO_SESSION,
+    TASK_SERIES
+}
@@ -0,0 +1,180 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares committed {@link ChangeEvent}s between instances over Postgres LISTEN/NOTIFY, so that
+ * per-user state held in memory (event streams, ownership caches) follows writes made on any
+ * instance, not just this one.
+ * <p>
+ * Local changes are sent as an {@link OutboxHandler}: the {@link OutboxRelay} passes each batch of
+ * committed changes, and they are sent with {@code pg_notify} in one statement, in the relay's
+ * transaction. Postgres delivers notifications when that transaction commits, which is also when
+ * the entries leave the outbox, so each change is sent exactly once, even if an instance crashes
+ * between committing a change and sending it. A listener thread waits for notifications on a
+ * connection of its own, since a LISTEN lasts as long as its session, and republishes other
+ * instances' changes as {@link RemoteChangeEvent}s. If that connection drops, it reconnects and
+ * publishes a {@link ClusterBusReconnectedEvent}, since anything sent meanwhile was missed.
+ * <p>
+ * {@code cluster.bus.reconnects} counts the times the listener lost its connection or failed to
+ * open one, and {@code cluster.bus.dropped} the notifications it couldn't read or whose listeners
+ * threw. A failing listener only loses that one notification; the listener thread carries on.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cluster.bus", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterBus implements SmartLifecycle, OutboxHandler {
+
+    static final String CHANNEL = "planner_changes";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterBus.class);
+
+    private static final long POLL_MILLIS = 500;
+    private static final long RETRY_MILLIS = 1_000;
+
+    private final JdbcConnectionDetails connectionDetails;
+    private final JsonMapper jsonMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final Outbox outbox;
+    private final Counter reconnects;
+    private final Counter dropped;
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterBus(JdbcConnectionDetails connectionDetails, JsonMapper jsonMapper,
+                      ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate, Outbox outbox,
+                      MeterRegistry meterRegistry) {
+        this.connectionDetails = connectionDetails;
+        this.jsonMapper = jsonMapper;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.outbox = outbox;
+        this.reconnects = Counter.builder("cluster.bus.reconnects").register(meterRegistry);
+        this.dropped = Counter.builder("cluster.bus.dropped").register(meterRegistry);
+    }
+
+    /**
+     * Sends a batch of committed changes to the other instances, once the relay's transaction
+     * commits.
+     */
+    @Override
+    public void relay(List<OutboxEntry> entries) {
+        String[] messages = entries.stream()
+                .map(entry -> jsonMapper.writeValueAsString(new Message(entry.origin(), entry.change())))
+                .toArray(String[]::new);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement notify = connection.prepareStatement(
+                    "SELECT pg_notify(?, message) FROM unnest(?) AS message")) {
+                notify.setString(1, CHANNEL);
+                notify.setArray(2, connection.createArrayOf("text", messages));
+                notify.execute();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofVirtual().name("cluster-bus-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(connectionDetails.getJdbcUrl(),
+                connectionDetails.getUsername(), connectionDetails.getPassword());
+    }
+
+    /**
+     * The listener loop: LISTENs on its own connection, reconnecting whenever it drops.
+     */
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                if (reconnecting) {
+                    eventPublisher.publishEvent(new ClusterBusReconnectedEvent());
+                }
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications((int) POLL_MILLIS);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            try {
+                                receive(notification.getParameter());
+                            } catch (RuntimeException ex) {
+                                dropped.increment();
+                                log.warn("Failed to apply a change from another instance", ex);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                reconnects.increment();
+                reconnecting = true;
+                pause();
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        Message message;
+        try {
+            message = jsonMapper.readValue(payload, Message.class);
+        } catch (JacksonException ex) {
+            dropped.increment();
+            return;
+        }
+        if (!outbox.getInstanceId().equals(message.instance())) {
+            eventPublisher.publishEvent(new RemoteChangeEvent(message.change()));
+        }
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(RETRY_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A notification's payload: the change, and the instance it came from so that instance can
+     * skip it.
+     */
+    record Message(String instance, ChangeEvent change) {
+    }
+}
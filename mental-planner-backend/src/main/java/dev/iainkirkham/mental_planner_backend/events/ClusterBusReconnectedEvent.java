@@ -0,0 +1,9 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+/**
+ * Published when the {@link ClusterBus} listener reconnects after losing its connection. Changes
+ * made elsewhere in the meantime were missed, so listeners should drop whatever in-memory state
+ * those changes could have invalidated.
+ */
+public record ClusterBusReconnectedEvent() {
+}
@@ -0,0 +1,121 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One open {@code text/event-stream} connection. Changes are queued in a bounded buffer and
+ * written by the stream's own (virtual) writer thread, so a slow client never holds up the
+ * transaction that published a change. When the buffer is full the oldest change is dropped, and
+ * the client is sent a {@code resync} event before the next one, telling it to refetch rather than
+ * rely on the changes it missed. A stream with nothing to send writes a heartbeat comment, which
+ * keeps proxies from closing it and notices a client that has gone away.
+ */
+class EventStream {
+
+    static final String CHANGE_EVENT = "change";
+    static final String RESYNC_EVENT = "resync";
+
+    private final SseEmitter emitter;
+    private final BlockingDeque<String> buffer;
+    private final Duration heartbeat;
+    private final Long userId;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile Thread writer;
+
+    /**
+     * @param emitter the connection's emitter
+     * @param capacity the most changes queued for the client at once
+     * @param heartbeat how long the stream may be idle before a heartbeat is written
+     * @param userId the user whose changes are streamed
+     */
+    EventStream(SseEmitter emitter, int capacity, Duration heartbeat, Long userId) {
+        this.emitter = emitter;
+        this.buffer = new LinkedBlockingDeque<>(capacity);
+        this.heartbeat = heartbeat;
+        this.userId = userId;
+    }
+
+    /**
+     * Queues a serialized change, dropping the oldest queued one if the buffer is full.
+     *
+     * @return whether a change was dropped to make room
+     */
+    boolean offer(String change) {
+        boolean dropped = false;
+        while (!buffer.offerLast(change)) {
+            dropped |= buffer.pollFirst() != null;
+        }
+        if (dropped) {
+            overflowed.set(true);
+        }
+        return dropped;
+    }
+
+    /**
+     * Has the client sent a {@code resync} event, as when changes were dropped. It goes out with
+     * the next change or heartbeat.
+     */
+    void requestResync() {
+        overflowed.set(true);
+    }
+
+    /**
+     * Stops the writer. Called when the connection completes, times out or fails.
+     */
+    void close() {
+        closed = true;
+        Thread current = writer;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * The writer loop: sends queued changes as they arrive, and a heartbeat when idle.
+     *
+     * @param onStop called with this stream once the loop has stopped, whatever the reason
+     */
+    void run(Consumer<EventStream> onStop) {
+        writer = Thread.currentThread();
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+            while (!closed) {
+                String change = buffer.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (overflowed.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                }
+                if (change != null) {
+                    emitter.send(SseEmitter.event().name(CHANGE_EVENT).data(change, MediaType.APPLICATION_JSON));
+                } else {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException ex) {
+            // The client has gone away or the emitter already completed; the container reports
+            // the former through the emitter's error callback.
+        } finally {
+            closed = true;
+            onStop.accept(this);
+        }
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    Long userId() {
+        return userId;
+    }
+}
@@ -0,0 +1,37 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller for the change notification stream.
+ * Lets an open client learn about changes made elsewhere (another tab or device) without polling.
+ */
+@RestController
+@RequestMapping("api/events")
+public class EventStreamController {
+
+    private final EventStreams eventStreams;
+    private final AuthenticationContext authenticationContext;
+
+    public EventStreamController(EventStreams eventStreams, AuthenticationContext authenticationContext) {
+        this.eventStreams = eventStreams;
+        this.authenticationContext = authenticationContext;
+    }
+
+    /**
+     * Streams the authenticated user's committed changes as server-sent events. Each
+     * {@code change} event carries the resource, its ID and the action; a {@code resync} event
+     * means changes were dropped and the client should refetch.
+     *
+     * @return the event stream, which ends after a timeout and should then be reopened
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return eventStreams.open(authenticationContext.getCurrentUserId());
+    }
+}
@@ -0,0 +1,149 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The open event streams on this instance, by user, and the fan-out of committed
+ * {@link ChangeEvent}s to them, whether committed here or, via the {@link ClusterBus}, on another
+ * instance. Each stream gets a virtual writer thread that is parked while the stream is idle, and
+ * the servlet request itself runs asynchronously, so an idle connection costs a socket, a parked
+ * virtual thread and an empty buffer rather than a request thread.
+ */
+@Component
+public class EventStreams implements MeterBinder {
+
+    private final JsonMapper jsonMapper;
+    private final int bufferCapacity;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final ThreadFactory writerThreads = Thread.ofVirtual().name("event-stream-", 0).factory();
+    private final Map<Long, Set<EventStream>> streamsByUser = new ConcurrentHashMap<>();
+    private final AtomicLong openStreams = new AtomicLong();
+    private final AtomicLong droppedChanges = new AtomicLong();
+
+    public EventStreams(JsonMapper jsonMapper,
+                        @Value("${events.stream.buffer-size:64}") int bufferCapacity,
+                        @Value("${events.stream.heartbeat:25s}") Duration heartbeat,
+                        @Value("${events.stream.timeout:30m}") Duration timeout) {
+        this.jsonMapper = jsonMapper;
+        this.bufferCapacity = bufferCapacity;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Opens a stream of the given user's changes. It ends after the configured timeout, and
+     * clients are expected to reconnect.
+     *
+     * @param userId the user whose changes are streamed
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter open(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        EventStream stream = new EventStream(emitter, bufferCapacity, heartbeat, userId);
+
+        streamsByUser.compute(userId, (id, streams) -> {
+            Set<EventStream> result = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            result.add(stream);
+            return result;
+        });
+        openStreams.incrementAndGet();
+
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(ex -> stream.close());
+        writerThreads.newThread(() -> stream.run(this::unregister)).start();
+        return emitter;
+    }
+
+    /**
+     * Forgets a stream whose writer has stopped, and completes its emitter.
+     */
+    void unregister(EventStream stream) {
+        streamsByUser.computeIfPresent(stream.userId(), (id, streams) -> {
+            if (streams.remove(stream)) {
+                openStreams.decrementAndGet();
+            }
+            return streams.isEmpty() ? null : streams;
+        });
+        stream.emitter().complete();
+    }
+
+    /**
+     * Queues a change committed on this instance on each of its owner's streams.
+     */
+    @TransactionalEventListener
+    public void onChange(ChangeEvent event) {
+        deliver(event);
+    }
+
+    /**
+     * Queues a change committed on another instance on each of its owner's streams here.
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        deliver(event.change());
+    }
+
+    /**
+     * Asks every stream's client to refetch, since changes made on other instances were missed.
+     */
+    @EventListener
+    public void onClusterBusReconnected(ClusterBusReconnectedEvent event) {
+        streamsByUser.values().forEach(streams -> streams.forEach(EventStream::requestResync));
+    }
+
+    /**
+     * Only serializes the change if its owner has a stream open here.
+     */
+    private void deliver(ChangeEvent event) {
+        Set<EventStream> streams = streamsByUser.get(event.userId());
+        if (streams == null) {
+            return;
+        }
+        String change = jsonMapper.writeValueAsString(
+                new ChangeNotification(event.resource(), event.id(), event.action()));
+        for (EventStream stream : streams) {
+            if (stream.offer(change)) {
+                droppedChanges.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Ends every open stream, so shutdown isn't held up by long-lived requests.
+     */
+    @PreDestroy
+    void closeAll() {
+        streamsByUser.values().forEach(streams -> streams.forEach(stream -> stream.emitter().complete()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.streams.open", openStreams, AtomicLong::get).register(registry);
+        FunctionCounter.builder("events.changes.dropped", droppedChanges, AtomicLong::get).register(registry);
+    }
+
+    /**
+     * The data of a {@code change} event.
+     */
+    record ChangeNotification(ChangedResource resource, Long id, ChangeAction action) {
+    }
+}
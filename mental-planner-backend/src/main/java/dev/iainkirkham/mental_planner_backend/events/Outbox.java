@@ -0,0 +1,121 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records each {@link ChangeEvent} in the {@code outbox} table, in the transaction that made the
+ * change, for the {@link OutboxRelay} to carry out its side effects once it has committed. A
+ * transaction's changes are written in one statement just before it commits, after its pending
+ * entity writes have been flushed: by then it holds the row locks of everything it changed, so
+ * changes to the same row get outbox IDs in the order they commit. The statement goes through the
+ * transaction's entity manager, so it counts towards the request's statements like any other write.
+ * <p>
+ * Nothing is recorded when there is no {@link OutboxHandler} to relay it to.
+ */
+@Component
+public class Outbox implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<OutboxHandler> handlers;
+    private final ObjectProvider<OutboxRelay> relay;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean enabled;
+
+    public Outbox(EntityManagerFactory entityManagerFactory,
+                  ObjectProvider<OutboxHandler> handlers,
+                  ObjectProvider<OutboxRelay> relay) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.handlers = handlers;
+        this.relay = relay;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        enabled = handlers.stream().findAny().isPresent();
+    }
+
+    /**
+     * @return this instance's ID, recorded as each entry's origin
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Adds a change to its transaction's pending entries. A change published outside a
+     * transaction is never announced after commit either, so it is not recorded.
+     */
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(event);
+    }
+
+    private static <T> String arrayLiteral(List<ChangeEvent> changes, Function<ChangeEvent, T> value) {
+        return changes.stream()
+                .map(value)
+                .map(element -> element == null ? "NULL" : element.toString())
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    /**
+     * One transaction's changes, written just before it commits.
+     */
+    private final class PendingEntries implements TransactionSynchronization {
+
+        private final List<ChangeEvent> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            if (entityManager == null) {
+                throw new IllegalStateException("No transactional EntityManager to record changes with");
+            }
+            entityManager.flush();
+            entityManager.createNativeQuery("""
+                    INSERT INTO outbox (user_id, resource, resource_id, action, origin)
+                    SELECT user_id, resource, resource_id, action, :origin
+                    FROM unnest(CAST(:userIds AS BIGINT[]), CAST(:resources AS VARCHAR[]),
+                                CAST(:resourceIds AS BIGINT[]), CAST(:actions AS VARCHAR[]))
+                        AS change(user_id, resource, resource_id, action)""")
+                    .setParameter("origin", instanceId)
+                    .setParameter("userIds", arrayLiteral(changes, ChangeEvent::userId))
+                    .setParameter("resources", arrayLiteral(changes, ChangeEvent::resource))
+                    .setParameter("resourceIds", arrayLiteral(changes, ChangeEvent::id))
+                    .setParameter("actions", arrayLiteral(changes, ChangeEvent::action))
+                    .executeUpdate();
+        }
+
+        @Override
+        public void afterCommit() {
+            relay.ifAvailable(OutboxRelay::wake);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(Outbox.this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+/**
+ * A committed change taken from the {@link Outbox} by the {@link OutboxRelay}.
+ *
+ * @param id the entry's ID, which orders each user's entries; it matches the commit order only for
+ *           changes to the same row
+ * @param change the change
+ * @param origin the ID of the {@link Outbox} instance the change was committed on
+ * @param lagMillis how long the entry waited to be relayed
+ */
+public record OutboxEntry(long id, ChangeEvent change, String origin, long lagMillis) {
+}
@@ -0,0 +1,20 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import java.util.List;
+
+/**
+ * Carries out a side effect of committed changes, for the {@link OutboxRelay}. Runs in the relay's
+ * transaction, which also removes the entries from the outbox: database writes made here commit
+ * with that removal, so they happen exactly once, and throwing rolls the batch back to be relayed
+ * again.
+ */
+public interface OutboxHandler {
+
+    /**
+     * @param entries a batch of entries in outbox ID order. Changes to the same row are in the order
+     *                they were committed; changes to different rows, even a single user's, may not
+     *                be, since IDs are taken before commit and concurrent transactions can commit
+     *                in the other order
+     */
+    void relay(List<OutboxEntry> entries);
+}
@@ -0,0 +1,204 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the {@link Outbox}: {@code outbox.relay.workers} threads per instance each take up to
+ * {@code outbox.relay.batch-size} entries at a time and pass them to every {@link OutboxHandler},
+ * in the transaction that deletes them. A relay takes whole users, under a transaction-scoped
+ * advisory lock per user that it skips if another relay holds it, so each user's entries are
+ * relayed by one thread at a time, in outbox ID order, while different users' go in parallel
+ * across threads and instances. That order is only the commit order for changes to the same row
+ * (see {@link Outbox}): a transaction that took a lower ID can commit after one with a higher ID,
+ * and its entry is then relayed after the later one.
+ * <p>
+ * Workers are woken as soon as a transaction on this instance commits entries, and otherwise
+ * look every {@code outbox.relay.poll-interval}, which picks up entries another instance left
+ * behind when it stopped. {@code outbox.relayed} counts relayed entries and {@code outbox.lag}
+ * times how long they waited. {@code outbox.relay.failures} counts failed batches by exception;
+ * after each failure in a row a worker waits twice as long, up to a minute, and commits on this
+ * instance don't wake it early.
+ */
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxHandler> handlers;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final MeterRegistry meterRegistry;
+    private final Counter relayed;
+    private final Timer lag;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       List<OutboxHandler> handlers,
+                       @Value("${outbox.relay.workers:2}") int workerCount,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.poll-interval:1s}") Duration pollInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handlers = handlers;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.meterRegistry = meterRegistry;
+        this.relayed = Counter.builder("outbox.relayed").register(meterRegistry);
+        this.lag = Timer.builder("outbox.lag").register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (handlers.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("outbox-relay-" + i).start(this::work));
+        }
+    }
+
+    /**
+     * Lets each worker finish the batch it is relaying. Entries left behind are relayed by the
+     * next instance to look.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        workers.forEach(LockSupport::unpark);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_TIMEOUT_MILLIS);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Wakes the workers, for entries that have just been committed.
+     */
+    public void wake() {
+        workers.forEach(LockSupport::unpark);
+    }
+
+    /**
+     * A worker's loop: relays batches until there is nothing it can take, then waits to be woken
+     * or for the poll interval. A batch that fails is rolled back and retried after a backoff that
+     * grows with each failure in a row.
+     */
+    private void work() {
+        int failures = 0;
+        while (running) {
+            try {
+                int count = relayBatch();
+                failures = 0;
+                if (count == 0) {
+                    LockSupport.parkNanos(pollInterval.toNanos());
+                }
+            } catch (RuntimeException ex) {
+                failures++;
+                long deadline = System.nanoTime() + backoff(failures).toNanos();
+                for (long wait = deadline - System.nanoTime(); running && wait > 0; wait = deadline - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the wait before relaying again after {@code failures} failed batches in a row
+     */
+    Duration backoff(int failures) {
+        Duration wait = pollInterval.multipliedBy(1L << Math.min(failures - 1, 20));
+        return wait.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : wait;
+    }
+
+    /**
+     * Takes the oldest waiting users' entries that no other relay holds, up to the batch size, and
+     * passes them to the handlers in the transaction that deletes them.
+     *
+     * @return how many entries were relayed
+     */
+    int relayBatch() {
+        List<OutboxEntry> batch;
+        try {
+            batch = takeAndRelay();
+        } catch (RuntimeException ex) {
+            Counter.builder("outbox.relay.failures").tag("exception", ex.getClass().getSimpleName())
+                    .register(meterRegistry).increment();
+            throw ex;
+        }
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        relayed.increment(batch.size());
+        for (OutboxEntry entry : batch) {
+            lag.record(entry.lagMillis(), TimeUnit.MILLISECONDS);
+        }
+        return batch.size();
+    }
+
+    private List<OutboxEntry> takeAndRelay() {
+        return transactionTemplate.execute(status -> {
+            // Locks are only tried on the oldest users, and only the users locked are deleted from.
+            // DELETE ... RETURNING skips rows another relay deleted after this statement began
+            List<OutboxEntry> entries = new ArrayList<>(jdbcTemplate.query("""
+                    WITH waiting AS (
+                        SELECT user_id FROM outbox GROUP BY user_id ORDER BY min(id) LIMIT ?),
+                    claimed AS (
+                        SELECT user_id FROM waiting
+                        WHERE pg_try_advisory_xact_lock(hashtext('outbox'), CAST(user_id % 2147483647 AS INTEGER))),
+                    batch AS (
+                        SELECT o.id FROM outbox o JOIN claimed USING (user_id) ORDER BY o.id LIMIT ?)
+                    DELETE FROM outbox o USING batch WHERE o.id = batch.id
+                    RETURNING o.id, o.user_id, o.resource, o.resource_id, o.action, o.origin,
+                        EXTRACT(EPOCH FROM clock_timestamp() - o.created_at) * 1000""",
+                    (rs, i) -> new OutboxEntry(rs.getLong(1),
+                            new ChangeEvent(rs.getLong(2), ChangedResource.valueOf(rs.getString(3)),
+                                    rs.getObject(4, Long.class), ChangeAction.valueOf(rs.getString(5))),
+                            rs.getString(6), Math.max(0, rs.getLong(7))),
+                    batchSize, batchSize));
+            if (entries.isEmpty()) {
+                return List.of();
+            }
+            entries.sort(Comparator.comparingLong(OutboxEntry::id));
+            List<OutboxEntry> ordered = List.copyOf(entries);
+            for (OutboxHandler handler : handlers) {
+                handler.relay(ordered);
+            }
+            return ordered;
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+/**
+ * A change committed on another instance, received over the {@link ClusterBus} and republished
+ * here as an application event. Listeners apply it to this instance's in-memory state: event
+ * streams, caches.
+ *
+ * @param change the change as published on the other instance
+ */
+public record RemoteChangeEvent(ChangeEvent change) {
+}
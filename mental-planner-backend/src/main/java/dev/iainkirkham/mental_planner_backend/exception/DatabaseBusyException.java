@@ -0,0 +1,15 @@
+package dev.iainkirkham.mental_planner_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request could not get a database connection within the configured
+ * queue timeout, so it is shed with 503 instead of queueing behind a saturated pool.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseBusyException extends RuntimeException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
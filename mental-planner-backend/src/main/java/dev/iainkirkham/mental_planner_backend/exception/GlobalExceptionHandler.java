@@ -1,13 +1,20 @@
 package dev.iainkirkham.mental_planner_backend.exception;
 
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.Errors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.sql.SQLException;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -20,13 +27,39 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     /**
      * Handles validation errors from @Valid on request DTOs.
      * Returns a structured list of field-level error messages.
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
-        List<Map<String, String>> fieldErrors = ex.getBindingResult().getFieldErrors().stream()
+        return validationFailed(ex.getBindingResult());
+    }
+
+    /**
+     * Handles merge patches that can't be applied. A patch whose result fails validation gets
+     * the same field-level response as an invalid request DTO; any other bad patch is treated
+     * like a malformed body.
+     */
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidPatch(InvalidPatchException ex) {
+        if (ex.getErrors() != null) {
+            return validationFailed(ex.getErrors());
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Malformed request body");
+        body.put("message", ex.getMessage() + ".");
+
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    private ResponseEntity<Map<String, Object>> validationFailed(Errors errors) {
+        List<Map<String, String>> fieldErrors = errors.getFieldErrors().stream()
                 .map(error -> {
                     Map<String, String> errorDetail = new LinkedHashMap<>();
                     errorDetail.put("field", error.getField());
@@ -44,6 +77,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    /**
+     * Handles task series whose recurrence rule can't be used.
+     */
+    @ExceptionHandler(InvalidRecurrenceRuleException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRecurrenceRule(InvalidRecurrenceRuleException ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Invalid recurrence rule");
+        body.put("message", ex.getMessage());
+
+        return ResponseEntity.badRequest().body(body);
+    }
+
     /**
      * Handles malformed JSON or unreadable request bodies.
      */
@@ -87,6 +134,45 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    /**
+     * Handles a write that references a row which is gone, such as a subtask added to a task that
+     * was deleted or moved to cold storage after its ownership was last checked. That is a 404,
+     * like any other missing resource. Other integrity violations are unexpected.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (!(NestedExceptionUtils.getMostSpecificCause(ex) instanceof SQLException sqlException)
+                || !FOREIGN_KEY_VIOLATION.equals(sqlException.getSQLState())) {
+            return handleGenericException(ex);
+        }
+        return handleResourceNotFound(new ResourceNotFoundException("Referenced resource not found"));
+    }
+
+    /**
+     * Handles requests that could not get a database connection in time (the concurrency gate's
+     * queue timeout, or the pool itself). Sheds load with a 503 so clients back off and retry.
+     */
+    @ExceptionHandler({DatabaseBusyException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<Map<String, Object>> handleDatabaseUnavailable(Exception ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service unavailable");
+        body.put("message", "The server is busy. Please try again shortly.");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    /**
+     * Handles a client that disconnected mid-response, such as a closed event stream. There is
+     * nobody left to send an error body to.
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientDisconnected(AsyncRequestNotUsableException ex) {
+    }
+
     /**
      * Catch-all handler for unexpected exceptions.
      * Prevents internal details from leaking to the client.
@@ -0,0 +1,32 @@
+package dev.iainkirkham.mental_planner_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a JSON Merge Patch can't be applied: the patch isn't a JSON object, a value has the
+ * wrong type, or the patched resource fails validation. Only the last case carries field errors.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPatchException extends RuntimeException {
+
+    private final transient Errors errors;
+
+    public InvalidPatchException(String message, Throwable cause) {
+        super(message, cause);
+        this.errors = null;
+    }
+
+    public InvalidPatchException(Errors errors) {
+        super("Patched resource failed validation");
+        this.errors = errors;
+    }
+
+    /**
+     * @return the validation errors of the patched resource, or null if the patch itself was invalid
+     */
+    public Errors getErrors() {
+        return errors;
+    }
+}
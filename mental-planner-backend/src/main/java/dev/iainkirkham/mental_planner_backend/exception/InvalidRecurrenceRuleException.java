@@ -0,0 +1,15 @@
+package dev.iainkirkham.mental_planner_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a task series' recurrence rule is outside the supported RRULE subset, or can
+ * never produce an occurrence.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRecurrenceRuleException extends RuntimeException {
+    public InvalidRecurrenceRuleException(String message) {
+        super(message);
+    }
+}
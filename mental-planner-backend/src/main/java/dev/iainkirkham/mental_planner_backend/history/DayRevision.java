@@ -0,0 +1,51 @@
+package dev.iainkirkham.mental_planner_backend.history;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Revision marker for one user's history of one kind on one UTC day.
+ * The counter only moves when a day that has already passed is written to; see {@link HistoryCache}.
+ */
+@Entity
+@Table(name = "day_revision")
+@IdClass(DayRevision.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class DayRevision {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private HistoryKind kind;
+
+    @Id
+    @Column(name = "revision_date", nullable = false)
+    private LocalDate revisionDate;
+
+    @Column(nullable = false)
+    private Long revision;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private HistoryKind kind;
+        private LocalDate revisionDate;
+    }
+}
@@ -0,0 +1,41 @@
+package dev.iainkirkham.mental_planner_backend.history;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DayRevisionRepository extends JpaRepository<DayRevision, DayRevision.Key> {
+
+    /**
+     * Find the revision markers for a user's history within a date range.
+     * Days that have never been revised have no row.
+     * @param userId the internal user ID
+     * @param kind the history kind
+     * @param startDate the first day (inclusive)
+     * @param endDate the last day (inclusive)
+     * @return markers ordered by day
+     */
+    List<DayRevision> findByUserIdAndKindAndRevisionDateBetweenOrderByRevisionDate(
+        Long userId,
+        HistoryKind kind,
+        LocalDate startDate,
+        LocalDate endDate
+    );
+
+    /**
+     * Bumps a day's revision, creating the marker on the first write.
+     * @param userId the internal user ID
+     * @param kind the history kind, by name
+     * @param revisionDate the day written to
+     * @return the number of rows inserted or updated
+     */
+    @Modifying
+    @Query(value = "INSERT INTO day_revision (user_id, kind, revision_date) VALUES (:userId, :kind, :revisionDate) "
+            + "ON CONFLICT (user_id, kind, revision_date) DO UPDATE SET revision = day_revision.revision + 1",
+            nativeQuery = true)
+    int bump(@Param("userId") Long userId, @Param("kind") String kind, @Param("revisionDate") LocalDate revisionDate);
+}
@@ -0,0 +1,130 @@
+package dev.iainkirkham.mental_planner_backend.history;
+
+import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * HTTP caching for date-range reads of histories that have settled, such as last month's mood
+ * entries. Such a range almost never changes, so it is served with an ETag that is computed from
+ * per-day revision markers rather than the entries themselves. A revalidation whose ETag still
+ * matches costs one small index read and returns 304.
+ * <p>
+ * The response is {@code private, no-cache} rather than given a max-age: a backdated write can
+ * still land in a settled day, and only a revalidation lets the client see the bumped ETag.
+ * <p>
+ * Only writes into days before today (UTC) bump a marker. A range is cacheable once it ends before
+ * yesterday, so a write that starts while its day is still current cannot commit after a cacheable
+ * response for that day has been served.
+ */
+@Component
+public class HistoryCache {
+
+    private final DayRevisionRepository dayRevisionRepository;
+    private final AuthenticationContext authenticationContext;
+    private final CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    private final Clock clock = Clock.systemUTC();
+
+    public HistoryCache(DayRevisionRepository dayRevisionRepository,
+                        AuthenticationContext authenticationContext) {
+        this.dayRevisionRepository = dayRevisionRepository;
+        this.authenticationContext = authenticationContext;
+    }
+
+    /**
+     * Records writes to a user's history at the given instants, bumping the marker of each
+     * distinct past day. Must run in the write's transaction so the bump commits with it.
+     *
+     * @param kind the history written to
+     * @param userId the owner of the history
+     * @param instants the instants of the rows written, e.g. both the old and new time of a moved entry
+     */
+    public void recordWrite(HistoryKind kind, Long userId, Instant... instants) {
+        LocalDate today = LocalDate.now(clock);
+        Arrays.stream(instants)
+                .map(instant -> LocalDate.ofInstant(instant, ZoneOffset.UTC))
+                .filter(day -> day.isBefore(today))
+                .distinct()
+                .forEach(day -> dayRevisionRepository.bump(userId, kind.name(), day));
+    }
+
+    /**
+     * Builds the response for a date-range read: 200 with the entries, or 204 (No Content) if
+     * there are none. When the range has settled, the response is also cacheable, and a request
+     * whose {@code If-None-Match} matches gets 304 without the entries being loaded.
+     *
+     * @param kind the history being read
+     * @param startDate the start of the range (inclusive)
+     * @param endDate the end of the range (inclusive)
+     * @param request the current request, for its conditional and {@code Accept} headers
+     * @param loader loads the entries in the range
+     */
+    public <T> ResponseEntity<List<T>> rangeResponse(HistoryKind kind, Instant startDate, Instant endDate,
+                                                     WebRequest request, Supplier<List<T>> loader) {
+        if (!isSettled(endDate)) {
+            List<T> entries = loader.get();
+            return entries.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(entries);
+        }
+
+        String etag = etag(kind, startDate, endDate, request.getHeader(HttpHeaders.ACCEPT));
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        List<T> entries = loader.get();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(entries.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK)
+                .eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT);
+        return entries.isEmpty() ? builder.build() : builder.body(entries);
+    }
+
+    private boolean isSettled(Instant endDate) {
+        LocalDate yesterday = LocalDate.now(clock).minusDays(1);
+        return endDate.isBefore(yesterday.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    /**
+     * Hashes the request's identity together with the revision of every day it covers. The
+     * {@code Accept} header is included because JSON, CBOR and Smile bodies differ.
+     */
+    private String etag(HistoryKind kind, Instant startDate, Instant endDate, String accept) {
+        Long userId = authenticationContext.getCurrentUserId();
+        StringBuilder key = new StringBuilder()
+                .append(userId).append('|').append(kind).append('|')
+                .append(startDate).append('|').append(endDate).append('|').append(accept);
+        List<DayRevision> revisions = dayRevisionRepository.findByUserIdAndKindAndRevisionDateBetweenOrderByRevisionDate(
+                userId, kind,
+                LocalDate.ofInstant(startDate, ZoneOffset.UTC), LocalDate.ofInstant(endDate, ZoneOffset.UTC));
+        for (DayRevision revision : revisions) {
+            key.append('|').append(revision.getRevisionDate()).append('=').append(revision.getRevision());
+        }
+        return '"' + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
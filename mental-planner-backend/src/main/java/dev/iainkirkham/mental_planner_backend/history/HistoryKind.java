@@ -0,0 +1,9 @@
+package dev.iainkirkham.mental_planner_backend.history;
+
+/**
+ * The per-day histories whose closed date ranges can be cached by clients.
+ */
+public enum HistoryKind {
+    MOOD,
+    POMODORO
+}
@@ -0,0 +1,83 @@
+package dev.iainkirkham.mental_planner_backend.history;
+
+import dev.iainkirkham.mental_planner_backend.jobs.ClusterScheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps the monthly partitions of the time-ordered tables ahead of the data. Runs on startup and
+ * then daily, creating the current month and {@code history.partitions.months-ahead} months after it,
+ * plus any month whose rows have fallen into a table's DEFAULT partition. The partitions themselves
+ * are created by the {@code create_monthly_partition} database function, which is idempotent and
+ * safe to call from several instances at once.
+ */
+@Component
+public class HistoryPartitionMaintenance {
+
+    /**
+     * A monthly range-partitioned table, with its partition key expressed as a UTC timestamp.
+     */
+    record PartitionedTable(String name, String utcKey) {
+    }
+
+    static final List<PartitionedTable> PARTITIONED_TABLES = List.of(
+            new PartitionedTable("mood_entry", "date_time AT TIME ZONE 'UTC'"),
+            new PartitionedTable("pomodoro_session", "start_time AT TIME ZONE 'UTC'"),
+            new PartitionedTable("task_time_entry", "entry_date::timestamp"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final Clock clock = Clock.systemUTC();
+
+    public HistoryPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       @Value("${history.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createMissingPartitions();
+    }
+
+    /**
+     * Creates every missing partition.
+     *
+     * @return the number of partitions created
+     */
+    @ClusterScheduled(name = "history.partitions", cron = "${history.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    public int createMissingPartitions() {
+        LocalDate currentMonth = LocalDate.now(clock).withDayOfMonth(1);
+        int created = 0;
+        for (PartitionedTable table : PARTITIONED_TABLES) {
+            SortedSet<LocalDate> months = new TreeSet<>(monthsInDefaultPartition(table));
+            for (int i = 0; i <= monthsAhead; i++) {
+                months.add(currentMonth.plusMonths(i));
+            }
+            for (LocalDate month : months) {
+                Boolean createdMonth = jdbcTemplate.queryForObject(
+                        "SELECT create_monthly_partition(?, ?)", Boolean.class, table.name(), month);
+                if (Boolean.TRUE.equals(createdMonth)) {
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    private List<LocalDate> monthsInDefaultPartition(PartitionedTable table) {
+        // Table names and key expressions come from PARTITIONED_TABLES, never from input
+        String sql = "SELECT DISTINCT date_trunc('month', %s)::date FROM %s_default"
+                .formatted(table.utcKey(), table.name());
+        return jdbcTemplate.queryForList(sql, LocalDate.class);
+    }
+}
@@ -0,0 +1,33 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a no-argument bean method as a cron job that runs on only one instance per fire, however
+ * many instances are running. Used like {@code @Scheduled(cron = ..., zone = ...)}; every instance
+ * fires the job, and {@link ScheduledJobRunner} lets the first to claim the fire run it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClusterScheduled {
+
+    /**
+     * The job's name, unique across the application; it keys the lock and the run history.
+     */
+    String name();
+
+    /**
+     * A Spring cron expression, which may be a {@code ${...}} placeholder. {@code "-"} disables the job.
+     */
+    String cron();
+
+    /**
+     * The time zone the cron expression is evaluated in.
+     */
+    String zone() default "UTC";
+}
@@ -0,0 +1,102 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the {@link ClusterScheduled} methods on the application's beans and registers each with
+ * the scheduler on a cron trigger, running every fire through the {@link ScheduledJobRunner}.
+ */
+@Component
+public class ClusterScheduledJobs implements SchedulingConfigurer {
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final ScheduledJobRunner scheduledJobRunner;
+
+    public ClusterScheduledJobs(ConfigurableListableBeanFactory beanFactory, ScheduledJobRunner scheduledJobRunner) {
+        this.beanFactory = beanFactory;
+        this.scheduledJobRunner = scheduledJobRunner;
+    }
+
+    /**
+     * Runs once the context has been refreshed, so every bean already exists.
+     *
+     * @throws IllegalStateException if two jobs share a name
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        Set<String> names = new HashSet<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = ScopedProxyUtils.isScopedTarget(beanName) ? null : beanFactory.getType(beanName, false);
+            if (type == null) {
+                continue;
+            }
+            Map<Method, ClusterScheduled> jobs = MethodIntrospector.selectMethods(ClassUtils.getUserClass(type),
+                    (MethodIntrospector.MetadataLookup<ClusterScheduled>) method ->
+                            AnnotatedElementUtils.findMergedAnnotation(method, ClusterScheduled.class));
+            jobs.forEach((method, job) -> {
+                if (!names.add(job.name())) {
+                    throw new IllegalStateException("More than one @ClusterScheduled job is named '" + job.name() + "'");
+                }
+                register(registrar, beanName, method, job);
+            });
+        }
+    }
+
+    private void register(ScheduledTaskRegistrar registrar, String beanName, Method method, ClusterScheduled job) {
+        String cron = beanFactory.resolveEmbeddedValue(job.cron());
+        if (cron == null || Scheduled.CRON_DISABLED.equals(cron)) {
+            return;
+        }
+        Object bean = beanFactory.getBean(beanName);
+        Method invocable = AopUtils.selectInvocableMethod(method, bean.getClass());
+        ReflectionUtils.makeAccessible(invocable);
+        FireTimeTrigger trigger = new FireTimeTrigger(new CronTrigger(cron, ZoneId.of(job.zone())));
+        registrar.addTriggerTask(() -> scheduledJobRunner.run(job.name(), trigger.scheduledAt(),
+                () -> ReflectionUtils.invokeMethod(invocable, bean)), trigger);
+    }
+
+    /**
+     * A cron trigger that remembers the time it last scheduled. The scheduler only asks for the
+     * next time once the current run has finished, so while a run is in progress this is the time
+     * it was scheduled for, which every instance agrees on.
+     */
+    private static final class FireTimeTrigger implements Trigger {
+
+        private final CronTrigger cron;
+        private volatile Instant scheduledAt;
+
+        FireTimeTrigger(CronTrigger cron) {
+            this.cron = cron;
+        }
+
+        @Override
+        public Instant nextExecution(TriggerContext triggerContext) {
+            scheduledAt = cron.nextExecution(triggerContext);
+            return scheduledAt;
+        }
+
+        Instant scheduledAt() {
+            return scheduledAt;
+        }
+    }
+}
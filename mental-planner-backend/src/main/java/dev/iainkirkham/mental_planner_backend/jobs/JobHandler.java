@@ -0,0 +1,21 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Processes the jobs of one queue, for {@link JobWorkers}. A handler that throws has its job
+ * retried with backoff. Jobs run at least once: one whose worker died, or whose lease lapsed
+ * while it ran, runs again, so handlers should be idempotent.
+ */
+public interface JobHandler {
+
+    /**
+     * @return the name of the queue this handler processes, as passed to {@link JobQueue#enqueue}
+     */
+    String queue();
+
+    /**
+     * @param payload the payload the job was enqueued with
+     */
+    void handle(JsonNode payload);
+}
@@ -0,0 +1,54 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Enqueues background jobs for {@link JobWorkers}, for work that shouldn't run on a request
+ * thread. The insert joins the caller's transaction, if there is one, so a job exists only if
+ * the writes it was enqueued with commit.
+ */
+@Component
+public class JobQueue {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    public JobQueue(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Enqueues a job to run as soon as a worker is free, at the default priority.
+     *
+     * @param queue the queue, which names the {@link JobHandler} to run it
+     * @param payload the job's payload, serialized as JSON
+     * @return the job's ID
+     */
+    public long enqueue(String queue, Object payload) {
+        return enqueue(queue, payload, 0, null);
+    }
+
+    /**
+     * Enqueues a job.
+     *
+     * @param queue the queue, which names the {@link JobHandler} to run it
+     * @param payload the job's payload, serialized as JSON
+     * @param priority higher runs first among ready jobs
+     * @param runAt when the job becomes ready, or null for now
+     * @return the job's ID
+     */
+    public long enqueue(String queue, Object payload, int priority, Instant runAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO job (queue, priority, run_at, payload)
+                VALUES (?, ?, COALESCE(CAST(? AS TIMESTAMPTZ), now()), CAST(? AS JSONB))
+                RETURNING id""",
+                Long.class, queue, priority, runAt == null ? null : Timestamp.from(runAt),
+                jsonMapper.writeValueAsString(payload));
+    }
+}
@@ -0,0 +1,380 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The worker pool for {@link JobQueue}'s jobs: {@code jobs.queue.workers} threads per instance,
+ * each claiming up to {@code jobs.queue.batch-size} ready jobs at a time for the queues this
+ * instance has a {@link JobHandler} for. Claims use FOR UPDATE SKIP LOCKED, so workers on every
+ * instance take disjoint batches without waiting on each other, highest priority first.
+ * <p>
+ * Claiming a job pushes its run_at out by {@code jobs.queue.lease} and counts the attempt, in one
+ * short statement, so no transaction stays open while jobs run. While a batch runs, a heartbeat
+ * renews the lease of every job this instance still holds every third of the lease, so jobs
+ * waiting behind a slow one in their batch aren't claimed again elsewhere. A job that succeeds is
+ * deleted straight away. One that throws is retried after {@code jobs.queue.backoff}, doubling
+ * with each attempt, until {@code jobs.queue.max-attempts} have failed; then it is kept with
+ * failed_at set. A job whose worker dies becomes ready again when its lease lapses. Completing a
+ * job checks its attempt count, so a worker whose lease lapsed can't touch the job once it has
+ * been claimed again.
+ * <p>
+ * Per queue, {@code jobs.queue.latency} times how long ready jobs waited to be claimed and
+ * {@code jobs.queue.processing} how long they ran, by outcome. {@code jobs.queue.depth} and
+ * {@code jobs.queue.age} gauge the ready jobs and how long the oldest has waited, as of the last
+ * refresh. {@code jobs.queue.worker.errors} counts unexpected errors that interrupted a
+ * worker's batch.
+ */
+@Component
+public class JobWorkers implements SmartLifecycle {
+
+    static final String SUCCEEDED = "SUCCEEDED";
+    static final String RETRYING = "RETRYING";
+    static final String FAILED = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, JobHandler> handlers = new LinkedHashMap<>();
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final String instanceId = ScheduledJobRunner.newInstanceId();
+    private final String queuePlaceholders;
+    private final Map<String, AtomicLong> depths = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> ageSeconds = new LinkedHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Map<Long, Integer> held = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("job-lease-heartbeat").daemon().factory());
+    private final Counter workerErrors;
+    private ScheduledFuture<?> heartbeat;
+    private volatile boolean running;
+
+    public JobWorkers(JdbcTemplate jdbcTemplate,
+                      JsonMapper jsonMapper,
+                      MeterRegistry meterRegistry,
+                      List<JobHandler> handlers,
+                      @Value("${jobs.queue.workers:8}") int workerCount,
+                      @Value("${jobs.queue.batch-size:10}") int batchSize,
+                      @Value("${jobs.queue.lease:5m}") Duration lease,
+                      @Value("${jobs.queue.poll-interval:1s}") Duration pollInterval,
+                      @Value("${jobs.queue.max-attempts:5}") int maxAttempts,
+                      @Value("${jobs.queue.backoff:10s}") Duration backoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        for (JobHandler handler : handlers) {
+            if (this.handlers.putIfAbsent(handler.queue(), handler) != null) {
+                throw new IllegalStateException("More than one JobHandler for queue '" + handler.queue() + "'");
+            }
+        }
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.workerErrors = Counter.builder("jobs.queue.worker.errors").register(meterRegistry);
+        this.queuePlaceholders = String.join(", ", Collections.nCopies(Math.max(1, this.handlers.size()), "?"));
+        for (String queue : this.handlers.keySet()) {
+            depths.put(queue, new AtomicLong());
+            ageSeconds.put(queue, new AtomicLong());
+            Gauge.builder("jobs.queue.depth", depths.get(queue), AtomicLong::get).tag("queue", queue)
+                    .register(meterRegistry);
+            Gauge.builder("jobs.queue.age", ageSeconds.get(queue), AtomicLong::get).tag("queue", queue)
+                    .baseUnit("seconds").register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (handlers.isEmpty()) {
+            return;
+        }
+        long heartbeatMillis = Math.max(1, lease.toMillis() / 3);
+        heartbeat = heartbeats.scheduleAtFixedRate(
+                this::renewLeases, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("job-worker-" + i).start(this::work));
+        }
+    }
+
+    /**
+     * Lets each worker finish the job it is running. Jobs claimed but not started are handed back.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        workers.forEach(LockSupport::unpark);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_TIMEOUT_MILLIS);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+            heartbeat = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * A worker's loop: claims a batch, runs it, and waits for the poll interval whenever there
+     * is nothing to claim. An error that escapes a batch is counted and the worker carries on;
+     * the batch's unfinished jobs run again once their leases lapse.
+     */
+    private void work() {
+        while (running) {
+            List<ClaimedJob> batch = List.of();
+            try {
+                batch = claim(batchSize);
+                if (batch.isEmpty()) {
+                    pause();
+                    continue;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    if (!running) {
+                        release(batch.subList(i, batch.size()));
+                        break;
+                    }
+                    ClaimedJob job = batch.get(i);
+                    if (process(job)) {
+                        complete(job);
+                    }
+                    held.remove(job.id(), job.attempts());
+                }
+            } catch (DataAccessException ex) {
+                pause();
+            } catch (Throwable ex) {
+                workerErrors.increment();
+                pause();
+            } finally {
+                batch.forEach(job -> held.remove(job.id(), job.attempts()));
+            }
+        }
+    }
+
+    /**
+     * Claims up to {@code limit} ready jobs for this instance's queues, highest priority first,
+     * and holds their leases until they are finished or handed back.
+     */
+    List<ClaimedJob> claim(int limit) {
+        if (handlers.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(handlers.keySet());
+        args.add(limit);
+        args.add(seconds(lease));
+        args.add(instanceId);
+        List<ClaimedJob> claimed = jdbcTemplate.query("""
+                WITH due AS (
+                    SELECT id, run_at FROM job
+                    WHERE failed_at IS NULL AND run_at <= now() AND queue IN (%s)
+                    ORDER BY priority DESC, run_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                UPDATE job SET run_at = now() + make_interval(secs => ?), attempts = job.attempts + 1, locked_by = ?
+                FROM due WHERE job.id = due.id
+                RETURNING job.id, job.queue, job.priority, job.attempts, CAST(job.payload AS TEXT),
+                    EXTRACT(EPOCH FROM now() - due.run_at) * 1000""".formatted(queuePlaceholders),
+                (rs, i) -> new ClaimedJob(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4),
+                        rs.getString(5), Math.max(0, rs.getLong(6))),
+                args.toArray());
+        claimed.sort(Comparator.comparingInt(ClaimedJob::priority).reversed()
+                .thenComparing(Comparator.comparingLong(ClaimedJob::waitedMillis).reversed()));
+        for (ClaimedJob job : claimed) {
+            held.put(job.id(), job.attempts());
+            Timer.builder("jobs.queue.latency").tag("queue", job.queue()).register(meterRegistry)
+                    .record(job.waitedMillis(), TimeUnit.MILLISECONDS);
+        }
+        return claimed;
+    }
+
+    /**
+     * Extends the leases of the jobs this instance holds, in one statement. A job that has been
+     * claimed again elsewhere, or whose retry is already scheduled, is left alone. A failed beat is
+     * retried on the next one; the lease outlasts two missed ones.
+     */
+    void renewLeases() {
+        if (held.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        List<Integer> attempts = new ArrayList<>();
+        held.forEach((id, attempt) -> {
+            ids.add(id);
+            attempts.add(attempt);
+        });
+        try {
+            jdbcTemplate.update("""
+                    UPDATE job SET run_at = now() + make_interval(secs => ?)
+                    FROM unnest(CAST(? AS BIGINT[]), CAST(? AS INTEGER[])) AS held(id, attempts)
+                    WHERE job.id = held.id AND job.attempts = held.attempts AND job.locked_by = ?""",
+                    seconds(lease), arrayLiteral(ids), arrayLiteral(attempts), instanceId);
+        } catch (DataAccessException ex) {
+            // The next beat retries
+        }
+    }
+
+    /**
+     * Runs one claimed job, and schedules its retry or marks it failed if it throws.
+     *
+     * @return whether the job succeeded
+     */
+    boolean process(ClaimedJob job) {
+        long start = System.nanoTime();
+        String outcome = FAILED;
+        try {
+            JsonNode payload = jsonMapper.readTree(job.payload());
+            handlers.get(job.queue()).handle(payload);
+            outcome = SUCCEEDED;
+            return true;
+        } catch (RuntimeException | Error ex) {
+            outcome = fail(job, ex);
+            return false;
+        } finally {
+            Timer.builder("jobs.queue.processing").tag("queue", job.queue()).tag("outcome", outcome)
+                    .register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String fail(ClaimedJob job, Throwable ex) {
+        String error = ex.toString();
+        error = error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        try {
+            if (job.attempts() >= maxAttempts) {
+                jdbcTemplate.update("UPDATE job SET failed_at = now(), locked_by = NULL, last_error = ? "
+                        + "WHERE id = ? AND attempts = ?", error, job.id(), job.attempts());
+                return FAILED;
+            }
+            jdbcTemplate.update("UPDATE job SET run_at = now() + make_interval(secs => ?), locked_by = NULL, "
+                    + "last_error = ? WHERE id = ? AND attempts = ?",
+                    seconds(backoff(job.attempts())), error, job.id(), job.attempts());
+        } catch (DataAccessException dbEx) {
+            // The job runs again once its lease lapses
+        }
+        return RETRYING;
+    }
+
+    /**
+     * @return the wait before retrying a job that has failed {@code attempts} times
+     */
+    Duration backoff(int attempts) {
+        Duration wait = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return wait.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : wait;
+    }
+
+    /**
+     * Deletes a succeeded job, unless it has been claimed again since.
+     */
+    void complete(ClaimedJob job) {
+        try {
+            jdbcTemplate.update("DELETE FROM job WHERE id = ? AND attempts = ?", job.id(), job.attempts());
+        } catch (DataAccessException ex) {
+            // It runs again once its lease lapses
+        }
+    }
+
+    /**
+     * Hands back claimed jobs that a stopping worker won't run, without counting the attempt.
+     */
+    private void release(List<ClaimedJob> unstarted) {
+        try {
+            for (ClaimedJob job : unstarted) {
+                jdbcTemplate.update("UPDATE job SET run_at = now(), attempts = attempts - 1, locked_by = NULL "
+                        + "WHERE id = ? AND attempts = ?", job.id(), job.attempts());
+            }
+        } catch (DataAccessException ex) {
+            // They run again once their leases lapse
+        }
+    }
+
+    /**
+     * Refreshes the depth and age gauges of this instance's queues.
+     */
+    @Scheduled(fixedDelayString = "${jobs.queue.metrics-interval:15s}")
+    public void refreshQueueMetrics() {
+        if (handlers.isEmpty()) {
+            return;
+        }
+        Map<String, long[]> ready = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT queue, count(*), COALESCE(EXTRACT(EPOCH FROM now() - min(run_at)), 0) FROM job
+                WHERE failed_at IS NULL AND run_at <= now() AND queue IN (%s)
+                GROUP BY queue""".formatted(queuePlaceholders),
+                rs -> {
+                    ready.put(rs.getString(1), new long[] {rs.getLong(2), rs.getLong(3)});
+                },
+                handlers.keySet().toArray());
+        for (String queue : handlers.keySet()) {
+            long[] stats = ready.getOrDefault(queue, new long[2]);
+            depths.get(queue).set(stats[0]);
+            ageSeconds.get(queue).set(stats[1]);
+        }
+    }
+
+    private void pause() {
+        LockSupport.parkNanos(pollInterval.toNanos());
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    private static String arrayLiteral(List<? extends Number> values) {
+        StringBuilder literal = new StringBuilder("{");
+        for (Number value : values) {
+            literal.append(literal.length() > 1 ? "," : "").append(value);
+        }
+        return literal.append('}').toString();
+    }
+
+    /**
+     * A job as claimed by a worker. {@code attempts} includes this one, and identifies the claim.
+     */
+    record ClaimedJob(long id, String queue, int priority, int attempts, String payload, long waitedMillis) {
+    }
+}
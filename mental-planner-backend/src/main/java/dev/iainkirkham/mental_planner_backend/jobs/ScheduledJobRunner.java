@@ -0,0 +1,208 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each fire of a {@link ClusterScheduled} job on at most one instance, using the
+ * {@code scheduled_job_lock} table as a lease. An instance claims a job's row for a given
+ * scheduled time only if no lease is held and that time is later than the last claimed one, so a
+ * fire that another instance has already run, or is running, is skipped here. While the job runs,
+ * heartbeats extend the lease by {@code jobs.lease}; if the instance dies the lease lapses, and
+ * the job's next fire runs elsewhere. Every run is recorded in {@code scheduled_job_run} and timed
+ * as {@code jobs.run}; skipped fires count as {@code jobs.skipped}. The lease is released as soon
+ * as the job returns, before its run is recorded, and a run that can't be recorded counts as
+ * {@code jobs.history.failed} without hiding the job's own outcome.
+ * <p>
+ * The lock statements run on their own, outside any transaction, so a job's transactions never
+ * hold the lease row. Times are the database's, so instances' clocks don't need to agree.
+ */
+@Component
+public class ScheduledJobRunner {
+
+    static final String SUCCEEDED = "SUCCEEDED";
+    static final String FAILED = "FAILED";
+    static final String RUNNING = "RUNNING";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration lease;
+    private final Duration historyRetention;
+    private final String instanceId;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("scheduled-job-heartbeat").daemon().factory());
+
+    public ScheduledJobRunner(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${jobs.lease:5m}") Duration lease,
+                              @Value("${jobs.history.retention:30d}") Duration historyRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.lease = lease;
+        this.historyRetention = historyRetention;
+        this.instanceId = newInstanceId();
+    }
+
+    /**
+     * @return an ID for this process, the host name plus a random suffix, which stays unique when
+     *         a host restarts
+     */
+    static String newInstanceId() {
+        String host = System.getenv().getOrDefault("DYNO", System.getenv().getOrDefault("HOSTNAME", "instance"));
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * @return this instance's ID, as recorded in the lock and run history tables
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Runs one fire of a job if this instance can claim it. A job that throws is recorded as
+     * failed, and the exception is rethrown to the scheduler.
+     *
+     * @param name the job's name
+     * @param scheduledAt the time the fire was scheduled for, the same on every instance
+     * @param job the job itself
+     * @return whether this instance ran the fire
+     */
+    public boolean run(String name, Instant scheduledAt, Runnable job) {
+        if (!claim(name, scheduledAt)) {
+            Counter.builder("jobs.skipped").tag("job", name).register(meterRegistry).increment();
+            return false;
+        }
+
+        Long runId = jdbcTemplate.queryForObject(
+                "INSERT INTO scheduled_job_run (job_name, instance_id, scheduled_at, started_at, outcome) "
+                        + "VALUES (?, ?, ?, now(), ?) RETURNING id",
+                Long.class, name, instanceId, Timestamp.from(scheduledAt), RUNNING);
+        HeldLease held = new HeldLease(name);
+        long heartbeatMillis = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                held::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        String outcome = FAILED;
+        String error = null;
+        try {
+            job.run();
+            outcome = SUCCEEDED;
+            return true;
+        } catch (RuntimeException | Error ex) {
+            error = truncate(ex.toString());
+            throw ex;
+        } finally {
+            heartbeat.cancel(false);
+            long durationNanos = System.nanoTime() - start;
+            Timer.builder("jobs.run").tag("job", name).tag("outcome", outcome).register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+            held.release();
+            recordRun(name, runId, durationNanos, outcome, error);
+        }
+    }
+
+    /**
+     * Records a finished run in the history, and prunes the job's runs older than the retention.
+     */
+    private void recordRun(String name, Long runId, long durationNanos, String outcome, String error) {
+        try {
+            jdbcTemplate.update("UPDATE scheduled_job_run SET finished_at = now(), duration_ms = ?, outcome = ?, error = ? "
+                    + "WHERE id = ?", TimeUnit.NANOSECONDS.toMillis(durationNanos), outcome, error, runId);
+            jdbcTemplate.update("DELETE FROM scheduled_job_run WHERE job_name = ? AND started_at < now() - make_interval(secs => ?)",
+                    name, (double) historyRetention.toSeconds());
+        } catch (RuntimeException ex) {
+            Counter.builder("jobs.history.failed").tag("job", name).register(meterRegistry).increment();
+        }
+    }
+
+    /**
+     * Takes the job's lease for a fire. Two instances claiming the same fire at once are
+     * serialized by the primary key, and the second then finds the lease held.
+     */
+    private boolean claim(String name, Instant scheduledAt) {
+        return jdbcTemplate.update("""
+                INSERT INTO scheduled_job_lock (name, locked_by, locked_until, last_scheduled_at, heartbeat_at)
+                VALUES (?, ?, now() + make_interval(secs => ?), ?, now())
+                ON CONFLICT (name) DO UPDATE SET locked_by = EXCLUDED.locked_by, locked_until = EXCLUDED.locked_until,
+                    last_scheduled_at = EXCLUDED.last_scheduled_at, heartbeat_at = EXCLUDED.heartbeat_at
+                WHERE scheduled_job_lock.locked_until <= now()
+                  AND scheduled_job_lock.last_scheduled_at < EXCLUDED.last_scheduled_at""",
+                name, instanceId, leaseSeconds(), Timestamp.from(scheduledAt)) == 1;
+    }
+
+    private double leaseSeconds() {
+        return lease.toMillis() / 1000.0;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    /**
+     * The lease this instance holds on a job while running one of its fires. Heartbeats and the
+     * release are serialized, and no heartbeat runs once the lease is released: cancelling the
+     * heartbeat doesn't wait for one already running, whose extension could otherwise commit after
+     * the release and keep the job locked for another full lease.
+     */
+    private final class HeldLease {
+
+        private final String name;
+        private boolean released;
+
+        HeldLease(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Extends the lease. A failed heartbeat is retried on the next beat; the lease outlasts
+         * two missed ones.
+         */
+        synchronized void heartbeat() {
+            if (released) {
+                return;
+            }
+            try {
+                jdbcTemplate.update("UPDATE scheduled_job_lock SET locked_until = now() + make_interval(secs => ?), "
+                        + "heartbeat_at = now() WHERE name = ? AND locked_by = ?", leaseSeconds(), name, instanceId);
+            } catch (RuntimeException ex) {
+                // The next beat retries
+            }
+        }
+
+        /**
+         * Ends the lease, so the job's next fire can run anywhere, waiting for a heartbeat in
+         * progress. If this fails the lease lapses on its own once heartbeats stop.
+         */
+        synchronized void release() {
+            released = true;
+            try {
+                jdbcTemplate.update("UPDATE scheduled_job_lock SET locked_until = now() WHERE name = ? AND locked_by = ?",
+                        name, instanceId);
+            } catch (RuntimeException ex) {
+                // The lease lapses on its own
+            }
+        }
+    }
+}
@@ -9,6 +9,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -21,6 +23,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "mood_entry")
+@DynamicUpdate
 @Getter
 @Setter
 @ToString
@@ -47,8 +50,11 @@ public class MoodEntry {
     /**
      * The date and time of when the mood entry was recorded.
      * The time is provided in UTC.
+     * It is also the table's partition key, so Hibernate adds it to the where clause of updates and
+     * deletes, which then touch only the entry's month.
      */
     @NotNull
+    @PartitionKey
     @Column(nullable = false)
     private Instant dateTime;
 
@@ -69,9 +75,9 @@ public class MoodEntry {
     private String notes;
 
     /**
-     * The Clerk user ID of the user who created this mood entry.
+     * The internal ID (app_user.id) of the user who created this mood entry.
      * This field is used to ensure data isolation between users.
      */
     @Column(name = "user_id")
-    private String userId;
+    private Long userId;
 }
@@ -1,11 +1,16 @@
 package dev.iainkirkham.mental_planner_backend.mood;
 
+import dev.iainkirkham.mental_planner_backend.config.JsonMergePatcher;
+import dev.iainkirkham.mental_planner_backend.history.HistoryCache;
+import dev.iainkirkham.mental_planner_backend.history.HistoryKind;
 import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO;
 import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.JsonNode;
 
 import java.util.List;
 
@@ -18,9 +23,11 @@ import java.util.List;
 public class MoodEntryController {
 
     private final MoodEntryService moodEntryService;
+    private final HistoryCache historyCache;
 
-    public MoodEntryController(MoodEntryService moodEntryService) {
+    public MoodEntryController(MoodEntryService moodEntryService, HistoryCache historyCache) {
         this.moodEntryService = moodEntryService;
+        this.historyCache = historyCache;
     }
 
     /**
@@ -40,21 +47,22 @@ public class MoodEntryController {
      *
      * @param startDate optional start date for filtering (ISO-8601 format)
      * @param endDate optional end date for filtering (ISO-8601 format)
-     * @return list of entries with status 200 (OK), or 204 (No Content) if empty
+     * @param request the current request, used for conditional requests on settled ranges
+     * @return list of entries with status 200 (OK), or 204 (No Content) if empty;
+     *         settled ranges carry caching headers and may return 304 (Not Modified)
      */
     @GetMapping
     public ResponseEntity<List<MoodEntryResponseDTO>> getAllMoodEntries(
             @RequestParam(required = false) java.time.Instant startDate,
-            @RequestParam(required = false) java.time.Instant endDate) {
-
-        List<MoodEntryResponseDTO> entries;
+            @RequestParam(required = false) java.time.Instant endDate,
+            WebRequest request) {
 
         if (startDate != null && endDate != null) {
-            entries = moodEntryService.getMoodEntriesByDateRange(startDate, endDate);
-        } else {
-            entries = moodEntryService.getAllMoodEntries();
+            return historyCache.rangeResponse(HistoryKind.MOOD, startDate, endDate, request,
+                    () -> moodEntryService.getMoodEntriesByDateRange(startDate, endDate));
         }
 
+        List<MoodEntryResponseDTO> entries = moodEntryService.getAllMoodEntries();
         if (entries.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -86,6 +94,20 @@ public class MoodEntryController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Partially updates a mood entry with a JSON Merge Patch ({@code application/merge-patch+json}),
+     * e.g. {@code {"notes": "Felt better after a walk"}}. Fields absent from the patch are left unchanged.
+     *
+     * @param id the ID of the entry to update
+     * @param patch the merge patch
+     * @return the updated entry with status 200 (OK)
+     */
+    @PatchMapping(value = "/{id}", consumes = JsonMergePatcher.MEDIA_TYPE)
+    public ResponseEntity<MoodEntryResponseDTO> patchMoodEntry(@PathVariable Long id, @RequestBody JsonNode patch) {
+        MoodEntryResponseDTO updated = moodEntryService.patchMoodEntry(id, patch);
+        return ResponseEntity.ok(updated);
+    }
+
     /**
      * Deletes a mood entry by its ID.
      *
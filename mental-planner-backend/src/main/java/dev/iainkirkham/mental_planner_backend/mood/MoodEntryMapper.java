@@ -56,6 +56,27 @@ public class MoodEntryMapper {
         return dto;
     }
 
+    /**
+     * Converts an entity to a request DTO holding its current state, which a merge patch is
+     * then applied to.
+     *
+     * @param entity the MoodEntry entity
+     * @return a request DTO with the entity's current values
+     */
+    public MoodEntryRequestDTO toRequestDTO(MoodEntry entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        MoodEntryRequestDTO dto = new MoodEntryRequestDTO();
+        dto.setMoodScore(entity.getMoodScore());
+        dto.setDateTime(entity.getDateTime());
+        dto.setFactors(entity.getFactors());
+        dto.setNotes(entity.getNotes());
+
+        return dto;
+    }
+
     /**
      * Converts a list of entities to a list of response DTOs.
      *
@@ -1,12 +1,21 @@
 package dev.iainkirkham.mental_planner_backend.mood;
 
 import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.config.JsonMergePatcher;
 import dev.iainkirkham.mental_planner_backend.config.OwnedEntityLookup;
+import dev.iainkirkham.mental_planner_backend.config.ReadCoalescer;
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
 import dev.iainkirkham.mental_planner_backend.exception.ResourceNotFoundException;
+import dev.iainkirkham.mental_planner_backend.history.HistoryCache;
+import dev.iainkirkham.mental_planner_backend.history.HistoryKind;
 import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO;
 import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
 
 import java.util.List;
 
@@ -23,15 +32,27 @@ public class MoodEntryService {
     private final AuthenticationContext authenticationContext;
     private final OwnedEntityLookup ownedEntityLookup;
     private final MoodEntryMapper moodEntryMapper;
+    private final HistoryCache historyCache;
+    private final JsonMergePatcher jsonMergePatcher;
+    private final ChangeEvents changeEvents;
+    private final ReadCoalescer readCoalescer;
 
     public MoodEntryService(MoodEntryRepository moodEntryRepository,
                            AuthenticationContext authenticationContext,
                            OwnedEntityLookup ownedEntityLookup,
-                           MoodEntryMapper moodEntryMapper) {
+                           MoodEntryMapper moodEntryMapper,
+                           HistoryCache historyCache,
+                           JsonMergePatcher jsonMergePatcher,
+                           ChangeEvents changeEvents,
+                           ReadCoalescer readCoalescer) {
         this.moodEntryRepository = moodEntryRepository;
         this.authenticationContext = authenticationContext;
         this.ownedEntityLookup = ownedEntityLookup;
         this.moodEntryMapper = moodEntryMapper;
+        this.historyCache = historyCache;
+        this.jsonMergePatcher = jsonMergePatcher;
+        this.changeEvents = changeEvents;
+        this.readCoalescer = readCoalescer;
     }
 
     /**
@@ -54,6 +75,8 @@ public class MoodEntryService {
         // Automatically set userId from authenticated user
         moodEntry.setUserId(authenticationContext.getCurrentUserId());
         MoodEntry savedEntry = moodEntryRepository.save(moodEntry);
+        historyCache.recordWrite(HistoryKind.MOOD, savedEntry.getUserId(), savedEntry.getDateTime());
+        changeEvents.publish(savedEntry.getUserId(), ChangedResource.MOOD_ENTRY, savedEntry.getId(), ChangeAction.CREATED);
         return moodEntryMapper.toResponseDTO(savedEntry);
     }
 
@@ -62,10 +85,11 @@ public class MoodEntryService {
      *
      * @return A list of all mood entries as response DTOs belonging to the current user.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<MoodEntryResponseDTO> getAllMoodEntries() {
-        String userId = authenticationContext.getCurrentUserId();
-        List<MoodEntry> entries = moodEntryRepository.findByUserIdOrderByDateTimeDesc(userId);
-        return moodEntryMapper.toResponseDTOList(entries);
+        Long userId = authenticationContext.getCurrentUserId();
+        return readCoalescer.coalesce("mood.all", userId, () -> moodEntryMapper.toResponseDTOList(
+                moodEntryRepository.findByUserIdOrderByDateTimeDesc(userId)));
     }
 
     /**
@@ -75,12 +99,12 @@ public class MoodEntryService {
      * @param endDate the end date (inclusive)
      * @return A list of mood entries as response DTOs within the date range, ordered by date time descending.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<MoodEntryResponseDTO> getMoodEntriesByDateRange(java.time.Instant startDate, java.time.Instant endDate) {
-        String userId = authenticationContext.getCurrentUserId();
-        List<MoodEntry> entries = moodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(
-            userId, startDate, endDate
-        );
-        return moodEntryMapper.toResponseDTOList(entries);
+        Long userId = authenticationContext.getCurrentUserId();
+        return readCoalescer.coalesce("mood.range", userId, () -> moodEntryMapper.toResponseDTOList(
+                moodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(userId, startDate, endDate)),
+                startDate, endDate);
     }
 
     /**
@@ -104,11 +128,34 @@ public class MoodEntryService {
      */
     @Transactional
     public MoodEntryResponseDTO updateMoodEntry(Long id, MoodEntryRequestDTO requestDTO) {
+        return applyUpdate(findOwnedEntry(id), requestDTO);
+    }
+
+    /**
+     * Applies a JSON Merge Patch to a MoodEntry owned by the authenticated user. Only the fields
+     * in the patch change, and only their columns are written.
+     *
+     * @param id The ID of the mood entry to patch.
+     * @param patch The merge patch; a null member clears that field.
+     * @return The patched mood entry as a response DTO.
+     * @throws ResourceNotFoundException If the entry does not exist or doesn't belong to the user.
+     */
+    @Transactional
+    public MoodEntryResponseDTO patchMoodEntry(Long id, JsonNode patch) {
         MoodEntry existingMoodEntry = findOwnedEntry(id);
+        MoodEntryRequestDTO patched = jsonMergePatcher.apply(
+                patch, moodEntryMapper.toRequestDTO(existingMoodEntry), MoodEntryRequestDTO.class);
+        return applyUpdate(existingMoodEntry, patched);
+    }
+
+    private MoodEntryResponseDTO applyUpdate(MoodEntry existingMoodEntry, MoodEntryRequestDTO requestDTO) {
+        java.time.Instant previousDateTime = existingMoodEntry.getDateTime();
 
         moodEntryMapper.updateEntityFromDTO(existingMoodEntry, requestDTO);
 
         MoodEntry updatedEntry = moodEntryRepository.save(existingMoodEntry);
+        historyCache.recordWrite(HistoryKind.MOOD, updatedEntry.getUserId(), previousDateTime, updatedEntry.getDateTime());
+        changeEvents.publish(updatedEntry.getUserId(), ChangedResource.MOOD_ENTRY, updatedEntry.getId(), ChangeAction.UPDATED);
         return moodEntryMapper.toResponseDTO(updatedEntry);
     }
 
@@ -120,6 +167,9 @@ public class MoodEntryService {
      */
     @Transactional
     public void deleteMoodEntry(Long id) {
-        moodEntryRepository.delete(findOwnedEntry(id));
+        MoodEntry moodEntry = findOwnedEntry(id);
+        moodEntryRepository.delete(moodEntry);
+        historyCache.recordWrite(HistoryKind.MOOD, moodEntry.getUserId(), moodEntry.getDateTime());
+        changeEvents.publish(moodEntry.getUserId(), ChangedResource.MOOD_ENTRY, moodEntry.getId(), ChangeAction.DELETED);
     }
 }
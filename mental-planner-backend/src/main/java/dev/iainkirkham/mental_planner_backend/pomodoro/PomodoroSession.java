@@ -8,11 +8,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "pomodoro_session")
+@DynamicUpdate
 @Getter
 @Setter
 @ToString
@@ -29,8 +32,11 @@ public class PomodoroSession {
     /**
      * The date and time of when the pomodoro session started.
      * The time is provided in UTC.
+     * It is also the table's partition key, so Hibernate adds it to the where clause of updates and
+     * deletes, which then touch only the session's month.
      */
     @NotNull
+    @PartitionKey
     @Column(name = "start_time", nullable = false)
     private Instant startTime;
 
@@ -69,11 +75,11 @@ public class PomodoroSession {
     private EnergyRating energyRating;
 
     /**
-     * The Clerk user ID of the user who created this pomodoro session.
+     * The internal ID (app_user.id) of the user who created this pomodoro session.
      * This field is used to ensure data isolation between users.
      */
     @Column(name = "user_id")
-    private String userId;
+    private Long userId;
 
     /**
      * Optional link to the task this session was focused on.
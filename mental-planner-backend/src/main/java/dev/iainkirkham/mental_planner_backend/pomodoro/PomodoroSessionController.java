@@ -1,11 +1,16 @@
 package dev.iainkirkham.mental_planner_backend.pomodoro;
 
+import dev.iainkirkham.mental_planner_backend.config.JsonMergePatcher;
+import dev.iainkirkham.mental_planner_backend.history.HistoryCache;
+import dev.iainkirkham.mental_planner_backend.history.HistoryKind;
 import dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO;
 import dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.JsonNode;
 
 import java.util.List;
 
@@ -18,9 +23,11 @@ import java.util.List;
 public class PomodoroSessionController {
 
     private final PomodoroSessionService pomodoroSessionService;
+    private final HistoryCache historyCache;
 
-    public PomodoroSessionController(PomodoroSessionService pomodoroSessionService) {
+    public PomodoroSessionController(PomodoroSessionService pomodoroSessionService, HistoryCache historyCache) {
         this.pomodoroSessionService = pomodoroSessionService;
+        this.historyCache = historyCache;
     }
 
     /**
@@ -40,21 +47,22 @@ public class PomodoroSessionController {
      *
      * @param startDate optional start date for filtering (ISO-8601 format)
      * @param endDate optional end date for filtering (ISO-8601 format)
-     * @return list of sessions with status 200 (OK), or 204 (No Content) if empty
+     * @param request the current request, used for conditional requests on settled ranges
+     * @return list of sessions with status 200 (OK), or 204 (No Content) if empty;
+     *         settled ranges carry caching headers and may return 304 (Not Modified)
      */
     @GetMapping
     public ResponseEntity<List<PomodoroSessionResponseDTO>> getAllPomodoroSessions(
             @RequestParam(required = false) java.time.Instant startDate,
-            @RequestParam(required = false) java.time.Instant endDate) {
-
-        List<PomodoroSessionResponseDTO> sessions;
+            @RequestParam(required = false) java.time.Instant endDate,
+            WebRequest request) {
 
         if (startDate != null && endDate != null) {
-            sessions = pomodoroSessionService.getPomodoroSessionsByDateRange(startDate, endDate);
-        } else {
-            sessions = pomodoroSessionService.getAllPomodoroSessions();
+            return historyCache.rangeResponse(HistoryKind.POMODORO, startDate, endDate, request,
+                    () -> pomodoroSessionService.getPomodoroSessionsByDateRange(startDate, endDate));
         }
 
+        List<PomodoroSessionResponseDTO> sessions = pomodoroSessionService.getAllPomodoroSessions();
         if (sessions.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -86,6 +94,20 @@ public class PomodoroSessionController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Partially updates a Pomodoro session with a JSON Merge Patch ({@code application/merge-patch+json}),
+     * e.g. {@code {"score": 4}}. Fields absent from the patch are left unchanged.
+     *
+     * @param id the ID of the session to update
+     * @param patch the merge patch
+     * @return the updated session with status 200 (OK)
+     */
+    @PatchMapping(value = "/{id}", consumes = JsonMergePatcher.MEDIA_TYPE)
+    public ResponseEntity<PomodoroSessionResponseDTO> patchPomodoroSession(@PathVariable Long id, @RequestBody JsonNode patch) {
+        PomodoroSessionResponseDTO updated = pomodoroSessionService.patchPomodoroSession(id, patch);
+        return ResponseEntity.ok(updated);
+    }
+
     /**
      * Deletes a Pomodoro session by its ID.
      *
@@ -56,6 +56,30 @@ public class PomodoroSessionMapper {
         return dto;
     }
 
+    /**
+     * Converts an entity to a request DTO holding its current state, which a merge patch is
+     * then applied to.
+     *
+     * @param entity the PomodoroSession entity
+     * @return a request DTO with the entity's current values
+     */
+    public PomodoroSessionRequestDTO toRequestDTO(PomodoroSession entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        PomodoroSessionRequestDTO dto = new PomodoroSessionRequestDTO();
+        dto.setStartTime(entity.getStartTime());
+        dto.setEndTime(entity.getEndTime());
+        dto.setDuration(entity.getDuration());
+        dto.setScore(entity.getScore());
+        dto.setNotes(entity.getNotes());
+        dto.setEnergyRating(entity.getEnergyRating());
+        dto.setTaskId(entity.getTaskId());
+
+        return dto;
+    }
+
     /**
      * Converts a list of entities to a list of response DTOs.
      *
@@ -10,29 +10,29 @@ public interface PomodoroSessionRepository extends JpaRepository<PomodoroSession
     /**
      * Find a specific pomodoro session by ID that belongs to a specific user.
      * @param id the pomodoro session ID
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @return Optional containing the session if found and belongs to the user
      */
-    Optional<PomodoroSession> findByIdAndUserId(Long id, String userId);
+    Optional<PomodoroSession> findByIdAndUserId(Long id, Long userId);
 
 
     /**
      * Find pomodoro sessions for a user within a date range.
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @param startDate the start date (inclusive)
      * @param endDate the end date (inclusive)
      * @return list of sessions within the date range, ordered by start time descending
      */
     List<PomodoroSession> findByUserIdAndStartTimeBetweenOrderByStartTimeDesc(
-        String userId, 
+        Long userId, 
         java.time.Instant startDate, 
         java.time.Instant endDate
     );
 
     /**
      * Find all pomodoro sessions for a user ordered by start time.
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @return list of all sessions ordered by start time descending
      */
-    List<PomodoroSession> findByUserIdOrderByStartTimeDesc(String userId);
+    List<PomodoroSession> findByUserIdOrderByStartTimeDesc(Long userId);
 }
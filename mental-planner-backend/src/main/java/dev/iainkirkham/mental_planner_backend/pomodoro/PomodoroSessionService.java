@@ -1,13 +1,22 @@
 package dev.iainkirkham.mental_planner_backend.pomodoro;
 
 import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.config.JsonMergePatcher;
 import dev.iainkirkham.mental_planner_backend.config.OwnedEntityLookup;
+import dev.iainkirkham.mental_planner_backend.config.ReadCoalescer;
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
 import dev.iainkirkham.mental_planner_backend.exception.ResourceNotFoundException;
+import dev.iainkirkham.mental_planner_backend.history.HistoryCache;
+import dev.iainkirkham.mental_planner_backend.history.HistoryKind;
 import dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO;
 import dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.TaskService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
 
 import java.util.List;
 
@@ -26,17 +35,29 @@ public class PomodoroSessionService {
     private final OwnedEntityLookup ownedEntityLookup;
     private final PomodoroSessionMapper pomodoroSessionMapper;
     private final TaskService taskService;
+    private final HistoryCache historyCache;
+    private final JsonMergePatcher jsonMergePatcher;
+    private final ChangeEvents changeEvents;
+    private final ReadCoalescer readCoalescer;
 
     public PomodoroSessionService(PomodoroSessionRepository pomodoroSessionRepository,
                                  AuthenticationContext authenticationContext,
                                  OwnedEntityLookup ownedEntityLookup,
                                  PomodoroSessionMapper pomodoroSessionMapper,
-                                 TaskService taskService) {
+                                 TaskService taskService,
+                                 HistoryCache historyCache,
+                                 JsonMergePatcher jsonMergePatcher,
+                                 ChangeEvents changeEvents,
+                                 ReadCoalescer readCoalescer) {
         this.pomodoroSessionRepository = pomodoroSessionRepository;
         this.authenticationContext = authenticationContext;
         this.ownedEntityLookup = ownedEntityLookup;
         this.pomodoroSessionMapper = pomodoroSessionMapper;
         this.taskService = taskService;
+        this.historyCache = historyCache;
+        this.jsonMergePatcher = jsonMergePatcher;
+        this.changeEvents = changeEvents;
+        this.readCoalescer = readCoalescer;
     }
 
     /**
@@ -64,6 +85,8 @@ public class PomodoroSessionService {
         // Automatically set userId from authenticated user
         pomodoroSession.setUserId(authenticationContext.getCurrentUserId());
         PomodoroSession savedSession = pomodoroSessionRepository.save(pomodoroSession);
+        historyCache.recordWrite(HistoryKind.POMODORO, savedSession.getUserId(), savedSession.getStartTime());
+        changeEvents.publish(savedSession.getUserId(), ChangedResource.POMODORO_SESSION, savedSession.getId(), ChangeAction.CREATED);
         return pomodoroSessionMapper.toResponseDTO(savedSession);
     }
 
@@ -72,10 +95,11 @@ public class PomodoroSessionService {
      *
      * @return A list of all sessions as response DTOs belonging to the current user.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<PomodoroSessionResponseDTO> getAllPomodoroSessions() {
-        String userId = authenticationContext.getCurrentUserId();
-        List<PomodoroSession> sessions = pomodoroSessionRepository.findByUserIdOrderByStartTimeDesc(userId);
-        return pomodoroSessionMapper.toResponseDTOList(sessions);
+        Long userId = authenticationContext.getCurrentUserId();
+        return readCoalescer.coalesce("pomodoro.all", userId, () -> pomodoroSessionMapper.toResponseDTOList(
+                pomodoroSessionRepository.findByUserIdOrderByStartTimeDesc(userId)));
     }
 
     /**
@@ -85,12 +109,12 @@ public class PomodoroSessionService {
      * @param endDate the end date (inclusive)
      * @return A list of sessions as response DTOs within the date range, ordered by start time descending.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<PomodoroSessionResponseDTO> getPomodoroSessionsByDateRange(java.time.Instant startDate, java.time.Instant endDate) {
-        String userId = authenticationContext.getCurrentUserId();
-        List<PomodoroSession> sessions = pomodoroSessionRepository.findByUserIdAndStartTimeBetweenOrderByStartTimeDesc(
-            userId, startDate, endDate
-        );
-        return pomodoroSessionMapper.toResponseDTOList(sessions);
+        Long userId = authenticationContext.getCurrentUserId();
+        return readCoalescer.coalesce("pomodoro.range", userId, () -> pomodoroSessionMapper.toResponseDTOList(
+                pomodoroSessionRepository.findByUserIdAndStartTimeBetweenOrderByStartTimeDesc(userId, startDate, endDate)),
+                startDate, endDate);
     }
 
     /**
@@ -123,12 +147,40 @@ public class PomodoroSessionService {
     @Transactional
     public PomodoroSessionResponseDTO updatePomodoroSession(Long id, PomodoroSessionRequestDTO requestDTO) {
         assertTaskOwnedIfPresent(requestDTO);
+        return applyUpdate(findOwnedSession(id), requestDTO);
+    }
 
+    /**
+     * Applies a JSON Merge Patch to a Pomodoro session owned by the authenticated user. Only the
+     * fields in the patch change, and only their columns are written. The linked task is only
+     * re-checked when the patch links a different one.
+     *
+     * @param id The ID of the session to patch.
+     * @param patch The merge patch; a null member clears that field.
+     * @return The patched session as a response DTO.
+     * @throws ResourceNotFoundException if the session doesn't exist or doesn't belong to the user,
+     *         or the patch links a task that doesn't belong to the user.
+     */
+    @Transactional
+    public PomodoroSessionResponseDTO patchPomodoroSession(Long id, JsonNode patch) {
         PomodoroSession existingPomodoroSession = findOwnedSession(id);
+        PomodoroSessionRequestDTO patched = jsonMergePatcher.apply(
+                patch, pomodoroSessionMapper.toRequestDTO(existingPomodoroSession), PomodoroSessionRequestDTO.class);
+        if (!java.util.Objects.equals(patched.getTaskId(), existingPomodoroSession.getTaskId())) {
+            assertTaskOwnedIfPresent(patched);
+        }
+        return applyUpdate(existingPomodoroSession, patched);
+    }
+
+    private PomodoroSessionResponseDTO applyUpdate(PomodoroSession existingPomodoroSession,
+                                                   PomodoroSessionRequestDTO requestDTO) {
+        java.time.Instant previousStartTime = existingPomodoroSession.getStartTime();
 
         pomodoroSessionMapper.updateEntityFromDTO(existingPomodoroSession, requestDTO);
 
         PomodoroSession updatedSession = pomodoroSessionRepository.save(existingPomodoroSession);
+        historyCache.recordWrite(HistoryKind.POMODORO, updatedSession.getUserId(), previousStartTime, updatedSession.getStartTime());
+        changeEvents.publish(updatedSession.getUserId(), ChangedResource.POMODORO_SESSION, updatedSession.getId(), ChangeAction.UPDATED);
         return pomodoroSessionMapper.toResponseDTO(updatedSession);
     }
 
@@ -140,6 +192,9 @@ public class PomodoroSessionService {
      */
     @Transactional
     public void deletePomodoroSession(Long id) {
-        pomodoroSessionRepository.delete(findOwnedSession(id));
+        PomodoroSession session = findOwnedSession(id);
+        pomodoroSessionRepository.delete(session);
+        historyCache.recordWrite(HistoryKind.POMODORO, session.getUserId(), session.getStartTime());
+        changeEvents.publish(session.getUserId(), ChangedResource.POMODORO_SESSION, session.getId(), ChangeAction.DELETED);
     }
 }
\ No newline at end of file
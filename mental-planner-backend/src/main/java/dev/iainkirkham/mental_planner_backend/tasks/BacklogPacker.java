@@ -0,0 +1,118 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Packs backlog tasks into free timeline slots. Tasks are taken most urgent first, then by
+ * scheduled day, then longest first within those (first-fit decreasing), and each goes at the
+ * earliest point of the first slot it fits in. Placing a task splits its slot around it, so the
+ * slots stay sorted and later tasks see what is left. A task that fits nowhere is left in the
+ * backlog. Times are kept as epoch milliseconds.
+ */
+public final class BacklogPacker {
+
+    private static final Comparator<Candidate> PACKING_ORDER = Comparator.comparing(Candidate::priority)
+            .thenComparing(Candidate::scheduledDate)
+            .thenComparing(Comparator.comparingInt(Candidate::plannedMinutes).reversed())
+            .thenComparingInt(Candidate::sortOrder)
+            .thenComparing(Candidate::taskId);
+
+    private BacklogPacker() {
+    }
+
+    /**
+     * @param candidates the backlog tasks, in any order
+     * @param slots the free slots, in order and not overlapping
+     * @return where each task goes, and which didn't fit
+     */
+    public static Plan pack(List<Candidate> candidates, List<Timeline.Slot> slots) {
+        Candidate[] ordered = candidates.toArray(Candidate[]::new);
+        Arrays.sort(ordered, PACKING_ORDER);
+
+        // Each placement adds at most one slot, by splitting one in two
+        long[] starts = new long[slots.size() + ordered.length];
+        long[] ends = new long[starts.length];
+        int count = 0;
+        for (Timeline.Slot slot : slots) {
+            starts[count] = slot.start().toEpochMilli();
+            ends[count++] = slot.end().toEpochMilli();
+        }
+
+        List<Placement> placements = new ArrayList<>();
+        List<Long> unplaced = new ArrayList<>();
+        for (Candidate candidate : ordered) {
+            long length = Duration.ofMinutes(candidate.plannedMinutes()).toMillis();
+            long notBefore = candidate.notBefore() == null ? Long.MIN_VALUE : candidate.notBefore().toEpochMilli();
+            int i = 0;
+            long start = 0;
+            for (; i < count; i++) {
+                start = Math.max(starts[i], notBefore);
+                if (ends[i] - start >= length) {
+                    break;
+                }
+            }
+            if (i == count) {
+                unplaced.add(candidate.taskId());
+                continue;
+            }
+            long end = start + length;
+            placements.add(new Placement(candidate.taskId(), Instant.ofEpochMilli(start), Instant.ofEpochMilli(end)));
+            if (start > starts[i]) {
+                // Keep the part before the task, and the part after it as a new slot
+                if (end < ends[i]) {
+                    System.arraycopy(starts, i + 1, starts, i + 2, count - i - 1);
+                    System.arraycopy(ends, i + 1, ends, i + 2, count - i - 1);
+                    starts[i + 1] = end;
+                    ends[i + 1] = ends[i];
+                    count++;
+                }
+                ends[i] = start;
+            } else if (end < ends[i]) {
+                starts[i] = end;
+            } else {
+                System.arraycopy(starts, i + 1, starts, i, count - i - 1);
+                System.arraycopy(ends, i + 1, ends, i, count - i - 1);
+                count--;
+            }
+        }
+        placements.sort(Comparator.comparing(Placement::start));
+        return new Plan(placements, unplaced);
+    }
+
+    /**
+     * A backlog task to place.
+     *
+     * @param taskId the task's ID
+     * @param priority how urgent it is; more urgent tasks are placed first
+     * @param scheduledDate the day it is in the backlog of
+     * @param sortOrder its position in that day's list
+     * @param plannedMinutes how long it needs
+     * @param notBefore the earliest it may start, or null for any time
+     */
+    public record Candidate(Long taskId, TaskPriority priority, LocalDate scheduledDate, int sortOrder,
+                            int plannedMinutes, Instant notBefore) {
+    }
+
+    /**
+     * Where a task was placed.
+     *
+     * @param taskId the task's ID
+     * @param start when it starts
+     * @param end when it ends
+     */
+    public record Placement(Long taskId, Instant start, Instant end) {
+    }
+
+    /**
+     * @param placements the placed tasks, by start
+     * @param unplaced the IDs of tasks that fit in no slot, in packing order
+     */
+    public record Plan(List<Placement> placements, List<Long> unplaced) {
+    }
+}
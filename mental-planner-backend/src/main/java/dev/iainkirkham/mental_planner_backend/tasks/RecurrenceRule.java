@@ -0,0 +1,294 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.exception.InvalidRecurrenceRuleException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The subset of RFC 5545 recurrence rules that task series support: {@code FREQ} of DAILY, WEEKLY
+ * or MONTHLY, with {@code INTERVAL}, {@code BYDAY} (weekly, without ordinals), {@code BYMONTHDAY}
+ * (monthly, positive days) and either {@code COUNT} or {@code UNTIL} (a date). Weeks start on
+ * Monday. The rule is anchored on its series' start date, which is always the first occurrence
+ * candidate.
+ * <p>
+ * Finding the next occurrence on or after a day jumps there arithmetically, so expanding a range
+ * costs the same however long ago the series started. Only {@link #lastOccurrence} walks the
+ * occurrences one by one, and only for {@code COUNT}, which is capped; its result is stored with
+ * the series so that reads never need to.
+ */
+final class RecurrenceRule {
+
+    enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    static final int MAX_COUNT = 1000;
+    static final int MAX_INTERVAL = 365;
+
+    /**
+     * A monthly rule's months repeat their lengths every four years, so a rule that finds no
+     * matching day in that many consecutive candidate months never will.
+     */
+    private static final int MONTHS_IN_LEAP_CYCLE = 48;
+
+    private static final Map<String, DayOfWeek> DAYS = Map.of(
+            "MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY, "WE", DayOfWeek.WEDNESDAY,
+            "TH", DayOfWeek.THURSDAY, "FR", DayOfWeek.FRIDAY, "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final TreeSet<Integer> byMonthDay;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, TreeSet<Integer> byMonthDay,
+                           Integer count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.byMonthDay = byMonthDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Parses a rule such as {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH}, with or without an
+     * {@code RRULE:} prefix.
+     *
+     * @throws InvalidRecurrenceRuleException if the rule is malformed or outside the supported subset
+     */
+    static RecurrenceRule parse(String text) {
+        String rule = text.trim().toUpperCase(Locale.ROOT);
+        if (rule.startsWith("RRULE:")) {
+            rule = rule.substring("RRULE:".length());
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        TreeSet<Integer> byMonthDay = new TreeSet<>();
+        Integer count = null;
+        LocalDate until = null;
+        for (String part : rule.split(";")) {
+            String[] nameAndValue = part.split("=", 2);
+            if (nameAndValue.length != 2 || nameAndValue[1].isEmpty()) {
+                throw new InvalidRecurrenceRuleException("Expected NAME=VALUE but got '" + part + "'");
+            }
+            String value = nameAndValue[1];
+            switch (nameAndValue[0]) {
+                case "FREQ" -> frequency = parseFrequency(value);
+                case "INTERVAL" -> interval = parseNumber("INTERVAL", value, 1, MAX_INTERVAL);
+                case "BYDAY" -> {
+                    for (String day : value.split(",")) {
+                        DayOfWeek dayOfWeek = DAYS.get(day);
+                        if (dayOfWeek == null) {
+                            throw new InvalidRecurrenceRuleException("Unsupported BYDAY value '" + day + "'");
+                        }
+                        byDay.add(dayOfWeek);
+                    }
+                }
+                case "BYMONTHDAY" -> {
+                    for (String day : value.split(",")) {
+                        byMonthDay.add(parseNumber("BYMONTHDAY", day, 1, 31));
+                    }
+                }
+                case "COUNT" -> count = parseNumber("COUNT", value, 1, MAX_COUNT);
+                case "UNTIL" -> until = parseUntil(value);
+                default -> throw new InvalidRecurrenceRuleException("Unsupported rule part '" + nameAndValue[0] + "'");
+            }
+        }
+
+        if (frequency == null) {
+            throw new InvalidRecurrenceRuleException("FREQ is required");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new InvalidRecurrenceRuleException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        if (!byMonthDay.isEmpty() && frequency != Frequency.MONTHLY) {
+            throw new InvalidRecurrenceRuleException("BYMONTHDAY is only supported with FREQ=MONTHLY");
+        }
+        if (count != null && until != null) {
+            throw new InvalidRecurrenceRuleException("COUNT and UNTIL can't both be set");
+        }
+        return new RecurrenceRule(frequency, interval, byDay, byMonthDay, count, until);
+    }
+
+    private static Frequency parseFrequency(String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRecurrenceRuleException("Unsupported FREQ '" + value + "'");
+        }
+    }
+
+    private static int parseNumber(String name, String value, int min, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new InvalidRecurrenceRuleException(name + " must be a number from " + min + " to " + max);
+    }
+
+    private static LocalDate parseUntil(String value) {
+        String date = value.length() > 8 && value.charAt(8) == 'T' ? value.substring(0, 8) : value;
+        try {
+            return LocalDate.parse(date, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidRecurrenceRuleException("UNTIL must be a date such as 20261231");
+        }
+    }
+
+    /**
+     * The last day an occurrence can fall on: the day of the {@code COUNT}th occurrence, the
+     * {@code UNTIL} date, or null if the rule is unbounded.
+     *
+     * @param start the series' start date
+     * @throws InvalidRecurrenceRuleException if the rule never produces an occurrence from that start
+     */
+    LocalDate lastOccurrence(LocalDate start) {
+        LocalDate occurrence = nextOnOrAfter(start, start, until);
+        if (occurrence == null) {
+            throw new InvalidRecurrenceRuleException("The rule has no occurrences on or after " + start);
+        }
+        if (count == null) {
+            return until;
+        }
+        for (int i = 1; i < count; i++) {
+            LocalDate next = nextOnOrAfter(start, occurrence.plusDays(1), null);
+            if (next == null) {
+                break;
+            }
+            occurrence = next;
+        }
+        return occurrence;
+    }
+
+    /**
+     * Lists the occurrences within a range.
+     *
+     * @param start the series' start date
+     * @param last the series' last possible occurrence, from {@link #lastOccurrence}, or null
+     * @param from the first day of the range (inclusive)
+     * @param to the last day of the range (inclusive)
+     * @return the occurrence dates in order
+     */
+    List<LocalDate> occurrencesBetween(LocalDate start, LocalDate last, LocalDate from, LocalDate to) {
+        LocalDate end = last != null && last.isBefore(to) ? last : to;
+        List<LocalDate> occurrences = new ArrayList<>();
+        for (LocalDate day = nextOnOrAfter(start, from, end); day != null; day = nextOnOrAfter(start, day.plusDays(1), end)) {
+            occurrences.add(day);
+        }
+        return occurrences;
+    }
+
+    /**
+     * @param start the series' start date
+     * @param last the series' last possible occurrence, or null
+     * @return whether an occurrence falls on the given day
+     */
+    boolean occursOn(LocalDate start, LocalDate last, LocalDate day) {
+        return !occurrencesBetween(start, last, day, day).isEmpty();
+    }
+
+    /**
+     * Finds the first occurrence on or after a day, or null if there is none up to {@code end}.
+     */
+    private LocalDate nextOnOrAfter(LocalDate start, LocalDate day, LocalDate end) {
+        LocalDate from = day.isBefore(start) ? start : day;
+        LocalDate next = switch (frequency) {
+            case DAILY -> nextDaily(start, from);
+            case WEEKLY -> nextWeekly(start, from);
+            case MONTHLY -> nextMonthly(start, from);
+        };
+        return next == null || (end != null && next.isAfter(end)) ? null : next;
+    }
+
+    private LocalDate nextDaily(LocalDate start, LocalDate from) {
+        long behind = ChronoUnit.DAYS.between(start, from) % interval;
+        return behind == 0 ? from : from.plusDays(interval - behind);
+    }
+
+    private LocalDate nextWeekly(LocalDate start, LocalDate from) {
+        Set<DayOfWeek> days = byDay.isEmpty() ? EnumSet.of(start.getDayOfWeek()) : byDay;
+        LocalDate firstWeek = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate week = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long behind = ChronoUnit.WEEKS.between(firstWeek, week) % interval;
+        if (behind != 0) {
+            week = week.plusWeeks(interval - behind);
+            from = week;
+        }
+        // The matching week may have no day left on or after from; the next one always has.
+        for (int i = 0; i < 2; i++) {
+            for (DayOfWeek dayOfWeek : days) {
+                LocalDate candidate = week.plusDays(dayOfWeek.ordinal());
+                if (!candidate.isBefore(from)) {
+                    return candidate;
+                }
+            }
+            week = week.plusWeeks(interval);
+        }
+        return null;
+    }
+
+    private LocalDate nextMonthly(LocalDate start, LocalDate from) {
+        Set<Integer> days = byMonthDay.isEmpty() ? Set.of(start.getDayOfMonth()) : byMonthDay;
+        YearMonth month = YearMonth.from(from);
+        long behind = ChronoUnit.MONTHS.between(YearMonth.from(start), month) % interval;
+        if (behind != 0) {
+            month = month.plusMonths(interval - behind);
+            from = month.atDay(1);
+        }
+        for (int i = 0; i <= MONTHS_IN_LEAP_CYCLE; i++) {
+            for (int dayOfMonth : days) {
+                if (dayOfMonth <= month.lengthOfMonth() && !month.atDay(dayOfMonth).isBefore(from)) {
+                    return month.atDay(dayOfMonth);
+                }
+            }
+            month = month.plusMonths(interval);
+        }
+        return null;
+    }
+
+    /**
+     * @return the rule in a canonical form, e.g. {@code FREQ=WEEKLY;BYDAY=MO,TH;COUNT=10}
+     */
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            rule.append(";BYDAY=").append(byDay.stream()
+                    .map(day -> day.name().substring(0, 2))
+                    .collect(Collectors.joining(",")));
+        }
+        if (!byMonthDay.isEmpty()) {
+            rule.append(";BYMONTHDAY=").append(byMonthDay.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(DateTimeFormatter.BASIC_ISO_DATE));
+        }
+        return rule.toString();
+    }
+}
@@ -1,6 +1,12 @@
 package dev.iainkirkham.mental_planner_backend.tasks;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,9 +17,60 @@ public interface SubtaskRepository extends JpaRepository<Subtask, Long> {
 
     List<Subtask> findByTaskIdOrderBySortOrderAsc(Long taskId);
 
+    /**
+     * Updates a subtask in a single statement, scoped to its parent task and the task's owner,
+     * and returns the updated row.
+     * @param id the subtask ID
+     * @param taskId the parent task's ID
+     * @param userId the internal user ID that must own the parent task
+     * @return Optional containing the updated subtask, empty if no such subtask belongs to the user's task
+     */
+    @Query(value = "UPDATE subtask s SET title = :title, completed = :completed, sort_order = :sortOrder, "
+            + "planned_minutes = CAST(:plannedMinutes AS INTEGER) "
+            + "FROM task t WHERE s.id = :id AND s.task_id = :taskId AND t.id = s.task_id AND t.user_id = :userId "
+            + "RETURNING s.id, s.task_id, s.title, s.completed, s.sort_order, s.planned_minutes",
+            nativeQuery = true)
+    Optional<Subtask> updateOwned(@Param("id") Long id, @Param("taskId") Long taskId, @Param("userId") Long userId,
+                                  @Param("title") String title, @Param("completed") boolean completed,
+                                  @Param("sortOrder") int sortOrder, @Param("plannedMinutes") Integer plannedMinutes);
+
+    /**
+     * Deletes a subtask in a single statement, scoped to its parent task and the task's owner.
+     * @param id the subtask ID
+     * @param taskId the parent task's ID
+     * @param userId the internal user ID that must own the parent task
+     * @return the number of subtasks deleted (0 if no such subtask belongs to the user's task)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM subtask s USING task t "
+            + "WHERE s.id = :id AND s.task_id = :taskId AND t.id = s.task_id AND t.user_id = :userId",
+            nativeQuery = true)
+    int deleteOwned(@Param("id") Long id, @Param("taskId") Long taskId, @Param("userId") Long userId);
+
     /**
      * Batch-fetch subtasks for a set of tasks (used when listing tasks for a day/week),
      * ordered so callers can group by taskId while preserving sort order within each group.
      */
     List<Subtask> findByTaskIdInOrderByTaskIdAscSortOrderAsc(List<Long> taskIds);
+
+    /**
+     * Copies the subtasks of tasks being moved into subtask_archive.
+     * @param taskIds the IDs of tasks already copied into task_archive
+     * @return the number of subtasks copied
+     */
+    @Modifying
+    @Query(value = "INSERT INTO subtask_archive (id, task_id, title, completed, sort_order, planned_minutes) "
+            + "SELECT id, task_id, title, completed, sort_order, planned_minutes FROM subtask WHERE task_id IN (:taskIds)",
+            nativeQuery = true)
+    int copyToArchive(@Param("taskIds") List<Long> taskIds);
+
+    /**
+     * Batch-fetch the subtasks of tasks in cold storage, ordered like
+     * {@link #findByTaskIdInOrderByTaskIdAscSortOrderAsc}. The entities are read-only.
+     */
+    @Query(value = "SELECT id, task_id, title, completed, sort_order, planned_minutes FROM subtask_archive "
+            + "WHERE task_id IN (:taskIds) ORDER BY task_id, sort_order",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Subtask> findArchivedByTaskIdIn(@Param("taskIds") List<Long> taskIds);
 }
@@ -6,12 +6,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "task")
+@DynamicUpdate
 @Getter
 @Setter
 @ToString
@@ -94,9 +96,23 @@ public class Task {
     private TaskPriority priority = TaskPriority.NORMAL;
 
     /**
-     * The Clerk user ID of the user who created this task.
+     * The series this task is an occurrence of, or null for a one-off task. Set when the
+     * occurrence is materialized; updates don't change it.
+     */
+    @Column(name = "series_id")
+    private Long seriesId;
+
+    /**
+     * The day the series placed this occurrence on. It stays put when the task is rescheduled,
+     * so the series knows which occurrence the task replaced.
+     */
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
+    /**
+     * The internal ID (app_user.id) of the user who created this task.
      * This field is used to ensure data isolation between users.
      */
     @Column(name = "user_id")
-    private String userId;
+    private Long userId;
 }
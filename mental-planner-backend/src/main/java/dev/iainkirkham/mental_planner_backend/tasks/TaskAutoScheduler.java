@@ -0,0 +1,133 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.AutoScheduleResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.AutoScheduledTaskDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Places a user's backlog tasks on their timeline: open tasks with no start time that say how long
+ * they need are packed by {@link BacklogPacker} into the free parts of each day's working hours
+ * ({@code tasks.auto-schedule.day-start} to {@code day-end} in the user's time zone), never before
+ * their own day or in the past. The plan is built from three reads, the range's backlog, the
+ * user's time zone and the range's timeline, and applied with a single UPDATE.
+ */
+@Service
+public class TaskAutoScheduler {
+
+    /**
+     * The most days one run plans across.
+     */
+    static final int MAX_DAYS = 7;
+
+    private final TaskRepository taskRepository;
+    private final TaskTimelineService taskTimelineService;
+    private final AuthenticationContext authenticationContext;
+    private final ChangeEvents changeEvents;
+    private final LocalTime dayStart;
+    private final LocalTime dayEnd;
+    private final Clock clock = Clock.systemUTC();
+
+    public TaskAutoScheduler(TaskRepository taskRepository,
+                             TaskTimelineService taskTimelineService,
+                             AuthenticationContext authenticationContext,
+                             ChangeEvents changeEvents,
+                             @Value("${tasks.auto-schedule.day-start:09:00}") LocalTime dayStart,
+                             @Value("${tasks.auto-schedule.day-end:18:00}") LocalTime dayEnd) {
+        this.taskRepository = taskRepository;
+        this.taskTimelineService = taskTimelineService;
+        this.authenticationContext = authenticationContext;
+        this.changeEvents = changeEvents;
+        this.dayStart = dayStart;
+        this.dayEnd = dayEnd;
+    }
+
+    /**
+     * Plans the authenticated user's backlog from a day onwards, and optionally applies the plan.
+     *
+     * @param date the first day
+     * @param days how many days to plan across, from 1 to {@value #MAX_DAYS}
+     * @param apply whether to place the tasks, or only propose where they would go
+     * @return the tasks placed, and the ones that didn't fit
+     */
+    @Transactional
+    public AutoScheduleResponseDTO autoSchedule(LocalDate date, int days, boolean apply) {
+        Long userId = authenticationContext.getCurrentUserId();
+        LocalDate endDate = date.plusDays(Math.clamp(days, 1, MAX_DAYS) - 1L);
+        List<Task> backlog = taskRepository.findBacklogToSchedule(userId, date, endDate);
+        if (backlog.isEmpty()) {
+            return new AutoScheduleResponseDTO(apply, List.of(), List.of());
+        }
+
+        ZoneId zone = taskTimelineService.userZone(userId);
+        Timeline timeline = Timeline.of(taskRepository.findTimelineBlocksBetween(userId, date, endDate));
+        Instant now = nextFiveMinutes(clock.instant());
+        List<Timeline.Slot> slots = new ArrayList<>();
+        for (LocalDate day = date; !day.isAfter(endDate); day = day.plusDays(1)) {
+            Instant from = max(day.atTime(dayStart).atZone(zone).toInstant(), now);
+            Instant to = day.atTime(dayEnd).atZone(zone).toInstant();
+            if (from.isBefore(to)) {
+                slots.addAll(timeline.freeSlots(from, to, Duration.ZERO));
+            }
+        }
+
+        List<BacklogPacker.Candidate> candidates = backlog.stream()
+                .map(task -> new BacklogPacker.Candidate(task.getId(), task.getPriority(), task.getScheduledDate(),
+                        task.getSortOrder(), task.getPlannedMinutes(),
+                        task.getScheduledDate().atTime(dayStart).atZone(zone).toInstant()))
+                .toList();
+        BacklogPacker.Plan plan = BacklogPacker.pack(candidates, slots);
+        List<AutoScheduledTaskDTO> scheduled = plan.placements().stream()
+                .map(placement -> new AutoScheduledTaskDTO(placement.taskId(),
+                        LocalDate.ofInstant(placement.start(), zone), placement.start(), placement.end()))
+                .toList();
+
+        if (apply && !scheduled.isEmpty()) {
+            Set<Long> placed = new HashSet<>(taskRepository.placeBacklogTasks(userId,
+                    arrayLiteral(scheduled, AutoScheduledTaskDTO::getTaskId),
+                    arrayLiteral(scheduled, AutoScheduledTaskDTO::getScheduledDate),
+                    arrayLiteral(scheduled, AutoScheduledTaskDTO::getStartTime),
+                    arrayLiteral(scheduled, AutoScheduledTaskDTO::getEndTime)));
+            // Tasks changed by another request since they were read are left where that put them
+            scheduled = scheduled.stream().filter(task -> placed.contains(task.getTaskId())).toList();
+            if (!placed.isEmpty()) {
+                changeEvents.publish(userId, ChangedResource.TASK, null, ChangeAction.UPDATED);
+            }
+        }
+        return new AutoScheduleResponseDTO(apply, scheduled, plan.unplaced());
+    }
+
+    private static <T> String arrayLiteral(List<AutoScheduledTaskDTO> tasks, Function<AutoScheduledTaskDTO, T> value) {
+        return tasks.stream()
+                .map(value)
+                .map(Object::toString)
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static Instant nextFiveMinutes(Instant instant) {
+        long step = Duration.ofMinutes(5).toSeconds();
+        return Instant.ofEpochSecond(Math.ceilDiv(instant.getEpochSecond(), step) * step);
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
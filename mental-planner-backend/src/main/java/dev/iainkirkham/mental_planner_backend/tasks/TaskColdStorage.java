@@ -0,0 +1,98 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.config.OwnedEntityLookup;
+import dev.iainkirkham.mental_planner_backend.config.OwnershipCache;
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import dev.iainkirkham.mental_planner_backend.jobs.ClusterScheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Background mover that keeps the hot task tables limited to tasks the planner can still show.
+ * Archived tasks, and completed tasks scheduled more than {@code tasks.cold-storage.completed-age}
+ * ago, are moved with their subtasks and time entries into the {@code *_archive} tables, which
+ * only the archive endpoints read. Runs nightly in chunks of {@code tasks.cold-storage.chunk-size}
+ * tasks, one transaction each, so no single transaction holds many row locks or runs for long.
+ */
+@Component
+public class TaskColdStorage {
+
+    private final TaskRepository taskRepository;
+    private final SubtaskRepository subtaskRepository;
+    private final TaskTimeEntryRepository taskTimeEntryRepository;
+    private final OwnershipCache taskOwners;
+    private final ChangeEvents changeEvents;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration completedAge;
+    private final int chunkSize;
+    private final Clock clock = Clock.systemUTC();
+
+    public TaskColdStorage(TaskRepository taskRepository,
+                           SubtaskRepository subtaskRepository,
+                           TaskTimeEntryRepository taskTimeEntryRepository,
+                           OwnedEntityLookup ownedEntityLookup,
+                           ChangeEvents changeEvents,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${tasks.cold-storage.completed-age:365d}") Duration completedAge,
+                           @Value("${tasks.cold-storage.chunk-size:500}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.subtaskRepository = subtaskRepository;
+        this.taskTimeEntryRepository = taskTimeEntryRepository;
+        this.taskOwners = ownedEntityLookup.ownershipCache(TaskService.TASK_OWNERS);
+        this.changeEvents = changeEvents;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.completedAge = completedAge;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Moves every task currently due for cold storage.
+     *
+     * @return the number of tasks moved
+     */
+    @ClusterScheduled(name = "tasks.cold-storage", cron = "${tasks.cold-storage.cron:0 45 3 * * *}", zone = "UTC")
+    public int moveColdTasks() {
+        LocalDate completedBefore = LocalDate.now(clock).minusDays(completedAge.toDays());
+        long afterId = 0;
+        int moved = 0;
+        while (true) {
+            long chunkAfterId = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> moveChunk(chunkAfterId, completedBefore));
+            if (ids == null || ids.isEmpty()) {
+                return moved;
+            }
+            moved += ids.size();
+            afterId = ids.getLast();
+        }
+    }
+
+    /**
+     * Copies one chunk of tasks into the archive, parents first, then deletes them from the hot
+     * tables; the delete cascades to their hot subtasks and time entries. The moved tasks are
+     * dropped from the hot-table ownership cache, but stay linkable by pomodoro sessions. Each is
+     * published as deleted, so other instances drop their cached owners and open event streams
+     * drop the task.
+     */
+    private List<Long> moveChunk(long afterId, LocalDate completedBefore) {
+        List<Long> ids = taskRepository.lockColdTaskIds(afterId, completedBefore, chunkSize);
+        if (!ids.isEmpty()) {
+            taskRepository.copyToArchive(ids);
+            subtaskRepository.copyToArchive(ids);
+            taskTimeEntryRepository.copyToArchive(ids);
+            for (TaskRepository.MovedTask task : taskRepository.deleteMovedToArchive(ids)) {
+                changeEvents.publish(task.getUserId(), ChangedResource.TASK, task.getId(), ChangeAction.DELETED);
+            }
+            taskOwners.forget(ids);
+        }
+        return ids;
+    }
+}
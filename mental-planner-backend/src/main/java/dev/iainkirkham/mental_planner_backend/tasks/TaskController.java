@@ -1,7 +1,10 @@
 package dev.iainkirkham.mental_planner_backend.tasks;
 
+import dev.iainkirkham.mental_planner_backend.config.JsonMergePatcher;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.ActualMinutesRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.AutoScheduleResponseDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.CompletionRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.FreeSlotDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskResponseDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskReorderItemDTO;
@@ -14,6 +17,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.JsonNode;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -27,9 +31,14 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskTimelineService taskTimelineService;
+    private final TaskAutoScheduler taskAutoScheduler;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskTimelineService taskTimelineService,
+                          TaskAutoScheduler taskAutoScheduler) {
         this.taskService = taskService;
+        this.taskTimelineService = taskTimelineService;
+        this.taskAutoScheduler = taskAutoScheduler;
     }
 
     /**
@@ -74,6 +83,42 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Finds the gaps between the tasks on a day's timeline, from midnight to midnight in the
+     * user's time zone.
+     *
+     * @param date the day to look in
+     * @param minMinutes the shortest gap to return, in minutes
+     * @return list of free slots with status 200 (OK), or 204 (No Content) if the day is full
+     */
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<FreeSlotDTO>> getFreeSlots(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "0") int minMinutes) {
+        List<FreeSlotDTO> slots = taskTimelineService.getFreeSlots(date, minMinutes);
+        if (slots.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(slots);
+    }
+
+    /**
+     * Packs the backlog's tasks that have planned minutes into the free parts of each day's
+     * working hours, most urgent first, and proposes or applies the result.
+     *
+     * @param date the first day to plan
+     * @param days how many days to plan across, up to a week
+     * @param apply whether to place the tasks, or only return where they would go
+     * @return the placements and the tasks that didn't fit, with status 200 (OK)
+     */
+    @PostMapping("/auto-schedule")
+    public ResponseEntity<AutoScheduleResponseDTO> autoSchedule(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") int days,
+            @RequestParam(defaultValue = "false") boolean apply) {
+        return ResponseEntity.ok(taskAutoScheduler.autoSchedule(date, days, apply));
+    }
+
     /**
      * Retrieves a task by its ID.
      *
@@ -86,6 +131,50 @@ public class TaskController {
         return ResponseEntity.ok(task);
     }
 
+    /**
+     * Retrieves tasks that have been moved to cold storage (archived or long-completed) within a date range.
+     *
+     * @param startDate start of the date range (inclusive)
+     * @param endDate end of the date range (inclusive)
+     * @return list of archived tasks with status 200 (OK), or 204 (No Content) if empty
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<List<TaskResponseDTO>> getArchivedTasks(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<TaskResponseDTO> tasks = taskService.getArchivedTasksForDateRange(startDate, endDate);
+        if (tasks.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Retrieves a task in cold storage by its ID.
+     *
+     * @param id the ID of the archived task
+     * @return the task with status 200 (OK)
+     */
+    @GetMapping("/archive/{id}")
+    public ResponseEntity<TaskResponseDTO> getArchivedTaskById(@PathVariable Long id) {
+        return ResponseEntity.ok(taskService.getArchivedTaskById(id));
+    }
+
+    /**
+     * Retrieves all time entries logged against a task in cold storage.
+     *
+     * @param id the ID of the archived task
+     * @return list of time entries with status 200 (OK), or 204 (No Content) if empty
+     */
+    @GetMapping("/archive/{id}/time-entries")
+    public ResponseEntity<List<TaskTimeEntryResponseDTO>> getArchivedTimeEntries(@PathVariable Long id) {
+        List<TaskTimeEntryResponseDTO> entries = taskService.getArchivedTimeEntries(id);
+        if (entries.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(entries);
+    }
+
     /**
      * Updates an existing task. Also used to reschedule a task or toggle completion.
      *
@@ -99,6 +188,20 @@ public class TaskController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Partially updates a task with a JSON Merge Patch ({@code application/merge-patch+json}),
+     * e.g. {@code {"completed": true}}. Fields absent from the patch are left unchanged.
+     *
+     * @param id the ID of the task to update
+     * @param patch the merge patch
+     * @return the updated task with status 200 (OK)
+     */
+    @PatchMapping(value = "/{id}", consumes = JsonMergePatcher.MEDIA_TYPE)
+    public ResponseEntity<TaskResponseDTO> patchTask(@PathVariable Long id, @RequestBody JsonNode patch) {
+        TaskResponseDTO updated = taskService.patchTask(id, patch);
+        return ResponseEntity.ok(updated);
+    }
+
     /**
      * Sets a task's completion state and cascades it to all of its subtasks, atomically.
      *
@@ -57,6 +57,37 @@ public class TaskMapper {
         dto.setCategory(entity.getCategory());
         dto.setArchived(entity.isArchived());
         dto.setPriority(entity.getPriority());
+        dto.setSeriesId(entity.getSeriesId());
+        dto.setOccurrenceDate(entity.getOccurrenceDate());
+
+        return dto;
+    }
+
+    /**
+     * Converts an entity to a request DTO holding its current state, which a merge patch is
+     * then applied to.
+     *
+     * @param entity the Task entity
+     * @return a request DTO with the entity's current values
+     */
+    public TaskRequestDTO toRequestDTO(Task entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        TaskRequestDTO dto = new TaskRequestDTO();
+        dto.setTitle(entity.getTitle());
+        dto.setDescription(entity.getDescription());
+        dto.setScheduledDate(entity.getScheduledDate());
+        dto.setStartTime(entity.getStartTime());
+        dto.setEndTime(entity.getEndTime());
+        dto.setCompleted(entity.isCompleted());
+        dto.setSortOrder(entity.getSortOrder());
+        dto.setPlannedMinutes(entity.getPlannedMinutes());
+        dto.setActualMinutes(entity.getActualMinutes());
+        dto.setCategory(entity.getCategory());
+        dto.setArchived(entity.isArchived());
+        dto.setPriority(entity.getPriority());
 
         return dto;
     }
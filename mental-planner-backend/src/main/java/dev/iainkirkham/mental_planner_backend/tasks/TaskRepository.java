@@ -1,7 +1,14 @@
 package dev.iainkirkham.mental_planner_backend.tasks;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -11,38 +18,263 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     /**
      * Find a specific task by ID that belongs to a specific user.
      * @param id the task ID
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @return Optional containing the task if found and belongs to the user
      */
-    Optional<Task> findByIdAndUserId(Long id, String userId);
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Check whether a task exists and belongs to a specific user, without loading it.
+     * @param id the task ID
+     * @param userId the internal user ID
+     * @return true if the task exists and belongs to the user
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Find the task an occurrence of a series was materialized into, if it is still in the hot table.
+     * @param seriesId the series ID
+     * @param occurrenceDate the occurrence's date
+     * @param userId the internal user ID
+     * @return Optional containing the task if found and belongs to the user
+     */
+    Optional<Task> findBySeriesIdAndOccurrenceDateAndUserId(Long seriesId, LocalDate occurrenceDate, Long userId);
 
     /**
      * Batch-fetch tasks by ID, scoped to a specific user, used to validate an entire
      * reorder batch in one query instead of one lookup per item.
      * @param ids the task IDs
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @return the subset of matching tasks that belong to the user
      */
-    List<Task> findByIdInAndUserId(List<Long> ids, String userId);
+    List<Task> findByIdInAndUserId(List<Long> ids, Long userId);
 
     /**
      * Find all of a user's non-archived tasks scheduled for a given day, by sort order.
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @param scheduledDate the day to fetch tasks for
      * @return list of tasks ordered by sort order
      */
-    List<Task> findByUserIdAndScheduledDateAndArchivedFalseOrderBySortOrderAsc(String userId, LocalDate scheduledDate);
+    List<Task> findByUserIdAndScheduledDateAndArchivedFalseOrderBySortOrderAsc(Long userId, LocalDate scheduledDate);
 
     /**
      * Find all of a user's non-archived tasks scheduled within a date range.
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @param startDate the start date (inclusive)
      * @param endDate the end date (inclusive)
      * @return list of tasks ordered by date then sort order
      */
     List<Task> findByUserIdAndScheduledDateBetweenAndArchivedFalseOrderByScheduledDateAscSortOrderAsc(
-        String userId,
+        Long userId,
         LocalDate startDate,
         LocalDate endDate
     );
+
+    /**
+     * Find where a user's non-archived tasks on a given day sit on the timeline, reading only
+     * their IDs and times. Tasks in the backlog, or whose end isn't after their start, are left out.
+     * @param userId the internal user ID
+     * @param scheduledDate the day
+     * @return the day's timeline blocks, in no particular order
+     */
+    @Query("SELECT new dev.iainkirkham.mental_planner_backend.tasks.TimelineBlock(t.id, t.startTime, t.endTime) "
+            + "FROM Task t WHERE t.userId = :userId AND t.scheduledDate = :scheduledDate AND t.archived = false "
+            + "AND t.startTime IS NOT NULL AND t.endTime > t.startTime")
+    List<TimelineBlock> findTimelineBlocks(@Param("userId") Long userId, @Param("scheduledDate") LocalDate scheduledDate);
+
+    /**
+     * Find where a user's non-archived tasks within a date range sit on the timeline, as
+     * {@link #findTimelineBlocks} does for one day.
+     * @param userId the internal user ID
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return the range's timeline blocks, in no particular order
+     */
+    @Query("SELECT new dev.iainkirkham.mental_planner_backend.tasks.TimelineBlock(t.id, t.startTime, t.endTime) "
+            + "FROM Task t WHERE t.userId = :userId AND t.scheduledDate BETWEEN :startDate AND :endDate "
+            + "AND t.archived = false AND t.startTime IS NOT NULL AND t.endTime > t.startTime")
+    List<TimelineBlock> findTimelineBlocksBetween(@Param("userId") Long userId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find a user's open backlog tasks within a date range that say how long they need: the ones
+     * the auto-scheduler can place. The entities are read-only.
+     * @param userId the internal user ID
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return the tasks, in no particular order
+     */
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.scheduledDate BETWEEN :startDate AND :endDate "
+            + "AND t.startTime IS NULL AND t.plannedMinutes > 0 AND t.completed = false AND t.archived = false")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Task> findBacklogToSchedule(@Param("userId") Long userId,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * Places a user's backlog tasks on the timeline in one statement, from parallel arrays given as
+     * Postgres array literals. A task that has since been placed, completed or archived is left as it is.
+     * @param userId the internal user ID
+     * @param ids the task IDs
+     * @param scheduledDates each task's new day
+     * @param startTimes each task's start
+     * @param endTimes each task's end
+     * @return the IDs of the tasks placed
+     */
+    @Query(value = "UPDATE task t SET scheduled_date = placed.scheduled_date, start_time = placed.start_time, "
+            + "end_time = placed.end_time "
+            + "FROM unnest(CAST(:ids AS BIGINT[]), CAST(:scheduledDates AS DATE[]), "
+            + "CAST(:startTimes AS TIMESTAMPTZ[]), CAST(:endTimes AS TIMESTAMPTZ[])) "
+            + "AS placed(id, scheduled_date, start_time, end_time) "
+            + "WHERE t.id = placed.id AND t.user_id = :userId AND t.start_time IS NULL "
+            + "AND NOT t.completed AND NOT t.archived RETURNING t.id",
+            nativeQuery = true)
+    List<Long> placeBacklogTasks(@Param("userId") Long userId,
+                                 @Param("ids") String ids,
+                                 @Param("scheduledDates") String scheduledDates,
+                                 @Param("startTimes") String startTimes,
+                                 @Param("endTimes") String endTimes);
+
+    /**
+     * Locks the next chunk of tasks due for cold storage: archived tasks, and completed tasks
+     * scheduled before a cutoff. Walks the primary key from {@code afterId} so a run reads the
+     * table once, and skips rows held by in-flight requests, which the next run picks up.
+     * @param afterId only consider tasks with a greater ID
+     * @param completedBefore completed tasks scheduled before this day are due
+     * @param limit the chunk size
+     * @return the locked task IDs, ascending
+     */
+    @Query(value = "SELECT id FROM task WHERE id > :afterId "
+            + "AND (archived OR (completed AND scheduled_date < :completedBefore)) "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockColdTaskIds(@Param("afterId") long afterId,
+                               @Param("completedBefore") LocalDate completedBefore,
+                               @Param("limit") int limit);
+
+    /**
+     * Moves the next chunk of open tasks from before their owner's today onto it, for opted-in
+     * users in one time zone, walking the users in ID order from {@code fromUserId}. Their timeline
+     * times are cleared, since they were on the old day, so the tasks land in today's backlog.
+     * Skips rows held by in-flight requests, which the next run picks up. Moved rows no longer
+     * match, so resuming from the last chunk's highest owner neither misses nor re-reads any.
+     * @param timeZone the users' time zone
+     * @param today the current day in that time zone
+     * @param fromUserId only consider users with this or a greater ID
+     * @param limit the chunk size
+     * @return the owner of each moved task
+     */
+    @Query(value = "UPDATE task t SET scheduled_date = :today, start_time = NULL, end_time = NULL "
+            + "FROM (SELECT candidate.id FROM app_user u JOIN task candidate ON candidate.user_id = u.id "
+            + "WHERE u.rollover_enabled AND u.time_zone = :timeZone AND u.id >= :fromUserId "
+            + "AND NOT candidate.completed AND NOT candidate.archived AND candidate.scheduled_date < :today "
+            + "ORDER BY u.id LIMIT :limit FOR UPDATE OF candidate SKIP LOCKED) due "
+            + "WHERE t.id = due.id RETURNING t.user_id",
+            nativeQuery = true)
+    List<Long> rollOverOpenTasks(@Param("timeZone") String timeZone,
+                                 @Param("today") LocalDate today,
+                                 @Param("fromUserId") long fromUserId,
+                                 @Param("limit") int limit);
+
+    /**
+     * Adds minutes onto a task's tracked time, scoped to its owner, without loading the task.
+     * @param id the task ID
+     * @param userId the internal user ID that must own the task
+     * @param minutes the minutes to add
+     * @return the number of tasks updated (0 if no such task belongs to the user)
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET actual_minutes = actual_minutes + :minutes WHERE id = :id AND user_id = :userId",
+            nativeQuery = true)
+    int addActualMinutes(@Param("id") Long id, @Param("userId") Long userId, @Param("minutes") int minutes);
+
+    /**
+     * Unlinks the pomodoro sessions linked to a task that is about to be deleted. The delete
+     * trigger would do the same, but the service needs to know which days of the pomodoro
+     * history changed.
+     * @param taskId the task ID
+     * @return the start times of the unlinked sessions
+     */
+    @Query(value = "UPDATE pomodoro_session SET task_id = NULL WHERE task_id = :taskId RETURNING start_time",
+            nativeQuery = true)
+    List<Instant> unlinkPomodoroSessions(@Param("taskId") Long taskId);
+
+    /**
+     * Copies tasks into task_archive. Must run before their subtasks and time entries are copied.
+     * @param ids the task IDs
+     * @return the number of tasks copied
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_archive (id, title, description, scheduled_date, start_time, end_time, completed, "
+            + "sort_order, planned_minutes, actual_minutes, category, archived, priority, series_id, occurrence_date, user_id) "
+            + "SELECT id, title, description, scheduled_date, start_time, end_time, completed, "
+            + "sort_order, planned_minutes, actual_minutes, category, archived, priority, series_id, occurrence_date, user_id "
+            + "FROM task WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids);
+
+    /**
+     * Deletes tasks that have been copied into task_archive, cascading to their hot subtasks
+     * and time entries. Pomodoro sessions linked to them keep their link.
+     * @param ids the task IDs
+     * @return the deleted tasks' IDs and owners
+     */
+    @Query(value = "DELETE FROM task WHERE id IN (:ids) RETURNING id, user_id AS \"userId\"", nativeQuery = true)
+    List<MovedTask> deleteMovedToArchive(@Param("ids") List<Long> ids);
+
+    /**
+     * A task deleted from the hot table, and its owner.
+     */
+    interface MovedTask {
+        Long getId();
+
+        Long getUserId();
+    }
+
+    /**
+     * Find a user's tasks in cold storage scheduled within a date range. The entities are
+     * read-only; they do not exist in the task table.
+     * @param userId the internal user ID
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return list of archived tasks ordered by date then sort order
+     */
+    @Query(value = "SELECT id, title, description, scheduled_date, start_time, end_time, completed, sort_order, "
+            + "planned_minutes, actual_minutes, category, archived, priority, series_id, occurrence_date, user_id "
+            + "FROM task_archive "
+            + "WHERE user_id = :userId AND scheduled_date BETWEEN :startDate AND :endDate "
+            + "ORDER BY scheduled_date, sort_order",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Task> findArchivedByUserIdAndScheduledDateBetween(@Param("userId") Long userId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find a task in cold storage by ID that belongs to a specific user. The entity is read-only.
+     * @param id the task ID
+     * @param userId the internal user ID
+     * @return Optional containing the archived task if found and belongs to the user
+     */
+    @Query(value = "SELECT id, title, description, scheduled_date, start_time, end_time, completed, sort_order, "
+            + "planned_minutes, actual_minutes, category, archived, priority, series_id, occurrence_date, user_id "
+            + "FROM task_archive "
+            + "WHERE id = :id AND user_id = :userId",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Task> findArchivedByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Checks in one statement whether a task belongs to a user, whether it is still in the hot
+     * table or has been moved to cold storage.
+     *
+     * @param id the task ID
+     * @param userId the internal user ID
+     * @return true if the task exists in either table and belongs to the user
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM task WHERE id = :id AND user_id = :userId) "
+            + "OR EXISTS (SELECT 1 FROM task_archive WHERE id = :id AND user_id = :userId)",
+            nativeQuery = true)
+    boolean existsInHotOrArchiveByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
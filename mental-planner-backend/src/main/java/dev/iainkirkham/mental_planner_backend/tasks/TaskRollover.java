@@ -0,0 +1,91 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import dev.iainkirkham.mental_planner_backend.jobs.ClusterScheduled;
+import dev.iainkirkham.mental_planner_backend.users.AppUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Background mover for users who opted in to rollover: their unfinished, non-archived tasks from
+ * past days are moved onto today, in the user's time zone, so they don't have to drag them forward
+ * one by one. Runs hourly, so each user's tasks move within the hour after their midnight. Works
+ * through one time zone at a time, its users in ID order, in chunks of
+ * {@code tasks.rollover.chunk-size} tasks, each a single UPDATE in its own transaction, so no
+ * transaction holds many row locks or runs for long.
+ * Progress is the data itself: a moved task no longer matches, so a run that is interrupted,
+ * or that skipped rows locked by requests, is simply finished by the next one.
+ */
+@Component
+public class TaskRollover {
+
+    private final TaskRepository taskRepository;
+    private final AppUserRepository appUserRepository;
+    private final ChangeEvents changeEvents;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Clock clock = Clock.systemUTC();
+
+    public TaskRollover(TaskRepository taskRepository,
+                        AppUserRepository appUserRepository,
+                        ChangeEvents changeEvents,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${tasks.rollover.chunk-size:1000}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.appUserRepository = appUserRepository;
+        this.changeEvents = changeEvents;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Moves every opted-in user's overdue open tasks onto their today.
+     *
+     * @return the number of tasks moved
+     */
+    @ClusterScheduled(name = "tasks.rollover", cron = "${tasks.rollover.cron:0 5 * * * *}", zone = "UTC")
+    public int rollOverTasks() {
+        Instant now = clock.instant();
+        int moved = 0;
+        for (String timeZone : appUserRepository.findRolloverTimeZones()) {
+            LocalDate today = LocalDate.ofInstant(now, ZoneId.of(timeZone));
+            long fromUserId = 0;
+            while (true) {
+                long chunkFromUserId = fromUserId;
+                List<Long> owners = transactionTemplate.execute(status -> rollOverChunk(timeZone, today, chunkFromUserId));
+                if (owners == null || owners.isEmpty()) {
+                    break;
+                }
+                moved += owners.size();
+                fromUserId = Collections.max(owners);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Moves one chunk, and tells each affected user that several of their tasks changed. The
+     * chunk's last user may have more tasks to move, so the next chunk starts from them.
+     *
+     * @return the owner of each moved task
+     */
+    private List<Long> rollOverChunk(String timeZone, LocalDate today, long fromUserId) {
+        List<Long> owners = taskRepository.rollOverOpenTasks(timeZone, today, fromUserId, chunkSize);
+        for (Long userId : new LinkedHashSet<>(owners)) {
+            changeEvents.publish(userId, ChangedResource.TASK, null, ChangeAction.UPDATED);
+        }
+        return owners;
+    }
+}
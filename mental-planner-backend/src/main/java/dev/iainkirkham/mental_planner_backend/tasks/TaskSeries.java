@@ -0,0 +1,74 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDate;
+
+/**
+ * A recurring task, such as a daily medication reminder or a weekly review. The series holds the
+ * template its occurrences are shown with and the rule that places them; see {@link RecurrenceRule}.
+ * Occurrences aren't stored: they are expanded into day and week reads, and an occurrence only
+ * becomes a {@link Task} once the user acts on it.
+ */
+@Entity
+@Table(name = "task_series")
+@DynamicUpdate
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class TaskSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(nullable = false)
+    private String title;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Column(name = "planned_minutes")
+    private Integer plannedMinutes;
+
+    @Column(length = 50)
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 10)
+    private TaskPriority priority = TaskPriority.NORMAL;
+
+    /**
+     * The rule in canonical form, e.g. {@code FREQ=WEEKLY;BYDAY=MO,TH}.
+     */
+    @NotNull
+    @Column(name = "recurrence_rule", nullable = false)
+    private String recurrenceRule;
+
+    /**
+     * The first day an occurrence can fall on; the rule is anchored on it.
+     */
+    @NotNull
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    /**
+     * The last day an occurrence can fall on, from the rule's UNTIL or COUNT. Null if unbounded.
+     */
+    @Column(name = "until_date")
+    private LocalDate untilDate;
+
+    /**
+     * The internal ID (app_user.id) of the user who owns this series.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
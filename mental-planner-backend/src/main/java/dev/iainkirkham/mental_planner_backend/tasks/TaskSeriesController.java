@@ -0,0 +1,118 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesResponseDTO;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller for recurring tasks. Series are managed here; their occurrences appear in the
+ * task endpoints' day and week views, and are materialized or skipped here.
+ */
+@RestController
+@RequestMapping("api/task-series")
+public class TaskSeriesController {
+
+    private final TaskSeriesService taskSeriesService;
+
+    public TaskSeriesController(TaskSeriesService taskSeriesService) {
+        this.taskSeriesService = taskSeriesService;
+    }
+
+    /**
+     * Creates a new series.
+     *
+     * @param requestDTO the data for the new series
+     * @return the created series with status 201 (Created)
+     */
+    @PostMapping
+    public ResponseEntity<TaskSeriesResponseDTO> createSeries(@RequestBody @Valid TaskSeriesRequestDTO requestDTO) {
+        TaskSeriesResponseDTO saved = taskSeriesService.createSeries(requestDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+
+    /**
+     * Retrieves all of the user's series.
+     *
+     * @return list of series with status 200 (OK), or 204 (No Content) if empty
+     */
+    @GetMapping
+    public ResponseEntity<List<TaskSeriesResponseDTO>> getAllSeries() {
+        List<TaskSeriesResponseDTO> series = taskSeriesService.getAllSeries();
+        if (series.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(series);
+    }
+
+    /**
+     * Retrieves a series by its ID.
+     *
+     * @param id the ID of the series
+     * @return the series with status 200 (OK)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskSeriesResponseDTO> getSeriesById(@PathVariable Long id) {
+        return ResponseEntity.ok(taskSeriesService.getSeriesById(id));
+    }
+
+    /**
+     * Updates a series' template and rule.
+     *
+     * @param id the ID of the series to update
+     * @param requestDTO the updated series data
+     * @return the updated series with status 200 (OK)
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<TaskSeriesResponseDTO> updateSeries(@PathVariable Long id,
+                                                              @RequestBody @Valid TaskSeriesRequestDTO requestDTO) {
+        return ResponseEntity.ok(taskSeriesService.updateSeries(id, requestDTO));
+    }
+
+    /**
+     * Deletes a series. Its materialized occurrences remain as ordinary tasks.
+     *
+     * @param id the ID of the series to delete
+     * @return status 204 (No Content)
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSeries(@PathVariable Long id) {
+        taskSeriesService.deleteSeries(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Materializes an occurrence into a task, which the task endpoints can then edit, complete
+     * or track time on. Materializing it again returns the same task.
+     *
+     * @param id the ID of the series
+     * @param date the day of the occurrence
+     * @return the occurrence's task with status 200 (OK)
+     */
+    @PostMapping("/{id}/occurrences/{date}")
+    public ResponseEntity<TaskResponseDTO> materializeOccurrence(
+            @PathVariable Long id, @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(taskSeriesService.materializeOccurrence(id, date));
+    }
+
+    /**
+     * Skips an occurrence, so the series no longer shows it.
+     *
+     * @param id the ID of the series
+     * @param date the day of the occurrence
+     * @return status 204 (No Content)
+     */
+    @DeleteMapping("/{id}/occurrences/{date}")
+    public ResponseEntity<Void> skipOccurrence(
+            @PathVariable Long id, @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        taskSeriesService.skipOccurrence(id, date);
+        return ResponseEntity.noContent().build();
+    }
+}
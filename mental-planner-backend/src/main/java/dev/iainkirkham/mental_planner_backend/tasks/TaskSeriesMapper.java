@@ -0,0 +1,116 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mapper class for converting between TaskSeries entities and DTOs, and for turning a series'
+ * template into its occurrences.
+ */
+@Component
+public class TaskSeriesMapper {
+
+    /**
+     * Converts a request DTO to an entity. The recurrence rule is copied as given; the service
+     * stores its canonical form and the derived until date.
+     */
+    public TaskSeries toEntity(TaskSeriesRequestDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        TaskSeries entity = new TaskSeries();
+        updateEntityFromDTO(entity, dto);
+
+        return entity;
+    }
+
+    public TaskSeriesResponseDTO toResponseDTO(TaskSeries entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        TaskSeriesResponseDTO dto = new TaskSeriesResponseDTO();
+        dto.setId(entity.getId());
+        dto.setTitle(entity.getTitle());
+        dto.setDescription(entity.getDescription());
+        dto.setPlannedMinutes(entity.getPlannedMinutes());
+        dto.setCategory(entity.getCategory());
+        dto.setPriority(entity.getPriority());
+        dto.setRecurrenceRule(entity.getRecurrenceRule());
+        dto.setStartDate(entity.getStartDate());
+        dto.setUntilDate(entity.getUntilDate());
+
+        return dto;
+    }
+
+    public List<TaskSeriesResponseDTO> toResponseDTOList(List<TaskSeries> entities) {
+        if (entities == null) {
+            return null;
+        }
+
+        return entities.stream()
+                .map(this::toResponseDTO)
+                .toList();
+    }
+
+    /**
+     * Updates an existing entity with data from a request DTO.
+     * Does not modify id, userId or untilDate.
+     */
+    public void updateEntityFromDTO(TaskSeries entity, TaskSeriesRequestDTO dto) {
+        if (entity == null || dto == null) {
+            return;
+        }
+
+        entity.setTitle(dto.getTitle());
+        entity.setDescription(dto.getDescription());
+        entity.setPlannedMinutes(dto.getPlannedMinutes());
+        entity.setCategory(dto.getCategory());
+        entity.setPriority(dto.getPriority() != null ? dto.getPriority() : TaskPriority.NORMAL);
+        entity.setRecurrenceRule(dto.getRecurrenceRule());
+        entity.setStartDate(dto.getStartDate());
+    }
+
+    /**
+     * Shows an occurrence that hasn't been materialized: the series' template on the given day,
+     * with no ID, subtasks or tracked time.
+     */
+    public TaskResponseDTO toOccurrenceDTO(TaskSeries series, LocalDate occurrenceDate) {
+        TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setTitle(series.getTitle());
+        dto.setDescription(series.getDescription());
+        dto.setScheduledDate(occurrenceDate);
+        dto.setPlannedMinutes(series.getPlannedMinutes());
+        dto.setCategory(series.getCategory());
+        dto.setPriority(series.getPriority());
+        dto.setSubtasks(List.of());
+        dto.setSeriesId(series.getId());
+        dto.setOccurrenceDate(occurrenceDate);
+
+        return dto;
+    }
+
+    /**
+     * Creates the task an occurrence is materialized into, from the series' template.
+     */
+    public Task toOccurrenceTask(TaskSeries series, LocalDate occurrenceDate) {
+        Task task = new Task();
+        task.setTitle(series.getTitle());
+        task.setDescription(series.getDescription());
+        task.setScheduledDate(occurrenceDate);
+        task.setPlannedMinutes(series.getPlannedMinutes());
+        task.setCategory(series.getCategory());
+        task.setPriority(series.getPriority());
+        task.setSeriesId(series.getId());
+        task.setOccurrenceDate(occurrenceDate);
+        task.setUserId(series.getUserId());
+
+        return task;
+    }
+}
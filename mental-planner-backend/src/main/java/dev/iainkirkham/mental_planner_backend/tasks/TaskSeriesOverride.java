@@ -0,0 +1,42 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * An occurrence its series no longer expands, because it was materialized into a task (which may
+ * since have been deleted or moved to cold storage) or skipped.
+ */
+@Entity
+@Table(name = "task_series_override")
+@IdClass(TaskSeriesOverride.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class TaskSeriesOverride {
+
+    @Id
+    @Column(name = "series_id", nullable = false)
+    private Long seriesId;
+
+    @Id
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long seriesId;
+        private LocalDate occurrenceDate;
+    }
+}
@@ -0,0 +1,50 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskSeriesRepository extends JpaRepository<TaskSeries, Long> {
+
+    Optional<TaskSeries> findByIdAndUserId(Long id, Long userId);
+
+    List<TaskSeries> findByUserIdOrderByStartDateAscIdAsc(Long userId);
+
+    /**
+     * Finds a user's series that may have occurrences within a date range, each paired with the
+     * dates in that range it no longer expands, in one statement. A series appears once per
+     * override in the range, or once with a null date if it has none.
+     * @param userId the internal user ID
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return rows of {@code [TaskSeries, LocalDate]}, grouped by series
+     */
+    @Query("SELECT s, o.occurrenceDate FROM TaskSeries s "
+            + "LEFT JOIN TaskSeriesOverride o ON o.seriesId = s.id "
+            + "AND o.occurrenceDate BETWEEN :startDate AND :endDate "
+            + "WHERE s.userId = :userId AND s.startDate <= :endDate "
+            + "AND (s.untilDate IS NULL OR s.untilDate >= :startDate) "
+            + "ORDER BY s.id")
+    List<Object[]> findActiveWithOverrides(@Param("userId") Long userId,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+
+    /**
+     * Records that a series no longer expands an occurrence, unless that is already recorded.
+     * Concurrent calls for the same occurrence are serialized by the primary key, so exactly one
+     * of them claims it.
+     * @param seriesId the series ID
+     * @param occurrenceDate the occurrence's date
+     * @return 1 if this call claimed the occurrence, 0 if it was already overridden
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_series_override (series_id, occurrence_date) VALUES (:seriesId, :occurrenceDate) "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int claimOccurrence(@Param("seriesId") Long seriesId, @Param("occurrenceDate") LocalDate occurrenceDate);
+}
@@ -0,0 +1,239 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.config.OwnedEntityLookup;
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import dev.iainkirkham.mental_planner_backend.exception.ResourceNotFoundException;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesResponseDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for managing recurring tasks. A series' occurrences are expanded on read and
+ * merged into the planner's day and week views by {@link TaskService}; an occurrence is only
+ * written to the task table when the user materializes it to edit, complete or track time on it.
+ * All operations are filtered by the authenticated user to ensure data isolation.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TaskSeriesService {
+
+    private final TaskSeriesRepository taskSeriesRepository;
+    private final TaskRepository taskRepository;
+    private final SubtaskRepository subtaskRepository;
+    private final AuthenticationContext authenticationContext;
+    private final OwnedEntityLookup ownedEntityLookup;
+    private final TaskSeriesMapper taskSeriesMapper;
+    private final TaskMapper taskMapper;
+    private final SubtaskMapper subtaskMapper;
+    private final ChangeEvents changeEvents;
+
+    public TaskSeriesService(TaskSeriesRepository taskSeriesRepository,
+                             TaskRepository taskRepository,
+                             SubtaskRepository subtaskRepository,
+                             AuthenticationContext authenticationContext,
+                             OwnedEntityLookup ownedEntityLookup,
+                             TaskSeriesMapper taskSeriesMapper,
+                             TaskMapper taskMapper,
+                             SubtaskMapper subtaskMapper,
+                             ChangeEvents changeEvents) {
+        this.taskSeriesRepository = taskSeriesRepository;
+        this.taskRepository = taskRepository;
+        this.subtaskRepository = subtaskRepository;
+        this.authenticationContext = authenticationContext;
+        this.ownedEntityLookup = ownedEntityLookup;
+        this.taskSeriesMapper = taskSeriesMapper;
+        this.taskMapper = taskMapper;
+        this.subtaskMapper = subtaskMapper;
+        this.changeEvents = changeEvents;
+    }
+
+    /**
+     * Looks up a series by ID, verifying it belongs to the authenticated user.
+     */
+    private TaskSeries findOwnedSeries(Long id) {
+        return ownedEntityLookup.findOwnedOrThrow(taskSeriesRepository::findByIdAndUserId, id, "Task series");
+    }
+
+    /**
+     * Stores the series' rule in canonical form, with the last day it can place an occurrence on.
+     */
+    private void applyRule(TaskSeries series) {
+        RecurrenceRule rule = RecurrenceRule.parse(series.getRecurrenceRule());
+        series.setRecurrenceRule(rule.toString());
+        series.setUntilDate(rule.lastOccurrence(series.getStartDate()));
+    }
+
+    private void publishSeriesChange(Long seriesId, ChangeAction action) {
+        changeEvents.publish(authenticationContext.getCurrentUserId(), ChangedResource.TASK_SERIES, seriesId, action);
+    }
+
+    /**
+     * Creates a new series for the authenticated user.
+     *
+     * @param requestDTO The series DTO to create.
+     * @return The saved series as a response DTO.
+     * @throws dev.iainkirkham.mental_planner_backend.exception.InvalidRecurrenceRuleException if the rule can't be used.
+     */
+    @Transactional
+    public TaskSeriesResponseDTO createSeries(TaskSeriesRequestDTO requestDTO) {
+        TaskSeries series = taskSeriesMapper.toEntity(requestDTO);
+        applyRule(series);
+        series.setUserId(authenticationContext.getCurrentUserId());
+        TaskSeries saved = taskSeriesRepository.save(series);
+        publishSeriesChange(saved.getId(), ChangeAction.CREATED);
+        return taskSeriesMapper.toResponseDTO(saved);
+    }
+
+    /**
+     * Retrieves all of the authenticated user's series, by start date.
+     *
+     * @return A list of series as response DTOs belonging to the current user.
+     */
+    public List<TaskSeriesResponseDTO> getAllSeries() {
+        Long userId = authenticationContext.getCurrentUserId();
+        return taskSeriesMapper.toResponseDTOList(taskSeriesRepository.findByUserIdOrderByStartDateAscIdAsc(userId));
+    }
+
+    /**
+     * Retrieves a single series by its ID if it belongs to the authenticated user.
+     *
+     * @param id The ID of the series.
+     * @return The found series as a response DTO.
+     * @throws ResourceNotFoundException if the series doesn't exist or doesn't belong to the user.
+     */
+    public TaskSeriesResponseDTO getSeriesById(Long id) {
+        return taskSeriesMapper.toResponseDTO(findOwnedSeries(id));
+    }
+
+    /**
+     * Updates a series' template and rule. Occurrences that were already materialized or
+     * skipped keep their state; every other occurrence follows the new values.
+     *
+     * @param id The ID of the series to update.
+     * @param requestDTO The DTO with updated data.
+     * @return The updated series as a response DTO.
+     * @throws ResourceNotFoundException if the series doesn't exist or doesn't belong to the user.
+     */
+    @Transactional
+    public TaskSeriesResponseDTO updateSeries(Long id, TaskSeriesRequestDTO requestDTO) {
+        TaskSeries series = findOwnedSeries(id);
+        taskSeriesMapper.updateEntityFromDTO(series, requestDTO);
+        applyRule(series);
+        TaskSeries saved = taskSeriesRepository.save(series);
+        publishSeriesChange(id, ChangeAction.UPDATED);
+        return taskSeriesMapper.toResponseDTO(saved);
+    }
+
+    /**
+     * Deletes a series. Its materialized occurrences stay, as ordinary tasks.
+     *
+     * @param id The ID of the series to delete.
+     * @throws ResourceNotFoundException if the series doesn't exist or doesn't belong to the user.
+     */
+    @Transactional
+    public void deleteSeries(Long id) {
+        taskSeriesRepository.delete(findOwnedSeries(id));
+        publishSeriesChange(id, ChangeAction.DELETED);
+    }
+
+    /**
+     * Turns an occurrence into a task, so it can be edited, completed or have time tracked on it
+     * through the task endpoints. Idempotent: materializing an occurrence again returns the task
+     * it was materialized into.
+     *
+     * @param seriesId The ID of the series.
+     * @param occurrenceDate The day of the occurrence.
+     * @return The occurrence's task as a response DTO.
+     * @throws ResourceNotFoundException if the series isn't the user's, has no occurrence on that
+     *         day, or the occurrence was skipped or its task deleted or moved to cold storage.
+     */
+    @Transactional
+    public TaskResponseDTO materializeOccurrence(Long seriesId, LocalDate occurrenceDate) {
+        TaskSeries series = findOccurringSeries(seriesId, occurrenceDate);
+
+        if (taskSeriesRepository.claimOccurrence(seriesId, occurrenceDate) == 1) {
+            Task task = taskRepository.save(taskSeriesMapper.toOccurrenceTask(series, occurrenceDate));
+            changeEvents.publish(series.getUserId(), ChangedResource.TASK, task.getId(), ChangeAction.CREATED);
+            TaskResponseDTO dto = taskMapper.toResponseDTO(task);
+            dto.setSubtasks(List.of());
+            return dto;
+        }
+
+        Task task = taskRepository.findBySeriesIdAndOccurrenceDateAndUserId(seriesId, occurrenceDate, series.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Occurrence on " + occurrenceDate + " was skipped or its task removed"));
+        TaskResponseDTO dto = taskMapper.toResponseDTO(task);
+        dto.setSubtasks(subtaskMapper.toResponseDTOList(subtaskRepository.findByTaskIdOrderBySortOrderAsc(task.getId())));
+        return dto;
+    }
+
+    /**
+     * Stops a series showing an occurrence. Skipping an occurrence that was already skipped or
+     * materialized changes nothing; a materialized occurrence is removed by deleting its task.
+     *
+     * @param seriesId The ID of the series.
+     * @param occurrenceDate The day of the occurrence.
+     * @throws ResourceNotFoundException if the series isn't the user's or has no occurrence on that day.
+     */
+    @Transactional
+    public void skipOccurrence(Long seriesId, LocalDate occurrenceDate) {
+        findOccurringSeries(seriesId, occurrenceDate);
+        if (taskSeriesRepository.claimOccurrence(seriesId, occurrenceDate) == 1) {
+            publishSeriesChange(seriesId, ChangeAction.UPDATED);
+        }
+    }
+
+    private TaskSeries findOccurringSeries(Long seriesId, LocalDate occurrenceDate) {
+        TaskSeries series = findOwnedSeries(seriesId);
+        if (!RecurrenceRule.parse(series.getRecurrenceRule())
+                .occursOn(series.getStartDate(), series.getUntilDate(), occurrenceDate)) {
+            throw new ResourceNotFoundException("Task series " + seriesId + " has no occurrence on " + occurrenceDate);
+        }
+        return series;
+    }
+
+    /**
+     * Expands a user's series into the occurrences within a date range that are neither
+     * materialized nor skipped. One query fetches every series that may have an occurrence in
+     * the range together with its overrides there, and expanding each series only visits the
+     * range, so the cost doesn't grow with how long the series have been running.
+     *
+     * @param userId the internal user ID
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return the occurrences as response DTOs without IDs, by series
+     */
+    List<TaskResponseDTO> occurrencesBetween(Long userId, LocalDate startDate, LocalDate endDate) {
+        Map<TaskSeries, Set<LocalDate>> overridesBySeries = new LinkedHashMap<>();
+        for (Object[] row : taskSeriesRepository.findActiveWithOverrides(userId, startDate, endDate)) {
+            Set<LocalDate> overrides = overridesBySeries.computeIfAbsent((TaskSeries) row[0], ignored -> new HashSet<>());
+            if (row[1] != null) {
+                overrides.add((LocalDate) row[1]);
+            }
+        }
+
+        List<TaskResponseDTO> occurrences = new ArrayList<>();
+        overridesBySeries.forEach((series, overrides) -> {
+            RecurrenceRule rule = RecurrenceRule.parse(series.getRecurrenceRule());
+            for (LocalDate day : rule.occurrencesBetween(series.getStartDate(), series.getUntilDate(), startDate, endDate)) {
+                if (!overrides.contains(day)) {
+                    occurrences.add(taskSeriesMapper.toOccurrenceDTO(series, day));
+                }
+            }
+        });
+        return occurrences;
+    }
+}
@@ -1,8 +1,18 @@
 package dev.iainkirkham.mental_planner_backend.tasks;
 
 import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.config.JsonMergePatcher;
 import dev.iainkirkham.mental_planner_backend.config.OwnedEntityLookup;
+import dev.iainkirkham.mental_planner_backend.config.OwnershipCache;
+import dev.iainkirkham.mental_planner_backend.config.ReadCoalescer;
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvents;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import dev.iainkirkham.mental_planner_backend.events.ClusterBusReconnectedEvent;
+import dev.iainkirkham.mental_planner_backend.events.RemoteChangeEvent;
 import dev.iainkirkham.mental_planner_backend.exception.ResourceNotFoundException;
+import dev.iainkirkham.mental_planner_backend.history.HistoryCache;
+import dev.iainkirkham.mental_planner_backend.history.HistoryKind;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.ActualMinutesRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.CompletionRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskRequestDTO;
@@ -12,10 +22,16 @@ import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskTimeEntryRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskTimeEntryResponseDTO;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -29,6 +45,14 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class TaskService {
 
+    /**
+     * Ownership caches of tasks in the hot table, and of tasks in either the hot or the archive
+     * table (which pomodoro sessions may link to). {@link TaskColdStorage} drops moved tasks from
+     * the former.
+     */
+    static final String TASK_OWNERS = "tasks";
+    static final String LINKABLE_TASK_OWNERS = "linkable-tasks";
+
     private final TaskRepository taskRepository;
     private final AuthenticationContext authenticationContext;
     private final OwnedEntityLookup ownedEntityLookup;
@@ -37,6 +61,14 @@ public class TaskService {
     private final SubtaskMapper subtaskMapper;
     private final TaskTimeEntryRepository taskTimeEntryRepository;
     private final TaskTimeEntryMapper taskTimeEntryMapper;
+    private final JsonMergePatcher jsonMergePatcher;
+    private final ChangeEvents changeEvents;
+    private final ReadCoalescer readCoalescer;
+    private final TaskSeriesService taskSeriesService;
+    private final TaskTimelineService taskTimelineService;
+    private final HistoryCache historyCache;
+    private final OwnershipCache taskOwners;
+    private final OwnershipCache linkableTaskOwners;
 
     public TaskService(TaskRepository taskRepository,
                         AuthenticationContext authenticationContext,
@@ -45,7 +77,13 @@ public class TaskService {
                         SubtaskRepository subtaskRepository,
                         SubtaskMapper subtaskMapper,
                         TaskTimeEntryRepository taskTimeEntryRepository,
-                        TaskTimeEntryMapper taskTimeEntryMapper) {
+                        TaskTimeEntryMapper taskTimeEntryMapper,
+                        JsonMergePatcher jsonMergePatcher,
+                        ChangeEvents changeEvents,
+                        ReadCoalescer readCoalescer,
+                        TaskSeriesService taskSeriesService,
+                        TaskTimelineService taskTimelineService,
+                        HistoryCache historyCache) {
         this.taskRepository = taskRepository;
         this.authenticationContext = authenticationContext;
         this.ownedEntityLookup = ownedEntityLookup;
@@ -54,6 +92,14 @@ public class TaskService {
         this.subtaskMapper = subtaskMapper;
         this.taskTimeEntryRepository = taskTimeEntryRepository;
         this.taskTimeEntryMapper = taskTimeEntryMapper;
+        this.jsonMergePatcher = jsonMergePatcher;
+        this.changeEvents = changeEvents;
+        this.readCoalescer = readCoalescer;
+        this.taskSeriesService = taskSeriesService;
+        this.taskTimelineService = taskTimelineService;
+        this.historyCache = historyCache;
+        this.taskOwners = ownedEntityLookup.ownershipCache(TASK_OWNERS);
+        this.linkableTaskOwners = ownedEntityLookup.ownershipCache(LINKABLE_TASK_OWNERS);
     }
 
     /**
@@ -76,6 +122,14 @@ public class TaskService {
         return dtos;
     }
 
+    /**
+     * Announces a change to one of the authenticated user's tasks. Changes to a task's subtasks
+     * and time entries are announced as an update of the task.
+     */
+    private void publishTaskChange(Long taskId, ChangeAction action) {
+        changeEvents.publish(authenticationContext.getCurrentUserId(), ChangedResource.TASK, taskId, action);
+    }
+
     /**
      * Attaches a single task's subtasks (fresh-fetched) onto its response DTO.
      */
@@ -84,7 +138,16 @@ public class TaskService {
     }
 
     /**
-     * Creates a new task for the authenticated user.
+     * Adds a warning of the other tasks a written task overlaps on its day's timeline.
+     */
+    private TaskResponseDTO withOverlaps(TaskResponseDTO dto, Task task) {
+        dto.setOverlappingTaskIds(taskTimelineService.overlapsOf(task));
+        return dto;
+    }
+
+    /**
+     * Creates a new task for the authenticated user. If it is placed on the timeline, the
+     * response lists the tasks it overlaps.
      *
      * @param requestDTO The task DTO to create.
      * @return The saved task as a response DTO.
@@ -96,36 +159,59 @@ public class TaskService {
         // Automatically set userId from authenticated user
         task.setUserId(authenticationContext.getCurrentUserId());
         Task savedTask = taskRepository.save(task);
+        publishTaskChange(savedTask.getId(), ChangeAction.CREATED);
         TaskResponseDTO dto = taskMapper.toResponseDTO(savedTask);
         dto.setSubtasks(List.of());
-        return dto;
+        return withOverlaps(dto, savedTask);
     }
 
     /**
-     * Retrieves all of the authenticated user's non-archived tasks scheduled for a given day.
+     * Retrieves all of the authenticated user's non-archived tasks scheduled for a given day,
+     * followed by the day's occurrences of their task series that haven't been materialized.
      *
      * @param date the day to fetch tasks for
      * @return A list of tasks as response DTOs belonging to the current user.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<TaskResponseDTO> getTasksForDate(LocalDate date) {
-        String userId = authenticationContext.getCurrentUserId();
-        List<Task> tasks = taskRepository.findByUserIdAndScheduledDateAndArchivedFalseOrderBySortOrderAsc(userId, date);
-        return withSubtasks(tasks);
+        Long userId = authenticationContext.getCurrentUserId();
+        return readCoalescer.coalesce("tasks.date", userId, () -> withOccurrences(withSubtasks(
+                taskRepository.findByUserIdAndScheduledDateAndArchivedFalseOrderBySortOrderAsc(userId, date)),
+                userId, date, date), date);
     }
 
     /**
-     * Retrieves the authenticated user's non-archived tasks within a date range.
+     * Retrieves the authenticated user's non-archived tasks within a date range, with each day's
+     * occurrences of their task series that haven't been materialized after that day's tasks.
      *
      * @param startDate the start date (inclusive)
      * @param endDate the end date (inclusive)
      * @return A list of tasks as response DTOs within the date range.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<TaskResponseDTO> getTasksForDateRange(LocalDate startDate, LocalDate endDate) {
-        String userId = authenticationContext.getCurrentUserId();
-        List<Task> tasks = taskRepository.findByUserIdAndScheduledDateBetweenAndArchivedFalseOrderByScheduledDateAscSortOrderAsc(
-            userId, startDate, endDate
-        );
-        return withSubtasks(tasks);
+        Long userId = authenticationContext.getCurrentUserId();
+        return readCoalescer.coalesce("tasks.range", userId, () -> withOccurrences(withSubtasks(
+                taskRepository.findByUserIdAndScheduledDateBetweenAndArchivedFalseOrderByScheduledDateAscSortOrderAsc(
+                        userId, startDate, endDate)), userId, startDate, endDate), startDate, endDate);
+    }
+
+    /**
+     * Merges the series occurrences within a range into the range's tasks, which are sorted by
+     * day then sort order. Occurrences go after the tasks of their day.
+     */
+    private List<TaskResponseDTO> withOccurrences(List<TaskResponseDTO> tasks, Long userId,
+                                                  LocalDate startDate, LocalDate endDate) {
+        List<TaskResponseDTO> occurrences = taskSeriesService.occurrencesBetween(userId, startDate, endDate);
+        if (occurrences.isEmpty()) {
+            return tasks;
+        }
+
+        List<TaskResponseDTO> merged = new ArrayList<>(tasks);
+        merged.addAll(occurrences);
+        merged.sort(Comparator.comparing(TaskResponseDTO::getScheduledDate)
+                .thenComparing(task -> task.getId() == null));
+        return merged;
     }
 
     /**
@@ -149,21 +235,96 @@ public class TaskService {
         return ownedEntityLookup.findOwnedOrThrow(taskRepository::findByIdAndUserId, id, "Task");
     }
 
+    /**
+     * Verifies that a task belongs to the authenticated user without loading it, for paths
+     * that only need the ID (e.g. subtask writes).
+     */
+    private void assertTaskOwned(Long id) {
+        ownedEntityLookup.assertOwnedOrThrow(taskOwners, taskRepository::existsByIdAndUserId, id, "Task");
+    }
+
     /**
      * Verifies that a task exists and belongs to the authenticated user.
      * Used by other feature packages (e.g. pomodoro) that link records to a task
-     * without needing access to the task itself.
+     * without needing access to the task itself. A task in cold storage still counts,
+     * so records linked to it stay editable. Answered from the ownership cache when the
+     * task was checked recently, so repeated links to the same task cost no query.
      *
      * @param id The ID of the task.
      * @throws ResourceNotFoundException if the task doesn't exist or doesn't belong to the user.
      */
     public void assertOwnedByCurrentUser(Long id) {
-        findOwnedTask(id);
+        ownedEntityLookup.assertOwnedOrThrow(
+                linkableTaskOwners, taskRepository::existsInHotOrArchiveByIdAndUserId, id, "Task");
+    }
+
+    /**
+     * Retrieves the authenticated user's tasks in cold storage within a date range.
+     *
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return A list of archived tasks as response DTOs within the date range.
+     */
+    public List<TaskResponseDTO> getArchivedTasksForDateRange(LocalDate startDate, LocalDate endDate) {
+        Long userId = authenticationContext.getCurrentUserId();
+        List<Task> tasks = taskRepository.findArchivedByUserIdAndScheduledDateBetween(userId, startDate, endDate);
+        return withArchivedSubtasks(tasks);
+    }
+
+    /**
+     * Retrieves a single task in cold storage by its ID if it belongs to the authenticated user.
+     *
+     * @param id The ID of the archived task.
+     * @return The found task as a response DTO.
+     * @throws ResourceNotFoundException if the task isn't in cold storage or doesn't belong to the user.
+     */
+    public TaskResponseDTO getArchivedTaskById(Long id) {
+        Task task = findOwnedArchivedTask(id);
+        return withArchivedSubtasks(List.of(task)).get(0);
+    }
+
+    /**
+     * Retrieves all time entries of a task in cold storage, most recent day first.
+     *
+     * @param taskId The archived task's ID.
+     * @return The task's time entries as response DTOs.
+     * @throws ResourceNotFoundException if the task isn't in cold storage or doesn't belong to the user.
+     */
+    public List<TaskTimeEntryResponseDTO> getArchivedTimeEntries(Long taskId) {
+        findOwnedArchivedTask(taskId);
+        Long userId = authenticationContext.getCurrentUserId();
+        return taskTimeEntryMapper.toResponseDTOList(
+                taskTimeEntryRepository.findArchivedByTaskIdAndUserId(taskId, userId));
+    }
+
+    private Task findOwnedArchivedTask(Long id) {
+        return ownedEntityLookup.findOwnedOrThrow(taskRepository::findArchivedByIdAndUserId, id, "Archived task");
+    }
+
+    /**
+     * Attaches each archived task's subtasks (batch-fetched from cold storage) onto its response DTO.
+     */
+    private List<TaskResponseDTO> withArchivedSubtasks(List<Task> tasks) {
+        List<TaskResponseDTO> dtos = taskMapper.toResponseDTOList(tasks);
+        if (dtos.isEmpty()) {
+            return dtos;
+        }
+
+        List<Long> taskIds = tasks.stream().map(Task::getId).toList();
+        Map<Long, List<SubtaskResponseDTO>> subtasksByTaskId = subtaskRepository
+                .findArchivedByTaskIdIn(taskIds)
+                .stream()
+                .map(subtaskMapper::toResponseDTO)
+                .collect(Collectors.groupingBy(SubtaskResponseDTO::getTaskId));
+
+        dtos.forEach(dto -> dto.setSubtasks(subtasksByTaskId.getOrDefault(dto.getId(), List.of())));
+        return dtos;
     }
 
     /**
      * Updates an existing task if it belongs to the authenticated user.
-     * Also used to reschedule a task (change start/end time) or toggle completion.
+     * Also used to reschedule a task (change start/end time) or toggle completion. If the task
+     * is on the timeline, the response lists the tasks it overlaps.
      *
      * @param id The ID of the task to update.
      * @param requestDTO The DTO with updated data.
@@ -177,7 +338,29 @@ public class TaskService {
         taskMapper.updateEntityFromDTO(existingTask, requestDTO);
 
         Task updatedTask = taskRepository.save(existingTask);
-        return withSubtasks(updatedTask);
+        publishTaskChange(id, ChangeAction.UPDATED);
+        return withOverlaps(withSubtasks(updatedTask), updatedTask);
+    }
+
+    /**
+     * Applies a JSON Merge Patch to a task owned by the authenticated user. Only the fields in
+     * the patch change, and only their columns are written.
+     *
+     * @param id The ID of the task to patch.
+     * @param patch The merge patch; a null member clears that field.
+     * @return The patched task as a response DTO.
+     * @throws ResourceNotFoundException if the task doesn't exist or doesn't belong to the user.
+     */
+    @Transactional
+    public TaskResponseDTO patchTask(Long id, JsonNode patch) {
+        Task existingTask = findOwnedTask(id);
+        TaskRequestDTO patched = jsonMergePatcher.apply(patch, taskMapper.toRequestDTO(existingTask), TaskRequestDTO.class);
+
+        taskMapper.updateEntityFromDTO(existingTask, patched);
+
+        Task updatedTask = taskRepository.save(existingTask);
+        publishTaskChange(id, ChangeAction.UPDATED);
+        return withOverlaps(withSubtasks(updatedTask), updatedTask);
     }
 
     /**
@@ -192,6 +375,7 @@ public class TaskService {
         Task task = findOwnedTask(id);
         task.setArchived(true);
         Task saved = taskRepository.save(task);
+        publishTaskChange(id, ChangeAction.UPDATED);
         return withSubtasks(saved);
     }
 
@@ -210,6 +394,7 @@ public class TaskService {
         Task task = findOwnedTask(id);
         task.setActualMinutes(requestDTO.getActualMinutes());
         Task saved = taskRepository.save(task);
+        publishTaskChange(id, ChangeAction.UPDATED);
         return withSubtasks(saved);
     }
 
@@ -233,6 +418,7 @@ public class TaskService {
         List<Subtask> subtasks = subtaskRepository.findByTaskIdOrderBySortOrderAsc(id);
         subtasks.forEach(subtask -> subtask.setCompleted(requestDTO.getCompleted()));
         List<Subtask> savedSubtasks = subtaskRepository.saveAll(subtasks);
+        publishTaskChange(id, ChangeAction.UPDATED);
 
         TaskResponseDTO dto = taskMapper.toResponseDTO(savedTask);
         dto.setSubtasks(subtaskMapper.toResponseDTOList(savedSubtasks));
@@ -249,15 +435,17 @@ public class TaskService {
      */
     @Transactional
     public SubtaskResponseDTO createSubtask(Long taskId, SubtaskRequestDTO requestDTO) {
-        findOwnedTask(taskId);
+        assertTaskOwned(taskId);
         Subtask subtask = subtaskMapper.toEntity(requestDTO, taskId);
         subtask.setId(null);
         Subtask saved = subtaskRepository.save(subtask);
+        publishTaskChange(taskId, ChangeAction.UPDATED);
         return subtaskMapper.toResponseDTO(saved);
     }
 
     /**
-     * Updates a subtask belonging to a task owned by the authenticated user.
+     * Updates a subtask belonging to a task owned by the authenticated user, in a single
+     * statement that also checks the parent task's ownership.
      *
      * @param taskId The parent task's ID.
      * @param subtaskId The subtask's ID.
@@ -267,16 +455,17 @@ public class TaskService {
      */
     @Transactional
     public SubtaskResponseDTO updateSubtask(Long taskId, Long subtaskId, SubtaskRequestDTO requestDTO) {
-        findOwnedTask(taskId);
-        Subtask subtask = subtaskRepository.findByIdAndTaskId(subtaskId, taskId)
+        Long userId = authenticationContext.getCurrentUserId();
+        Subtask updated = subtaskRepository.updateOwned(subtaskId, taskId, userId, requestDTO.getTitle(),
+                        requestDTO.isCompleted(), requestDTO.getSortOrder(), requestDTO.getPlannedMinutes())
                 .orElseThrow(() -> new ResourceNotFoundException("Subtask not found with ID: " + subtaskId));
-        subtaskMapper.updateEntityFromDTO(subtask, requestDTO);
-        Subtask saved = subtaskRepository.save(subtask);
-        return subtaskMapper.toResponseDTO(saved);
+        publishTaskChange(taskId, ChangeAction.UPDATED);
+        return subtaskMapper.toResponseDTO(updated);
     }
 
     /**
-     * Deletes a subtask belonging to a task owned by the authenticated user.
+     * Deletes a subtask belonging to a task owned by the authenticated user, in a single
+     * statement that also checks the parent task's ownership.
      *
      * @param taskId The parent task's ID.
      * @param subtaskId The subtask's ID.
@@ -284,10 +473,11 @@ public class TaskService {
      */
     @Transactional
     public void deleteSubtask(Long taskId, Long subtaskId) {
-        findOwnedTask(taskId);
-        Subtask subtask = subtaskRepository.findByIdAndTaskId(subtaskId, taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Subtask not found with ID: " + subtaskId));
-        subtaskRepository.delete(subtask);
+        Long userId = authenticationContext.getCurrentUserId();
+        if (subtaskRepository.deleteOwned(subtaskId, taskId, userId) == 0) {
+            throw new ResourceNotFoundException("Subtask not found with ID: " + subtaskId);
+        }
+        publishTaskChange(taskId, ChangeAction.UPDATED);
     }
 
     /**
@@ -299,8 +489,8 @@ public class TaskService {
      * @throws ResourceNotFoundException if the task doesn't exist or doesn't belong to the user.
      */
     public List<TaskTimeEntryResponseDTO> getTimeEntries(Long taskId) {
-        findOwnedTask(taskId);
-        String userId = authenticationContext.getCurrentUserId();
+        assertTaskOwned(taskId);
+        Long userId = authenticationContext.getCurrentUserId();
         return taskTimeEntryMapper.toResponseDTOList(
                 taskTimeEntryRepository.findByTaskIdAndUserIdOrderByEntryDateDescCreatedAtDesc(taskId, userId));
     }
@@ -309,7 +499,8 @@ public class TaskService {
      * Logs a time entry against a task owned by the authenticated user. A stopwatch entry
      * (one continuous run, already reflected in {@link Task#getActualMinutes()} via the
      * separate pause/stop persist) is recorded as history only. A manual entry has no other
-     * path to update the total, so it's added onto {@link Task#getActualMinutes()} directly.
+     * path to update the total, so it's added onto {@link Task#getActualMinutes()} directly, in
+     * one statement. Neither loads the task; ownership is checked as for subtask writes.
      *
      * @param taskId The parent task's ID.
      * @param requestDTO The time entry to log.
@@ -318,17 +509,19 @@ public class TaskService {
      */
     @Transactional
     public TaskTimeEntryResponseDTO logTimeEntry(Long taskId, TaskTimeEntryRequestDTO requestDTO) {
-        Task task = findOwnedTask(taskId);
+        assertTaskOwned(taskId);
+        Long userId = authenticationContext.getCurrentUserId();
         TaskTimeEntry entry = taskTimeEntryMapper.toEntity(requestDTO, taskId);
         entry.setId(null);
-        entry.setUserId(authenticationContext.getCurrentUserId());
+        entry.setUserId(userId);
         TaskTimeEntry saved = taskTimeEntryRepository.save(entry);
 
-        if (requestDTO.getSource() == TimeEntrySource.MANUAL) {
-            task.setActualMinutes(task.getActualMinutes() + requestDTO.getMinutes());
-            taskRepository.save(task);
+        if (requestDTO.getSource() == TimeEntrySource.MANUAL
+                && taskRepository.addActualMinutes(taskId, userId, requestDTO.getMinutes()) == 0) {
+            throw new ResourceNotFoundException("Task not found with ID: " + taskId);
         }
 
+        publishTaskChange(taskId, ChangeAction.UPDATED);
         return taskTimeEntryMapper.toResponseDTO(saved);
     }
 
@@ -336,7 +529,8 @@ public class TaskService {
      * Deletes a time entry belonging to a task owned by the authenticated user. Deleting a
      * manual entry unwinds its minutes from {@link Task#getActualMinutes()} (clamped at 0);
      * deleting a stopwatch entry only removes the history row, since the total was already
-     * kept correct by the stopwatch's own pause/stop persist.
+     * kept correct by the stopwatch's own pause/stop persist. The ownership check, the delete
+     * and the unwind all run as one statement.
      *
      * @param taskId The parent task's ID.
      * @param entryId The time entry's ID.
@@ -344,18 +538,11 @@ public class TaskService {
      */
     @Transactional
     public void deleteTimeEntry(Long taskId, Long entryId) {
-        findOwnedTask(taskId);
-        String userId = authenticationContext.getCurrentUserId();
-        TaskTimeEntry entry = taskTimeEntryRepository.findByIdAndTaskIdAndUserId(entryId, taskId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Time entry not found with ID: " + entryId));
-
-        if (entry.getSource() == TimeEntrySource.MANUAL) {
-            Task task = findOwnedTask(taskId);
-            task.setActualMinutes(Math.max(0, task.getActualMinutes() - entry.getMinutes()));
-            taskRepository.save(task);
+        Long userId = authenticationContext.getCurrentUserId();
+        if (taskTimeEntryRepository.deleteOwned(entryId, taskId, userId) == 0) {
+            throw new ResourceNotFoundException("Time entry not found with ID: " + entryId);
         }
-
-        taskTimeEntryRepository.delete(entry);
+        publishTaskChange(taskId, ChangeAction.UPDATED);
     }
 
     /**
@@ -369,7 +556,7 @@ public class TaskService {
     @Transactional
     public List<TaskResponseDTO> reorderTasks(List<TaskReorderItemDTO> items) {
         List<Long> requestedIds = items.stream().map(TaskReorderItemDTO::getId).distinct().toList();
-        String userId = authenticationContext.getCurrentUserId();
+        Long userId = authenticationContext.getCurrentUserId();
         Map<Long, Task> ownedTasksById = taskRepository.findByIdInAndUserId(requestedIds, userId).stream()
                 .collect(Collectors.toMap(Task::getId, task -> task));
 
@@ -387,6 +574,7 @@ public class TaskService {
                 .toList();
 
         List<Task> savedTasks = taskRepository.saveAll(updatedTasks);
+        savedTasks.forEach(task -> publishTaskChange(task.getId(), ChangeAction.UPDATED));
         return withSubtasks(savedTasks);
     }
 
@@ -398,6 +586,36 @@ public class TaskService {
      */
     @Transactional
     public void deleteTask(Long id) {
-        taskRepository.delete(findOwnedTask(id));
+        Task task = findOwnedTask(id);
+        // Unlinking changes the pomodoro history, so days that have settled need new ETags
+        List<Instant> unlinked = taskRepository.unlinkPomodoroSessions(id);
+        historyCache.recordWrite(HistoryKind.POMODORO, task.getUserId(), unlinked.toArray(Instant[]::new));
+        taskRepository.delete(task);
+        // Forgotten now, and again once the delete commits
+        taskOwners.forget(id);
+        linkableTaskOwners.forget(id);
+        publishTaskChange(id, ChangeAction.DELETED);
+    }
+
+    /**
+     * Forgets the owner of a task deleted on another instance.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onRemoteChange(RemoteChangeEvent event) {
+        if (event.change().resource() == ChangedResource.TASK && event.change().action() == ChangeAction.DELETED) {
+            taskOwners.forget(event.change().id());
+            linkableTaskOwners.forget(event.change().id());
+        }
+    }
+
+    /**
+     * Forgets every cached task owner, since deletes on other instances may have been missed.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onClusterBusReconnected(ClusterBusReconnectedEvent event) {
+        taskOwners.forgetAll();
+        linkableTaskOwners.forgetAll();
     }
 }
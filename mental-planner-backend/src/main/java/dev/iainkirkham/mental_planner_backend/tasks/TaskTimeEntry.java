@@ -31,7 +31,7 @@ public class TaskTimeEntry {
     private Long taskId;
 
     @Column(name = "user_id")
-    private String userId;
+    private Long userId;
 
     /**
      * When the stopwatch run started. Null for manual entries.
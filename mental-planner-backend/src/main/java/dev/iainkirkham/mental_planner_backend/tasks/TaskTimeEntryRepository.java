@@ -1,6 +1,12 @@
 package dev.iainkirkham.mental_planner_backend.tasks;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,16 +17,62 @@ public interface TaskTimeEntryRepository extends JpaRepository<TaskTimeEntry, Lo
      * Find a specific time entry by ID, scoped to a task and user.
      * @param id the time entry ID
      * @param taskId the parent task's ID
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @return Optional containing the entry if found and belongs to the user's task
      */
-    Optional<TaskTimeEntry> findByIdAndTaskIdAndUserId(Long id, Long taskId, String userId);
+    Optional<TaskTimeEntry> findByIdAndTaskIdAndUserId(Long id, Long taskId, Long userId);
 
     /**
      * Find all time entries for a task, scoped to a user, most recent day first.
      * @param taskId the parent task's ID
-     * @param userId the Clerk user ID
+     * @param userId the internal user ID
      * @return list of entries ordered by entry date then creation time, descending
      */
-    List<TaskTimeEntry> findByTaskIdAndUserIdOrderByEntryDateDescCreatedAtDesc(Long taskId, String userId);
+    List<TaskTimeEntry> findByTaskIdAndUserIdOrderByEntryDateDescCreatedAtDesc(Long taskId, Long userId);
+
+    /**
+     * Deletes a time entry in a single statement, scoped to its task and the task's owner. A
+     * manual entry's minutes are unwound from the task's actual_minutes (clamped at 0) in the
+     * same statement; a stopwatch entry only removes the history row.
+     * @param id the time entry ID
+     * @param taskId the parent task's ID
+     * @param userId the internal user ID that must own the task and the entry
+     * @return the number of entries deleted (0 if no such entry belongs to the user's task)
+     */
+    @Query(value = "WITH deleted AS ("
+            + "DELETE FROM task_time_entry e USING task t "
+            + "WHERE e.id = :id AND e.task_id = :taskId AND e.user_id = :userId AND t.id = e.task_id AND t.user_id = :userId "
+            + "RETURNING e.task_id, e.minutes, e.source), "
+            + "unwound AS ("
+            + "UPDATE task t SET actual_minutes = GREATEST(0, t.actual_minutes - d.minutes) FROM deleted d "
+            + "WHERE t.id = d.task_id AND d.source = 'MANUAL') "
+            + "SELECT count(*) FROM deleted",
+            nativeQuery = true)
+    int deleteOwned(@Param("id") Long id, @Param("taskId") Long taskId, @Param("userId") Long userId);
+
+    /**
+     * Copies the time entries of tasks being moved into task_time_entry_archive.
+     * @param taskIds the IDs of tasks already copied into task_archive
+     * @return the number of entries copied
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_time_entry_archive (id, task_id, started_at, ended_at, minutes, entry_date, source, note, created_at, user_id) "
+            + "SELECT id, task_id, started_at, ended_at, minutes, entry_date, source, note, created_at, user_id "
+            + "FROM task_time_entry WHERE task_id IN (:taskIds)",
+            nativeQuery = true)
+    int copyToArchive(@Param("taskIds") List<Long> taskIds);
+
+    /**
+     * Find all time entries for a task in cold storage, scoped to a user, most recent day first.
+     * The entities are read-only.
+     * @param taskId the archived task's ID
+     * @param userId the internal user ID
+     * @return list of entries ordered by entry date then creation time, descending
+     */
+    @Query(value = "SELECT id, task_id, started_at, ended_at, minutes, entry_date, source, note, created_at, user_id "
+            + "FROM task_time_entry_archive WHERE task_id = :taskId AND user_id = :userId "
+            + "ORDER BY entry_date DESC, created_at DESC",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<TaskTimeEntry> findArchivedByTaskIdAndUserId(@Param("taskId") Long taskId, @Param("userId") Long userId);
 }
@@ -0,0 +1,97 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.config.ReadCoalescer;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.FreeSlotDTO;
+import dev.iainkirkham.mental_planner_backend.users.AppUserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Answers questions about a day's timeline: which tasks a placement overlaps, and where the gaps
+ * are. Each is answered from a {@link Timeline} built from only the day's task IDs and times.
+ * Like the day view, building one is coalesced with identical reads already in flight.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TaskTimelineService {
+
+    private final TaskRepository taskRepository;
+    private final AppUserRepository appUserRepository;
+    private final AuthenticationContext authenticationContext;
+    private final ReadCoalescer readCoalescer;
+
+    public TaskTimelineService(TaskRepository taskRepository,
+                               AppUserRepository appUserRepository,
+                               AuthenticationContext authenticationContext,
+                               ReadCoalescer readCoalescer) {
+        this.taskRepository = taskRepository;
+        this.appUserRepository = appUserRepository;
+        this.authenticationContext = authenticationContext;
+        this.readCoalescer = readCoalescer;
+    }
+
+    /**
+     * Builds a user's timeline for a day. Inside a write's transaction it sees the write.
+     *
+     * @param userId the internal user ID
+     * @param date the day
+     * @return the day's timeline
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Timeline timelineFor(Long userId, LocalDate date) {
+        return readCoalescer.coalesce("tasks.timeline", userId,
+                () -> Timeline.of(taskRepository.findTimelineBlocks(userId, date)), date);
+    }
+
+    /**
+     * Finds the other tasks on a task's day that its time range overlaps, for warning about a
+     * write that has just been saved.
+     *
+     * @param task the saved task
+     * @return the overlapped tasks' IDs by start time, or null if the task isn't on the timeline
+     */
+    public List<Long> overlapsOf(Task task) {
+        if (task.getStartTime() == null || task.getEndTime() == null || task.isArchived()
+                || !task.getEndTime().isAfter(task.getStartTime())) {
+            return null;
+        }
+        return timelineFor(task.getUserId(), task.getScheduledDate())
+                .overlapping(task.getId(), task.getStartTime(), task.getEndTime());
+    }
+
+    /**
+     * Finds the gaps in the authenticated user's timeline on a day, from midnight to midnight in
+     * their time zone.
+     *
+     * @param date the day
+     * @param minMinutes the shortest gap to return, in minutes
+     * @return the gaps, in order
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<FreeSlotDTO> getFreeSlots(LocalDate date, int minMinutes) {
+        Long userId = authenticationContext.getCurrentUserId();
+        ZoneId zone = userZone(userId);
+        Instant dayStart = date.atStartOfDay(zone).toInstant();
+        Instant dayEnd = date.plusDays(1).atStartOfDay(zone).toInstant();
+        return timelineFor(userId, date)
+                .freeSlots(dayStart, dayEnd, Duration.ofMinutes(Math.max(0, minMinutes)))
+                .stream()
+                .map(slot -> new FreeSlotDTO(slot.start(), slot.end(), slot.duration().toMinutes()))
+                .toList();
+    }
+
+    /**
+     * @return the user's time zone, UTC until they set one
+     */
+    ZoneId userZone(Long userId) {
+        return ZoneId.of(appUserRepository.findTimeZoneById(userId).orElse("UTC"));
+    }
+}
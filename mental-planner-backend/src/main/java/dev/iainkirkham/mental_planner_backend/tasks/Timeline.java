@@ -0,0 +1,138 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One user-day's timeline blocks, sorted by start, for finding overlaps and gaps. Alongside each
+ * block it keeps the latest end of any block up to it, so an overlap query binary-searches to the
+ * last block starting before the range's end, then walks back only while an earlier block could
+ * still reach the range's start. Gaps are found in one sweep. Times are kept as epoch
+ * milliseconds.
+ * <p>
+ * Immutable, so one instance can be shared between concurrent reads.
+ */
+public final class Timeline {
+
+    private final long[] taskIds;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private Timeline(long[] taskIds, long[] starts, long[] ends) {
+        this.taskIds = taskIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            maxEnd = Math.max(maxEnd, ends[i]);
+            maxEnds[i] = maxEnd;
+        }
+    }
+
+    /**
+     * @param blocks the day's blocks, in any order
+     * @return a timeline of those blocks
+     */
+    public static Timeline of(List<TimelineBlock> blocks) {
+        TimelineBlock[] sorted = blocks.toArray(TimelineBlock[]::new);
+        Arrays.sort(sorted, Comparator.comparing(TimelineBlock::start));
+        long[] taskIds = new long[sorted.length];
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            taskIds[i] = sorted[i].taskId();
+            starts[i] = sorted[i].start().toEpochMilli();
+            ends[i] = sorted[i].end().toEpochMilli();
+        }
+        return new Timeline(taskIds, starts, ends);
+    }
+
+    /**
+     * @return how many blocks the timeline has
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Finds the blocks that overlap a range. Blocks that only touch it, ending as it starts or
+     * starting as it ends, don't count.
+     *
+     * @param excludedTaskId a task to leave out, usually the one being placed, or null
+     * @param start the range's start
+     * @param end the range's end
+     * @return the overlapping blocks' task IDs, by start
+     */
+    public List<Long> overlapping(Long excludedTaskId, Instant start, Instant end) {
+        long from = start.toEpochMilli();
+        long to = end.toEpochMilli();
+        List<Long> overlaps = new ArrayList<>();
+        for (int i = firstStartingAtOrAfter(to) - 1; i >= 0 && maxEnds[i] > from; i--) {
+            if (ends[i] > from && (excludedTaskId == null || taskIds[i] != excludedTaskId)) {
+                overlaps.add(taskIds[i]);
+            }
+        }
+        Collections.reverse(overlaps);
+        return overlaps;
+    }
+
+    /**
+     * Finds the gaps between blocks within a window, such as the user's day. Blocks that overlap
+     * each other or stick out of the window are handled.
+     *
+     * @param from the window's start
+     * @param to the window's end
+     * @param minimum the shortest gap to return
+     * @return the gaps of at least {@code minimum}, in order
+     */
+    public List<Slot> freeSlots(Instant from, Instant to, Duration minimum) {
+        long windowEnd = to.toEpochMilli();
+        long minimumMillis = Math.max(1, minimum.toMillis());
+        List<Slot> slots = new ArrayList<>();
+        long cursor = from.toEpochMilli();
+        for (int i = 0; i < starts.length && starts[i] < windowEnd; i++) {
+            if (starts[i] - cursor >= minimumMillis) {
+                slots.add(new Slot(Instant.ofEpochMilli(cursor), Instant.ofEpochMilli(starts[i])));
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (windowEnd - cursor >= minimumMillis) {
+            slots.add(new Slot(Instant.ofEpochMilli(cursor), to));
+        }
+        return slots;
+    }
+
+    private int firstStartingAtOrAfter(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A gap on the timeline.
+     *
+     * @param start when the gap starts
+     * @param end when the gap ends
+     */
+    public record Slot(Instant start, Instant end) {
+
+        public Duration duration() {
+            return Duration.between(start, end);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import java.time.Instant;
+
+/**
+ * Where a task sits on the timeline: the narrow projection of the task row a {@link Timeline} is
+ * built from.
+ *
+ * @param taskId the task's ID
+ * @param start when the task starts
+ * @param end when the task ends, after {@code start}
+ */
+public record TimelineBlock(Long taskId, Instant start, Instant end) {
+}
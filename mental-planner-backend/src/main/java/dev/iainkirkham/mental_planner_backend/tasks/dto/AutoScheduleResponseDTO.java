@@ -0,0 +1,21 @@
+package dev.iainkirkham.mental_planner_backend.tasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the result of auto-scheduling the backlog: the tasks placed, by start time, and those
+ * that didn't fit. When {@code applied} is false the placements are only a proposal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoScheduleResponseDTO {
+
+    private boolean applied;
+    private List<AutoScheduledTaskDTO> scheduled;
+    private List<Long> unscheduledTaskIds;
+}
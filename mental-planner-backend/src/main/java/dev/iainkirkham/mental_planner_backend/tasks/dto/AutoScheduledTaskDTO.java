@@ -0,0 +1,22 @@
+package dev.iainkirkham.mental_planner_backend.tasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * DTO for where the auto-scheduler placed, or proposes placing, a backlog task.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoScheduledTaskDTO {
+
+    private Long taskId;
+    private LocalDate scheduledDate;
+    private Instant startTime;
+    private Instant endTime;
+}
@@ -0,0 +1,20 @@
+package dev.iainkirkham.mental_planner_backend.tasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for a gap on a day's timeline that a task could be placed in.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotDTO {
+
+    private Instant startTime;
+    private Instant endTime;
+    private long minutes;
+}
@@ -32,4 +32,17 @@ public class TaskResponseDTO {
     private boolean archived;
     private TaskPriority priority;
     private List<SubtaskResponseDTO> subtasks;
+
+    /**
+     * The series this task is an occurrence of, or null for a one-off task. An occurrence that
+     * hasn't been materialized yet has no {@code id}; see {@code POST /api/task-series/{id}/occurrences/{date}}.
+     */
+    private Long seriesId;
+    private LocalDate occurrenceDate;
+
+    /**
+     * The other tasks on the same day's timeline that this one overlaps. Only set in responses to
+     * writes of a task with a start and end time, as a warning; the write itself still succeeds.
+     */
+    private List<Long> overlappingTaskIds;
 }
@@ -0,0 +1,40 @@
+package dev.iainkirkham.mental_planner_backend.tasks.dto;
+
+import dev.iainkirkham.mental_planner_backend.tasks.TaskPriority;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for incoming task series requests (create/update).
+ * Excludes id and userId which are managed by the server.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSeriesRequestDTO {
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String description;
+
+    private Integer plannedMinutes;
+
+    private String category;
+
+    private TaskPriority priority;
+
+    /**
+     * An RRULE such as {@code FREQ=WEEKLY;BYDAY=MO,WE,FR}; see the README for the supported subset.
+     */
+    @NotBlank(message = "Recurrence rule is required")
+    private String recurrenceRule;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+}
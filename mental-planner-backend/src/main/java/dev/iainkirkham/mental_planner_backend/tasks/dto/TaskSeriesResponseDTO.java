@@ -0,0 +1,27 @@
+package dev.iainkirkham.mental_planner_backend.tasks.dto;
+
+import dev.iainkirkham.mental_planner_backend.tasks.TaskPriority;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for task series responses. The recurrence rule is returned in canonical form.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSeriesResponseDTO {
+
+    private Long id;
+    private String title;
+    private String description;
+    private Integer plannedMinutes;
+    private String category;
+    private TaskPriority priority;
+    private String recurrenceRule;
+    private LocalDate startDate;
+    private LocalDate untilDate;
+}
@@ -0,0 +1,51 @@
+package dev.iainkirkham.mental_planner_backend.users;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Maps a Clerk user (the JWT "sub" claim) onto a compact internal numeric ID.
+ * Every user-owned table references this ID instead of repeating the Clerk string,
+ * keeping foreign keys and the user-leading composite indexes narrow.
+ */
+@Entity
+@Table(name = "app_user")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class AppUser {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The Clerk user ID (e.g. "user_2abc123def456"), unique per user.
+     */
+    @NotNull
+    @Column(name = "clerk_user_id", nullable = false, unique = true)
+    private String clerkUserId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    /**
+     * Whether the user's unfinished tasks from past days are moved onto their today each night.
+     */
+    @Column(name = "rollover_enabled", nullable = false)
+    private boolean rolloverEnabled = false;
+
+    /**
+     * The user's IANA time zone (e.g. "Europe/London"), which decides when their day starts.
+     */
+    @NotNull
+    @Column(name = "time_zone", nullable = false, length = 64)
+    private String timeZone = "UTC";
+}
@@ -0,0 +1,54 @@
+package dev.iainkirkham.mental_planner_backend.users;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+
+    /**
+     * Find the internal ID for a Clerk user, without loading the full row.
+     * @param clerkUserId the Clerk user ID
+     * @return Optional containing the internal ID if the user has been seen before
+     */
+    @Query("SELECT u.id FROM AppUser u WHERE u.clerkUserId = :clerkUserId")
+    Optional<Long> findIdByClerkUserId(@Param("clerkUserId") String clerkUserId);
+
+    /**
+     * Find the Clerk ID of an internal user, without loading the full row.
+     * @param id the internal user ID
+     * @return Optional containing the Clerk user ID if the user exists
+     */
+    @Query("SELECT u.clerkUserId FROM AppUser u WHERE u.id = :id")
+    Optional<String> findClerkUserIdById(@Param("id") Long id);
+
+    /**
+     * Registers a Clerk user if they don't already have a row. Safe to race: a concurrent
+     * first request for the same user is absorbed by the unique constraint.
+     * @param clerkUserId the Clerk user ID
+     * @return the number of rows inserted (0 if the user already existed)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO app_user (clerk_user_id) VALUES (:clerkUserId) ON CONFLICT (clerk_user_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("clerkUserId") String clerkUserId);
+
+    /**
+     * Find the distinct time zones of users who have opted in to task rollover.
+     * @return the IANA time zone IDs
+     */
+    @Query("SELECT DISTINCT u.timeZone FROM AppUser u WHERE u.rolloverEnabled")
+    List<String> findRolloverTimeZones();
+
+    /**
+     * Find a user's time zone, without loading the full row.
+     * @param id the internal user ID
+     * @return Optional containing the IANA time zone ID if the user exists
+     */
+    @Query("SELECT u.timeZone FROM AppUser u WHERE u.id = :id")
+    Optional<String> findTimeZoneById(@Param("id") Long id);
+}
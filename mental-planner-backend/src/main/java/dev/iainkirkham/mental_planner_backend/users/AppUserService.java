@@ -0,0 +1,50 @@
+package dev.iainkirkham.mental_planner_backend.users;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Resolves Clerk user IDs to internal app_user IDs, registering first-time users on the fly.
+ */
+@Service
+public class AppUserService {
+
+    private final AppUserRepository appUserRepository;
+
+    public AppUserService(AppUserRepository appUserRepository) {
+        this.appUserRepository = appUserRepository;
+    }
+
+    /**
+     * Returns the internal ID for a Clerk user, creating the app_user row on first sight.
+     * Joins the caller's transaction rather than starting one of its own, so a request never
+     * holds one connection while waiting for a second. A read-only transaction can't register a
+     * user, which is why {@link dev.iainkirkham.mental_planner_backend.config.CurrentUserFilter}
+     * resolves each request's user before any service transaction opens.
+     *
+     * @param clerkUserId the Clerk user ID from the JWT "sub" claim
+     * @return the internal numeric user ID
+     */
+    @Transactional
+    public Long resolveOrCreate(String clerkUserId) {
+        return appUserRepository.findIdByClerkUserId(clerkUserId)
+                .orElseGet(() -> {
+                    appUserRepository.insertIfAbsent(clerkUserId);
+                    return appUserRepository.findIdByClerkUserId(clerkUserId).orElseThrow();
+                });
+    }
+
+    /**
+     * Returns the Clerk ID of an internal user. Not read-only, so with a read replica it reads the
+     * primary and finds users registered moments ago.
+     *
+     * @param id the internal numeric user ID
+     * @return the Clerk user ID, or empty if there is no such user
+     */
+    @Transactional
+    public Optional<String> findClerkUserId(Long id) {
+        return appUserRepository.findClerkUserIdById(id);
+    }
+}
@@ -0,0 +1,42 @@
+package dev.iainkirkham.mental_planner_backend.users;
+
+import dev.iainkirkham.mental_planner_backend.users.dto.UserSettingsRequestDTO;
+import dev.iainkirkham.mental_planner_backend.users.dto.UserSettingsResponseDTO;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the current user's settings.
+ */
+@RestController
+@RequestMapping("api/settings")
+public class UserSettingsController {
+
+    private final UserSettingsService userSettingsService;
+
+    public UserSettingsController(UserSettingsService userSettingsService) {
+        this.userSettingsService = userSettingsService;
+    }
+
+    /**
+     * Retrieves the current user's settings.
+     *
+     * @return the settings with status 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<UserSettingsResponseDTO> getSettings() {
+        return ResponseEntity.ok(userSettingsService.getSettings());
+    }
+
+    /**
+     * Replaces the current user's settings.
+     *
+     * @param requestDTO the new settings
+     * @return the updated settings with status 200 (OK)
+     */
+    @PutMapping
+    public ResponseEntity<UserSettingsResponseDTO> updateSettings(@RequestBody @Valid UserSettingsRequestDTO requestDTO) {
+        return ResponseEntity.ok(userSettingsService.updateSettings(requestDTO));
+    }
+}
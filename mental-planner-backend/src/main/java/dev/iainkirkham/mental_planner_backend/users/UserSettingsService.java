@@ -0,0 +1,55 @@
+package dev.iainkirkham.mental_planner_backend.users;
+
+import dev.iainkirkham.mental_planner_backend.config.AuthenticationContext;
+import dev.iainkirkham.mental_planner_backend.users.dto.UserSettingsRequestDTO;
+import dev.iainkirkham.mental_planner_backend.users.dto.UserSettingsResponseDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads and updates the current user's settings, which live on their app_user row.
+ */
+@Service
+public class UserSettingsService {
+
+    private final AppUserRepository appUserRepository;
+    private final AuthenticationContext authenticationContext;
+
+    public UserSettingsService(AppUserRepository appUserRepository, AuthenticationContext authenticationContext) {
+        this.appUserRepository = appUserRepository;
+        this.authenticationContext = authenticationContext;
+    }
+
+    /**
+     * @return the current user's settings
+     */
+    @Transactional(readOnly = true)
+    public UserSettingsResponseDTO getSettings() {
+        return toResponseDTO(currentUser());
+    }
+
+    /**
+     * Replaces the current user's settings.
+     *
+     * @param requestDTO the new settings
+     * @return the updated settings
+     */
+    @Transactional
+    public UserSettingsResponseDTO updateSettings(UserSettingsRequestDTO requestDTO) {
+        AppUser user = currentUser();
+        user.setRolloverEnabled(requestDTO.getRolloverEnabled());
+        user.setTimeZone(requestDTO.getTimeZone());
+        return toResponseDTO(appUserRepository.save(user));
+    }
+
+    /**
+     * The row always exists: resolving the current user's ID registers them.
+     */
+    private AppUser currentUser() {
+        return appUserRepository.findById(authenticationContext.getCurrentUserId()).orElseThrow();
+    }
+
+    private static UserSettingsResponseDTO toResponseDTO(AppUser user) {
+        return new UserSettingsResponseDTO(user.isRolloverEnabled(), user.getTimeZone());
+    }
+}
@@ -0,0 +1,34 @@
+package dev.iainkirkham.mental_planner_backend.users.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZoneId;
+
+/**
+ * DTO for updating the current user's settings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSettingsRequestDTO {
+
+    @NotNull(message = "Rollover enabled is required")
+    private Boolean rolloverEnabled;
+
+    @NotBlank(message = "Time zone is required")
+    private String timeZone;
+
+    /**
+     * Only region IDs are accepted, not offsets such as "+02:00", so the zone follows daylight
+     * saving time.
+     */
+    @AssertTrue(message = "Time zone must be an IANA time zone such as Europe/London")
+    public boolean isTimeZoneValid() {
+        return timeZone == null || timeZone.isBlank() || ZoneId.getAvailableZoneIds().contains(timeZone);
+    }
+}
@@ -0,0 +1,18 @@
+package dev.iainkirkham.mental_planner_backend.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the current user's settings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSettingsResponseDTO {
+
+    private boolean rolloverEnabled;
+
+    private String timeZone;
+}
@@ -0,0 +1,52 @@
+-- Replace the VARCHAR(255) Clerk user ID repeated on every row with a BIGINT key into app_user.
+-- Every user-scoped index leads with user_id, so this shrinks each of them and turns the leading
+-- comparison into an integer compare.
+CREATE TABLE IF NOT EXISTS app_user (
+    id BIGSERIAL PRIMARY KEY,
+    clerk_user_id VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMPTZ(6) NOT NULL DEFAULT now()
+);
+
+-- Register every user that already owns data.
+INSERT INTO app_user (clerk_user_id)
+SELECT user_id FROM task
+UNION SELECT user_id FROM task_time_entry
+UNION SELECT user_id FROM mood_entry
+UNION SELECT user_id FROM pomodoro_session
+ON CONFLICT (clerk_user_id) DO NOTHING;
+
+-- task
+ALTER TABLE task ADD COLUMN app_user_id BIGINT;
+UPDATE task t SET app_user_id = u.id FROM app_user u WHERE u.clerk_user_id = t.user_id;
+ALTER TABLE task DROP COLUMN user_id; -- also drops idx_task_user_id_scheduled_date
+ALTER TABLE task RENAME COLUMN app_user_id TO user_id;
+ALTER TABLE task ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE task ADD CONSTRAINT fk_task_user_id FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE;
+CREATE INDEX idx_task_user_id_scheduled_date ON task(user_id, scheduled_date);
+
+-- task_time_entry
+ALTER TABLE task_time_entry ADD COLUMN app_user_id BIGINT;
+UPDATE task_time_entry e SET app_user_id = u.id FROM app_user u WHERE u.clerk_user_id = e.user_id;
+ALTER TABLE task_time_entry DROP COLUMN user_id; -- also drops idx_task_time_entry_user_id_entry_date
+ALTER TABLE task_time_entry RENAME COLUMN app_user_id TO user_id;
+ALTER TABLE task_time_entry ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE task_time_entry ADD CONSTRAINT fk_task_time_entry_user_id FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE;
+CREATE INDEX idx_task_time_entry_user_id_entry_date ON task_time_entry(user_id, entry_date);
+
+-- mood_entry: the old single-column index becomes (user_id, date_time) to serve the range/ordered reads
+ALTER TABLE mood_entry ADD COLUMN app_user_id BIGINT;
+UPDATE mood_entry m SET app_user_id = u.id FROM app_user u WHERE u.clerk_user_id = m.user_id;
+ALTER TABLE mood_entry DROP COLUMN user_id; -- also drops idx_mood_entry_user_id
+ALTER TABLE mood_entry RENAME COLUMN app_user_id TO user_id;
+ALTER TABLE mood_entry ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE mood_entry ADD CONSTRAINT fk_mood_entry_user_id FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE;
+CREATE INDEX idx_mood_entry_user_id_date_time ON mood_entry(user_id, date_time);
+
+-- pomodoro_session: likewise (user_id, start_time)
+ALTER TABLE pomodoro_session ADD COLUMN app_user_id BIGINT;
+UPDATE pomodoro_session p SET app_user_id = u.id FROM app_user u WHERE u.clerk_user_id = p.user_id;
+ALTER TABLE pomodoro_session DROP COLUMN user_id; -- also drops idx_pomodoro_session_user_id
+ALTER TABLE pomodoro_session RENAME COLUMN app_user_id TO user_id;
+ALTER TABLE pomodoro_session ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE pomodoro_session ADD CONSTRAINT fk_pomodoro_session_user_id FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE;
+CREATE INDEX idx_pomodoro_session_user_id_start_time ON pomodoro_session(user_id, start_time);
@@ -0,0 +1,10 @@
+-- One revision counter per user, history kind and UTC day. A write into a past day bumps that
+-- day's counter, so the ETag of a closed date range can be derived from these few rows instead of
+-- re-reading the entries themselves.
+CREATE TABLE IF NOT EXISTS day_revision (
+    user_id BIGINT NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+    kind VARCHAR(20) NOT NULL,
+    revision_date DATE NOT NULL,
+    revision BIGINT NOT NULL DEFAULT 1,
+    PRIMARY KEY (user_id, kind, revision_date)
+);
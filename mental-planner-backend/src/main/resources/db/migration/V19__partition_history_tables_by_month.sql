@@ -0,0 +1,143 @@
+-- Range-partition the append-mostly history tables by calendar month (UTC), so that date-range
+-- reads only touch the months they cover and old months can later be detached or archived whole.
+--   mood_entry       by date_time
+--   pomodoro_session by start_time
+--   task_time_entry  by entry_date
+-- A partitioned table's primary key must include the partition key, so each key becomes
+-- (id, <partition key>). Ids still come from the existing sequences and stay unique in practice.
+-- Each table also gets a DEFAULT partition, so a row outside the pre-created months is never
+-- rejected; create_monthly_partition() moves such rows into their month once it is created.
+
+-- Creates the partition of a monthly range-partitioned table for the month containing month_start,
+-- named <parent>_pYYYY_MM, unless it already exists. The partition is created standalone and then
+-- attached, which only needs a SHARE UPDATE EXCLUSIVE lock on the parent, so pre-creating months
+-- does not block reads or writes. Any rows for the month that landed in the DEFAULT partition are
+-- moved into it first. Returns whether a partition was created.
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, month_start DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound DATE := date_trunc('month', month_start)::date;
+    upper_bound DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := format('%s_p%s', parent, to_char(lower_bound, 'YYYY_MM'));
+    default_name TEXT := parent || '_default';
+    key_column TEXT;
+    key_type REGTYPE;
+    lower_literal TEXT;
+    upper_literal TEXT;
+BEGIN
+    -- Serialise concurrent callers (e.g. two application instances) for the same parent
+    PERFORM pg_advisory_xact_lock(hashtext('create_monthly_partition:' || parent));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    SELECT a.attname, a.atttypid::regtype INTO key_column, key_type
+    FROM pg_partitioned_table p
+    JOIN pg_attribute a ON a.attrelid = p.partrelid AND a.attnum = p.partattrs[0]
+    WHERE p.partrelid = parent::regclass;
+
+    IF key_type = 'date'::regtype THEN
+        lower_literal := quote_literal(lower_bound);
+        upper_literal := quote_literal(upper_bound);
+    ELSE
+        lower_literal := quote_literal(lower_bound::timestamp AT TIME ZONE 'UTC');
+        upper_literal := quote_literal(upper_bound::timestamp AT TIME ZONE 'UTC');
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent);
+    IF to_regclass(default_name) IS NOT NULL THEN
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM %I WHERE %I >= %s AND %I < %s RETURNING *) INSERT INTO %I SELECT * FROM moved',
+            default_name, key_column, lower_literal, key_column, upper_literal, partition_name);
+    END IF;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+        parent, partition_name, lower_literal, upper_literal);
+    RETURN TRUE;
+END;
+$$;
+
+-- mood_entry
+ALTER TABLE mood_entry RENAME TO mood_entry_unpartitioned;
+ALTER SEQUENCE mood_entry_id_seq OWNED BY NONE;
+CREATE TABLE mood_entry (
+    id BIGINT NOT NULL DEFAULT nextval('mood_entry_id_seq'),
+    mood_score INTEGER NOT NULL,
+    date_time TIMESTAMPTZ(6) NOT NULL,
+    factors JSONB,
+    notes TEXT,
+    user_id BIGINT NOT NULL
+) PARTITION BY RANGE (date_time);
+CREATE TABLE mood_entry_default PARTITION OF mood_entry DEFAULT;
+SELECT create_monthly_partition('mood_entry', month::date)
+FROM generate_series(
+    (SELECT date_trunc('month', COALESCE(min(date_time), now()) AT TIME ZONE 'UTC') FROM mood_entry_unpartitioned),
+    date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+    INTERVAL '1 month') AS month;
+INSERT INTO mood_entry (id, mood_score, date_time, factors, notes, user_id)
+SELECT id, mood_score, date_time, factors, notes, user_id FROM mood_entry_unpartitioned;
+DROP TABLE mood_entry_unpartitioned;
+ALTER SEQUENCE mood_entry_id_seq OWNED BY mood_entry.id;
+ALTER TABLE mood_entry ADD CONSTRAINT mood_entry_pkey PRIMARY KEY (id, date_time);
+ALTER TABLE mood_entry ADD CONSTRAINT fk_mood_entry_user_id FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE;
+CREATE INDEX idx_mood_entry_user_id_date_time ON mood_entry(user_id, date_time);
+
+-- pomodoro_session
+ALTER TABLE pomodoro_session RENAME TO pomodoro_session_unpartitioned;
+ALTER SEQUENCE pomodoro_session_id_seq OWNED BY NONE;
+CREATE TABLE pomodoro_session (
+    id BIGINT NOT NULL DEFAULT nextval('pomodoro_session_id_seq'),
+    start_time TIMESTAMPTZ(6) NOT NULL,
+    end_time TIMESTAMPTZ(6),
+    duration INTEGER NOT NULL,
+    score SMALLINT,
+    notes VARCHAR(1000),
+    energy_rating VARCHAR(20),
+    task_id BIGINT,
+    user_id BIGINT NOT NULL
+) PARTITION BY RANGE (start_time);
+CREATE TABLE pomodoro_session_default PARTITION OF pomodoro_session DEFAULT;
+SELECT create_monthly_partition('pomodoro_session', month::date)
+FROM generate_series(
+    (SELECT date_trunc('month', COALESCE(min(start_time), now()) AT TIME ZONE 'UTC') FROM pomodoro_session_unpartitioned),
+    date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+    INTERVAL '1 month') AS month;
+INSERT INTO pomodoro_session (id, start_time, end_time, duration, score, notes, energy_rating, task_id, user_id)
+SELECT id, start_time, end_time, duration, score, notes, energy_rating, task_id, user_id FROM pomodoro_session_unpartitioned;
+DROP TABLE pomodoro_session_unpartitioned;
+ALTER SEQUENCE pomodoro_session_id_seq OWNED BY pomodoro_session.id;
+ALTER TABLE pomodoro_session ADD CONSTRAINT pomodoro_session_pkey PRIMARY KEY (id, start_time);
+ALTER TABLE pomodoro_session ADD CONSTRAINT pomodoro_session_task_id_fkey FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE SET NULL;
+ALTER TABLE pomodoro_session ADD CONSTRAINT fk_pomodoro_session_user_id FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE;
+CREATE INDEX idx_pomodoro_session_task_id ON pomodoro_session(task_id);
+CREATE INDEX idx_pomodoro_session_user_id_start_time ON pomodoro_session(user_id, start_time);
+
+-- task_time_entry
+ALTER TABLE task_time_entry RENAME TO task_time_entry_unpartitioned;
+ALTER SEQUENCE task_time_entry_id_seq OWNED BY NONE;
+CREATE TABLE task_time_entry (
+    id BIGINT NOT NULL DEFAULT nextval('task_time_entry_id_seq'),
+    task_id BIGINT NOT NULL,
+    started_at TIMESTAMPTZ(6),
+    ended_at TIMESTAMPTZ(6),
+    minutes INTEGER NOT NULL,
+    entry_date DATE NOT NULL,
+    source VARCHAR(10) NOT NULL,
+    note VARCHAR(500),
+    created_at TIMESTAMPTZ(6) NOT NULL DEFAULT now(),
+    user_id BIGINT NOT NULL
+) PARTITION BY RANGE (entry_date);
+CREATE TABLE task_time_entry_default PARTITION OF task_time_entry DEFAULT;
+SELECT create_monthly_partition('task_time_entry', month::date)
+FROM generate_series(
+    (SELECT date_trunc('month', COALESCE(min(entry_date), current_date)::timestamp) FROM task_time_entry_unpartitioned),
+    date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+    INTERVAL '1 month') AS month;
+INSERT INTO task_time_entry (id, task_id, started_at, ended_at, minutes, entry_date, source, note, created_at, user_id)
+SELECT id, task_id, started_at, ended_at, minutes, entry_date, source, note, created_at, user_id FROM task_time_entry_unpartitioned;
+DROP TABLE task_time_entry_unpartitioned;
+ALTER SEQUENCE task_time_entry_id_seq OWNED BY task_time_entry.id;
+ALTER TABLE task_time_entry ADD CONSTRAINT task_time_entry_pkey PRIMARY KEY (id, entry_date);
+ALTER TABLE task_time_entry ADD CONSTRAINT task_time_entry_task_id_fkey FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE CASCADE;
+ALTER TABLE task_time_entry ADD CONSTRAINT fk_task_time_entry_user_id FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE;
+CREATE INDEX idx_task_time_entry_task_id ON task_time_entry(task_id);
+CREATE INDEX idx_task_time_entry_user_id_entry_date ON task_time_entry(user_id, entry_date);
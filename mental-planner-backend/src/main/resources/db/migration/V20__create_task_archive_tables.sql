@@ -0,0 +1,67 @@
+-- Cold storage for tasks that the planner views no longer show: archived tasks and long-completed
+-- ones. TaskColdStorage moves them here, with their subtasks and time entries, so the hot tables
+-- and their indexes only grow with active work. Only the archive endpoints read these tables.
+CREATE TABLE IF NOT EXISTS task_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    scheduled_date DATE NOT NULL,
+    start_time TIMESTAMPTZ(6),
+    end_time TIMESTAMPTZ(6),
+    completed BOOLEAN NOT NULL,
+    sort_order INTEGER NOT NULL,
+    planned_minutes INTEGER,
+    actual_minutes INTEGER NOT NULL,
+    category VARCHAR(50),
+    archived BOOLEAN NOT NULL,
+    priority VARCHAR(10) NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+    moved_at TIMESTAMPTZ(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_archive_user_id_scheduled_date ON task_archive(user_id, scheduled_date);
+
+CREATE TABLE IF NOT EXISTS subtask_archive (
+    id BIGINT PRIMARY KEY,
+    task_id BIGINT NOT NULL REFERENCES task_archive(id) ON DELETE CASCADE,
+    title VARCHAR(255) NOT NULL,
+    completed BOOLEAN NOT NULL,
+    sort_order INTEGER NOT NULL,
+    planned_minutes INTEGER
+);
+
+CREATE INDEX IF NOT EXISTS idx_subtask_archive_task_id ON subtask_archive(task_id);
+
+CREATE TABLE IF NOT EXISTS task_time_entry_archive (
+    id BIGINT PRIMARY KEY,
+    task_id BIGINT NOT NULL REFERENCES task_archive(id) ON DELETE CASCADE,
+    started_at TIMESTAMPTZ(6),
+    ended_at TIMESTAMPTZ(6),
+    minutes INTEGER NOT NULL,
+    entry_date DATE NOT NULL,
+    source VARCHAR(10) NOT NULL,
+    note VARCHAR(500),
+    created_at TIMESTAMPTZ(6) NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES app_user(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_time_entry_archive_task_id ON task_time_entry_archive(task_id);
+
+-- A pomodoro session keeps its link when its task moves to the archive, so the foreign key's
+-- ON DELETE SET NULL is replaced by a trigger that only unlinks sessions when a task is deleted
+-- for real, i.e. it was not copied into task_archive first.
+ALTER TABLE pomodoro_session DROP CONSTRAINT pomodoro_session_task_id_fkey;
+
+CREATE OR REPLACE FUNCTION unlink_pomodoro_sessions_from_deleted_task() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM task_archive WHERE id = OLD.id) THEN
+        UPDATE pomodoro_session SET task_id = NULL WHERE task_id = OLD.id;
+    END IF;
+    RETURN OLD;
+END;
+$$;
+
+CREATE TRIGGER task_unlink_pomodoro_sessions
+    AFTER DELETE ON task
+    FOR EACH ROW EXECUTE FUNCTION unlink_pomodoro_sessions_from_deleted_task();
@@ -0,0 +1,38 @@
+-- Recurring tasks. A series holds a task template and a recurrence rule; its occurrences are
+-- expanded when a day or week is read, and only become task rows when the user acts on one.
+CREATE TABLE IF NOT EXISTS task_series (
+    id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    planned_minutes INTEGER,
+    category VARCHAR(50),
+    priority VARCHAR(10) NOT NULL DEFAULT 'NORMAL',
+    recurrence_rule VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    -- The last day an occurrence can fall on, from the rule's UNTIL or COUNT; null if unbounded.
+    until_date DATE,
+    user_id BIGINT NOT NULL REFERENCES app_user(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_series_user_id_start_date ON task_series(user_id, start_date);
+
+-- Occurrences a series no longer expands: those materialized into a task row, which may since
+-- have been deleted or moved to cold storage, and those the user skipped.
+CREATE TABLE IF NOT EXISTS task_series_override (
+    series_id BIGINT NOT NULL REFERENCES task_series(id) ON DELETE CASCADE,
+    occurrence_date DATE NOT NULL,
+    PRIMARY KEY (series_id, occurrence_date)
+);
+
+-- A materialized occurrence remembers where it came from. Deleting the series turns its
+-- occurrences into ordinary tasks.
+ALTER TABLE task ADD COLUMN series_id BIGINT REFERENCES task_series(id) ON DELETE SET NULL;
+ALTER TABLE task ADD COLUMN occurrence_date DATE;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_task_series_id_occurrence_date ON task(series_id, occurrence_date)
+    WHERE series_id IS NOT NULL;
+
+ALTER TABLE task_archive ADD COLUMN series_id BIGINT REFERENCES task_series(id) ON DELETE SET NULL;
+ALTER TABLE task_archive ADD COLUMN occurrence_date DATE;
+
+CREATE INDEX IF NOT EXISTS idx_task_archive_series_id ON task_archive(series_id) WHERE series_id IS NOT NULL;
@@ -0,0 +1,10 @@
+-- Opt-in rollover of unfinished tasks into the user's "today", which depends on their time zone.
+ALTER TABLE app_user ADD COLUMN rollover_enabled BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE app_user ADD COLUMN time_zone VARCHAR(64) NOT NULL DEFAULT 'UTC';
+
+-- The rollover job works through opted-in users one time zone at a time, in ID order.
+CREATE INDEX idx_app_user_rollover_time_zone_id ON app_user(time_zone, id) WHERE rollover_enabled;
+
+-- Only open tasks are candidates, and once rolled over they no longer fall before "today", so each
+-- chunk finds the next rows to move at the front of this index instead of re-reading finished ones.
+CREATE INDEX idx_task_open_user_id_scheduled_date ON task(user_id, scheduled_date) WHERE NOT completed AND NOT archived;
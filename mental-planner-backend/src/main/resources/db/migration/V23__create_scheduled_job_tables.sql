@@ -0,0 +1,26 @@
+-- One row per cluster-scheduled job. An instance runs a fire only if it claims the row for that
+-- fire's scheduled time, so every instance may fire the job but only one runs each fire. The claim
+-- is a lease: the running instance extends locked_until with heartbeats, and if it dies the lease
+-- lapses and the next fire can be claimed elsewhere.
+CREATE TABLE IF NOT EXISTS scheduled_job_lock (
+    name VARCHAR(100) PRIMARY KEY,
+    locked_by VARCHAR(255) NOT NULL,
+    locked_until TIMESTAMPTZ(6) NOT NULL,
+    last_scheduled_at TIMESTAMPTZ(6) NOT NULL,
+    heartbeat_at TIMESTAMPTZ(6) NOT NULL
+);
+
+-- History of every run, whichever instance made it.
+CREATE TABLE IF NOT EXISTS scheduled_job_run (
+    id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    instance_id VARCHAR(255) NOT NULL,
+    scheduled_at TIMESTAMPTZ(6) NOT NULL,
+    started_at TIMESTAMPTZ(6) NOT NULL,
+    finished_at TIMESTAMPTZ(6),
+    duration_ms BIGINT,
+    outcome VARCHAR(20) NOT NULL,
+    error VARCHAR(2000)
+);
+
+CREATE INDEX idx_scheduled_job_run_job_name_started_at ON scheduled_job_run(job_name, started_at);
@@ -0,0 +1,23 @@
+-- Background jobs, claimed by workers on any instance with FOR UPDATE SKIP LOCKED. Claiming a job
+-- pushes its run_at out by the lease and counts the attempt, so a job whose worker died becomes
+-- ready again once the lease lapses. A finished job is deleted; one that ran out of attempts keeps
+-- its row with failed_at set.
+CREATE TABLE IF NOT EXISTS job (
+    id BIGSERIAL PRIMARY KEY,
+    queue VARCHAR(100) NOT NULL,
+    priority INTEGER NOT NULL DEFAULT 0,
+    run_at TIMESTAMPTZ(6) NOT NULL DEFAULT now(),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    payload JSONB NOT NULL,
+    locked_by VARCHAR(255),
+    last_error VARCHAR(2000),
+    failed_at TIMESTAMPTZ(6),
+    created_at TIMESTAMPTZ(6) NOT NULL DEFAULT now()
+);
+
+-- The claim order: highest priority first, then longest ready
+CREATE INDEX idx_job_ready ON job(priority DESC, run_at) WHERE failed_at IS NULL;
+
+-- Every job is inserted, updated at least once and deleted, so vacuum it well before the default
+-- 20% of dead rows, or claims slow down scanning past them
+ALTER TABLE job SET (autovacuum_vacuum_scale_factor = 0.01, autovacuum_vacuum_threshold = 1000);
@@ -0,0 +1,17 @@
+-- Committed changes waiting for their side effects, written in the transaction that made them. The
+-- relay drains each user's rows in id order, running the effects in the transaction that deletes
+-- them, so each effect happens once even across crashes.
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    resource VARCHAR(30) NOT NULL,
+    resource_id BIGINT,
+    action VARCHAR(20) NOT NULL,
+    origin VARCHAR(255) NOT NULL,
+    created_at TIMESTAMPTZ(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_outbox_user_id_id ON outbox(user_id, id);
+
+-- Every row is inserted and soon deleted, so vacuum well before the default 20% of dead rows
+ALTER TABLE outbox SET (autovacuum_vacuum_scale_factor = 0.01, autovacuum_vacuum_threshold = 1000);
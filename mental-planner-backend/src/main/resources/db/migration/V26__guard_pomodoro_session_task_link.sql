@@ -0,0 +1,23 @@
+-- V20 replaced pomodoro_session's foreign key to task with a delete trigger, so a session could
+-- keep its link to a task moved to task_archive. Nothing stopped a session being linked to a task
+-- that no longer exists in either table. This trigger does the foreign key's other half: a new or
+-- changed task_id must be in task or task_archive. The task row is locked FOR KEY SHARE, as a
+-- foreign key would, so it can't be deleted before the session commits.
+CREATE OR REPLACE FUNCTION check_pomodoro_session_task() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF NEW.task_id IS NULL OR (TG_OP = 'UPDATE' AND NEW.task_id = OLD.task_id) THEN
+        RETURN NEW;
+    END IF;
+    PERFORM 1 FROM task WHERE id = NEW.task_id FOR KEY SHARE;
+    IF NOT FOUND AND NOT EXISTS (SELECT 1 FROM task_archive WHERE id = NEW.task_id) THEN
+        RAISE EXCEPTION 'pomodoro_session.task_id % is not a task', NEW.task_id
+            USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER pomodoro_session_check_task
+    BEFORE INSERT OR UPDATE OF task_id ON pomodoro_session
+    FOR EACH ROW EXECUTE FUNCTION check_pomodoro_session_task();
@@ -0,0 +1,56 @@
+-- V19's create_monthly_partition() moved a month's rows out of the DEFAULT partition without
+-- locking it, so an insert for that month could land in DEFAULT between the move and the ATTACH,
+-- and the ATTACH then failed. Its comment also claimed the ATTACH does not block reads or writes.
+-- It only takes SHARE UPDATE EXCLUSIVE on the parent, but it also takes ACCESS EXCLUSIVE on the
+-- DEFAULT partition and scans it for rows of the new month.
+--
+-- Creates the partition of a monthly range-partitioned table for the month containing month_start,
+-- named <parent>_pYYYY_MM, unless it already exists. The partition is created standalone, filled
+-- with any rows for the month that landed in the DEFAULT partition, and then attached. The DEFAULT
+-- partition is locked ACCESS EXCLUSIVE before the rows are moved, the lock the ATTACH needs anyway,
+-- so no row for the month can slip in before the ATTACH. Queries that touch the DEFAULT partition
+-- wait for the move and the ATTACH's scan of it, which is short while it is nearly empty. Returns
+-- whether a partition was created.
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, month_start DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound DATE := date_trunc('month', month_start)::date;
+    upper_bound DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := format('%s_p%s', parent, to_char(lower_bound, 'YYYY_MM'));
+    default_name TEXT := parent || '_default';
+    key_column TEXT;
+    key_type REGTYPE;
+    lower_literal TEXT;
+    upper_literal TEXT;
+BEGIN
+    -- Serialise concurrent callers (e.g. two application instances) for the same parent
+    PERFORM pg_advisory_xact_lock(hashtext('create_monthly_partition:' || parent));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    SELECT a.attname, a.atttypid::regtype INTO key_column, key_type
+    FROM pg_partitioned_table p
+    JOIN pg_attribute a ON a.attrelid = p.partrelid AND a.attnum = p.partattrs[0]
+    WHERE p.partrelid = parent::regclass;
+
+    IF key_type = 'date'::regtype THEN
+        lower_literal := quote_literal(lower_bound);
+        upper_literal := quote_literal(upper_bound);
+    ELSE
+        lower_literal := quote_literal(lower_bound::timestamp AT TIME ZONE 'UTC');
+        upper_literal := quote_literal(upper_bound::timestamp AT TIME ZONE 'UTC');
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent);
+    IF to_regclass(default_name) IS NOT NULL THEN
+        EXECUTE format('LOCK TABLE %I IN ACCESS EXCLUSIVE MODE', default_name);
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM %I WHERE %I >= %s AND %I < %s RETURNING *) INSERT INTO %I SELECT * FROM moved',
+            default_name, key_column, lower_literal, key_column, upper_literal, partition_name);
+    END IF;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+        parent, partition_name, lower_literal, upper_literal);
+    RETURN TRUE;
+END;
+$$;
@@ -0,0 +1,184 @@
+package dev.iainkirkham.mental_planner_backend;
+
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.tasks.Task;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskRepository;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comparative load test of request handling on platform threads vs virtual threads (with the
+ * database concurrency gate), against the same Postgres database. Each mode runs in its own
+ * application context; the side-by-side summary is printed once both have run.
+ * Tagged "load" so it only runs via {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        // The test profile's SQL debug logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.jdbc.datasource=INFO",
+        // Measures the server's capacity, which the per-user rate limit would cap first
+        "rate-limit.enabled=false"
+})
+class ThreadingModeLoadTest {
+
+    private static final LocalDate WEEK_START = LocalDate.parse("2025-12-01");
+    private static final int CONCURRENT_CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 25;
+
+    private static final Map<String, LoadResult> RESULTS = new LinkedHashMap<>();
+
+    record LoadResult(int requests, Map<Integer, Integer> statusCounts, double throughputPerSecond,
+                      long p50Micros, long p95Micros, long p99Micros) {
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void seedWeek() {
+        taskRepository.deleteAll();
+        Long userId = appUserService.resolveOrCreate(TestAuthenticationConfig.TEST_USER_ID);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            Task task = new Task();
+            task.setTitle("Load task " + i);
+            task.setScheduledDate(WEEK_START.plusDays(i % 7));
+            task.setSortOrder(i);
+            task.setUserId(userId);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+    }
+
+    @AfterAll
+    static void printComparison() {
+        System.out.println("\n=== Threading mode load test: " + CONCURRENT_CLIENTS + " clients x "
+                + REQUESTS_PER_CLIENT + " week-view requests ===");
+        RESULTS.forEach((mode, result) -> System.out.printf(
+                "%-10s throughput=%8.1f req/s  p50=%6dus  p95=%6dus  p99=%6dus  statuses=%s%n",
+                mode, result.throughputPerSecond(), result.p50Micros(), result.p95Micros(),
+                result.p99Micros(), result.statusCounts()));
+    }
+
+    /**
+     * Fires the week-view request from many concurrent clients and records latency percentiles,
+     * throughput and the status-code mix.
+     */
+    private LoadResult runLoad() throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/tasks?startDate=" + WEEK_START
+                + "&endDate=" + WEEK_START.plusDays(6));
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Map<Integer, Integer> statusCounts = new ConcurrentHashMap<>();
+        long[] latencies = new long[CONCURRENT_CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(clients)
+                     .build()) {
+            // Warm up the context and connection pool before timing
+            http.send(request, HttpResponse.BodyHandlers.discarding());
+
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CONCURRENT_CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[next.getAndIncrement()] = (System.nanoTime() - sent) / 1_000;
+                        statusCounts.merge(response.statusCode(), 1, Integer::sum);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            return new LoadResult(latencies.length, Map.copyOf(statusCounts),
+                    latencies.length / elapsedSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99));
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private void runAndRecord(String mode) throws Exception {
+        LoadResult result = runLoad();
+        RESULTS.put(mode, result);
+
+        assertThat(result.statusCounts().keySet())
+                .as("only successes or load-shedding 503s are expected")
+                .isSubsetOf(200, 503);
+        assertThat(result.statusCounts()).containsKey(200);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads {
+
+        @Test
+        void weekViewUnderLoad() throws Exception {
+            runAndRecord("platform");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads {
+
+        @Test
+        void weekViewUnderLoad() throws Exception {
+            runAndRecord("virtual");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL of every statement Hibernate prepares, for tests that assert on the shape of
+ * generated queries. Enable it on a test class with {@link #PROPERTY}.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "dev.iainkirkham.mental_planner_backend.config.CapturingStatementInspector";
+
+    public static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+}
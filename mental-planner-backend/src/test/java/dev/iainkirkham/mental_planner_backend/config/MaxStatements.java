@@ -0,0 +1,21 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the SQL statements any single API request made by the annotated test
+ * (or every test in the annotated class) may execute, as reported by the X-DB-Statements header.
+ * Catches N+1 regressions: a test that passes today fails once an endpoint starts querying per row.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementCountExtension.class)
+public @interface MaxStatements {
+
+    int value();
+}
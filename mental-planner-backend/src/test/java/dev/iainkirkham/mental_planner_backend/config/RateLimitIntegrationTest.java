@@ -0,0 +1,97 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import dev.iainkirkham.mental_planner_backend.tasks.TaskRepository;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskRequestDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the per-user rate limit. Buckets are tiny and slow to refill, and each
+ * test acts as its own users, so the buckets of one test can't affect another.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "rate-limit.read.capacity=3",
+                "rate-limit.read.per-second=0.5",
+                "rate-limit.write.capacity=2",
+                "rate-limit.write.per-second=0.5"
+        })
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private static HttpHeaders asUser(String clerkUserId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TestAuthenticationConfig.TEST_USER_HEADER, clerkUserId);
+        return headers;
+    }
+
+    private ResponseEntity<Map<String, Object>> readTasks(String clerkUserId) {
+        return restTemplate.exchange("/api/tasks?date=2025-12-01", HttpMethod.GET,
+                new HttpEntity<>(asUser(clerkUserId)), new ParameterizedTypeReference<Map<String, Object>>() {});
+    }
+
+    private HttpStatusCode createTask(String clerkUserId) {
+        TaskRequestDTO task = new TaskRequestDTO();
+        task.setTitle("Rate limited");
+        task.setScheduledDate(LocalDate.of(2025, 12, 1));
+        return restTemplate.exchange("/api/tasks", HttpMethod.POST, new HttpEntity<>(task, asUser(clerkUserId)), Void.class)
+                .getStatusCode();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void requests_ShouldGetTooManyRequestsWithRetryAfterOnceTheBucketIsEmpty() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(readTasks("user_rate_limit_burst").getStatusCode().is2xxSuccessful()).isTrue();
+        }
+
+        ResponseEntity<Map<String, Object>> limited = readTasks("user_rate_limit_burst");
+
+        assertThat(limited.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(limited.getBody()).containsEntry("status", 429).containsEntry("error", "Too many requests");
+        assertThat(limited.getHeaders().getFirst(SqlStatementHeaderFilter.STATEMENTS_HEADER)).isEqualTo("0");
+    }
+
+    @Test
+    void buckets_ShouldBeSeparatePerUserAndPerEndpointClass() {
+        for (int i = 0; i < 3; i++) {
+            readTasks("user_rate_limit_reader");
+        }
+        assertThat(readTasks("user_rate_limit_reader").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        assertThat(readTasks("user_rate_limit_other").getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(createTask("user_rate_limit_reader")).isEqualTo(HttpStatus.CREATED);
+        assertThat(createTask("user_rate_limit_reader")).isEqualTo(HttpStatus.CREATED);
+        assertThat(createTask("user_rate_limit_reader")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,165 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvent;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link ReadCoalescer}. Each test holds a read in flight on a latch while other
+ * calls arrive, so whether they join it is decided before it completes.
+ */
+class ReadCoalescerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadCoalescer readCoalescer = new ReadCoalescer(TransactionOperations.withoutTransaction(), meterRegistry);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * A load that counts itself and waits for the test to release it.
+     */
+    private <T> Supplier<T> blockingLoad(Supplier<T> result) {
+        return () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    private Future<List<String>> readInBackground(Long userId, LocalDate day) {
+        return executor.submit(() -> readCoalescer.coalesce("tasks.date", userId,
+                blockingLoad(() -> new ArrayList<>(List.of("task for " + userId))), day));
+    }
+
+    private double counted(String name) {
+        return meterRegistry.find(name).tag("read", "tasks.date").counter() == null
+                ? 0 : meterRegistry.find(name).tag("read", "tasks.date").counter().count();
+    }
+
+    private void awaitCount(String name, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counted(name) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(counted(name)).isEqualTo(expected);
+    }
+
+    @Test
+    void coalesce_ShouldShareOneLoadBetweenConcurrentIdenticalCalls() throws Exception {
+        List<Future<List<String>>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(readInBackground(1L, DAY));
+        }
+        awaitCount("reads.collapsed", CALLERS - 1);
+        release.countDown();
+
+        List<String> first = calls.getFirst().get(5, TimeUnit.SECONDS);
+        for (Future<List<String>> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(counted("reads.executed")).isEqualTo(1);
+    }
+
+    @Test
+    void coalesce_ShouldNotShareBetweenUsersOrArguments() throws Exception {
+        Future<List<String>> mine = readInBackground(1L, DAY);
+        Future<List<String>> othersSameDay = readInBackground(2L, DAY);
+        Future<List<String>> mineOtherDay = readInBackground(1L, DAY.plusDays(1));
+        awaitCount("reads.executed", 3);
+        release.countDown();
+
+        assertThat(mine.get(5, TimeUnit.SECONDS)).containsExactly("task for 1");
+        assertThat(othersSameDay.get(5, TimeUnit.SECONDS)).containsExactly("task for 2");
+        assertThat(mineOtherDay.get(5, TimeUnit.SECONDS)).containsExactly("task for 1");
+        assertThat(loads).hasValue(3);
+        assertThat(counted("reads.collapsed")).isZero();
+    }
+
+    @Test
+    void coalesce_ShouldNotJoinAReadThatStartedBeforeTheUsersLastChange() throws Exception {
+        Future<List<String>> beforeChange = readInBackground(1L, DAY);
+        Future<List<String>> otherUser = readInBackground(2L, DAY);
+        awaitCount("reads.executed", 2);
+
+        readCoalescer.onChange(new ChangeEvent(1L, ChangedResource.TASK, 10L, ChangeAction.UPDATED));
+        Future<List<String>> afterChange = readInBackground(1L, DAY);
+        Future<List<String>> otherUserAgain = readInBackground(2L, DAY);
+        awaitCount("reads.collapsed", 1);
+        release.countDown();
+
+        assertThat(afterChange.get(5, TimeUnit.SECONDS)).isNotSameAs(beforeChange.get(5, TimeUnit.SECONDS));
+        assertThat(otherUserAgain.get(5, TimeUnit.SECONDS)).isSameAs(otherUser.get(5, TimeUnit.SECONDS));
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void coalesce_ShouldPassTheLoadsFailureToEveryCaller() throws Exception {
+        List<Future<List<String>>> calls = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            calls.add(executor.submit(() -> readCoalescer.<List<String>>coalesce("tasks.date", 1L,
+                    blockingLoad(() -> { throw new IllegalStateException("database unavailable"); }), DAY)));
+        }
+        awaitCount("reads.collapsed", 1);
+        release.countDown();
+
+        for (Future<List<String>> call : calls) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                    .cause()
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("database unavailable");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void coalesce_ShouldRunDirectlyInsideATransaction() throws Exception {
+        Future<List<String>> outside = readInBackground(1L, DAY);
+        awaitCount("reads.executed", 1);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            List<String> inside = readCoalescer.coalesce("tasks.date", 1L, () -> List.of("uncommitted task"), DAY);
+            assertThat(inside).containsExactly("uncommitted task");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        release.countDown();
+
+        assertThat(outside.get(5, TimeUnit.SECONDS)).containsExactly("task for 1");
+        assertThat(counted("reads.collapsed")).isZero();
+    }
+}
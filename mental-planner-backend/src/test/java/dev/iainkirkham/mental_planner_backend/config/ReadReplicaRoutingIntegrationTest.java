@@ -0,0 +1,188 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvent;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import dev.iainkirkham.mental_planner_backend.events.RemoteChangeEvent;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntry;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntryRepository;
+import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO;
+import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for read-replica routing against a real primary/standby pair.
+ * Tests that need the replica to lag pause WAL replay on the standby, which makes the lag
+ * deterministic: anything written afterwards is only visible on the primary until replay resumes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "database.replica.pin-window=2s")
+@AutoConfigureTestRestTemplate
+@Import({TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final String OTHER_USER = "user_replica_other";
+    private static final String REMOTE_WRITER = "user_replica_remote";
+
+    @DynamicPropertySource
+    static void replicatedPostgres(DynamicPropertyRegistry registry) {
+        ReplicatedPostgres.registerProperties(registry);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private void setReplayPaused(boolean paused) throws SQLException {
+        try (Connection connection = ReplicatedPostgres.replicaConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(paused ? "SELECT pg_wal_replay_pause()" : "SELECT pg_wal_replay_resume()");
+        }
+    }
+
+    private Boolean inRecovery(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    private HttpEntity<Object> asUser(String clerkUserId, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TestAuthenticationConfig.TEST_USER_HEADER, clerkUserId);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private MoodEntryRequestDTO moodRequest(String notes) {
+        MoodEntryRequestDTO request = new MoodEntryRequestDTO();
+        request.setMoodScore((short) 4);
+        request.setDateTime(Instant.now());
+        request.setFactors(List.of("Replication"));
+        request.setNotes(notes);
+        return request;
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() throws SQLException {
+        setReplayPaused(false);
+        moodEntryRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldRunOnReplicaAndOthersOnPrimary() {
+        assertThat(inRecovery(true)).isTrue();
+        assertThat(inRecovery(false)).isFalse();
+    }
+
+    @Test
+    @MaxStatements(2)
+    void readAfterWrite_ShouldSeeOwnWriteWhileReplicaLags() throws SQLException {
+        setReplayPaused(true);
+
+        ResponseEntity<MoodEntryResponseDTO> created = restTemplate.exchange("/api/mood", HttpMethod.POST,
+                asUser(TestAuthenticationConfig.TEST_USER_ID, moodRequest("fresh")), MoodEntryResponseDTO.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<MoodEntryResponseDTO> read = restTemplate.exchange("/api/mood/" + created.getBody().getId(),
+                HttpMethod.GET, asUser(TestAuthenticationConfig.TEST_USER_ID, null), MoodEntryResponseDTO.class);
+
+        assertThat(read.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(read.getBody().getNotes()).isEqualTo("fresh");
+    }
+
+    @Test
+    @MaxStatements(2)
+    void unpinnedUser_ShouldReadFromLaggingReplica() throws SQLException {
+        Long otherUserId = appUserService.resolveOrCreate(OTHER_USER);
+        setReplayPaused(true);
+        MoodEntry entry = new MoodEntry();
+        entry.setMoodScore((short) 3);
+        entry.setDateTime(Instant.now());
+        entry.setFactors(List.of("Replication"));
+        entry.setUserId(otherUserId);
+        moodEntryRepository.save(entry);
+
+        ResponseEntity<String> read = restTemplate.exchange("/api/mood", HttpMethod.GET,
+                asUser(OTHER_USER, null), String.class);
+
+        assertThat(read.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    @Test
+    @MaxStatements(2)
+    void writeOnAnotherInstance_ShouldPinUserHere() throws SQLException {
+        Long writerId = appUserService.resolveOrCreate(REMOTE_WRITER);
+        setReplayPaused(true);
+        MoodEntry entry = new MoodEntry();
+        entry.setMoodScore((short) 3);
+        entry.setDateTime(Instant.now());
+        entry.setFactors(List.of("Replication"));
+        entry.setUserId(writerId);
+        entry = moodEntryRepository.save(entry);
+
+        // As if the write had been made on another instance and arrived over the cluster bus
+        eventPublisher.publishEvent(new RemoteChangeEvent(
+                new ChangeEvent(writerId, ChangedResource.MOOD_ENTRY, entry.getId(), ChangeAction.CREATED)));
+        ResponseEntity<String> read = restTemplate.exchange("/api/mood", HttpMethod.GET,
+                asUser(REMOTE_WRITER, null), String.class);
+
+        assertThat(read.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @MaxStatements(2)
+    void pin_ShouldExpireAfterPinWindow() throws Exception {
+        setReplayPaused(true);
+        ResponseEntity<MoodEntryResponseDTO> created = restTemplate.exchange("/api/mood", HttpMethod.POST,
+                asUser(TestAuthenticationConfig.TEST_USER_ID, moodRequest("expiring")), MoodEntryResponseDTO.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        Thread.sleep(2_500);
+        ResponseEntity<String> read = restTemplate.exchange("/api/mood/" + created.getBody().getId(),
+                HttpMethod.GET, asUser(TestAuthenticationConfig.TEST_USER_ID, null), String.class);
+
+        assertThat(read.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
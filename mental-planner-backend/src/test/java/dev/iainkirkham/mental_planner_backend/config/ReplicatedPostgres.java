@@ -0,0 +1,74 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * A Postgres primary and a hot standby fed by streaming replication, for the read-replica tests.
+ * The standby is cloned from the primary with pg_basebackup once the primary is up. Both
+ * containers are started once per JVM and shared by every test that uses them.
+ */
+public final class ReplicatedPostgres {
+
+    static {
+        // ensure Testcontainers uses a compatible Docker API version
+        System.setProperty("api.version", "1.44");
+    }
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("postgres:18.1-alpine");
+    private static final Network NETWORK = Network.newNetwork();
+
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>(IMAGE)
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(
+                    Transferable.of("echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\""),
+                    "/docker-entrypoint-initdb.d/allow-replication.sh");
+
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>(IMAGE)
+            .dependsOn(PRIMARY)
+            .withNetwork(NETWORK)
+            .withEnv("PGPASSWORD", PRIMARY.getPassword())
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+            .withCommand("sh", "-c", "pg_basebackup -h primary -U " + PRIMARY.getUsername()
+                    + " -D /tmp/replica -R -X stream && exec postgres -D /tmp/replica")
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+
+    private ReplicatedPostgres() {
+    }
+
+    /**
+     * Starts both servers if needed and points the primary DataSource and {@code database.replica.*} at them.
+     */
+    public static void registerProperties(DynamicPropertyRegistry registry) {
+        REPLICA.start();
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("database.replica.url", ReplicatedPostgres::replicaJdbcUrl);
+        registry.add("database.replica.username", PRIMARY::getUsername);
+        registry.add("database.replica.password", PRIMARY::getPassword);
+    }
+
+    /**
+     * @return a direct connection to the standby, e.g. to pause WAL replay
+     */
+    public static Connection replicaConnection() throws SQLException {
+        return DriverManager.getConnection(replicaJdbcUrl(), PRIMARY.getUsername(), PRIMARY.getPassword());
+    }
+
+    private static String replicaJdbcUrl() {
+        return "jdbc:postgresql://" + REPLICA.getHost() + ":" + REPLICA.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)
+                + "/" + PRIMARY.getDatabaseName();
+    }
+}
@@ -0,0 +1,114 @@
+package dev.iainkirkham.mental_planner_backend.config;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enforces {@link MaxStatements}: records the X-DB-Statements header of every request the test
+ * sends through the context's {@link TestRestTemplate} and fails the test if any exceeds the bound.
+ * The current user's ID is resolved up front so the one-off app_user lookup on the first request
+ * in a context doesn't make the counts depend on test order.
+ */
+public class SqlStatementCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+        applicationContext.getBean(AuthenticationContext.class).getCurrentUserId();
+        recorderFor(applicationContext.getBean(TestRestTemplate.class).getRestTemplate()).begin();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+        List<RecordedRequest> requests =
+                recorderFor(applicationContext.getBean(TestRestTemplate.class).getRestTemplate()).end();
+        int maxStatements = maxStatements(context);
+
+        List<String> violations = new ArrayList<>();
+        for (RecordedRequest request : requests) {
+            if (request.statements() == null) {
+                violations.add(request.description() + ": no " + SqlStatementHeaderFilter.STATEMENTS_HEADER + " header");
+            } else if (request.statements() > maxStatements) {
+                violations.add(request.description() + ": " + request.statements() + " statements");
+            }
+        }
+        assertThat(violations)
+                .as("Requests exceeding @MaxStatements(%d)", maxStatements)
+                .isEmpty();
+    }
+
+    private static int maxStatements(ExtensionContext context) {
+        return context.getTestMethod()
+                .map(method -> method.getAnnotation(MaxStatements.class))
+                .or(() -> context.getTestClass().map(testClass -> testClass.getAnnotation(MaxStatements.class)))
+                .map(MaxStatements::value)
+                .orElseThrow();
+    }
+
+    /**
+     * Installs the recording interceptor on first use; the RestTemplate lives as long as the
+     * cached application context, so later tests reuse it.
+     */
+    private static synchronized StatementRecorder recorderFor(RestTemplate restTemplate) {
+        for (ClientHttpRequestInterceptor interceptor : restTemplate.getInterceptors()) {
+            if (interceptor instanceof StatementRecorder recorder) {
+                return recorder;
+            }
+        }
+        StatementRecorder recorder = new StatementRecorder();
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(restTemplate.getInterceptors());
+        interceptors.add(recorder);
+        restTemplate.setInterceptors(interceptors);
+        return recorder;
+    }
+
+    private record RecordedRequest(String description, Integer statements) {
+    }
+
+    private static final class StatementRecorder implements ClientHttpRequestInterceptor {
+
+        private volatile List<RecordedRequest> requests;
+
+        void begin() {
+            requests = new ArrayList<>();
+        }
+
+        List<RecordedRequest> end() {
+            List<RecordedRequest> recorded = requests;
+            requests = null;
+            return recorded == null ? List.of() : recorded;
+        }
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+                throws IOException {
+            ClientHttpResponse response = execution.execute(request, body);
+            List<RecordedRequest> recorded = requests;
+            if (recorded != null) {
+                Integer statements = Optional
+                        .ofNullable(response.getHeaders().getFirst(SqlStatementHeaderFilter.STATEMENTS_HEADER))
+                        .map(Integer::valueOf)
+                        .orElse(null);
+                recorded.add(new RecordedRequest(request.getMethod() + " " + request.getURI().getPath(), statements));
+            }
+            return response;
+        }
+    }
+}
@@ -1,26 +1,51 @@
 package dev.iainkirkham.mental_planner_backend.config;
 
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * Test configuration that provides a mock AuthenticationContext for integration tests.
  * This mock always returns a consistent test user ID, allowing tests to run without
- * requiring actual JWT authentication.
+ * requiring actual JWT authentication. The internal numeric ID is still resolved through
+ * the real app_user lookup, as in production.
+ * Requests can act as a different user by sending {@link #TEST_USER_HEADER}, which lets the
+ * load tests spread traffic across many seeded users.
  */
 @TestConfiguration
 public class TestAuthenticationConfig {
 
     public static final String TEST_USER_ID = "user_integration_test_123";
+    public static final String TEST_USER_HEADER = "X-Test-User";
+
+    /**
+     * @return the test user named by the current request's {@link #TEST_USER_HEADER}, or {@link #TEST_USER_ID}
+     */
+    public static String currentTestUser() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String user = attributes.getRequest().getHeader(TEST_USER_HEADER);
+            if (user != null) {
+                return user;
+            }
+        }
+        return TEST_USER_ID;
+    }
 
     @Bean
     @Primary
-    public AuthenticationContext testAuthenticationContext() {
-        return new AuthenticationContext() {
+    public AuthenticationContext testAuthenticationContext(AppUserService appUserService) {
+        return new AuthenticationContext(appUserService) {
+            @Override
+            public boolean hasCurrentUser() {
+                return true;
+            }
+
             @Override
-            public String getCurrentUserId() {
-                return TEST_USER_ID;
+            public String getCurrentUserSubject() {
+                return currentTestUser();
             }
 
             @Override
@@ -42,8 +42,9 @@ public class TestSecurityConfiguration {
 
     /**
      * Filter that injects a Jwt principal into the security context for tests.
-     * The Jwt contains a 'sub' claim equal to the test user id so the real
-     * AuthenticationContext can extract the user id as it would in production.
+     * The Jwt contains a 'sub' claim equal to the test user id (or the user named by the
+     * X-Test-User header) so the real AuthenticationContext can extract the user id as it
+     * would in production.
      */
     @Bean
     public OncePerRequestFilter testAuthenticationFilter() {
@@ -51,8 +52,9 @@ public class TestSecurityConfiguration {
             @Override
             protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
                 try {
+                    String subject = request.getHeader(TestAuthenticationConfig.TEST_USER_HEADER);
                     Jwt jwt = Jwt.withTokenValue("test-token")
-                            .subject(TestAuthenticationConfig.TEST_USER_ID)
+                            .subject(subject != null ? subject : TestAuthenticationConfig.TEST_USER_ID)
                             .claim("email", "test@example.com")
                             .issuedAt(Instant.now())
                             .expiresAt(Instant.now().plusSeconds(3600))
@@ -0,0 +1,250 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import dev.iainkirkham.mental_planner_backend.AdhdFocusCompanionApplication;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.tasks.SubtaskRepository;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskRepository;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link ClusterBus}, with two instances sharing one database: node A is
+ * the test's own application context, and node B a second one started against A's database.
+ * Writes go to node A; their effects are checked on node B.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class ClusterBusIntegrationTest {
+
+    private static final Duration PROPAGATION_LIMIT = Duration.ofSeconds(1);
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private Stream<String> stream;
+
+    @BeforeEach
+    void startNodeB() {
+        if (nodeB == null) {
+            nodeB = new SpringApplicationBuilder(AdhdFocusCompanionApplication.class,
+                    TestAuthenticationConfig.class, TestSecurityConfiguration.class)
+                    .profiles("test")
+                    .run("--server.port=0", "--management.server.port=0",
+                            "--spring.datasource.url=" + connectionDetails.getJdbcUrl(),
+                            "--spring.datasource.username=" + connectionDetails.getUsername(),
+                            "--spring.datasource.password=" + connectionDetails.getPassword());
+        }
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+            nodeB = null;
+        }
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        if (stream != null) {
+            stream.close();
+        }
+        subtaskRepository.deleteAll();
+        taskRepository.deleteAll();
+    }
+
+    private URI nodeBUri(String path) {
+        return URI.create("http://localhost:" + nodeB.getEnvironment().getProperty("local.server.port") + path);
+    }
+
+    private TaskResponseDTO createTaskOnNodeA(String title) {
+        TaskRequestDTO task = new TaskRequestDTO();
+        task.setTitle(title);
+        task.setScheduledDate(LocalDate.of(2025, 12, 1));
+        return restTemplate.postForEntity("/api/tasks", task, TaskResponseDTO.class).getBody();
+    }
+
+    private HttpStatusCode createSubtaskOnNodeB(Long taskId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(nodeBUri("/api/tasks/" + taskId + "/subtasks"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(new SubtaskRequestDTO("Step", false, 0, null))))
+                .build();
+        return HttpStatusCode.valueOf(httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private double count(String counter) {
+        return meterRegistry.get(counter).counter().count();
+    }
+
+    private void awaitCount(String counter, double atLeast) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(counter) < atLeast && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(count(counter)).as(counter).isGreaterThanOrEqualTo(atLeast);
+    }
+
+    @Test
+    void malformedNotification_ShouldBeCountedAsDropped() throws Exception {
+        double dropped = count("cluster.bus.dropped");
+
+        jdbcTemplate.execute("SELECT pg_notify('" + ClusterBus.CHANNEL + "', 'not json')");
+
+        awaitCount("cluster.bus.dropped", dropped + 1);
+    }
+
+    @Test
+    void throwingListener_ShouldNotStopLaterNotifications() throws Exception {
+        BlockingQueue<Long> received = new LinkedBlockingQueue<>();
+        ApplicationListener<ApplicationEvent> listener = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload && payload.getPayload() instanceof RemoteChangeEvent remote
+                    && remote.change().userId() == -1L) {
+                received.add(remote.change().id());
+                if (remote.change().id() == 1L) {
+                    throw new IllegalStateException("Listener failed");
+                }
+            }
+        };
+        applicationContext.addApplicationListener(listener);
+        double dropped = count("cluster.bus.dropped");
+        try {
+            for (long id = 1; id <= 2; id++) {
+                ClusterBus.Message message = new ClusterBus.Message("another-instance",
+                        new ChangeEvent(-1L, ChangedResource.TASK, id, ChangeAction.UPDATED));
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)",
+                        ClusterBus.CHANNEL, jsonMapper.writeValueAsString(message));
+            }
+
+            assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(1L);
+            assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(2L);
+            awaitCount("cluster.bus.dropped", dropped + 1);
+        } finally {
+            applicationContext.removeApplicationListener(listener);
+        }
+    }
+
+    @Test
+    void droppedListenerConnection_ShouldBeCountedAndReconnect() throws Exception {
+        double reconnects = count("cluster.bus.reconnects");
+
+        jdbcTemplate.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE query = 'LISTEN "
+                + ClusterBus.CHANNEL + "'");
+
+        awaitCount("cluster.bus.reconnects", reconnects + 1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity WHERE query = 'LISTEN "
+                + ClusterBus.CHANNEL + "'", Integer.class) < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        writeOnNodeA_ShouldReachEventStreamOnNodeB();
+    }
+
+    @Test
+    void writeOnNodeA_ShouldReachEventStreamOnNodeB() throws Exception {
+        HttpResponse<Stream<String>> response = httpClient.send(
+                HttpRequest.newBuilder(nodeBUri("/api/events")).build(), HttpResponse.BodyHandlers.ofLines());
+        stream = response.body();
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                stream.forEach(lines::add);
+            } catch (RuntimeException ex) {
+                // The stream was closed by the test
+            }
+        });
+        assertThat(lines.poll(5, TimeUnit.SECONDS)).isEqualTo(":connected");
+
+        TaskResponseDTO task = createTaskOnNodeA("Written on A");
+        long committed = System.nanoTime();
+
+        String line;
+        while ((line = lines.poll(PROPAGATION_LIMIT.toMillis(), TimeUnit.MILLISECONDS)) != null
+                && !line.startsWith("data:")) {
+            // Skip the event name and blank separator lines
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - committed);
+
+        assertThat(line).isEqualTo("data:{\"resource\":\"TASK\",\"id\":" + task.getId() + ",\"action\":\"CREATED\"}");
+        assertThat(elapsed).isLessThan(PROPAGATION_LIMIT);
+    }
+
+    @Test
+    void deleteOnNodeA_ShouldInvalidateOwnershipCacheOnNodeB() throws Exception {
+        TaskResponseDTO task = createTaskOnNodeA("Deleted on A");
+        assertThat(createSubtaskOnNodeB(task.getId())).isEqualTo(HttpStatus.CREATED);
+
+        restTemplate.delete("/api/tasks/" + task.getId());
+        long deleted = System.nanoTime();
+
+        HttpStatusCode status;
+        do {
+            status = createSubtaskOnNodeB(task.getId());
+        } while (status != HttpStatus.NOT_FOUND
+                && Duration.ofNanos(System.nanoTime() - deleted).compareTo(PROPAGATION_LIMIT) < 0);
+
+        assertThat(status).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
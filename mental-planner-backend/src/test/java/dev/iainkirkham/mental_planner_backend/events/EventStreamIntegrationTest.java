@@ -0,0 +1,180 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntryRepository;
+import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO;
+import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskRepository;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@code GET /api/events} change stream, read with a plain HTTP client
+ * line by line. A short heartbeat keeps the idle-stream test quick.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "events.stream.heartbeat=300ms")
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class EventStreamIntegrationTest {
+
+    private static final String OTHER_USER_ID = "user_event_stream_other";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private Stream<String> stream;
+
+    /**
+     * Opens the test user's event stream and returns its lines as they arrive, once the stream
+     * has been registered.
+     */
+    private BlockingQueue<String> openStream() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events"))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+
+        stream = response.body();
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                stream.forEach(lines::add);
+            } catch (RuntimeException ex) {
+                // The stream was closed by the test
+            }
+        });
+        assertThat(lines.poll(5, TimeUnit.SECONDS)).isEqualTo(":connected");
+        return lines;
+    }
+
+    /**
+     * @return the data of the next event with the given name
+     */
+    private static String nextEvent(BlockingQueue<String> lines, String name) throws InterruptedException {
+        String line;
+        while ((line = lines.poll(5, TimeUnit.SECONDS)) != null) {
+            if (line.equals("event:" + name)) {
+                String data = lines.poll(5, TimeUnit.SECONDS);
+                assertThat(data).startsWith("data:");
+                return data.substring("data:".length());
+            }
+        }
+        throw new AssertionError("No " + name + " event received");
+    }
+
+    private static String change(String resource, Long id, String action) {
+        return "{\"resource\":\"" + resource + "\",\"id\":" + id + ",\"action\":\"" + action + "\"}";
+    }
+
+    private TaskResponseDTO createTask(String title, String clerkUserId) {
+        TaskRequestDTO task = new TaskRequestDTO();
+        task.setTitle(title);
+        task.setScheduledDate(LocalDate.of(2025, 12, 1));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TestAuthenticationConfig.TEST_USER_HEADER, clerkUserId);
+        return restTemplate.postForEntity("/api/tasks", new HttpEntity<>(task, headers), TaskResponseDTO.class).getBody();
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        if (stream != null) {
+            stream.close();
+        }
+        taskRepository.deleteAll();
+        moodEntryRepository.deleteAll();
+    }
+
+    @Test
+    void stream_ShouldReceiveTheCurrentUsersCommittedChangesOnly() throws Exception {
+        BlockingQueue<String> lines = openStream();
+
+        createTask("Someone else's", OTHER_USER_ID);
+        TaskResponseDTO task = createTask("Mine", TestAuthenticationConfig.TEST_USER_ID);
+        MoodEntryRequestDTO mood = new MoodEntryRequestDTO();
+        mood.setMoodScore((short) 4);
+        mood.setDateTime(Instant.now());
+        MoodEntryResponseDTO moodEntry = restTemplate.postForEntity("/api/mood", mood, MoodEntryResponseDTO.class).getBody();
+        restTemplate.delete("/api/tasks/" + task.getId());
+
+        assertThat(nextEvent(lines, EventStream.CHANGE_EVENT)).isEqualTo(change("TASK", task.getId(), "CREATED"));
+        assertThat(nextEvent(lines, EventStream.CHANGE_EVENT)).isEqualTo(change("MOOD_ENTRY", moodEntry.getId(), "CREATED"));
+        assertThat(nextEvent(lines, EventStream.CHANGE_EVENT)).isEqualTo(change("TASK", task.getId(), "DELETED"));
+    }
+
+    @Test
+    void stream_ShouldNotReceiveChangesThatRolledBack() throws Exception {
+        Long userId = appUserService.resolveOrCreate(TestAuthenticationConfig.TEST_USER_ID);
+        BlockingQueue<String> lines = openStream();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ChangeEvent(userId, ChangedResource.TASK, 1L, ChangeAction.UPDATED));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new ChangeEvent(userId, ChangedResource.TASK, 2L, ChangeAction.UPDATED)));
+
+        assertThat(nextEvent(lines, EventStream.CHANGE_EVENT)).isEqualTo(change("TASK", 2L, "UPDATED"));
+    }
+
+    @Test
+    void stream_ShouldSendHeartbeatsWhileIdle() throws Exception {
+        BlockingQueue<String> lines = openStream();
+
+        assertThat(lines.poll(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(lines.poll(5, TimeUnit.SECONDS)).isEqualTo(":heartbeat");
+    }
+}
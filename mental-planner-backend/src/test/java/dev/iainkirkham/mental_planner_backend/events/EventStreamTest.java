@@ -0,0 +1,61 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link EventStream}'s bounded buffer, using an emitter that records what the
+ * writer sends instead of writing to a response.
+ */
+class EventStreamTest {
+
+    /**
+     * An emitter that keeps each sent event as its raw SSE text.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining()));
+        }
+    }
+
+    @Test
+    void offer_ShouldDropTheOldestChangeAndAskForAResyncWhenTheBufferIsFull() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        EventStream stream = new EventStream(emitter, 2, Duration.ofMinutes(1), 1L);
+
+        assertThat(stream.offer("{\"id\":1}")).isFalse();
+        assertThat(stream.offer("{\"id\":2}")).isFalse();
+        assertThat(stream.offer("{\"id\":3}")).isTrue();
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Thread writer = Thread.ofVirtual().start(() -> stream.run(ignored -> stopped.countDown()));
+        while (emitter.sent.size() < 4 && writer.isAlive()) {
+            Thread.sleep(10);
+        }
+        stream.close();
+
+        assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.sent).containsExactly(
+                ":connected\n\n",
+                "event:resync\ndata:{}\n\n",
+                "event:change\ndata:{\"id\":2}\n\n",
+                "event:change\ndata:{\"id\":3}\n\n");
+    }
+}
@@ -0,0 +1,233 @@
+package dev.iainkirkham.mental_planner_backend.events;
+
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.tasks.SubtaskRepository;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskRepository;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for the {@link Outbox} and {@link OutboxRelay}: which changes are recorded,
+ * and how batches are taken and handed to the handlers. The relay's workers are not started, so
+ * each test relays by hand.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "outbox.relay.workers=0")
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class OutboxIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private ChangeEvents changeEvents;
+
+    @Autowired
+    private RecordingHandler handler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    /**
+     * Records each batch it is given, and throws instead while {@code failing} is set.
+     */
+    static class RecordingHandler implements OutboxHandler {
+
+        final List<List<OutboxEntry>> batches = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public void relay(List<OutboxEntry> entries) {
+            if (failing) {
+                throw new IllegalStateException("Handler failed");
+            }
+            batches.add(entries);
+        }
+
+        List<OutboxEntry> entries() {
+            List<OutboxEntry> entries = new ArrayList<>();
+            batches.forEach(entries::addAll);
+            return entries;
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class TestHandlers {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        subtaskRepository.deleteAll();
+        taskRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM outbox");
+        handler.batches.clear();
+        handler.failing = false;
+    }
+
+    private double failures() {
+        Counter counter = meterRegistry.find("outbox.relay.failures").tag("exception", "IllegalStateException").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private long waiting() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM outbox", Long.class);
+    }
+
+    private void insertEntry(long userId, long taskId) {
+        jdbcTemplate.update("INSERT INTO outbox (user_id, resource, resource_id, action, origin) VALUES (?, ?, ?, ?, ?)",
+                userId, ChangedResource.TASK.name(), taskId, ChangeAction.UPDATED.name(), "elsewhere");
+    }
+
+    @Test
+    void committedWrites_ShouldBeRelayedInOrderAndRemoved() {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Outboxed");
+        request.setScheduledDate(LocalDate.of(2025, 12, 1));
+        TaskResponseDTO task = restTemplate.postForEntity("/api/tasks", request, TaskResponseDTO.class).getBody();
+        request.setTitle("Outboxed again");
+        restTemplate.put("/api/tasks/" + task.getId(), request);
+        restTemplate.delete("/api/tasks/" + task.getId());
+        assertThat(waiting()).isEqualTo(3);
+
+        assertThat(relay.relayBatch()).isEqualTo(3);
+
+        assertThat(handler.entries())
+                .extracting(entry -> entry.change().resource(), entry -> entry.change().id(),
+                        entry -> entry.change().action(), OutboxEntry::origin)
+                .containsExactly(
+                        tuple(ChangedResource.TASK, task.getId(), ChangeAction.CREATED, outbox.getInstanceId()),
+                        tuple(ChangedResource.TASK, task.getId(), ChangeAction.UPDATED, outbox.getInstanceId()),
+                        tuple(ChangedResource.TASK, task.getId(), ChangeAction.DELETED, outbox.getInstanceId()));
+        assertThat(handler.entries()).extracting(OutboxEntry::id).isSorted();
+        assertThat(waiting()).isZero();
+        assertThat(relay.relayBatch()).isZero();
+    }
+
+    @Test
+    void rolledBackTransaction_ShouldRecordNothing() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeEvents.publish(1L, ChangedResource.TASK, 1L, ChangeAction.CREATED);
+            changeEvents.publish(1L, ChangedResource.TASK, null, ChangeAction.UPDATED);
+            status.setRollbackOnly();
+        });
+
+        assertThat(waiting()).isZero();
+    }
+
+    @Test
+    void transaction_ShouldRecordAllItsChangesAtCommit() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeEvents.publish(1L, ChangedResource.TASK, 1L, ChangeAction.CREATED);
+            changeEvents.publish(1L, ChangedResource.TASK, null, ChangeAction.UPDATED);
+            assertThat(waiting()).isZero();
+        });
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+        assertThat(handler.entries()).extracting(OutboxEntry::change).containsExactly(
+                new ChangeEvent(1L, ChangedResource.TASK, 1L, ChangeAction.CREATED),
+                new ChangeEvent(1L, ChangedResource.TASK, null, ChangeAction.UPDATED));
+    }
+
+    @Test
+    void relayBatch_ShouldSkipUsersAnotherRelayHolds() throws Exception {
+        insertEntry(1001L, 1L);
+        insertEntry(1002L, 2L);
+        insertEntry(1001L, 3L);
+
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            try (PreparedStatement lock = other.prepareStatement(
+                    "SELECT pg_advisory_xact_lock(hashtext('outbox'), 1001)")) {
+                lock.executeQuery().close();
+            }
+            assertThat(relay.relayBatch()).isEqualTo(1);
+            other.rollback();
+        }
+
+        assertThat(handler.entries()).extracting(entry -> entry.change().userId()).containsExactly(1002L);
+        assertThat(relay.relayBatch()).isEqualTo(2);
+        assertThat(handler.entries()).extracting(entry -> entry.change().id()).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void failingHandler_ShouldLeaveTheBatchWaiting() {
+        insertEntry(1001L, 1L);
+        handler.failing = true;
+        double failures = failures();
+
+        assertThatThrownBy(relay::relayBatch).hasMessage("Handler failed");
+        assertThat(waiting()).isEqualTo(1);
+        assertThat(failures()).isEqualTo(failures + 1);
+
+        handler.failing = false;
+        assertThat(relay.relayBatch()).isEqualTo(1);
+        assertThat(waiting()).isZero();
+    }
+
+    @Test
+    void backoff_ShouldDoubleWithEachFailureUpToAMinute() {
+        assertThat(relay.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(relay.backoff(2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(relay.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(relay.backoff(10)).isEqualTo(Duration.ofMinutes(1));
+    }
+}
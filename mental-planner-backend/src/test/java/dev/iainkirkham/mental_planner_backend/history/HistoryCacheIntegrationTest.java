@@ -0,0 +1,258 @@
+package dev.iainkirkham.mental_planner_backend.history;
+
+import dev.iainkirkham.mental_planner_backend.config.MaxStatements;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntry;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntryRepository;
+import dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO;
+import dev.iainkirkham.mental_planner_backend.pomodoro.PomodoroSession;
+import dev.iainkirkham.mental_planner_backend.pomodoro.PomodoroSessionRepository;
+import dev.iainkirkham.mental_planner_backend.tasks.Task;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskRepository;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for caching headers on settled date ranges of the mood and pomodoro histories.
+ * Ranges are relative to the real current date, since that is what decides whether a range has settled.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class HistoryCacheIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DayRevisionRepository dayRevisionRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    private static final Instant TODAY = LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant();
+    private static final Instant DAY_A = TODAY.minus(60, ChronoUnit.DAYS).plus(9, ChronoUnit.HOURS);
+    private static final Instant DAY_B = TODAY.minus(40, ChronoUnit.DAYS).plus(9, ChronoUnit.HOURS);
+
+    private Long testUserId() {
+        return appUserService.resolveOrCreate(TestAuthenticationConfig.TEST_USER_ID);
+    }
+
+    private MoodEntry createMoodEntryAt(Instant dateTime, String notes) {
+        MoodEntry moodEntry = new MoodEntry();
+        moodEntry.setMoodScore((short) 3);
+        moodEntry.setDateTime(dateTime);
+        moodEntry.setFactors(List.of("Integration"));
+        moodEntry.setNotes(notes);
+        moodEntry.setUserId(testUserId());
+        return moodEntryRepository.save(moodEntry);
+    }
+
+    private ResponseEntity<String> getMoodRange(Instant start, Instant end, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange("/api/mood?startDate=" + start + "&endDate=" + end,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private String moodRangeEtag(Instant start, Instant end) {
+        return getMoodRange(start, end, null).getHeaders().getETag();
+    }
+
+    private void updateMoodEntry(MoodEntry entry, Instant dateTime, String notes) {
+        MoodEntryRequestDTO update = new MoodEntryRequestDTO();
+        update.setMoodScore(entry.getMoodScore());
+        update.setDateTime(dateTime);
+        update.setFactors(entry.getFactors());
+        update.setNotes(notes);
+        ResponseEntity<String> response = restTemplate.exchange("/api/mood/" + entry.getId(),
+                HttpMethod.PUT, new HttpEntity<>(update), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        moodEntryRepository.deleteAll();
+        pomodoroSessionRepository.deleteAll();
+        taskRepository.deleteAll();
+        dayRevisionRepository.deleteAll();
+    }
+
+    @Test
+    @MaxStatements(2)
+    void settledRange_ShouldBeCacheableAndRevalidateWithNotModified() {
+        createMoodEntryAt(DAY_A, "settled");
+        Instant start = DAY_A.minus(1, ChronoUnit.DAYS);
+        Instant end = DAY_B.plus(1, ChronoUnit.DAYS);
+
+        ResponseEntity<String> first = getMoodRange(start, end, null);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getCacheControl()).contains("private").contains("no-cache").doesNotContain("max-age");
+        assertThat(first.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotBlank();
+
+        ResponseEntity<String> revalidated = getMoodRange(start, end, etag);
+
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(revalidated.getBody()).isNull();
+    }
+
+    @Test
+    @MaxStatements(1)
+    void rangeEndingTodayOrYesterday_ShouldNotBeCacheable() {
+        createMoodEntryAt(TODAY.minus(1, ChronoUnit.HOURS), "yesterday");
+
+        ResponseEntity<String> response = getMoodRange(TODAY.minus(7, ChronoUnit.DAYS), TODAY, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNull();
+        assertThat(response.getHeaders().getCacheControl()).doesNotContain("private");
+    }
+
+    @Test
+    @MaxStatements(4)
+    void writeIntoPastDay_ShouldChangeOnlyRangesCoveringThatDay() {
+        MoodEntry entryOnA = createMoodEntryAt(DAY_A, "before");
+        createMoodEntryAt(DAY_B, "untouched");
+        Instant aStart = DAY_A.minus(1, ChronoUnit.DAYS);
+        Instant aEnd = DAY_A.plus(1, ChronoUnit.DAYS);
+        Instant bStart = DAY_B.minus(1, ChronoUnit.DAYS);
+        Instant bEnd = DAY_B.plus(1, ChronoUnit.DAYS);
+        String rangeA = moodRangeEtag(aStart, aEnd);
+        String rangeB = moodRangeEtag(bStart, bEnd);
+        String both = moodRangeEtag(aStart, bEnd);
+
+        updateMoodEntry(entryOnA, DAY_A, "after");
+
+        assertThat(moodRangeEtag(aStart, aEnd)).isNotEqualTo(rangeA);
+        assertThat(moodRangeEtag(aStart, bEnd)).isNotEqualTo(both);
+        assertThat(moodRangeEtag(bStart, bEnd)).isEqualTo(rangeB);
+        assertThat(dayRevisionRepository.findAll())
+                .singleElement()
+                .satisfies(revision -> {
+                    assertThat(revision.getKind()).isEqualTo(HistoryKind.MOOD);
+                    assertThat(revision.getRevisionDate()).isEqualTo(LocalDate.ofInstant(DAY_A, ZoneOffset.UTC));
+                    assertThat(revision.getRevision()).isEqualTo(1L);
+                });
+    }
+
+    @Test
+    @MaxStatements(4)
+    void backdatedWrite_ShouldFailConditionalGetOnSettledRange() {
+        MoodEntry entry = createMoodEntryAt(DAY_A, "before");
+        Instant start = DAY_A.minus(1, ChronoUnit.DAYS);
+        Instant end = DAY_A.plus(1, ChronoUnit.DAYS);
+        String etag = moodRangeEtag(start, end);
+
+        updateMoodEntry(entry, DAY_A, "backdated");
+        ResponseEntity<String> revalidated = getMoodRange(start, end, etag);
+
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(revalidated.getHeaders().getCacheControl()).contains("no-cache");
+        assertThat(revalidated.getBody()).contains("backdated");
+    }
+
+    @Test
+    @MaxStatements(5)
+    void movingEntryBetweenPastDays_ShouldBumpBothDays() {
+        MoodEntry entry = createMoodEntryAt(DAY_A, "moving");
+
+        updateMoodEntry(entry, DAY_B, "moved");
+
+        assertThat(dayRevisionRepository.findAll())
+                .extracting(DayRevision::getRevisionDate)
+                .containsExactlyInAnyOrder(
+                        LocalDate.ofInstant(DAY_A, ZoneOffset.UTC), LocalDate.ofInstant(DAY_B, ZoneOffset.UTC));
+    }
+
+    private PomodoroSession createPomodoroSessionAt(Instant startTime, Long taskId) {
+        PomodoroSession session = new PomodoroSession();
+        session.setStartTime(startTime);
+        session.setEndTime(startTime.plus(25, ChronoUnit.MINUTES));
+        session.setDuration(25);
+        session.setScore((short) 4);
+        session.setTaskId(taskId);
+        session.setUserId(testUserId());
+        return pomodoroSessionRepository.save(session);
+    }
+
+    private ResponseEntity<String> getPomodoroRange(Instant start, Instant end) {
+        return restTemplate.getForEntity("/api/pomodoro?startDate=" + start + "&endDate=" + end, String.class);
+    }
+
+    @Test
+    @MaxStatements(2)
+    void settledPomodoroRange_ShouldBeCacheable() {
+        createPomodoroSessionAt(DAY_A, null);
+
+        ResponseEntity<String> response = getPomodoroRange(DAY_A.minus(1, ChronoUnit.DAYS), DAY_A.plus(1, ChronoUnit.DAYS));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotBlank();
+        assertThat(response.getHeaders().getCacheControl()).contains("private");
+    }
+
+    @Test
+    @MaxStatements(4)
+    void deletingTaskLinkedToPastSession_ShouldChangePomodoroRangeEtag() {
+        Task task = new Task();
+        task.setTitle("Linked");
+        task.setScheduledDate(LocalDate.ofInstant(DAY_B, ZoneOffset.UTC));
+        task.setUserId(testUserId());
+        task = taskRepository.save(task);
+        createPomodoroSessionAt(DAY_B, task.getId());
+        Instant start = DAY_B.minus(1, ChronoUnit.DAYS);
+        Instant end = DAY_B.plus(1, ChronoUnit.DAYS);
+        String etag = getPomodoroRange(start, end).getHeaders().getETag();
+
+        restTemplate.delete("/api/tasks/" + task.getId());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> revalidated = restTemplate.exchange(
+                "/api/pomodoro?startDate=" + start + "&endDate=" + end,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(revalidated.getBody()).doesNotContain("\"taskId\":" + task.getId());
+    }
+}
@@ -0,0 +1,199 @@
+package dev.iainkirkham.mental_planner_backend.history;
+
+import dev.iainkirkham.mental_planner_backend.config.CapturingStatementInspector;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntry;
+import dev.iainkirkham.mental_planner_backend.mood.MoodEntryRepository;
+import dev.iainkirkham.mental_planner_backend.pomodoro.PomodoroSessionRepository;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the monthly partitioning of the time-ordered tables: partition
+ * pre-creation, draining of the DEFAULT partition, and partition pruning of the repositories'
+ * date-range queries and of updates and deletes by ID. The queries are captured as Hibernate
+ * generates them and then run under EXPLAIN with the same parameters, so the test fails if a query
+ * stops pruning.
+ */
+@SpringBootTest(properties = CapturingStatementInspector.PROPERTY)
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class HistoryPartitioningIntegrationTest {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+    private static final LocalDate CURRENT_MONTH = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+    private static final LocalDate UNPARTITIONED_MONTH = LocalDate.of(1999, 6, 1);
+
+    @Autowired
+    private HistoryPartitionMaintenance historyPartitionMaintenance;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private static String partition(String table, LocalDate month) {
+        return table + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private Long testUserId() {
+        return appUserService.resolveOrCreate(TestAuthenticationConfig.TEST_USER_ID);
+    }
+
+    private boolean exists(String relation) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation);
+    }
+
+    private int rowsIn(String relation) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + relation, Integer.class);
+    }
+
+    /**
+     * Runs the last captured statement that reads from the given table under EXPLAIN and returns
+     * every relation the plan scans.
+     */
+    private Set<String> scannedRelations(String table, Object... parameters) {
+        return explainedRelations(lastStatement("select", " from " + table + " "), parameters);
+    }
+
+    private static String lastStatement(String verb, String fragment) {
+        return CapturingStatementInspector.STATEMENTS.reversed().stream()
+                .filter(statement -> statement.startsWith(verb) && statement.contains(fragment))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Set<String> explainedRelations(String sql, Object... parameters) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, parameters);
+        Set<String> relations = new TreeSet<>();
+        collectRelations(jsonMapper.readTree(plan), relations);
+        return relations;
+    }
+
+    private static void collectRelations(JsonNode node, Set<String> relations) {
+        if (node.has("Relation Name")) {
+            relations.add(node.get("Relation Name").asString());
+        }
+        for (JsonNode child : node) {
+            collectRelations(child, relations);
+        }
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        moodEntryRepository.deleteAll();
+        pomodoroSessionRepository.deleteAll();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition("mood_entry", UNPARTITIONED_MONTH));
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void maintenance_ShouldHaveCreatedCurrentAndUpcomingMonths() {
+        assertThat(historyPartitionMaintenance.createMissingPartitions()).isZero();
+
+        for (HistoryPartitionMaintenance.PartitionedTable table : HistoryPartitionMaintenance.PARTITIONED_TABLES) {
+            for (int i = 0; i <= 3; i++) {
+                assertThat(exists(partition(table.name(), CURRENT_MONTH.plusMonths(i))))
+                        .as("%s partition %d months ahead", table.name(), i)
+                        .isTrue();
+            }
+        }
+    }
+
+    @Test
+    void rowsInDefaultPartition_ShouldMoveIntoTheirMonthOnceItIsCreated() {
+        MoodEntry entry = new MoodEntry();
+        entry.setMoodScore((short) 3);
+        entry.setDateTime(startOf(UNPARTITIONED_MONTH.plusDays(14)));
+        entry.setFactors(List.of("Partitioning"));
+        entry.setUserId(testUserId());
+        MoodEntry saved = moodEntryRepository.save(entry);
+        assertThat(rowsIn("mood_entry_default")).isEqualTo(1);
+
+        assertThat(historyPartitionMaintenance.createMissingPartitions()).isEqualTo(1);
+
+        assertThat(rowsIn("mood_entry_default")).isZero();
+        assertThat(rowsIn(partition("mood_entry", UNPARTITIONED_MONTH))).isEqualTo(1);
+        assertThat(moodEntryRepository.findByIdAndUserId(saved.getId(), testUserId())).isPresent();
+    }
+
+    @Test
+    void moodRangeQuery_ShouldOnlyScanPartitionsOfTheRange() {
+        Long userId = testUserId();
+        Instant start = startOf(CURRENT_MONTH.plusDays(5));
+        Instant end = startOf(CURRENT_MONTH.plusMonths(1).plusDays(5));
+
+        moodEntryRepository.findByUserIdAndDateTimeBetweenOrderByDateTimeDesc(userId, start, end);
+
+        assertThat(scannedRelations("mood_entry", userId, Timestamp.from(start), Timestamp.from(end)))
+                .containsExactlyInAnyOrder(
+                        partition("mood_entry", CURRENT_MONTH), partition("mood_entry", CURRENT_MONTH.plusMonths(1)));
+    }
+
+    @Test
+    void moodUpdateAndDeleteById_ShouldOnlyTouchTheEntrysPartition() {
+        MoodEntry entry = new MoodEntry();
+        entry.setMoodScore((short) 3);
+        entry.setDateTime(startOf(CURRENT_MONTH.plusMonths(1).plusDays(3)));
+        entry.setFactors(List.of("Partitioning"));
+        entry.setUserId(testUserId());
+        MoodEntry saved = moodEntryRepository.save(entry);
+        saved.setNotes("updated");
+        moodEntryRepository.save(saved);
+        moodEntryRepository.delete(saved);
+
+        assertThat(lastStatement("update", "mood_entry")).contains("date_time=?");
+        String delete = lastStatement("delete", "mood_entry");
+        assertThat(delete).contains("date_time=?");
+        assertThat(explainedRelations(delete, saved.getId(), Timestamp.from(saved.getDateTime())))
+                .containsExactly(partition("mood_entry", CURRENT_MONTH.plusMonths(1)));
+    }
+
+    @Test
+    void pomodoroRangeQuery_ShouldOnlyScanPartitionsOfTheRange() {
+        Long userId = testUserId();
+        Instant start = startOf(CURRENT_MONTH.plusMonths(1)).plus(9, ChronoUnit.HOURS);
+        Instant end = startOf(CURRENT_MONTH.plusMonths(1).plusDays(7));
+
+        pomodoroSessionRepository.findByUserIdAndStartTimeBetweenOrderByStartTimeDesc(userId, start, end);
+
+        assertThat(scannedRelations("pomodoro_session", userId, Timestamp.from(start), Timestamp.from(end)))
+                .containsExactly(partition("pomodoro_session", CURRENT_MONTH.plusMonths(1)));
+    }
+}
@@ -0,0 +1,318 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the background job queue: enqueueing with the caller's transaction,
+ * running, retrying with backoff and giving up, and the claim itself. Short backoffs and poll
+ * intervals keep the retries quick.
+ */
+@SpringBootTest(properties = {
+        "jobs.queue.workers=2",
+        "jobs.queue.poll-interval=50ms",
+        "jobs.queue.backoff=200ms",
+        "jobs.queue.max-attempts=3",
+        "jobs.queue.lease=2s",
+        "jobs.queue.metrics-interval=1h"
+})
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class JobQueueIntegrationTest {
+
+    private static final String ECHO = "test.echo";
+    private static final String FLAKY = "test.flaky";
+    private static final String BROKEN = "test.broken";
+    private static final String MANUAL = "test.manual";
+
+    @Autowired
+    private JobQueue jobQueue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingHandler echo;
+
+    @Autowired
+    private RecordingHandler flaky;
+
+    /**
+     * Records each payload it handles, with the time, and throws for the first {@code failures}.
+     */
+    static class RecordingHandler implements JobHandler {
+
+        final BlockingQueue<Instant> calls = new LinkedBlockingQueue<>();
+        final BlockingQueue<JsonNode> handled = new LinkedBlockingQueue<>();
+        private final String queue;
+        private final int failures;
+
+        RecordingHandler(String queue, int failures) {
+            this.queue = queue;
+            this.failures = failures;
+        }
+
+        @Override
+        public String queue() {
+            return queue;
+        }
+
+        @Override
+        public void handle(JsonNode payload) {
+            calls.add(Instant.now());
+            if (calls.size() <= failures) {
+                throw new IllegalStateException("Attempt " + calls.size() + " failed");
+            }
+            handled.add(payload);
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class TestHandlers {
+
+        @Bean
+        RecordingHandler echo() {
+            return new RecordingHandler(ECHO, 0);
+        }
+
+        @Bean
+        RecordingHandler flaky() {
+            return new RecordingHandler(FLAKY, 2);
+        }
+
+        @Bean
+        RecordingHandler broken() {
+            return new RecordingHandler(BROKEN, Integer.MAX_VALUE);
+        }
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM job WHERE queue LIKE 'test.%'");
+        echo.calls.clear();
+        echo.handled.clear();
+        flaky.calls.clear();
+        flaky.handled.clear();
+    }
+
+    private Map<String, Object> job(long id) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT attempts, locked_by, last_error, failed_at, run_at > now() AS leased FROM job WHERE id = ?", id);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    private void awaitGone(long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job(id) != null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(job(id)).as("job %d", id).isNull();
+    }
+
+    /**
+     * Workers for a queue no bean handles, which are never started, so tests can claim by hand.
+     */
+    private JobWorkers manualWorkers(SimpleMeterRegistry registry) {
+        return new JobWorkers(jdbcTemplate, jsonMapper, registry,
+                List.of(new RecordingHandler(MANUAL, 0)), 0, 10, Duration.ofMinutes(5), Duration.ofSeconds(1),
+                3, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void enqueue_ShouldRunTheJobOnlyIfItsTransactionCommits() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            jobQueue.enqueue(ECHO, Map.of("export", "rolled back"));
+            status.setRollbackOnly();
+        });
+        long id = transactionTemplate.execute(status -> jobQueue.enqueue(ECHO, Map.of("export", 42)));
+
+        JsonNode payload = echo.handled.poll(5, TimeUnit.SECONDS);
+
+        assertThat(payload).isNotNull();
+        assertThat(payload.get("export").asInt()).isEqualTo(42);
+        awaitGone(id);
+        assertThat(echo.handled.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void failingJob_ShouldBeRetriedWithDoublingBackoff() throws Exception {
+        long id = jobQueue.enqueue(FLAKY, Map.of());
+
+        assertThat(flaky.handled.poll(5, TimeUnit.SECONDS)).isNotNull();
+        List<Instant> calls = List.copyOf(flaky.calls);
+
+        assertThat(calls).hasSize(3);
+        assertThat(Duration.between(calls.get(0), calls.get(1))).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        assertThat(Duration.between(calls.get(1), calls.get(2))).isGreaterThanOrEqualTo(Duration.ofMillis(400));
+        awaitGone(id);
+    }
+
+    @Test
+    void exhaustedJob_ShouldBeKeptAsFailed() throws Exception {
+        long id = jobQueue.enqueue(BROKEN, Map.of("import", 7));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job(id).get("failed_at") == null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(job(id)).satisfies(job -> {
+            assertThat(job.get("failed_at")).isNotNull();
+            assertThat(job.get("attempts")).isEqualTo(3);
+            assertThat(job.get("locked_by")).isNull();
+            assertThat((String) job.get("last_error")).contains("Attempt 3 failed");
+        });
+    }
+
+    @Test
+    void claim_ShouldTakeReadyJobsByPriorityAndSkipLockedOnes() throws Exception {
+        JobWorkers workers = manualWorkers(new SimpleMeterRegistry());
+        long low = jobQueue.enqueue(MANUAL, Map.of("n", 1));
+        long high = jobQueue.enqueue(MANUAL, Map.of("n", 2), 10, null);
+        long future = jobQueue.enqueue(MANUAL, Map.of("n", 3), 100, Instant.now().plusSeconds(3600));
+        long locked = jobQueue.enqueue(MANUAL, Map.of("n", 4), 100, null);
+
+        List<JobWorkers.ClaimedJob> claimed;
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            try (PreparedStatement lock = other.prepareStatement("SELECT id FROM job WHERE id = ? FOR UPDATE")) {
+                lock.setLong(1, locked);
+                lock.executeQuery().close();
+            }
+            claimed = workers.claim(10);
+            other.rollback();
+        }
+
+        assertThat(claimed).extracting(JobWorkers.ClaimedJob::id).containsExactly(high, low);
+        assertThat(claimed).allSatisfy(job -> assertThat(job.attempts()).isEqualTo(1));
+        assertThat(job(high)).containsEntry("leased", true);
+        assertThat(job(future)).containsEntry("attempts", 0);
+        assertThat(workers.claim(10)).extracting(JobWorkers.ClaimedJob::id).containsExactly(locked);
+        assertThat(workers.claim(10)).isEmpty();
+    }
+
+    @Test
+    void staleClaim_ShouldNotCompleteAJobThatWasClaimedAgain() {
+        JobWorkers workers = manualWorkers(new SimpleMeterRegistry());
+        long id = jobQueue.enqueue(MANUAL, Map.of());
+        JobWorkers.ClaimedJob stale = workers.claim(1).getFirst();
+        // Its lease lapses, and another worker claims it
+        jdbcTemplate.update("UPDATE job SET run_at = now() - interval '1 second' WHERE id = ?", id);
+        JobWorkers.ClaimedJob fresh = workers.claim(1).getFirst();
+
+        workers.complete(stale);
+        assertThat(job(id)).containsEntry("attempts", 2);
+
+        workers.complete(fresh);
+        assertThat(job(id)).isNull();
+    }
+
+    @Test
+    void renewLeases_ShouldExtendOnlyTheJobsStillHeld() {
+        JobWorkers workers = manualWorkers(new SimpleMeterRegistry());
+        long waiting = jobQueue.enqueue(MANUAL, Map.of("n", 1));
+        long retrying = jobQueue.enqueue(MANUAL, Map.of("n", 2));
+        List<JobWorkers.ClaimedJob> batch = workers.claim(10);
+        assertThat(batch).hasSize(2);
+        // Both leases are about to lapse, and one job has since been handed back for a retry
+        jdbcTemplate.update("UPDATE job SET run_at = now() + interval '1 second' WHERE queue = ?", MANUAL);
+        jdbcTemplate.update("UPDATE job SET locked_by = NULL WHERE id = ?", retrying);
+
+        workers.renewLeases();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT run_at > now() + interval '1 minute' FROM job WHERE id = ?", Boolean.class, waiting)).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT run_at > now() + interval '1 minute' FROM job WHERE id = ?", Boolean.class, retrying)).isFalse();
+    }
+
+    @Test
+    void jobThrowingAnError_ShouldBeRetriedRatherThanKillTheWorker() {
+        JobWorkers workers = new JobWorkers(jdbcTemplate, jsonMapper, new SimpleMeterRegistry(),
+                List.of(new JobHandler() {
+                    @Override
+                    public String queue() {
+                        return MANUAL;
+                    }
+
+                    @Override
+                    public void handle(JsonNode payload) {
+                        throw new AssertionError("Handler bug");
+                    }
+                }), 0, 10, Duration.ofMinutes(5), Duration.ofSeconds(1), 3, Duration.ofSeconds(10));
+        long id = jobQueue.enqueue(MANUAL, Map.of());
+
+        assertThat(workers.process(workers.claim(1).getFirst())).isFalse();
+
+        assertThat(job(id))
+                .containsEntry("attempts", 1)
+                .containsEntry("locked_by", null)
+                .containsEntry("last_error", "java.lang.AssertionError: Handler bug");
+    }
+
+    @Test
+    void queueMetrics_ShouldGaugeReadyJobsAndTimeClaims() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JobWorkers workers = manualWorkers(registry);
+        for (int i = 0; i < 3; i++) {
+            jobQueue.enqueue(MANUAL, Map.of("n", i));
+        }
+        jobQueue.enqueue(MANUAL, Map.of("n", 3), 0, Instant.now().plusSeconds(3600));
+
+        workers.refreshQueueMetrics();
+        assertThat(registry.get("jobs.queue.depth").tag("queue", MANUAL).gauge().value()).isEqualTo(3);
+
+        workers.claim(2);
+        workers.refreshQueueMetrics();
+        assertThat(registry.get("jobs.queue.depth").tag("queue", MANUAL).gauge().value()).isEqualTo(1);
+        assertThat(registry.get("jobs.queue.latency").tag("queue", MANUAL).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToAnHour() {
+        JobWorkers workers = manualWorkers(new SimpleMeterRegistry());
+
+        assertThat(workers.backoff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(workers.backoff(3)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(workers.backoff(100)).isEqualTo(Duration.ofHours(1));
+    }
+}
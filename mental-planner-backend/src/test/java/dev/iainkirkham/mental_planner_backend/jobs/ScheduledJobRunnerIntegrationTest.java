@@ -0,0 +1,238 @@
+package dev.iainkirkham.mental_planner_backend.jobs;
+
+import dev.iainkirkham.mental_planner_backend.AdhdFocusCompanionApplication;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for cluster-scheduled jobs, with two instances sharing one database: node A is
+ * the test's own application context, and node B a second one started against A's database. Both
+ * run the same every-second job, and the tests also drive each node's {@link ScheduledJobRunner}
+ * directly to race them on chosen fires. A one-second lease keeps the heartbeat tests short.
+ */
+@SpringBootTest(properties = {"jobs.lease=1s", "test.jobs.cron=* * * * * *"})
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+// Stops node A's every-second job once these tests are done
+@DirtiesContext
+class ScheduledJobRunnerIntegrationTest {
+
+    private static final String EVERY_SECOND = "test.every-second";
+    private static final String JOB = "test.runner";
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    @Autowired
+    private ScheduledJobRunner runnerA;
+
+    @Autowired
+    private MeterRegistry meterRegistryA;
+
+    @Autowired
+    private CountingJob countingJobA;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ScheduledJobRunner runnerB;
+
+    /**
+     * A job that only counts its runs, registered on both nodes.
+     */
+    static class CountingJob {
+
+        final AtomicInteger runs = new AtomicInteger();
+
+        @ClusterScheduled(name = EVERY_SECOND, cron = "${test.jobs.cron:-}")
+        public void run() {
+            runs.incrementAndGet();
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class TestJobs {
+
+        @Bean
+        CountingJob countingJob() {
+            return new CountingJob();
+        }
+    }
+
+    @BeforeEach
+    void startNodeB() {
+        if (nodeB == null) {
+            nodeB = new SpringApplicationBuilder(AdhdFocusCompanionApplication.class,
+                    TestAuthenticationConfig.class, TestSecurityConfiguration.class, TestJobs.class)
+                    .profiles("test")
+                    .run("--server.port=0", "--management.server.port=0",
+                            "--jobs.lease=1s", "--test.jobs.cron=* * * * * *",
+                            "--spring.datasource.url=" + connectionDetails.getJdbcUrl(),
+                            "--spring.datasource.username=" + connectionDetails.getUsername(),
+                            "--spring.datasource.password=" + connectionDetails.getPassword());
+        }
+        runnerB = nodeB.getBean(ScheduledJobRunner.class);
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+            nodeB = null;
+        }
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM scheduled_job_lock WHERE name = ?", JOB);
+        jdbcTemplate.update("DELETE FROM scheduled_job_run WHERE job_name = ?", JOB);
+    }
+
+    private List<Map<String, Object>> runs(String name) {
+        return jdbcTemplate.queryForList(
+                "SELECT instance_id, scheduled_at, outcome, error, duration_ms FROM scheduled_job_run "
+                        + "WHERE job_name = ? ORDER BY scheduled_at", name);
+    }
+
+    private static double skipped(MeterRegistry registry, String name) {
+        Counter counter = registry.find("jobs.skipped").tag("job", name).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void sameFire_ShouldRunOnExactlyOneInstance() throws Exception {
+        Instant firstFire = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        AtomicInteger ran = new AtomicInteger();
+        int fires = 10;
+
+        for (int i = 0; i < fires; i++) {
+            Instant fire = firstFire.plusSeconds(i);
+            CountDownLatch start = new CountDownLatch(1);
+            CompletableFuture<Boolean> onA = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return runnerA.run(JOB, fire, ran::incrementAndGet);
+            });
+            CompletableFuture<Boolean> onB = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return runnerB.run(JOB, fire, ran::incrementAndGet);
+            });
+            start.countDown();
+            assertThat(onA.get(5, TimeUnit.SECONDS) ^ onB.get(5, TimeUnit.SECONDS)).as("fire %d", i).isTrue();
+        }
+
+        assertThat(ran).hasValue(fires);
+        assertThat(runs(JOB)).hasSize(fires)
+                .allSatisfy(run -> assertThat(run.get("outcome")).isEqualTo(ScheduledJobRunner.SUCCEEDED));
+        assertThat(runs(JOB).stream().map(run -> run.get("scheduled_at")).distinct()).hasSize(fires);
+    }
+
+    @Test
+    void runningJob_ShouldKeepItsLeaseWithHeartbeatsAndReleaseItWhenDone() throws Exception {
+        Instant fire = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        CompletableFuture<Boolean> slowRun = CompletableFuture.supplyAsync(
+                () -> runnerA.run(JOB, fire, () -> sleep(2_500)));
+        Thread.sleep(1_500);
+
+        assertThat(runnerB.run(JOB, fire.plusSeconds(1), () -> { })).isFalse();
+        assertThat(slowRun.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(runnerB.run(JOB, fire.plusSeconds(1), () -> { })).isTrue();
+
+        assertThat(runs(JOB)).extracting(run -> run.get("instance_id"))
+                .containsExactly(runnerA.getInstanceId(), runnerB.getInstanceId());
+        assertThat(((Number) runs(JOB).getFirst().get("duration_ms")).longValue()).isGreaterThanOrEqualTo(2_500);
+    }
+
+    @Test
+    void lease_ShouldBlockOtherInstancesUntilItLapses() {
+        Instant fire = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        double skippedBefore = skipped(nodeB.getBean(MeterRegistry.class), JOB);
+        jdbcTemplate.update("INSERT INTO scheduled_job_lock (name, locked_by, locked_until, last_scheduled_at, heartbeat_at) "
+                + "VALUES (?, 'crashed', now() + interval '1 hour', ?, now())", JOB, java.sql.Timestamp.from(fire));
+
+        assertThat(runnerB.run(JOB, fire.plusSeconds(1), () -> { })).isFalse();
+        assertThat(skipped(nodeB.getBean(MeterRegistry.class), JOB)).isEqualTo(skippedBefore + 1);
+
+        jdbcTemplate.update("UPDATE scheduled_job_lock SET locked_until = now() - interval '1 second' WHERE name = ?", JOB);
+        assertThat(runnerB.run(JOB, fire, () -> { })).as("a fire that was already claimed").isFalse();
+        assertThat(runnerB.run(JOB, fire.plusSeconds(1), () -> { })).isTrue();
+    }
+
+    @Test
+    void failingJob_ShouldBeRecordedAndReleaseItsLease() {
+        Instant fire = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        assertThatThrownBy(() -> runnerA.run(JOB, fire, () -> {
+            throw new IllegalStateException("Out of coffee");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(runs(JOB)).singleElement().satisfies(run -> {
+            assertThat(run.get("outcome")).isEqualTo(ScheduledJobRunner.FAILED);
+            assertThat((String) run.get("error")).contains("Out of coffee");
+        });
+        assertThat(meterRegistryA.find("jobs.run").tags("job", JOB, "outcome", ScheduledJobRunner.FAILED).timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isEqualTo(1));
+        assertThat(runnerB.run(JOB, fire.plusSeconds(1), () -> { })).isTrue();
+    }
+
+    @Test
+    void clusterScheduledJob_ShouldFireOnBothInstancesButRunEachFireOnce() throws Exception {
+        Thread.sleep(3_500);
+
+        List<Map<String, Object>> runs = runs(EVERY_SECOND);
+        assertThat(runs).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(runs.stream().map(run -> run.get("scheduled_at")).distinct()).hasSize(runs.size());
+        assertThat(countingJobA.runs.get() + nodeB.getBean(CountingJob.class).runs.get())
+                .isBetween(runs.size() - 1, runs.size());
+        assertThat(skipped(meterRegistryA, EVERY_SECOND) + skipped(nodeB.getBean(MeterRegistry.class), EVERY_SECOND))
+                .isPositive();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
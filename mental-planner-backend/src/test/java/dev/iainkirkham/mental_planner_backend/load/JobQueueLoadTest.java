@@ -0,0 +1,165 @@
+package dev.iainkirkham.mental_planner_backend.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.jobs.JobHandler;
+import dev.iainkirkham.mental_planner_backend.jobs.JobWorkers;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput benchmark of the background job queue: {@code load.jobs} jobs (100k by default) are
+ * inserted at mixed priorities, then drained by a pool of each size in {@code load.jobWorkers}
+ * (8, 32 and 128 by default), claiming {@code load.jobBatchSize} at a time. Each job sleeps for
+ * {@code load.jobWorkMillis} (0 by default, so only the queue's own overhead is measured).
+ * Jobs/s and how long ready jobs waited to be claimed are printed per pool size, and written as
+ * JSON next to {@code load.report}.
+ * Tagged "load" so it only runs via {@code ./gradlew loadTest} (e.g. {@code -Pload.jobWorkMillis=5}).
+ */
+@Tag("load")
+@SpringBootTest(properties = "jobs.queue.metrics-interval=1h")
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        // The test profile's SQL debug logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.jdbc.datasource=INFO"
+})
+class JobQueueLoadTest {
+
+    private static final long JOBS = Long.getLong("load.jobs", 100_000L);
+    private static final String WORKERS = System.getProperty("load.jobWorkers", "8,32,128");
+    private static final int BATCH_SIZE = Integer.getInteger("load.jobBatchSize", 10);
+    private static final long WORK_MILLIS = Long.getLong("load.jobWorkMillis", 0L);
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "build/reports/load/planner-load.json"))
+            .resolveSibling("job-queue.json");
+
+    private static final String QUEUE = "load.noop";
+    private static final Duration DRAIN_LIMIT = Duration.ofMinutes(10);
+
+    record RoundReport(int workers, long jobs, long drainMillis, double jobsPerSecond,
+                       double meanWaitMillis, double maxWaitMillis) {
+    }
+
+    record QueueReport(Instant startedAt, Map<String, Object> config, List<RoundReport> rounds) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM job WHERE queue = ?", QUEUE);
+    }
+
+    @Test
+    void drainQueue() throws Exception {
+        List<RoundReport> rounds = new ArrayList<>();
+        for (int workers : Arrays.stream(WORKERS.split(",")).mapToInt(Integer::parseInt).toArray()) {
+            RoundReport round = drain(workers);
+            rounds.add(round);
+            System.out.printf("%3d workers: %,d jobs in %,d ms (%,.0f jobs/s); waited %.1f ms mean, %.1f ms max%n",
+                    workers, round.jobs(), round.drainMillis(), round.jobsPerSecond(),
+                    round.meanWaitMillis(), round.maxWaitMillis());
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("jobs", JOBS);
+        config.put("batchSize", BATCH_SIZE);
+        config.put("workMillis", WORK_MILLIS);
+        config.put("poolSize", jdbcTemplate.getDataSource() instanceof HikariDataSource hikari
+                ? hikari.getMaximumPoolSize() : null);
+        QueueReport report = new QueueReport(Instant.now(), config, rounds);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        jsonMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        System.out.printf("%n=== Job queue benchmark: %s -> %s ===%n", config, REPORT);
+    }
+
+    /**
+     * Fills the queue, then times a pool of {@code workers} draining it. Each job must run once.
+     */
+    private RoundReport drain(int workers) throws InterruptedException {
+        jdbcTemplate.update("""
+                INSERT INTO job (queue, priority, payload)
+                SELECT ?, n % 3, jsonb_build_object('n', n) FROM generate_series(1, ?) n""", QUEUE, JOBS);
+        jdbcTemplate.execute("ANALYZE job");
+
+        LongAdder handled = new LongAdder();
+        JobHandler handler = new JobHandler() {
+            @Override
+            public String queue() {
+                return QUEUE;
+            }
+
+            @Override
+            public void handle(JsonNode payload) {
+                if (WORK_MILLIS > 0) {
+                    try {
+                        Thread.sleep(WORK_MILLIS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                handled.increment();
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JobWorkers pool = new JobWorkers(jdbcTemplate, jsonMapper, registry, List.of(handler), workers, BATCH_SIZE,
+                Duration.ofMinutes(5), Duration.ofMillis(10), 5, Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        long deadline = start + DRAIN_LIMIT.toNanos();
+        pool.start();
+        try {
+            // Counting rows would compete with the workers for the database
+            while (handled.sum() < JOBS && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            // Deletes the last batches' jobs
+            pool.stop();
+        }
+        long drainMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(remaining()).isZero();
+        assertThat(handled.sum()).isEqualTo(JOBS);
+        Timer waits = registry.get("jobs.queue.latency").timer();
+        return new RoundReport(workers, JOBS, drainMillis, JOBS * 1000.0 / Math.max(1, drainMillis),
+                waits.mean(TimeUnit.MILLISECONDS), waits.max(TimeUnit.MILLISECONDS));
+    }
+
+    private long remaining() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM job WHERE queue = ?", Long.class, QUEUE);
+    }
+}
@@ -0,0 +1,294 @@
+package dev.iainkirkham.mental_planner_backend.load;
+
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the monthly-partitioned mood_entry table against an unpartitioned copy of the same
+ * rows. Generates {@code load.partitionRows} mood entries (50M by default) for
+ * {@code load.partitionUsers} users spread evenly over {@code load.partitionYears}, copies them into
+ * {@code mood_entry_flat} with the pre-partitioning indexes, and then times the repository's query
+ * shapes against both tables: a one-month range (prunable), a user's whole history and a lookup by
+ * ID (neither prunable), and a lookup by ID and date time, the shape of the repository's updates and
+ * deletes (prunable). Pomodoro sessions and time entries share the layout, so only mood entries
+ * are measured. Results are printed and written as JSON next to {@code load.report}.
+ * Tagged "load" so it only runs via {@code ./gradlew loadTest} (e.g. {@code -Pload.partitionRows=5000000}).
+ */
+@Tag("load")
+@SpringBootTest
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        // The test profile's SQL debug logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.jdbc.datasource=INFO"
+})
+class PartitionPruningLoadTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.parse("2021-01-01");
+
+    private static final long ROWS = Long.getLong("load.partitionRows", 50_000_000L);
+    private static final int USERS = Integer.getInteger("load.partitionUsers", 20_000);
+    private static final int YEARS = Integer.getInteger("load.partitionYears", 5);
+    private static final int QUERIES = Integer.getInteger("load.partitionQueries", 2_000);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "build/reports/load/planner-load.json"))
+            .resolveSibling("partition-pruning.json");
+
+    private static final String USER_PREFIX = "partition_user_";
+    private static final String MONTH_RANGE =
+            "select id, date_time, factors, mood_score, notes, user_id from %s where user_id=? and date_time between ? and ? order by date_time desc";
+    private static final String WHOLE_HISTORY =
+            "select id, date_time, factors, mood_score, notes, user_id from %s where user_id=? order by date_time desc";
+    private static final String BY_ID =
+            "select id, date_time, factors, mood_score, notes, user_id from %s where id=? and user_id=?";
+    private static final String BY_ID_AND_KEY =
+            "select id, date_time, factors, mood_score, notes, user_id from %s where id=? and date_time=?";
+
+    record QueryReport(int queries, double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                       long sharedBuffersPerQuery, int relationsScanned) {
+    }
+
+    record PartitionReport(Instant startedAt, Map<String, Object> config, long loadMillis,
+                           Map<String, Long> totalBytes, Map<String, QueryReport> queries) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private long firstUserId;
+    private long firstEntryId;
+    private long secondsPerEntry;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS mood_entry_flat");
+        jdbcTemplate.execute("TRUNCATE mood_entry");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_mood_entry_user_id_date_time ON mood_entry(user_id, date_time)");
+        jdbcTemplate.update("DELETE FROM app_user WHERE clerk_user_id LIKE ?", USER_PREFIX + "%");
+    }
+
+    @Test
+    void monthRangeReadsOnPartitionedAndFlatTables() throws Exception {
+        long loadStart = System.nanoTime();
+        load();
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        System.out.printf("%nLoaded %,d mood entries for %,d users over %d year(s) into both tables in %d ms%n",
+                ROWS, USERS, YEARS, loadMillis);
+
+        Map<String, QueryReport> queries = new LinkedHashMap<>();
+        for (String table : new String[]{"mood_entry", "mood_entry_flat"}) {
+            queries.put(table + " month range", measure(MONTH_RANGE.formatted(table), this::monthRangeParameters));
+            queries.put(table + " whole history", measure(WHOLE_HISTORY.formatted(table), this::userParameters));
+            queries.put(table + " by id", measure(BY_ID.formatted(table), this::byIdParameters));
+            queries.put(table + " by id and key", measure(BY_ID_AND_KEY.formatted(table), this::byIdAndKeyParameters));
+        }
+
+        Map<String, Long> totalBytes = new LinkedHashMap<>();
+        totalBytes.put("mood_entry", jdbcTemplate.queryForObject(
+                "SELECT sum(pg_total_relation_size(inhrelid)) FROM pg_inherits WHERE inhparent = 'mood_entry'::regclass", Long.class));
+        totalBytes.put("mood_entry_flat", jdbcTemplate.queryForObject(
+                "SELECT pg_total_relation_size('mood_entry_flat')", Long.class));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rows", ROWS);
+        config.put("users", USERS);
+        config.put("years", YEARS);
+        config.put("queries", QUERIES);
+        config.put("seed", SEED);
+        PartitionReport report = new PartitionReport(Instant.now(), config, loadMillis, totalBytes, queries);
+
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        jsonMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        printSummary(report);
+
+        assertThat(queries.get("mood_entry month range").relationsScanned()).isLessThanOrEqualTo(2);
+        assertThat(queries.get("mood_entry_flat month range").relationsScanned()).isEqualTo(1);
+        assertThat(queries.get("mood_entry by id and key").relationsScanned()).isEqualTo(1);
+    }
+
+    /**
+     * Spreads each user's entries evenly over the period, in time order, as the application would
+     * have appended them. Both tables get their (user_id, date_time) index built after the load.
+     */
+    private void load() {
+        LocalDate lastDay = FIRST_DAY.plusYears(YEARS);
+        long perUser = Math.max(1, ROWS / USERS);
+        secondsPerEntry = Math.max(1, (lastDay.toEpochDay() - FIRST_DAY.toEpochDay()) * 86_400 / perUser);
+
+        firstUserId = jdbcTemplate.query(
+                "INSERT INTO app_user (clerk_user_id) SELECT ? || n FROM generate_series(0, ? - 1) n ORDER BY n RETURNING id",
+                (rows, i) -> rows.getLong(1), USER_PREFIX, USERS).stream().min(Long::compare).orElseThrow();
+        jdbcTemplate.queryForList(
+                "SELECT create_monthly_partition('mood_entry', m::date) FROM generate_series(?::timestamp, ?::timestamp, INTERVAL '1 month') m",
+                FIRST_DAY, lastDay);
+
+        jdbcTemplate.execute("DROP INDEX idx_mood_entry_user_id_date_time");
+        firstEntryId = jdbcTemplate.queryForObject("SELECT nextval('mood_entry_id_seq')", Long.class) + 1;
+        jdbcTemplate.update("""
+                INSERT INTO mood_entry (mood_score, date_time, factors, notes, user_id)
+                SELECT 1 + (n % 5),
+                       ?::timestamp AT TIME ZONE 'UTC' + make_interval(secs => (n / ?) * ? + (n % 3600)),
+                       '["sleep"]'::jsonb,
+                       CASE WHEN n % 3 = 0 THEN 'Felt okay' END,
+                       ? + (n % ?)
+                FROM generate_series(0, ? - 1) n""",
+                FIRST_DAY, USERS, secondsPerEntry, firstUserId, USERS, ROWS);
+        jdbcTemplate.execute("CREATE INDEX idx_mood_entry_user_id_date_time ON mood_entry(user_id, date_time)");
+
+        jdbcTemplate.execute("CREATE TABLE mood_entry_flat AS SELECT * FROM mood_entry");
+        jdbcTemplate.execute("ALTER TABLE mood_entry_flat ADD PRIMARY KEY (id)");
+        jdbcTemplate.execute("CREATE INDEX idx_mood_entry_flat_user_id_date_time ON mood_entry_flat(user_id, date_time)");
+        jdbcTemplate.execute("ANALYZE mood_entry");
+        jdbcTemplate.execute("ANALYZE mood_entry_flat");
+    }
+
+    private Object[] userParameters(SplittableRandom random) {
+        return new Object[]{firstUserId + random.nextInt(USERS)};
+    }
+
+    private Object[] monthRangeParameters(SplittableRandom random) {
+        LocalDate month = FIRST_DAY.plusMonths(random.nextInt(YEARS * 12));
+        LocalDate start = month.plusDays(random.nextInt(28));
+        return new Object[]{firstUserId + random.nextInt(USERS),
+                Timestamp.from(start.atStartOfDay(ZoneOffset.UTC).toInstant()),
+                Timestamp.from(start.plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant())};
+    }
+
+    /**
+     * Entry IDs were assigned in generation order, so the owner of an ID is known without a lookup.
+     */
+    private Object[] byIdParameters(SplittableRandom random) {
+        long n = random.nextLong(ROWS);
+        return new Object[]{firstEntryId + n, firstUserId + n % USERS};
+    }
+
+    /**
+     * As {@link #byIdParameters}, but with the entry's date time, which follows from its generation
+     * order the same way.
+     */
+    private Object[] byIdAndKeyParameters(SplittableRandom random) {
+        long n = random.nextLong(ROWS);
+        Instant dateTime = FIRST_DAY.atStartOfDay(ZoneOffset.UTC).toInstant()
+                .plusSeconds((n / USERS) * secondsPerEntry + n % 3600);
+        return new Object[]{firstEntryId + n, Timestamp.from(dateTime)};
+    }
+
+    private interface Parameters {
+        Object[] next(SplittableRandom random);
+    }
+
+    /**
+     * Times the query on one connection with the same sequence of parameters for each table, after
+     * a warm-up pass, then runs one sample under EXPLAIN (ANALYZE, BUFFERS).
+     */
+    private QueryReport measure(String sql, Parameters parameters) throws SQLException {
+        long[] latencies = new long[QUERIES];
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int pass = 0; pass < 2; pass++) {
+                SplittableRandom random = new SplittableRandom(SEED);
+                for (int i = 0; i < QUERIES; i++) {
+                    bind(statement, parameters.next(random));
+                    long start = System.nanoTime();
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            rows.getLong(1);
+                        }
+                    }
+                    latencies[i] = (System.nanoTime() - start) / 1_000;
+                }
+            }
+        }
+
+        String plan = explain(sql, parameters.next(new SplittableRandom(SEED)));
+        JsonNode root = jsonMapper.readTree(plan).get(0).get("Plan");
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return new QueryReport(QUERIES, Arrays.stream(sorted).average().orElse(0) / 1000.0,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.95), percentileMillis(sorted, 0.99),
+                root.get("Shared Hit Blocks").asLong() + root.get("Shared Read Blocks").asLong(),
+                countRelations(root));
+    }
+
+    private String explain(String sql, Object[] parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql)) {
+            bind(statement, parameters);
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getString(1);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+
+    /**
+     * Counts the relations the plan actually scanned; partitions pruned at execution time show
+     * up as never executed.
+     */
+    private static int countRelations(JsonNode node) {
+        int count = node.has("Relation Name") && node.path("Actual Loops").asLong(1) > 0 ? 1 : 0;
+        for (JsonNode child : node.path("Plans")) {
+            count += countRelations(child);
+        }
+        return count;
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1000.0;
+    }
+
+    private static void printSummary(PartitionReport report) {
+        System.out.printf("%n=== Partition pruning benchmark: %s -> %s ===%n", report.config(), REPORT);
+        System.out.printf("Total size: %s%n", report.totalBytes());
+        report.queries().forEach((query, result) -> System.out.printf(
+                "%-30s mean=%7.3fms  p50=%7.3fms  p95=%7.3fms  p99=%7.3fms  buffers=%5d  relations=%d%n",
+                query, result.meanMillis(), result.p50Millis(), result.p95Millis(), result.p99Millis(),
+                result.sharedBuffersPerQuery(), result.relationsScanned()));
+    }
+}
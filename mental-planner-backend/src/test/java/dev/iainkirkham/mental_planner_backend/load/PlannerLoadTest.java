@@ -0,0 +1,329 @@
+package dev.iainkirkham.mental_planner_backend.load;
+
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.load.SyntheticDataSeeder.SeedResult;
+import dev.iainkirkham.mental_planner_backend.load.SyntheticDataSeeder.SeededUser;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the planner's common flows against a realistic multi-user dataset.
+ * Seeds {@code load.users} users with {@code load.years} of history, then {@code load.clients}
+ * concurrent clients replay a weighted mix of flows, each as a randomly chosen seeded user, for
+ * {@code load.durationSeconds}. Latency percentiles and throughput per flow are printed and
+ * written as JSON to {@code load.report} for comparing runs over time.
+ * Tagged "load" so it only runs via {@code ./gradlew loadTest} (e.g. {@code -Pload.users=200}).
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        // The test profile's SQL debug logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.jdbc.datasource=INFO",
+        // Measures the server's capacity, which the per-user rate limit would cap first
+        "rate-limit.enabled=false"
+})
+class PlannerLoadTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2025-12-01");
+
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int YEARS = Integer.getInteger("load.years", 1);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "build/reports/load/planner-load.json"));
+
+    /**
+     * A planner flow and its share of the traffic mix.
+     */
+    private enum Flow {
+        WEEK_VIEW(40),
+        POMODORO_HISTORY(20),
+        STOPWATCH_PERSIST(10),
+        STOPWATCH_LOG(5),
+        MOOD_LOG(15),
+        DRAG_REORDER(10);
+
+        private final int weight;
+
+        Flow(int weight) {
+            this.weight = weight;
+        }
+
+        static Flow pick(SplittableRandom random) {
+            int roll = random.nextInt(100);
+            for (Flow flow : values()) {
+                roll -= flow.weight;
+                if (roll < 0) {
+                    return flow;
+                }
+            }
+            return WEEK_VIEW;
+        }
+    }
+
+    /**
+     * Latencies (microseconds) and status codes observed by one client for one flow. Requests shed
+     * with 503 are counted but kept out of the latencies, so a fast rejection can't pass for a
+     * fast answer.
+     */
+    private static final class Samples {
+        private long[] latencies = new long[256];
+        private int count;
+        private final Map<Integer, Integer> statusCounts = new HashMap<>();
+
+        void add(long latencyMicros, int status) {
+            statusCounts.merge(status, 1, Integer::sum);
+            if (status == 503) {
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyMicros;
+        }
+
+        void addAll(Samples other) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length, count + other.count));
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            other.statusCounts.forEach((status, n) -> statusCounts.merge(status, n, Integer::sum));
+        }
+    }
+
+    record FlowReport(int requests, int unavailable, double throughputPerSecond, double p50Millis, double p95Millis,
+                      double p99Millis, double maxMillis, Map<Integer, Integer> statusCounts) {
+    }
+
+    record LoadReport(Instant startedAt, Map<String, Object> config, Map<String, Long> seededRows,
+                      long seedMillis, double durationSeconds, Map<String, FlowReport> flows) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Test
+    void plannerFlowsUnderLoad() throws Exception {
+        SeedResult seeded = new SyntheticDataSeeder(dataSource, TODAY, SEED).seed(USERS, YEARS);
+        System.out.printf("%nSeeded %d users x %d year(s) in %d ms: %s%n",
+                USERS, YEARS, seeded.elapsedMillis(), seeded.rowCounts());
+
+        Instant startedAt = Instant.now();
+        Map<Flow, Samples> merged = new LinkedHashMap<>();
+        double elapsedSeconds;
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(clients)
+                     .build()) {
+            FlowRunner runner = new FlowRunner(http, seeded.users());
+
+            runClients(clients, runner, WARMUP_SECONDS, SEED - 1);
+
+            long start = System.nanoTime();
+            List<Map<Flow, Samples>> perClient = runClients(clients, runner, DURATION_SECONDS, SEED);
+            elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            for (Flow flow : Flow.values()) {
+                merged.put(flow, new Samples());
+            }
+            perClient.forEach(samples -> samples.forEach((flow, s) -> merged.get(flow).addAll(s)));
+        }
+
+        Map<String, FlowReport> flows = new LinkedHashMap<>();
+        merged.forEach((flow, samples) -> flows.put(flow.name().toLowerCase(), report(samples, elapsedSeconds)));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", USERS);
+        config.put("years", YEARS);
+        config.put("clients", CLIENTS);
+        config.put("durationSeconds", DURATION_SECONDS);
+        config.put("seed", SEED);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        config.put("virtualThreads", virtualThreads);
+        LoadReport report = new LoadReport(startedAt, config, seeded.rowCounts(), seeded.elapsedMillis(), elapsedSeconds, flows);
+
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        printSummary(report);
+
+        flows.forEach((flow, result) -> {
+            assertThat(result.requests()).as("%s requests", flow).isPositive();
+            assertThat(result.unavailable()).as("%s requests shed with 503", flow).isZero();
+            assertThat(result.statusCounts().keySet()).as("%s statuses", flow).isSubsetOf(200, 201, 204);
+        });
+    }
+
+    /**
+     * Runs every client for the given duration and returns each client's samples.
+     */
+    private List<Map<Flow, Samples>> runClients(ExecutorService clients, FlowRunner runner, int seconds, long seed)
+            throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<Future<Map<Flow, Samples>>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            SplittableRandom random = seeds.split();
+            futures.add(clients.submit(() -> {
+                Map<Flow, Samples> samples = new HashMap<>();
+                while (System.nanoTime() < deadline) {
+                    Flow flow = Flow.pick(random);
+                    SeededUser user = runner.users.get(random.nextInt(runner.users.size()));
+                    long sent = System.nanoTime();
+                    int status = runner.run(flow, user, random);
+                    samples.computeIfAbsent(flow, f -> new Samples()).add((System.nanoTime() - sent) / 1_000, status);
+                }
+                return samples;
+            }));
+        }
+        List<Map<Flow, Samples>> results = new ArrayList<>();
+        for (Future<Map<Flow, Samples>> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static FlowReport report(Samples samples, double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples.latencies, samples.count);
+        Arrays.sort(sorted);
+        return new FlowReport(sorted.length, samples.statusCounts.getOrDefault(503, 0), sorted.length / elapsedSeconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.95), percentileMillis(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000.0, Map.copyOf(samples.statusCounts));
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1000.0;
+    }
+
+    private static void printSummary(LoadReport report) {
+        System.out.printf("%n=== Planner load test: %s, %.1fs -> %s ===%n", report.config(), report.durationSeconds(), REPORT);
+        report.flows().forEach((flow, result) -> System.out.printf(
+                "%-18s %6d req  %4d shed  %8.1f req/s  p50=%7.2fms  p95=%7.2fms  p99=%7.2fms  max=%8.2fms  statuses=%s%n",
+                flow, result.requests(), result.unavailable(), result.throughputPerSecond(), result.p50Millis(), result.p95Millis(),
+                result.p99Millis(), result.maxMillis(), result.statusCounts()));
+    }
+
+    /**
+     * Issues one request per flow as the given user, in the shape the frontend sends it.
+     */
+    private final class FlowRunner {
+
+        private final HttpClient http;
+        private final List<SeededUser> users;
+
+        FlowRunner(HttpClient http, List<SeededUser> users) {
+            this.http = http;
+            this.users = users;
+        }
+
+        int run(Flow flow, SeededUser user, SplittableRandom random) throws Exception {
+            return switch (flow) {
+                case WEEK_VIEW -> send(user, get("/api/tasks?startDate=" + TODAY + "&endDate=" + TODAY.plusDays(6)));
+                case POMODORO_HISTORY -> {
+                    Instant end = TODAY.atStartOfDay().toInstant(ZoneOffset.UTC);
+                    yield send(user, get("/api/pomodoro?startDate=" + end.minus(Duration.ofDays(30)) + "&endDate=" + end));
+                }
+                case STOPWATCH_PERSIST -> {
+                    // Every pause, stop or task switch saves the task's running total
+                    Long taskId = user.todaysTaskIds().get(random.nextInt(user.todaysTaskIds().size()));
+                    yield send(user, put("/api/tasks/" + taskId + "/actual-minutes",
+                            "{\"actualMinutes\":%d}".formatted(25 + random.nextInt(120))));
+                }
+                case STOPWATCH_LOG -> {
+                    // A stop or task switch also logs the run in the task's time history
+                    Long taskId = user.todaysTaskIds().get(random.nextInt(user.todaysTaskIds().size()));
+                    Instant startedAt = TODAY.atTime(10, 0).toInstant(ZoneOffset.UTC);
+                    yield send(user, post("/api/tasks/" + taskId + "/time-entries", """
+                            {"startedAt":"%s","endedAt":"%s","minutes":25,"entryDate":"%s","source":"STOPWATCH"}"""
+                            .formatted(startedAt, startedAt.plusSeconds(1500), TODAY)));
+                }
+                case MOOD_LOG -> send(user, post("/api/mood", """
+                        {"moodScore":%d,"dateTime":"%s","factors":["sleep","work"],"notes":"load test"}"""
+                        .formatted(1 + random.nextInt(5), Instant.now())));
+                case DRAG_REORDER -> {
+                    List<Long> ids = new ArrayList<>(user.todaysTaskIds());
+                    Collections.rotate(ids, 1 + random.nextInt(Math.max(1, ids.size() - 1)));
+                    StringBuilder body = new StringBuilder("[");
+                    for (int i = 0; i < ids.size(); i++) {
+                        body.append(i == 0 ? "" : ",").append("{\"id\":").append(ids.get(i)).append(",\"sortOrder\":").append(i).append('}');
+                    }
+                    yield send(user, put("/api/tasks/reorder", body.append(']').toString()));
+                }
+            };
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return HttpRequest.newBuilder(uri(path)).GET();
+        }
+
+        private HttpRequest.Builder post(String path, String json) {
+            return HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(json))
+                    .header("Content-Type", "application/json");
+        }
+
+        private HttpRequest.Builder put(String path, String json) {
+            return HttpRequest.newBuilder(uri(path)).PUT(HttpRequest.BodyPublishers.ofString(json))
+                    .header("Content-Type", "application/json");
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+
+        private int send(SeededUser user, HttpRequest.Builder request) throws Exception {
+            HttpRequest authenticated = request.header(TestAuthenticationConfig.TEST_USER_HEADER, user.clerkUserId()).build();
+            return http.send(authenticated, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package dev.iainkirkham.mental_planner_backend.load;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a realistic multi-user history (tasks with subtasks and time entries, mood entries,
+ * pomodoro sessions) and bulk-loads it with COPY, which is orders of magnitude faster than
+ * going through JPA. Generation is deterministic for a given seed so runs are comparable.
+ * Each user's history ends with the week starting at {@code today}, which the replayed flows target.
+ */
+class SyntheticDataSeeder {
+
+    static final String USER_PREFIX = "load_user_";
+    private static final String[] CATEGORIES = {"work", "home", "health", "admin", "study"};
+    private static final String[] PRIORITIES = {"URGENT", "HIGH", "NORMAL", "NORMAL", "NORMAL", "LOW"};
+    private static final String[] FACTORS = {"\"sleep\"", "\"exercise\"", "\"work\"", "\"social\"", "\"food\""};
+
+    /**
+     * A seeded user and the IDs of the tasks scheduled on {@code today}, for the reorder
+     * and stopwatch flows.
+     */
+    record SeededUser(String clerkUserId, long userId, List<Long> todaysTaskIds) {
+    }
+
+    record SeedResult(List<SeededUser> users, Map<String, Long> rowCounts, long elapsedMillis) {
+    }
+
+    private final DataSource dataSource;
+    private final LocalDate today;
+    private final Random random;
+
+    SyntheticDataSeeder(DataSource dataSource, LocalDate today, long seed) {
+        this.dataSource = dataSource;
+        this.today = today;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Replaces any previously seeded load users with {@code userCount} fresh ones, each with
+     * {@code years} of history.
+     */
+    SeedResult seed(int userCount, int years) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement("DELETE FROM app_user WHERE clerk_user_id LIKE ?")) {
+                delete.setString(1, USER_PREFIX + "%");
+                delete.executeUpdate();
+            }
+
+            List<Long> userIds = insertUsers(connection, userCount);
+            LocalDate firstDay = today.minusYears(years);
+            LocalDate lastDay = today.plusDays(6);
+            int days = (int) (lastDay.toEpochDay() - firstDay.toEpochDay()) + 1;
+
+            // Task IDs are assigned up front so subtasks, time entries and pomodoro sessions can
+            // reference them in the same pass; the sequence is advanced past the reserved range.
+            int maxTasksPerUser = days * 6;
+            long firstTaskId = reserveIds(connection, "task_id_seq", (long) maxTasksPerUser * userCount);
+            createMonthlyPartitions(connection, firstDay, lastDay);
+
+            // A connection can only run one COPY at a time, so each user's rows are buffered per
+            // table and copied in foreign-key order before moving on to the next user.
+            PGConnection pg = connection.unwrap(PGConnection.class);
+            CopyBuffer tasks = new CopyBuffer("task (id, title, description, scheduled_date, start_time, end_time, completed, sort_order, planned_minutes, actual_minutes, category, archived, priority, user_id)");
+            CopyBuffer subtasks = new CopyBuffer("subtask (task_id, title, completed, sort_order, planned_minutes)");
+            CopyBuffer timeEntries = new CopyBuffer("task_time_entry (task_id, user_id, started_at, ended_at, minutes, entry_date, source, note)");
+            CopyBuffer moodEntries = new CopyBuffer("mood_entry (mood_score, date_time, factors, notes, user_id)");
+            CopyBuffer pomodoroSessions = new CopyBuffer("pomodoro_session (start_time, end_time, duration, score, notes, energy_rating, user_id, task_id)");
+            List<CopyBuffer> tables = List.of(tasks, subtasks, timeEntries, moodEntries, pomodoroSessions);
+            List<SeededUser> users = new ArrayList<>();
+
+            for (int u = 0; u < userCount; u++) {
+                long userId = userIds.get(u);
+                long nextTaskId = firstTaskId + (long) u * maxTasksPerUser;
+                List<Long> todaysTaskIds = new ArrayList<>();
+
+                for (int d = 0; d < days; d++) {
+                    LocalDate date = firstDay.plusDays(d);
+                    boolean past = date.isBefore(today);
+                    Instant dayStart = date.atTime(9, 0).toInstant(ZoneOffset.UTC);
+                    int taskCount = 2 + random.nextInt(5);
+                    List<Long> dayTaskIds = new ArrayList<>();
+
+                    for (int t = 0; t < taskCount; t++) {
+                        long taskId = nextTaskId++;
+                        dayTaskIds.add(taskId);
+                        boolean completed = past && random.nextInt(10) < 7;
+                        int actualMinutes = completed ? 15 + random.nextInt(60) : 0;
+                        Instant startTime = dayStart.plusSeconds(3600L * t);
+                        tasks.row(taskId, "Task " + d + "-" + t, random.nextInt(4) == 0 ? "Notes for the task" : null,
+                                date, startTime, startTime.plusSeconds(1500), completed, t,
+                                random.nextBoolean() ? 25 : 50, actualMinutes,
+                                CATEGORIES[random.nextInt(CATEGORIES.length)], past && random.nextInt(50) == 0,
+                                PRIORITIES[random.nextInt(PRIORITIES.length)], userId);
+
+                        int subtaskCount = random.nextInt(4);
+                        for (int s = 0; s < subtaskCount; s++) {
+                            subtasks.row(taskId, "Step " + s, completed || random.nextBoolean(), s, 10);
+                        }
+                        if (completed) {
+                            timeEntries.row(taskId, userId, startTime, startTime.plusSeconds(60L * actualMinutes),
+                                    actualMinutes, date, random.nextBoolean() ? "STOPWATCH" : "MANUAL", null);
+                        }
+                    }
+                    if (date.equals(today)) {
+                        todaysTaskIds.addAll(dayTaskIds);
+                    }
+
+                    if (past) {
+                        int moodCount = 1 + random.nextInt(3);
+                        for (int m = 0; m < moodCount; m++) {
+                            moodEntries.row((short) (1 + random.nextInt(5)), dayStart.plusSeconds(14_400L * m),
+                                    "[" + FACTORS[random.nextInt(FACTORS.length)] + "]",
+                                    random.nextInt(3) == 0 ? "Felt okay" : null, userId);
+                        }
+                        int pomodoroCount = 2 + random.nextInt(5);
+                        for (int p = 0; p < pomodoroCount; p++) {
+                            Instant sessionStart = dayStart.plusSeconds(1800L * p);
+                            pomodoroSessions.row(sessionStart, sessionStart.plusSeconds(1500), 25,
+                                    (short) (1 + random.nextInt(5)), null,
+                                    random.nextBoolean() ? "ENERGIZING" : "DRAINING", userId,
+                                    dayTaskIds.get(random.nextInt(dayTaskIds.size())));
+                        }
+                    }
+                }
+                users.add(new SeededUser(USER_PREFIX + u, userId, List.copyOf(todaysTaskIds)));
+                for (CopyBuffer table : tables) {
+                    table.copyInto(pg);
+                }
+            }
+            connection.commit();
+
+            Map<String, Long> rowCounts = new LinkedHashMap<>();
+            for (CopyBuffer table : tables) {
+                rowCounts.put(table.table(), table.rowsCopied());
+            }
+
+            connection.setAutoCommit(true);
+            try (Statement analyze = connection.createStatement()) {
+                analyze.execute("ANALYZE");
+            }
+            return new SeedResult(users, rowCounts, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private List<Long> insertUsers(Connection connection, int userCount) throws SQLException {
+        List<Long> ids = new ArrayList<>(userCount);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO app_user (clerk_user_id) SELECT ? || n FROM generate_series(0, ? - 1) n ORDER BY n RETURNING id")) {
+            insert.setString(1, USER_PREFIX);
+            insert.setInt(2, userCount);
+            try (ResultSet rows = insert.executeQuery()) {
+                while (rows.next()) {
+                    ids.add(rows.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Creates the monthly partitions covering the seeded history up front; otherwise every month
+     * outside the ones the application pre-creates would be copied into the DEFAULT partitions.
+     */
+    private static void createMonthlyPartitions(Connection connection, LocalDate firstDay, LocalDate lastDay)
+            throws SQLException {
+        try (PreparedStatement create = connection.prepareStatement(
+                "SELECT create_monthly_partition(t, m::date) FROM unnest(?::text[]) t, "
+                        + "generate_series(date_trunc('month', ?::timestamp), ?::timestamp, INTERVAL '1 month') m")) {
+            create.setArray(1, connection.createArrayOf("text",
+                    new String[]{"mood_entry", "pomodoro_session", "task_time_entry"}));
+            create.setObject(2, firstDay);
+            create.setObject(3, lastDay);
+            create.executeQuery().close();
+        }
+    }
+
+    private static long reserveIds(Connection connection, String sequence, long count) throws SQLException {
+        try (PreparedStatement reserve = connection.prepareStatement("SELECT setval(?, nextval(?) + ?) - ?")) {
+            reserve.setString(1, sequence);
+            reserve.setString(2, sequence);
+            reserve.setLong(3, count);
+            reserve.setLong(4, count);
+            try (ResultSet rows = reserve.executeQuery()) {
+                rows.next();
+                return rows.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Accumulates rows in COPY text format and sends them as one COPY ... FROM STDIN.
+     */
+    private static final class CopyBuffer {
+
+        private final String target;
+        private final StringBuilder rows = new StringBuilder();
+        private long rowsCopied;
+
+        CopyBuffer(String target) {
+            this.target = target;
+        }
+
+        String table() {
+            return target.substring(0, target.indexOf(' '));
+        }
+
+        long rowsCopied() {
+            return rowsCopied;
+        }
+
+        void row(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    rows.append('\t');
+                }
+                Object value = values[i];
+                if (value == null) {
+                    rows.append("\\N");
+                } else if (value instanceof Boolean bool) {
+                    rows.append(bool ? 't' : 'f');
+                } else {
+                    rows.append(value);
+                }
+            }
+            rows.append('\n');
+        }
+
+        void copyInto(PGConnection connection) throws SQLException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            CopyIn copy = connection.getCopyAPI().copyIn("COPY " + target + " FROM STDIN");
+            try {
+                byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+                copy.writeToCopy(bytes, 0, bytes.length);
+                rowsCopied += copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+            rows.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package dev.iainkirkham.mental_planner_backend.load;
+
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.tasks.TaskRollover;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the nightly rollover moving {@code load.rolloverTasks} overdue open tasks (1M by
+ * default) for {@code load.rolloverUsers} opted-in users spread over several time zones, next to
+ * as many completed tasks that it has to leave alone. While it runs, a probe connection keeps
+ * updating random overdue tasks the way requests would, and records how long each update waited,
+ * which is bounded by how long one chunk holds its row locks. Results are printed and written as
+ * JSON next to {@code load.report}.
+ * Tagged "load" so it only runs via {@code ./gradlew loadTest} (e.g. {@code -Pload.rolloverChunkSize=5000}).
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "tasks.rollover.chunk-size=${load.rolloverChunkSize:1000}",
+        // Only the benchmark's own run should move anything
+        "tasks.rollover.cron=-"
+})
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        // The test profile's SQL debug logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.jdbc.datasource=INFO"
+})
+class TaskRolloverLoadTest {
+
+    private static final long TASKS = Long.getLong("load.rolloverTasks", 1_000_000L);
+    private static final int USERS = Integer.getInteger("load.rolloverUsers", 10_000);
+    private static final int CHUNK_SIZE = Integer.getInteger("load.rolloverChunkSize", 1000);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "build/reports/load/planner-load.json"))
+            .resolveSibling("task-rollover.json");
+
+    private static final String USER_PREFIX = "rollover_user_";
+    private static final String TIME_ZONES =
+            "UTC,Europe/London,Europe/Berlin,America/New_York,America/Los_Angeles,Asia/Kolkata,Asia/Tokyo,Australia/Sydney";
+
+    record ProbeReport(int updates, double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    record RolloverReport(Instant startedAt, Map<String, Object> config, long loadMillis, int moved,
+                          long rolloverMillis, double tasksPerSecond, ProbeReport concurrentUpdates) {
+    }
+
+    @Autowired
+    private TaskRollover taskRollover;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private long firstTaskId;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM app_user WHERE clerk_user_id LIKE ?", USER_PREFIX + "%");
+    }
+
+    @Test
+    void rollOverOverdueTasks() throws Exception {
+        long loadStart = System.nanoTime();
+        load();
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        System.out.printf("%nLoaded %,d overdue and %,d completed tasks for %,d users in %d ms%n",
+                TASKS, TASKS, USERS, loadMillis);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Long> probeLatencies = new ArrayList<>();
+        Thread probe = Thread.ofPlatform().name("rollover-probe").start(() -> probe(running, probeLatencies));
+        long start = System.nanoTime();
+        int moved = taskRollover.rollOverTasks();
+        long rolloverMillis = (System.nanoTime() - start) / 1_000_000;
+        running.set(false);
+        probe.join();
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("tasks", TASKS);
+        config.put("users", USERS);
+        config.put("chunkSize", CHUNK_SIZE);
+        config.put("timeZones", TIME_ZONES.split(",").length);
+        RolloverReport report = new RolloverReport(Instant.now(), config, loadMillis, moved, rolloverMillis,
+                moved * 1000.0 / Math.max(1, rolloverMillis), summarize(probeLatencies));
+
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        jsonMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        System.out.printf("%n=== Task rollover benchmark: %s -> %s ===%n", config, REPORT);
+        System.out.printf("Moved %,d tasks in %,d ms (%,.0f tasks/s); concurrent updates %s%n",
+                moved, rolloverMillis, report.tasksPerSecond(), report.concurrentUpdates());
+
+        // Rows the probe held were skipped, and are what the next run moves
+        assertThat(moved + taskRollover.rollOverTasks()).isEqualTo((int) TASKS);
+        assertThat(taskRollover.rollOverTasks()).isZero();
+    }
+
+    /**
+     * Every user is opted in, in one of the time zones round-robin. Each gets an even share of the
+     * overdue tasks, scheduled up to a month before the earliest "today" of any zone, and as many
+     * completed ones on the same days.
+     */
+    private void load() {
+        List<Long> userIds = jdbcTemplate.query("""
+                INSERT INTO app_user (clerk_user_id, rollover_enabled, time_zone)
+                SELECT ? || n, true, (string_to_array(?, ','))[1 + n % ?]
+                FROM generate_series(0, ? - 1) n ORDER BY n RETURNING id""",
+                (rows, i) -> rows.getLong(1), USER_PREFIX, TIME_ZONES, TIME_ZONES.split(",").length, USERS);
+        long firstUserId = userIds.stream().min(Long::compare).orElseThrow();
+        LocalDate lastOverdueDay = LocalDate.now(ZoneOffset.UTC).minusDays(2);
+
+        firstTaskId = jdbcTemplate.queryForObject("SELECT nextval('task_id_seq')", Long.class) + 1;
+        jdbcTemplate.update("""
+                INSERT INTO task (title, scheduled_date, completed, sort_order, user_id)
+                SELECT 'Task ' || n, ?::date - (n / ? % 30)::int, n >= ?, n / ? % 10, ? + (n % ?)
+                FROM generate_series(0, 2 * ? - 1) n""",
+                lastOverdueDay, USERS, TASKS, USERS, firstUserId, USERS, TASKS);
+        jdbcTemplate.execute("ANALYZE app_user");
+        jdbcTemplate.execute("ANALYZE task");
+    }
+
+    /**
+     * Touches random tasks from the overdue range until the rollover finishes. Rows the rollover
+     * holds make an update wait for that chunk's commit.
+     */
+    private void probe(AtomicBoolean running, List<Long> latencies) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement("UPDATE task SET sort_order = sort_order WHERE id = ?")) {
+            connection.setAutoCommit(true);
+            while (running.get()) {
+                update.setLong(1, firstTaskId + random.nextLong(TASKS));
+                long start = System.nanoTime();
+                update.executeUpdate();
+                latencies.add((System.nanoTime() - start) / 1_000);
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static ProbeReport summarize(List<Long> latencies) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return new ProbeReport(0, 0, 0, 0);
+        }
+        return new ProbeReport(sorted.length, percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                sorted[sorted.length - 1] / 1000.0);
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1000.0;
+    }
+}
@@ -91,7 +91,7 @@ class MoodEntryControllerTest {
         List<MoodEntryResponseDTO> expectedEntries = List.of(savedResponseDTO, secondEntry);
         when(moodEntryService.getAllMoodEntries()).thenReturn(expectedEntries);
 
-        ResponseEntity<List<MoodEntryResponseDTO>> response = moodEntryController.getAllMoodEntries(null, null);
+        ResponseEntity<List<MoodEntryResponseDTO>> response = moodEntryController.getAllMoodEntries(null, null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody())
@@ -107,7 +107,7 @@ class MoodEntryControllerTest {
     void getAllMoodEntries_ShouldReturnNoContentWhenEmpty() {
         when(moodEntryService.getAllMoodEntries()).thenReturn(List.of());
 
-        ResponseEntity<List<MoodEntryResponseDTO>> response = moodEntryController.getAllMoodEntries(null, null);
+        ResponseEntity<List<MoodEntryResponseDTO>> response = moodEntryController.getAllMoodEntries(null, null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         assertThat(response.getBody()).isNull();
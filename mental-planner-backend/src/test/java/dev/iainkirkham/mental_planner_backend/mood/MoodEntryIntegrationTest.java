@@ -1,8 +1,10 @@
 package dev.iainkirkham.mental_planner_backend.mood;
 
+import dev.iainkirkham.mental_planner_backend.config.MaxStatements;
 import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
 import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
 import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,8 +15,10 @@ import org.springframework.boot.resttestclient.TestRestTemplate;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
@@ -42,6 +46,16 @@ class MoodEntryIntegrationTest {
     @Autowired
     private MoodEntryRepository moodEntryRepository;
 
+    @Autowired
+    private AppUserService appUserService;
+
+    /**
+     * Resolves a Clerk user ID to the internal user ID stored on owned rows.
+     */
+    private Long userIdFor(String clerkUserId) {
+        return appUserService.resolveOrCreate(clerkUserId);
+    }
+
     // Use a fixed instant for deterministic tests
     private static final Instant FIXED_NOW = Instant.parse("2025-12-01T00:00:00Z");
 
@@ -51,7 +65,7 @@ class MoodEntryIntegrationTest {
         moodEntry.setDateTime(FIXED_NOW);
         moodEntry.setFactors(Arrays.asList("Integration", "Setup"));
         moodEntry.setNotes("Integration test entry " + notesSuffix);
-        moodEntry.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        moodEntry.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         return moodEntryRepository.save(moodEntry);
     }
 
@@ -61,7 +75,7 @@ class MoodEntryIntegrationTest {
         moodEntry.setDateTime(dateTime);
         moodEntry.setFactors(List.of("Integration"));
         moodEntry.setNotes(notes);
-        moodEntry.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        moodEntry.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         moodEntryRepository.save(moodEntry);
     }
 
@@ -72,6 +86,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(3)
     void shouldCreateMoodEntry() {
         dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO newMoodEntry =
             new dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO();
@@ -100,11 +115,12 @@ class MoodEntryIntegrationTest {
             assertThat(persistedEntity).isPresent();
             assertThat(persistedEntity.get().getMoodScore()).isEqualTo((short) 4);
             assertThat(persistedEntity.get().getNotes()).isEqualTo("Feeling good!");
-            assertThat(persistedEntity.get().getUserId()).isEqualTo(TestAuthenticationConfig.TEST_USER_ID);
+            assertThat(persistedEntity.get().getUserId()).isEqualTo(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         });
     }
 
     @Test
+    @MaxStatements(1)
     void shouldGetAllMoodEntries() {
         createTestMoodEntryInDb("1");
         createTestMoodEntryInDb("2");
@@ -132,6 +148,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldGetMoodEntryById() {
         MoodEntry existingMoodEntity = createTestMoodEntryInDb("for lookup");
 
@@ -151,6 +168,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundForNonExistentMoodEntry() {
         ResponseEntity<dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO> response =
             restTemplate.getForEntity(
@@ -162,6 +180,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(4)
     void shouldUpdateMoodEntry() {
         MoodEntry existingMoodEntity = createTestMoodEntryInDb("to be updated");
 
@@ -196,6 +215,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundWhenUpdatingNonExistentMoodEntry() {
         dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO updateEntry =
             new dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryRequestDTO();
@@ -216,6 +236,50 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(4)
+    void shouldPatchOnlyTheSuppliedFieldsOfMoodEntry() {
+        MoodEntry existingMoodEntity = createTestMoodEntryInDb("to be patched");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+
+        ResponseEntity<dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO> response =
+            restTemplate.exchange(
+                "/api/mood/" + existingMoodEntity.getId(),
+                HttpMethod.PATCH,
+                new HttpEntity<>("{\"notes\": \"Felt better after a walk\", \"factors\": [\"Walk\"]}", headers),
+                dev.iainkirkham.mental_planner_backend.mood.dto.MoodEntryResponseDTO.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).satisfies(patched -> {
+            assertThat(patched.getNotes()).isEqualTo("Felt better after a walk");
+            assertThat(patched.getFactors()).containsExactly("Walk");
+            assertThat(patched.getMoodScore()).isEqualTo((short) 3);
+            assertThat(patched.getDateTime()).isEqualTo(FIXED_NOW);
+        });
+    }
+
+    @Test
+    @MaxStatements(1)
+    void shouldRejectMoodEntryPatchWithAnOutOfRangeScore() {
+        MoodEntry existingMoodEntity = createTestMoodEntryInDb("invalid patch");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/mood/" + existingMoodEntity.getId(),
+                HttpMethod.PATCH,
+                new HttpEntity<>("{\"moodScore\": 9}", headers),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("\"field\":\"moodScore\"");
+        assertThat(moodEntryRepository.findById(existingMoodEntity.getId()).orElseThrow().getMoodScore()).isEqualTo((short) 3);
+    }
+
+    @Test
+    @MaxStatements(4)
     void shouldDeleteMoodEntry() {
         MoodEntry existingMoodEntity = createTestMoodEntryInDb("to be deleted");
 
@@ -231,6 +295,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundWhenDeletingNonExistentMoodEntry() {
         ResponseEntity<Void> response = restTemplate.exchange(
                 "/api/mood/999", // ID that doesn't exist in database
@@ -245,6 +310,7 @@ class MoodEntryIntegrationTest {
     // --- New date-range integration tests ---
 
     @Test
+    @MaxStatements(2)
     void getMoodEntriesByDateRange_ShouldReturnOnlyEntriesInRange() {
         Instant now = FIXED_NOW;
         createMoodEntryAt(now.minus(10, ChronoUnit.DAYS), (short)2, "older");
@@ -272,6 +338,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(2)
     void getMoodEntriesByDateRange_ShouldReturnNoContentWhenNoMatches() {
         Instant now = FIXED_NOW;
         createMoodEntryAt(now.minus(30, ChronoUnit.DAYS), (short)3, "out-of-range");
@@ -291,6 +358,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(0)
     void getMoodEntriesByDateRange_InvalidDateFormat_ReturnsBadRequest() {
         ResponseEntity<String> response = restTemplate.exchange(
                 "/api/mood?startDate=not-a-date&endDate=also-not-a-date",
@@ -303,6 +371,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void getMoodEntriesByDateRange_PartialDateParam_ReturnsAllEntries() {
         createTestMoodEntryInDb("A");
         createTestMoodEntryInDb("B");
@@ -323,6 +392,7 @@ class MoodEntryIntegrationTest {
     }
 
     @Test
+    @MaxStatements(2)
     void getMoodEntriesByDateRange_BoundaryInclusivity_StartAndEndInclusive() {
         Instant now = FIXED_NOW;
         Instant startInstant = now.minus(7, ChronoUnit.DAYS);
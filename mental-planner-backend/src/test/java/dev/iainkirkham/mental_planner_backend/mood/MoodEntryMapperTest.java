@@ -18,7 +18,7 @@ class MoodEntryMapperTest {
 
     private MoodEntryMapper mapper;
     private static final Instant FIXED_NOW = Instant.parse("2025-12-01T00:00:00Z");
-    private static final String TEST_USER_ID = "user_test123";
+    private static final Long TEST_USER_ID = 42L;
 
     @BeforeEach
     void setUp() {
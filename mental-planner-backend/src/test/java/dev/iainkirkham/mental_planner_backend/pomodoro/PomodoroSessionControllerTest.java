@@ -125,7 +125,7 @@ class PomodoroSessionControllerTest {
         when(pomodoroSessionService.getAllPomodoroSessions()).thenReturn(expectedSessions);
 
         // Act: Call controller endpoint (with null dates = get all)
-        ResponseEntity<List<PomodoroSessionResponseDTO>> response = pomodoroSessionController.getAllPomodoroSessions(null, null);
+        ResponseEntity<List<PomodoroSessionResponseDTO>> response = pomodoroSessionController.getAllPomodoroSessions(null, null, null);
 
         // Assert: Verify response structure and content
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -141,7 +141,7 @@ class PomodoroSessionControllerTest {
         when(pomodoroSessionService.getAllPomodoroSessions()).thenReturn(List.of());
 
         // Act: Call controller endpoint
-        ResponseEntity<List<PomodoroSessionResponseDTO>> response = pomodoroSessionController.getAllPomodoroSessions(null, null);
+        ResponseEntity<List<PomodoroSessionResponseDTO>> response = pomodoroSessionController.getAllPomodoroSessions(null, null, null);
 
         // Assert: Verify empty response handling
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
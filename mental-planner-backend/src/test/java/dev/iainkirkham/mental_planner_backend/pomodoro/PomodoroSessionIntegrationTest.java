@@ -1,10 +1,12 @@
 package dev.iainkirkham.mental_planner_backend.pomodoro;
 
+import dev.iainkirkham.mental_planner_backend.config.MaxStatements;
 import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
 import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
 import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
 import dev.iainkirkham.mental_planner_backend.tasks.Task;
 import dev.iainkirkham.mental_planner_backend.tasks.TaskRepository;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,8 +17,10 @@ import org.springframework.boot.resttestclient.TestRestTemplate;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
@@ -46,6 +50,16 @@ class PomodoroSessionIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private AppUserService appUserService;
+
+    /**
+     * Resolves a Clerk user ID to the internal user ID stored on owned rows.
+     */
+    private Long userIdFor(String clerkUserId) {
+        return appUserService.resolveOrCreate(clerkUserId);
+    }
+
     // Fixed instant for deterministic tests
     private static final Instant FIXED_NOW = Instant.parse("2025-12-01T00:00:00Z");
 
@@ -56,7 +70,7 @@ class PomodoroSessionIntegrationTest {
         Task task = new Task();
         task.setTitle("Someone else's task");
         task.setScheduledDate(FIXED_NOW.atZone(java.time.ZoneOffset.UTC).toLocalDate());
-        task.setUserId("user_someone_else");
+        task.setUserId(userIdFor("user_someone_else"));
         return taskRepository.save(task);
     }
 
@@ -76,7 +90,7 @@ class PomodoroSessionIntegrationTest {
         session.setDuration(25);
         session.setScore((short) 4);
         session.setNotes("Integration test session " + notesSuffix);
-        session.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        session.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         return pomodoroSessionRepository.save(session);
     }
 
@@ -88,7 +102,7 @@ class PomodoroSessionIntegrationTest {
         s.setDuration(25);
         s.setScore(score);
         s.setNotes(notes);
-        s.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        s.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         pomodoroSessionRepository.save(s);
     }
 
@@ -104,6 +118,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(3)
     void shouldCreatePomodoroSession() {
         // Arrange: prepare a request DTO instead of entity
         dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO newSession =
@@ -139,11 +154,12 @@ class PomodoroSessionIntegrationTest {
             assertThat(persistedEntity.get().getDuration()).isEqualTo(30);
             assertThat(persistedEntity.get().getNotes()).isEqualTo("Deep work session.");
             assertThat(persistedEntity.get().getEnergyRating()).isEqualTo(EnergyRating.ENERGIZING);
-            assertThat(persistedEntity.get().getUserId()).isEqualTo(TestAuthenticationConfig.TEST_USER_ID);
+            assertThat(persistedEntity.get().getUserId()).isEqualTo(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         });
     }
 
     @Test
+    @MaxStatements(1)
     void shouldGetAllPomodoroSessions() {
         // Arrange: Create test data - two Pomodoro sessions with different identifiers
         createTestPomodoroSessionInDb("1");
@@ -174,6 +190,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldGetPomodoroSessionById() {
         // Arrange: Create a specific Pomodoro session to retrieve by ID
         PomodoroSession existingSessionEntity = createTestPomodoroSessionInDb("for lookup");
@@ -195,6 +212,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundForNonExistentPomodoroSession() {
         // Act: Attempt to retrieve Pomodoro session using non-existent ID
         ResponseEntity<Void> response = restTemplate.getForEntity(
@@ -207,6 +225,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(5)
     void shouldUpdatePomodoroSession() {
         // Arrange: Create existing Pomodoro session in database to update
         PomodoroSession existingSessionEntity = createTestPomodoroSessionInDb("to be updated");
@@ -246,6 +265,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundWhenCreatingSessionLinkedToAnotherUsersTask() {
         // Arrange: a task that exists but belongs to a different user
         Task othersTask = createTaskOwnedByOtherUser();
@@ -270,6 +290,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundWhenUpdatingSessionToLinkAnotherUsersTask() {
         // Arrange: an existing session owned by the caller, and a task owned by someone else
         PomodoroSession existingSessionEntity = createTestPomodoroSessionInDb("to be relinked");
@@ -297,6 +318,124 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(4)
+    void shouldCheckLinkedTaskOwnershipOnceUntilTheTaskIsDeleted() {
+        // Arrange: a task owned by the caller
+        Task task = new Task();
+        task.setTitle("Focus block");
+        task.setScheduledDate(FIXED_NOW.atZone(java.time.ZoneOffset.UTC).toLocalDate());
+        task.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
+        Task ownTask = taskRepository.save(task);
+
+        dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO newSession =
+            new dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO();
+        newSession.setStartTime(FIXED_NOW);
+        newSession.setEndTime(FIXED_NOW.plusSeconds(25 * 60));
+        newSession.setDuration(25);
+        newSession.setTaskId(ownTask.getId());
+
+        // Act: link two sessions to the task, then delete it and try to link a third
+        ResponseEntity<dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO> first = restTemplate.postForEntity(
+                "/api/pomodoro", newSession,
+                dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO.class);
+        ResponseEntity<dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO> second = restTemplate.postForEntity(
+                "/api/pomodoro", newSession,
+                dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO.class);
+        restTemplate.delete("/api/tasks/" + ownTask.getId());
+        ResponseEntity<Void> afterDelete = restTemplate.postForEntity("/api/pomodoro", newSession, Void.class);
+
+        // Assert: the second link was served from the ownership cache (insert + day marker + outbox entry only),
+        // and deleting the task dropped it from the cache
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getHeaders().getFirst("X-DB-Statements")).isEqualTo("3");
+        assertThat(afterDelete.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenLinkingATaskThatWentAwayBehindTheCache() {
+        Task task = new Task();
+        task.setTitle("Focus block");
+        task.setScheduledDate(FIXED_NOW.atZone(java.time.ZoneOffset.UTC).toLocalDate());
+        task.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
+        Task ownTask = taskRepository.save(task);
+
+        dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO newSession =
+            new dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO();
+        newSession.setStartTime(FIXED_NOW);
+        newSession.setEndTime(FIXED_NOW.plusSeconds(25 * 60));
+        newSession.setDuration(25);
+        newSession.setTaskId(ownTask.getId());
+        ResponseEntity<Void> first = restTemplate.postForEntity("/api/pomodoro", newSession, Void.class);
+
+        // As if another instance had deleted it: the cached owner is now stale
+        taskRepository.deleteById(ownTask.getId());
+        ResponseEntity<Void> afterDelete = restTemplate.postForEntity("/api/pomodoro", newSession, Void.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(afterDelete.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(pomodoroSessionRepository.findAll()).hasSize(1)
+                .allSatisfy(session -> assertThat(session.getTaskId()).isNull());
+    }
+
+    @Test
+    @MaxStatements(4)
+    void shouldPatchScoreWithoutRecheckingTheLinkedTask() {
+        // Arrange: a session linked to one of the caller's tasks
+        Task task = new Task();
+        task.setTitle("Focus block");
+        task.setScheduledDate(FIXED_NOW.atZone(java.time.ZoneOffset.UTC).toLocalDate());
+        task.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
+        Task ownTask = taskRepository.save(task);
+        PomodoroSession existingSessionEntity = createTestPomodoroSessionInDb("to be patched");
+        existingSessionEntity.setTaskId(ownTask.getId());
+        pomodoroSessionRepository.save(existingSessionEntity);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+
+        // Act: patch only the score
+        ResponseEntity<dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO> response =
+            restTemplate.exchange(
+                "/api/pomodoro/" + existingSessionEntity.getId(),
+                HttpMethod.PATCH,
+                new HttpEntity<>("{\"score\": 5, \"notes\": null}", headers),
+                dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO.class
+        );
+
+        // Assert: session select + update + day marker, with no task query; other fields kept
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).satisfies(patched -> {
+            assertThat(patched.getScore()).isEqualTo((short) 5);
+            assertThat(patched.getNotes()).isNull();
+            assertThat(patched.getDuration()).isEqualTo(25);
+            assertThat(patched.getTaskId()).isEqualTo(ownTask.getId());
+        });
+    }
+
+    @Test
+    @MaxStatements(2)
+    void shouldReturnNotFoundWhenPatchingSessionToLinkAnotherUsersTask() {
+        // Arrange: an existing session owned by the caller, and a task owned by someone else
+        PomodoroSession existingSessionEntity = createTestPomodoroSessionInDb("to be relinked by patch");
+        Task othersTask = createTaskOwnedByOtherUser();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+
+        // Act
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/pomodoro/" + existingSessionEntity.getId(),
+                HttpMethod.PATCH,
+                new HttpEntity<>("{\"taskId\": " + othersTask.getId() + "}", headers),
+                Void.class
+        );
+
+        // Assert: rejected as not found, and the session was left unchanged
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(pomodoroSessionRepository.findById(existingSessionEntity.getId()).orElseThrow().getTaskId()).isNull();
+    }
+
+    @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundWhenUpdatingNonExistentPomodoroSession() {
         // Arrange: Prepare update data for non-existent Pomodoro session
         dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO updateSession =
@@ -320,6 +459,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(4)
     void shouldDeletePomodoroSession() {
         // Arrange: Create Pomodoro session in database to be deleted
         PomodoroSession existingSessionEntity = createTestPomodoroSessionInDb("to be deleted");
@@ -340,6 +480,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundWhenDeletingNonExistentPomodoroSession() {
         // Act: Attempt to delete Pomodoro session that doesn't exist
         ResponseEntity<Void> response = restTemplate.exchange(
@@ -356,6 +497,7 @@ class PomodoroSessionIntegrationTest {
     // --- New date-range integration tests ---
 
     @Test
+    @MaxStatements(2)
     void getPomodoroSessionsByDateRange_ShouldReturnOnlySessionsInRange() {
         // Arrange: create three sessions at different times
         Instant now = FIXED_NOW;
@@ -385,6 +527,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(2)
     void getPomodoroSessionsByDateRange_ShouldReturnNoContentWhenNoMatches() {
         // Arrange: create a session outside the queried window
         Instant now = FIXED_NOW;
@@ -407,6 +550,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(0)
     void getPomodoroSessionsByDateRange_InvalidDateFormat_ReturnsBadRequest() {
         // Act: call endpoint with invalid date format
         ResponseEntity<String> response = restTemplate.exchange(
@@ -423,6 +567,7 @@ class PomodoroSessionIntegrationTest {
     // --- Partial-date and boundary tests ---
 
     @Test
+    @MaxStatements(1)
     void getPomodoroSessionsByDateRange_PartialDateParam_ReturnsAllSessions() {
         // Arrange: create three sessions at different times
         createTestPomodoroSessionInDb("A");
@@ -444,6 +589,7 @@ class PomodoroSessionIntegrationTest {
     }
 
     @Test
+    @MaxStatements(2)
     void getPomodoroSessionsByDateRange_BoundaryInclusivity_StartAndEndInclusive() {
         // Arrange: set explicit sessions at the start and end boundaries
         Instant now = FIXED_NOW;
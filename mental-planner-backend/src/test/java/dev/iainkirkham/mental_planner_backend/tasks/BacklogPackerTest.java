@@ -0,0 +1,102 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BacklogPacker}'s placement order and slot splitting.
+ */
+class BacklogPackerTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2025-12-01");
+    private static final Instant DAY = Instant.parse("2025-12-01T00:00:00Z");
+
+    private static Instant at(int hour, int minute) {
+        return DAY.plus(Duration.ofHours(hour).plusMinutes(minute));
+    }
+
+    private static Timeline.Slot slot(int startHour, int startMinute, int endHour, int endMinute) {
+        return new Timeline.Slot(at(startHour, startMinute), at(endHour, endMinute));
+    }
+
+    private static BacklogPacker.Candidate candidate(long taskId, TaskPriority priority, int plannedMinutes) {
+        return new BacklogPacker.Candidate(taskId, priority, DATE, 0, plannedMinutes, null);
+    }
+
+    @Test
+    void pack_ShouldPlaceMoreUrgentThenLongerTasksFirstAtTheEarliestFit() {
+        BacklogPacker.Plan plan = BacklogPacker.pack(List.of(
+                        candidate(1, TaskPriority.LOW, 30),
+                        candidate(2, TaskPriority.NORMAL, 30),
+                        candidate(3, TaskPriority.NORMAL, 90),
+                        candidate(4, TaskPriority.URGENT, 45),
+                        candidate(5, TaskPriority.HIGH, 300)),
+                List.of(slot(9, 0, 10, 0), slot(11, 0, 13, 0)));
+
+        assertThat(plan.placements()).containsExactly(
+                new BacklogPacker.Placement(4L, at(9, 0), at(9, 45)),
+                new BacklogPacker.Placement(3L, at(11, 0), at(12, 30)),
+                new BacklogPacker.Placement(2L, at(12, 30), at(13, 0)));
+        assertThat(plan.unplaced()).containsExactly(5L, 1L);
+    }
+
+    @Test
+    void pack_ShouldSplitASlotAroundATaskThatMustStartLater() {
+        BacklogPacker.Plan plan = BacklogPacker.pack(List.of(
+                        new BacklogPacker.Candidate(1L, TaskPriority.URGENT, DATE, 0, 60, at(10, 0)),
+                        new BacklogPacker.Candidate(2L, TaskPriority.NORMAL, DATE, 0, 60, null),
+                        new BacklogPacker.Candidate(3L, TaskPriority.NORMAL, DATE, 1, 60, null),
+                        new BacklogPacker.Candidate(4L, TaskPriority.LOW, DATE, 0, 15, null)),
+                List.of(slot(9, 0, 12, 0)));
+
+        assertThat(plan.placements()).containsExactly(
+                new BacklogPacker.Placement(2L, at(9, 0), at(10, 0)),
+                new BacklogPacker.Placement(1L, at(10, 0), at(11, 0)),
+                new BacklogPacker.Placement(3L, at(11, 0), at(12, 0)));
+        assertThat(plan.unplaced()).containsExactly(4L);
+    }
+
+    @Test
+    void pack_ShouldNeverOverlapTasksOrLeaveTheSlots() {
+        Random random = new Random(11);
+        List<Timeline.Slot> slots = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            slots.add(new Timeline.Slot(at(24 * day + 9, 0), at(24 * day + 12, 0)));
+            slots.add(new Timeline.Slot(at(24 * day + 13, 30), at(24 * day + 18, 0)));
+        }
+        List<BacklogPacker.Candidate> candidates = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            candidates.add(new BacklogPacker.Candidate(id, TaskPriority.values()[random.nextInt(4)],
+                    DATE.plusDays(random.nextInt(7)), random.nextInt(10), 15 + 15 * random.nextInt(8),
+                    random.nextBoolean() ? null : at(24 * random.nextInt(7) + 9 + random.nextInt(8), 0)));
+        }
+
+        BacklogPacker.Plan plan = BacklogPacker.pack(candidates, slots);
+
+        assertThat(plan.placements().size() + plan.unplaced().size()).isEqualTo(100);
+        List<BacklogPacker.Placement> placements = plan.placements();
+        assertThat(placements).isSortedAccordingTo(Comparator.comparing(BacklogPacker.Placement::start));
+        for (int i = 1; i < placements.size(); i++) {
+            assertThat(placements.get(i).start()).isAfterOrEqualTo(placements.get(i - 1).end());
+        }
+        for (BacklogPacker.Placement placement : placements) {
+            assertThat(slots).anyMatch(slot -> !placement.start().isBefore(slot.start())
+                    && !placement.end().isAfter(slot.end()));
+            BacklogPacker.Candidate candidate = candidates.get(placement.taskId().intValue() - 1);
+            assertThat(Duration.between(placement.start(), placement.end()).toMinutes())
+                    .isEqualTo(candidate.plannedMinutes());
+            if (candidate.notBefore() != null) {
+                assertThat(placement.start()).isAfterOrEqualTo(candidate.notBefore());
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.exception.InvalidRecurrenceRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link RecurrenceRule}'s parsing and expansion of the supported RRULE subset.
+ */
+class RecurrenceRuleTest {
+
+    private static final LocalDate MONDAY = LocalDate.parse("2026-03-02");
+
+    @Test
+    void daily_ShouldStepByIntervalFromTheStartDateHoweverLongAgoItWas() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3");
+        LocalDate start = MONDAY.minusDays(3 * 10_000);
+
+        assertThat(rule.occurrencesBetween(start, null, MONDAY.minusDays(1), MONDAY.plusDays(6)))
+                .containsExactly(MONDAY, MONDAY.plusDays(3), MONDAY.plusDays(6));
+    }
+
+    @Test
+    void weekly_ShouldUseByDayOnEveryIntervalthWeek() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=TH,MO");
+
+        assertThat(rule.occurrencesBetween(MONDAY.plusDays(3), null, MONDAY, MONDAY.plusDays(27)))
+                .containsExactly(MONDAY.plusDays(3), MONDAY.plusDays(14), MONDAY.plusDays(17));
+    }
+
+    @Test
+    void weekly_ShouldDefaultToTheStartDatesWeekday() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY");
+
+        assertThat(rule.occurrencesBetween(MONDAY.plusDays(2), null, MONDAY, MONDAY.plusDays(13)))
+                .containsExactly(MONDAY.plusDays(2), MONDAY.plusDays(9));
+    }
+
+    @Test
+    void monthly_ShouldSkipMonthsWithoutTheDay() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=31");
+
+        assertThat(rule.occurrencesBetween(LocalDate.parse("2026-01-01"), null,
+                LocalDate.parse("2026-01-01"), LocalDate.parse("2026-05-31")))
+                .containsExactly(LocalDate.parse("2026-01-31"), LocalDate.parse("2026-03-31"), LocalDate.parse("2026-05-31"));
+    }
+
+    @Test
+    void lastOccurrence_ShouldBeTheCountthOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE;COUNT=5");
+        LocalDate last = rule.lastOccurrence(MONDAY);
+
+        assertThat(last).isEqualTo(MONDAY.plusDays(14));
+        assertThat(rule.occurrencesBetween(MONDAY, last, MONDAY, MONDAY.plusDays(60))).hasSize(5);
+        assertThat(rule.occursOn(MONDAY, last, MONDAY.plusDays(16))).isFalse();
+    }
+
+    @Test
+    void lastOccurrence_ShouldBeUntilOrNullWhenUnbounded() {
+        assertThat(RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260310T235959Z").lastOccurrence(MONDAY))
+                .isEqualTo(LocalDate.parse("2026-03-10"));
+        assertThat(RecurrenceRule.parse("FREQ=DAILY").lastOccurrence(MONDAY)).isNull();
+    }
+
+    @Test
+    void lastOccurrence_ShouldRejectARuleThatNeverOccurs() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=12;BYMONTHDAY=30");
+
+        assertThatThrownBy(() -> rule.lastOccurrence(LocalDate.parse("2026-02-01")))
+                .isInstanceOf(InvalidRecurrenceRuleException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260301").lastOccurrence(MONDAY))
+                .isInstanceOf(InvalidRecurrenceRuleException.class);
+    }
+
+    @Test
+    void toString_ShouldBeCanonical() {
+        assertThat(RecurrenceRule.parse(" freq=weekly;byday=fr,mo;interval=1 ")).hasToString("FREQ=WEEKLY;BYDAY=MO,FR");
+        assertThat(RecurrenceRule.parse("FREQ=MONTHLY;COUNT=3;BYMONTHDAY=15,1"))
+                .hasToString("FREQ=MONTHLY;BYMONTHDAY=1,15;COUNT=3");
+    }
+
+    @Test
+    void parse_ShouldRejectRulesOutsideTheSupportedSubset() {
+        for (String rule : new String[] {"BYDAY=MO", "FREQ=YEARLY", "FREQ=DAILY;BYDAY=MO", "FREQ=WEEKLY;BYDAY=1MO",
+                "FREQ=WEEKLY;BYMONTHDAY=1", "FREQ=DAILY;COUNT=2;UNTIL=20270101", "FREQ=DAILY;INTERVAL=0",
+                "FREQ=DAILY;COUNT=100000", "FREQ=DAILY;BYHOUR=9", "FREQ=DAILY;UNTIL=tomorrow", "FREQ"}) {
+            assertThatThrownBy(() -> RecurrenceRule.parse(rule))
+                    .as(rule)
+                    .isInstanceOf(InvalidRecurrenceRuleException.class);
+        }
+    }
+}
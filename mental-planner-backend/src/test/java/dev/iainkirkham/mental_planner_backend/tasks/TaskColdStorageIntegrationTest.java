@@ -0,0 +1,257 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.config.MaxStatements;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.events.ChangeAction;
+import dev.iainkirkham.mental_planner_backend.events.ChangeEvent;
+import dev.iainkirkham.mental_planner_backend.events.ChangedResource;
+import dev.iainkirkham.mental_planner_backend.pomodoro.PomodoroSession;
+import dev.iainkirkham.mental_planner_backend.pomodoro.PomodoroSessionRepository;
+import dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionRequestDTO;
+import dev.iainkirkham.mental_planner_backend.pomodoro.dto.PomodoroSessionResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskTimeEntryResponseDTO;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for moving archived and long-completed tasks into cold storage, and for the
+ * archive endpoints that read them back. A small chunk size makes every run span several chunks.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "tasks.cold-storage.chunk-size=2")
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+@RecordApplicationEvents
+class TaskColdStorageIntegrationTest {
+
+    private static final LocalDate TODAY = LocalDate.now(ZoneOffset.UTC);
+    private static final LocalDate LONG_AGO = TODAY.minusDays(400);
+    private static final String OTHER_USER_ID = "user_cold_storage_other";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TaskColdStorage taskColdStorage;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubtaskRepository subtaskRepository;
+
+    @Autowired
+    private TaskTimeEntryRepository taskTimeEntryRepository;
+
+    @Autowired
+    private PomodoroSessionRepository pomodoroSessionRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private Task createTaskInDb(String title, LocalDate scheduledDate, boolean completed, boolean archived, String clerkUserId) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setScheduledDate(scheduledDate);
+        task.setCompleted(completed);
+        task.setArchived(archived);
+        task.setUserId(appUserService.resolveOrCreate(clerkUserId));
+        return taskRepository.save(task);
+    }
+
+    private Task createTaskInDb(String title, LocalDate scheduledDate, boolean completed, boolean archived) {
+        return createTaskInDb(title, scheduledDate, completed, archived, TestAuthenticationConfig.TEST_USER_ID);
+    }
+
+    private void createSubtaskInDb(Long taskId, String title, int sortOrder) {
+        Subtask subtask = new Subtask();
+        subtask.setTaskId(taskId);
+        subtask.setTitle(title);
+        subtask.setSortOrder(sortOrder);
+        subtaskRepository.save(subtask);
+    }
+
+    private void createTimeEntryInDb(Task task, int minutes) {
+        TaskTimeEntry entry = new TaskTimeEntry();
+        entry.setTaskId(task.getId());
+        entry.setUserId(task.getUserId());
+        entry.setMinutes(minutes);
+        entry.setEntryDate(task.getScheduledDate());
+        entry.setSource(TimeEntrySource.MANUAL);
+        taskTimeEntryRepository.save(entry);
+    }
+
+    private int rowsIn(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        pomodoroSessionRepository.deleteAll();
+        taskTimeEntryRepository.deleteAll();
+        subtaskRepository.deleteAll();
+        taskRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM task_archive");
+    }
+
+    @Test
+    void moveColdTasks_ShouldMoveArchivedAndLongCompletedTasksWithTheirChildren() {
+        Task archived = createTaskInDb("Archived", TODAY, false, true);
+        Task longCompleted = createTaskInDb("Long completed", LONG_AGO, true, false);
+        Task recentlyCompleted = createTaskInDb("Recently completed", TODAY.minusDays(10), true, false);
+        Task longOpen = createTaskInDb("Long open", LONG_AGO, false, false);
+        createSubtaskInDb(longCompleted.getId(), "Step", 0);
+        createSubtaskInDb(recentlyCompleted.getId(), "Step", 0);
+        createTimeEntryInDb(longCompleted, 30);
+        for (int i = 0; i < 3; i++) {
+            createTaskInDb("Archived " + i, LONG_AGO, false, true);
+        }
+
+        assertThat(taskColdStorage.moveColdTasks()).isEqualTo(5);
+
+        assertThat(taskRepository.findAll())
+                .extracting(Task::getId)
+                .containsExactlyInAnyOrder(recentlyCompleted.getId(), longOpen.getId());
+        assertThat(rowsIn("task_archive")).isEqualTo(5);
+        assertThat(rowsIn("subtask")).isEqualTo(1);
+        assertThat(rowsIn("subtask_archive")).isEqualTo(1);
+        assertThat(rowsIn("task_time_entry")).isZero();
+        assertThat(rowsIn("task_time_entry_archive")).isEqualTo(1);
+        assertThat(taskRepository.findById(archived.getId())).isEmpty();
+
+        assertThat(taskColdStorage.moveColdTasks()).isZero();
+    }
+
+    @Test
+    void moveColdTasks_ShouldPublishEachMovedTaskAsDeletedForItsOwner() {
+        Task mine = createTaskInDb("Mine", TODAY, false, true);
+        Task others = createTaskInDb("Not mine", LONG_AGO, true, false, OTHER_USER_ID);
+        createTaskInDb("Open", LONG_AGO, false, false);
+
+        taskColdStorage.moveColdTasks();
+
+        assertThat(applicationEvents.stream(ChangeEvent.class))
+                .extracting(ChangeEvent::userId, ChangeEvent::resource, ChangeEvent::id, ChangeEvent::action)
+                .containsExactlyInAnyOrder(
+                        tuple(mine.getUserId(), ChangedResource.TASK, mine.getId(), ChangeAction.DELETED),
+                        tuple(others.getUserId(), ChangedResource.TASK, others.getId(), ChangeAction.DELETED));
+    }
+
+    @Test
+    @MaxStatements(2)
+    void archiveEndpoints_ShouldServeMovedTasksWhileHotEndpointsNoLongerDo() {
+        Task longCompleted = createTaskInDb("Long completed", LONG_AGO, true, false);
+        createSubtaskInDb(longCompleted.getId(), "Second", 1);
+        createSubtaskInDb(longCompleted.getId(), "First", 0);
+        createTimeEntryInDb(longCompleted, 25);
+        taskColdStorage.moveColdTasks();
+
+        ResponseEntity<Void> hot = restTemplate.getForEntity("/api/tasks/" + longCompleted.getId(), Void.class);
+        assertThat(hot.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        ResponseEntity<List<TaskResponseDTO>> range = restTemplate.exchange(
+                "/api/tasks/archive?startDate=" + LONG_AGO.minusDays(1) + "&endDate=" + LONG_AGO.plusDays(1),
+                HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        assertThat(range.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(range.getBody()).singleElement().satisfies(task -> {
+            assertThat(task.getId()).isEqualTo(longCompleted.getId());
+            assertThat(task.isCompleted()).isTrue();
+            assertThat(task.getSubtasks()).extracting("title").containsExactly("First", "Second");
+        });
+
+        ResponseEntity<TaskResponseDTO> byId = restTemplate.getForEntity(
+                "/api/tasks/archive/" + longCompleted.getId(), TaskResponseDTO.class);
+        assertThat(byId.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(byId.getBody().getTitle()).isEqualTo("Long completed");
+
+        ResponseEntity<List<TaskTimeEntryResponseDTO>> entries = restTemplate.exchange(
+                "/api/tasks/archive/" + longCompleted.getId() + "/time-entries",
+                HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        assertThat(entries.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(entries.getBody()).singleElement().satisfies(entry -> assertThat(entry.getMinutes()).isEqualTo(25));
+    }
+
+    @Test
+    @MaxStatements(1)
+    void archiveEndpoints_ShouldReturnNotFoundForAnotherUsersTask() {
+        Task othersTask = createTaskInDb("Not mine", LONG_AGO, true, false, OTHER_USER_ID);
+        taskColdStorage.moveColdTasks();
+
+        ResponseEntity<Void> byId = restTemplate.getForEntity("/api/tasks/archive/" + othersTask.getId(), Void.class);
+        ResponseEntity<Void> entries = restTemplate.getForEntity(
+                "/api/tasks/archive/" + othersTask.getId() + "/time-entries", Void.class);
+
+        assertThat(byId.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(entries.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @MaxStatements(4)
+    void pomodoroSessions_ShouldKeepLinkToMovedTaskButBeUnlinkedFromDeletedTask() {
+        Task moved = createTaskInDb("Moved", TODAY, false, true);
+        Task deleted = createTaskInDb("Deleted", TODAY, false, false);
+        PomodoroSession linkedToMoved = new PomodoroSession();
+        linkedToMoved.setStartTime(Instant.now());
+        linkedToMoved.setDuration(25);
+        linkedToMoved.setTaskId(moved.getId());
+        linkedToMoved.setUserId(moved.getUserId());
+        linkedToMoved = pomodoroSessionRepository.save(linkedToMoved);
+        PomodoroSession linkedToDeleted = new PomodoroSession();
+        linkedToDeleted.setStartTime(Instant.now());
+        linkedToDeleted.setDuration(25);
+        linkedToDeleted.setTaskId(deleted.getId());
+        linkedToDeleted.setUserId(deleted.getUserId());
+        linkedToDeleted = pomodoroSessionRepository.save(linkedToDeleted);
+
+        taskColdStorage.moveColdTasks();
+        restTemplate.delete("/api/tasks/" + deleted.getId());
+
+        PomodoroSessionRequestDTO update = new PomodoroSessionRequestDTO();
+        update.setStartTime(linkedToMoved.getStartTime());
+        update.setDuration(30);
+        update.setTaskId(moved.getId());
+        ResponseEntity<PomodoroSessionResponseDTO> updated = restTemplate.exchange(
+                "/api/pomodoro/" + linkedToMoved.getId(), HttpMethod.PUT,
+                new HttpEntity<>(update, new HttpHeaders()), PomodoroSessionResponseDTO.class);
+
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getBody().getTaskId()).isEqualTo(moved.getId());
+        assertThat(pomodoroSessionRepository.findById(linkedToDeleted.getId()))
+                .hasValueSatisfying(session -> assertThat(session.getTaskId()).isNull());
+    }
+}
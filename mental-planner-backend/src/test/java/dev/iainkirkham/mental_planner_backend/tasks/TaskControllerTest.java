@@ -3,6 +3,9 @@ package dev.iainkirkham.mental_planner_backend.tasks;
 import dev.iainkirkham.mental_planner_backend.exception.ResourceNotFoundException;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.ActualMinutesRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.CompletionRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.AutoScheduleResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.AutoScheduledTaskDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.FreeSlotDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskResponseDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskReorderItemDTO;
@@ -19,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -37,6 +41,12 @@ class TaskControllerTest {
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private TaskTimelineService taskTimelineService;
+
+    @Mock
+    private TaskAutoScheduler taskAutoScheduler;
+
     @InjectMocks
     private TaskController taskController;
 
@@ -114,6 +124,32 @@ class TaskControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    void getFreeSlots_ShouldReturnSlotsOrNoContentWhenTheDayIsFull() {
+        FreeSlotDTO slot = new FreeSlotDTO(Instant.parse("2025-12-01T10:00:00Z"), Instant.parse("2025-12-01T11:30:00Z"), 90);
+        when(taskTimelineService.getFreeSlots(FIXED_DATE, 30)).thenReturn(List.of(slot));
+        when(taskTimelineService.getFreeSlots(FIXED_DATE.plusDays(1), 30)).thenReturn(List.of());
+
+        ResponseEntity<List<FreeSlotDTO>> response = taskController.getFreeSlots(FIXED_DATE, 30);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(slot);
+        assertThat(taskController.getFreeSlots(FIXED_DATE.plusDays(1), 30).getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    @Test
+    void autoSchedule_ShouldReturnThePlan() {
+        AutoScheduleResponseDTO plan = new AutoScheduleResponseDTO(false, List.of(new AutoScheduledTaskDTO(1L, FIXED_DATE,
+                Instant.parse("2025-12-01T09:00:00Z"), Instant.parse("2025-12-01T10:00:00Z"))), List.of(2L));
+        when(taskAutoScheduler.autoSchedule(FIXED_DATE, 7, false)).thenReturn(plan);
+
+        ResponseEntity<AutoScheduleResponseDTO> response = taskController.autoSchedule(FIXED_DATE, 7, false);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(plan);
+    }
+
     @Test
     void getTaskById_ShouldReturnTaskWhenFound() {
         when(taskService.getTaskById(anyLong())).thenReturn(savedResponseDTO);
@@ -1,14 +1,23 @@
 package dev.iainkirkham.mental_planner_backend.tasks;
 
+import dev.iainkirkham.mental_planner_backend.config.BinaryContentConfig;
+import dev.iainkirkham.mental_planner_backend.config.CapturingStatementInspector;
+import dev.iainkirkham.mental_planner_backend.config.MaxStatements;
 import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
 import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
 import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.AutoScheduleResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.AutoScheduledTaskDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.CompletionRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.FreeSlotDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.SubtaskResponseDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskReorderItemDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskTimeEntryRequestDTO;
 import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskTimeEntryResponseDTO;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,11 +28,19 @@ import org.springframework.boot.resttestclient.TestRestTemplate;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,7 +50,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * (reorder, completion cascade) that carry the most risk of a partial or
  * inconsistent write.
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = CapturingStatementInspector.PROPERTY)
 @AutoConfigureTestRestTemplate
 @Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
 @org.springframework.test.context.ActiveProfiles("test")
@@ -51,14 +68,25 @@ class TaskIntegrationTest {
     @Autowired
     private TaskTimeEntryRepository taskTimeEntryRepository;
 
+    @Autowired
+    private AppUserService appUserService;
+
+    /**
+     * Resolves a Clerk user ID to the internal user ID stored on owned rows.
+     */
+    private Long userIdFor(String clerkUserId) {
+        return appUserService.resolveOrCreate(clerkUserId);
+    }
+
     private static final LocalDate FIXED_DATE = LocalDate.parse("2025-12-01");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
     private static final String OTHER_USER_ID = "user_someone_else";
 
     private Task createTaskInDb(String title, String userId) {
         Task task = new Task();
         task.setTitle(title);
         task.setScheduledDate(FIXED_DATE);
-        task.setUserId(userId);
+        task.setUserId(userIdFor(userId));
         return taskRepository.save(task);
     }
 
@@ -79,6 +107,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(2)
     void shouldCreateTask() {
         TaskRequestDTO newTask = new TaskRequestDTO();
         newTask.setTitle("Write report");
@@ -96,16 +125,219 @@ class TaskIntegrationTest {
         });
     }
 
+    private Task createTimelineTaskInDb(String title, String start, String end) {
+        Task task = createTaskInDb(title, TestAuthenticationConfig.TEST_USER_ID);
+        task.setStartTime(Instant.parse(start));
+        task.setEndTime(Instant.parse(end));
+        return taskRepository.save(task);
+    }
+
+    // --- timeline: overlap warnings and free slots ---
+
+    @Test
+    void writes_ShouldWarnOfOverlappingTimelineTasks() {
+        Task morning = createTimelineTaskInDb("Morning", "2025-12-01T09:00:00Z", "2025-12-01T10:00:00Z");
+        Task lunch = createTimelineTaskInDb("Lunch", "2025-12-01T12:00:00Z", "2025-12-01T13:00:00Z");
+        createTimelineTaskInDb("Afternoon", "2025-12-01T13:00:00Z", "2025-12-01T14:00:00Z");
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Long meeting");
+        request.setScheduledDate(FIXED_DATE);
+        request.setStartTime(Instant.parse("2025-12-01T09:30:00Z"));
+        request.setEndTime(Instant.parse("2025-12-01T12:30:00Z"));
+
+        TaskResponseDTO created = restTemplate.postForEntity("/api/tasks", request, TaskResponseDTO.class).getBody();
+
+        assertThat(created.getOverlappingTaskIds()).containsExactly(morning.getId(), lunch.getId());
+
+        request.setStartTime(Instant.parse("2025-12-01T10:00:00Z"));
+        request.setEndTime(Instant.parse("2025-12-01T11:00:00Z"));
+        ResponseEntity<TaskResponseDTO> moved = restTemplate.exchange("/api/tasks/" + created.getId(),
+                HttpMethod.PUT, new HttpEntity<>(request), TaskResponseDTO.class);
+
+        assertThat(moved.getBody().getOverlappingTaskIds()).isEmpty();
+
+        request.setStartTime(null);
+        request.setEndTime(null);
+        ResponseEntity<TaskResponseDTO> unscheduled = restTemplate.exchange("/api/tasks/" + created.getId(),
+                HttpMethod.PUT, new HttpEntity<>(request), TaskResponseDTO.class);
+
+        assertThat(unscheduled.getBody().getOverlappingTaskIds()).isNull();
+    }
+
     @Test
+    @MaxStatements(2)
+    void getFreeSlots_ShouldReturnTheDaysGapsOfAtLeastMinMinutes() {
+        createTimelineTaskInDb("Standup", "2025-12-01T09:00:00Z", "2025-12-01T10:00:00Z");
+        createTimelineTaskInDb("Overrun", "2025-12-01T09:30:00Z", "2025-12-01T11:00:00Z");
+        createTimelineTaskInDb("Review", "2025-12-01T11:20:00Z", "2025-12-01T12:00:00Z");
+        createTimelineTaskInDb("Lunch", "2025-12-01T13:00:00Z", "2025-12-01T14:00:00Z");
+        createTaskInDb("Backlog", TestAuthenticationConfig.TEST_USER_ID);
+
+        ResponseEntity<List<FreeSlotDTO>> response = restTemplate.exchange(
+                "/api/tasks/free-slots?date=" + FIXED_DATE + "&minMinutes=30",
+                HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(
+                new FreeSlotDTO(Instant.parse("2025-12-01T00:00:00Z"), Instant.parse("2025-12-01T09:00:00Z"), 540),
+                new FreeSlotDTO(Instant.parse("2025-12-01T12:00:00Z"), Instant.parse("2025-12-01T13:00:00Z"), 60),
+                new FreeSlotDTO(Instant.parse("2025-12-01T14:00:00Z"), Instant.parse("2025-12-02T00:00:00Z"), 600));
+    }
+
+    // --- auto-scheduling ---
+
+    /** A day far enough ahead that none of its working hours have passed. */
+    private static final LocalDate PLAN_DATE = LocalDate.now(ZoneOffset.UTC).plusDays(7);
+
+    private static Instant planAt(LocalDate date, int hour, int minute) {
+        return date.atTime(LocalTime.of(hour, minute)).toInstant(ZoneOffset.UTC);
+    }
+
+    private Task createBacklogTaskInDb(String title, LocalDate date, TaskPriority priority, Integer plannedMinutes) {
+        Task task = createTaskInDb(title, TestAuthenticationConfig.TEST_USER_ID);
+        task.setScheduledDate(date);
+        task.setPriority(priority);
+        task.setPlannedMinutes(plannedMinutes);
+        return taskRepository.save(task);
+    }
+
+    private void createPlannedTimelineTaskInDb(LocalDate date, int startHour, int endHour) {
+        Task task = createTaskInDb("Busy", TestAuthenticationConfig.TEST_USER_ID);
+        task.setScheduledDate(date);
+        task.setStartTime(planAt(date, startHour, 0));
+        task.setEndTime(planAt(date, endHour, 0));
+        taskRepository.save(task);
+    }
+
+    @Test
+    @MaxStatements(3)
+    void autoSchedule_ShouldProposePlacementsMostUrgentFirstWithoutWriting() {
+        createPlannedTimelineTaskInDb(PLAN_DATE, 10, 11);
+        Task low = createBacklogTaskInDb("Low", PLAN_DATE, TaskPriority.LOW, 60);
+        Task urgent = createBacklogTaskInDb("Urgent", PLAN_DATE, TaskPriority.URGENT, 45);
+        Task high = createBacklogTaskInDb("High", PLAN_DATE, TaskPriority.HIGH, 120);
+        Task tooLong = createBacklogTaskInDb("Too long", PLAN_DATE, TaskPriority.NORMAL, 600);
+        createBacklogTaskInDb("Unplanned", PLAN_DATE, TaskPriority.URGENT, null);
+        Task done = createBacklogTaskInDb("Done", PLAN_DATE, TaskPriority.URGENT, 30);
+        done.setCompleted(true);
+        taskRepository.save(done);
+
+        ResponseEntity<AutoScheduleResponseDTO> response = restTemplate.postForEntity(
+                "/api/tasks/auto-schedule?date=" + PLAN_DATE, null, AutoScheduleResponseDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).satisfies(plan -> {
+            assertThat(plan.isApplied()).isFalse();
+            assertThat(plan.getScheduled()).containsExactly(
+                    new AutoScheduledTaskDTO(urgent.getId(), PLAN_DATE, planAt(PLAN_DATE, 9, 0), planAt(PLAN_DATE, 9, 45)),
+                    new AutoScheduledTaskDTO(high.getId(), PLAN_DATE, planAt(PLAN_DATE, 11, 0), planAt(PLAN_DATE, 13, 0)),
+                    new AutoScheduledTaskDTO(low.getId(), PLAN_DATE, planAt(PLAN_DATE, 13, 0), planAt(PLAN_DATE, 14, 0)));
+            assertThat(plan.getUnscheduledTaskIds()).containsExactly(tooLong.getId());
+        });
+        assertThat(taskRepository.findById(urgent.getId()).orElseThrow().getStartTime()).isNull();
+    }
+
+    @Test
+    @MaxStatements(5)
+    void autoSchedule_WithApply_ShouldPlaceTasksOnOrAfterTheirDayInOneUpdate() {
+        LocalDate nextDay = PLAN_DATE.plusDays(1);
+        createPlannedTimelineTaskInDb(PLAN_DATE, 9, 17);
+        Task overflow = createBacklogTaskInDb("Overflow", PLAN_DATE, TaskPriority.HIGH, 120);
+        Task tomorrow = createBacklogTaskInDb("Tomorrow", nextDay, TaskPriority.URGENT, 30);
+
+        AutoScheduleResponseDTO plan = restTemplate.postForEntity(
+                "/api/tasks/auto-schedule?date=" + PLAN_DATE + "&days=2&apply=true", null,
+                AutoScheduleResponseDTO.class).getBody();
+
+        assertThat(plan.isApplied()).isTrue();
+        assertThat(plan.getScheduled()).containsExactly(
+                new AutoScheduledTaskDTO(tomorrow.getId(), nextDay, planAt(nextDay, 9, 0), planAt(nextDay, 9, 30)),
+                new AutoScheduledTaskDTO(overflow.getId(), nextDay, planAt(nextDay, 9, 30), planAt(nextDay, 11, 30)));
+        assertThat(plan.getUnscheduledTaskIds()).isEmpty();
+        assertThat(taskRepository.findById(overflow.getId()).orElseThrow()).satisfies(task -> {
+            assertThat(task.getScheduledDate()).isEqualTo(nextDay);
+            assertThat(task.getStartTime()).isEqualTo(planAt(nextDay, 9, 30));
+            assertThat(task.getEndTime()).isEqualTo(planAt(nextDay, 11, 30));
+        });
+    }
+
+    @Test
+    @MaxStatements(1)
     void shouldReturnNotFoundForNonExistentTask() {
         ResponseEntity<Void> response = restTemplate.getForEntity("/api/tasks/999", Void.class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    @MaxStatements(3)
+    void getTasksForDateRange_ShouldBatchFetchSubtasksRegardlessOfTaskCount() {
+        for (int i = 0; i < 5; i++) {
+            Task task = createTaskInDb("Task " + i, TestAuthenticationConfig.TEST_USER_ID);
+            createSubtaskInDb(task.getId(), "Subtask A", false);
+            createSubtaskInDb(task.getId(), "Subtask B", true);
+        }
+
+        ResponseEntity<List<TaskResponseDTO>> response = restTemplate.exchange(
+                "/api/tasks?startDate=" + FIXED_DATE + "&endDate=" + FIXED_DATE.plusDays(6),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {}
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .hasSize(5)
+                .allSatisfy(task -> assertThat(task.getSubtasks()).hasSize(2));
+    }
+
+    // --- binary content negotiation ---
+
+    @Test
+    @MaxStatements(2)
+    void getTaskById_ShouldReturnCborWithEpochMillisTimestampsWhenRequested() {
+        Task task = createTaskInDb("Binary", TestAuthenticationConfig.TEST_USER_ID);
+        task.setStartTime(Instant.parse("2025-12-01T09:00:00Z"));
+        taskRepository.save(task);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                "/api/tasks/" + task.getId(), HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        CBORMapper cborMapper = BinaryContentConfig.compactTimestamps(CBORMapper.builder()).build();
+        JsonNode body = cborMapper.readTree(response.getBody());
+        assertThat(body.get("title").asString()).isEqualTo("Binary");
+        assertThat(body.get("startTime").isNumber()).isTrue();
+        assertThat(body.get("startTime").asLong()).isEqualTo(Instant.parse("2025-12-01T09:00:00Z").toEpochMilli());
+        assertThat(body.get("scheduledDate").asString()).isEqualTo(FIXED_DATE.toString());
+    }
+
+    @Test
+    @MaxStatements(3)
+    void getTasksForDateRange_ShouldReturnSmileWhenRequested() {
+        createTaskInDb("First", TestAuthenticationConfig.TEST_USER_ID);
+        createTaskInDb("Second", TestAuthenticationConfig.TEST_USER_ID);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(SMILE));
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                "/api/tasks?startDate=" + FIXED_DATE + "&endDate=" + FIXED_DATE,
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(SMILE);
+        List<TaskResponseDTO> tasks = BinaryContentConfig.smileMapper()
+                .readValue(response.getBody(), new TypeReference<List<TaskResponseDTO>>() {});
+        assertThat(tasks).extracting(TaskResponseDTO::getTitle).containsExactlyInAnyOrder("First", "Second");
+    }
+
     // --- reorderTasks: the risky batch operation ---
 
     @Test
+    @MaxStatements(4)
     void reorderTasks_ShouldApplyNewSortOrderToAllTasks() {
         Task first = createTaskInDb("First", TestAuthenticationConfig.TEST_USER_ID);
         Task second = createTaskInDb("Second", TestAuthenticationConfig.TEST_USER_ID);
@@ -130,6 +362,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void reorderTasks_ShouldRejectBatchContainingAnotherUsersTaskAndPersistNothing() {
         Task owned = createTaskInDb("Mine", TestAuthenticationConfig.TEST_USER_ID);
         Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
@@ -156,6 +389,7 @@ class TaskIntegrationTest {
     // --- setCompletionCascade: parent + subtask fan-out, atomically ---
 
     @Test
+    @MaxStatements(6)
     void setCompletionCascade_ShouldMarkParentAndAllSubtasksComplete() {
         Task parent = createTaskInDb("Parent", TestAuthenticationConfig.TEST_USER_ID);
         Subtask subtaskA = createSubtaskInDb(parent.getId(), "Subtask A", false);
@@ -189,6 +423,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void setCompletionCascade_ShouldReturnNotFoundForAnotherUsersTask() {
         Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
 
@@ -206,6 +441,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void deleteTask_ShouldReturnNotFoundForAnotherUsersTask() {
         Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
 
@@ -220,9 +456,211 @@ class TaskIntegrationTest {
         assertThat(taskRepository.findById(othersTask.getId())).isPresent();
     }
 
+    // --- JSON Merge Patch: only the supplied fields change, and only their columns are written ---
+
+    private <T> ResponseEntity<T> patch(String url, String mergePatch, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        return restTemplate.exchange(url, HttpMethod.PATCH, new HttpEntity<>(mergePatch, headers), responseType);
+    }
+
+    @Test
+    @MaxStatements(4)
+    void patchTask_ShouldOnlyChangeAndWriteTheSuppliedFields() {
+        Task task = createTaskInDb("Write report", TestAuthenticationConfig.TEST_USER_ID);
+        task.setDescription("Quarterly numbers");
+        task.setPlannedMinutes(45);
+        task.setCategory("Work");
+        taskRepository.save(task);
+        CapturingStatementInspector.STATEMENTS.clear();
+
+        ResponseEntity<TaskResponseDTO> response = patch(
+                "/api/tasks/" + task.getId(), "{\"completed\": true, \"description\": null}", TaskResponseDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).satisfies(patched -> {
+            assertThat(patched.isCompleted()).isTrue();
+            assertThat(patched.getDescription()).isNull();
+            assertThat(patched.getTitle()).isEqualTo("Write report");
+            assertThat(patched.getPlannedMinutes()).isEqualTo(45);
+            assertThat(patched.getCategory()).isEqualTo("Work");
+            assertThat(patched.getScheduledDate()).isEqualTo(FIXED_DATE);
+        });
+        assertThat(CapturingStatementInspector.STATEMENTS)
+                .filteredOn(sql -> sql.startsWith("update task "))
+                .singleElement()
+                .satisfies(sql -> assertThat(sql.substring(0, sql.indexOf(" where ")))
+                        .contains("completed", "description")
+                        .doesNotContain("title", "planned_minutes", "category", "scheduled_date"));
+    }
+
+    @Test
+    @MaxStatements(1)
+    void patchTask_ShouldRejectPatchesThatLeaveTheTaskInvalidOrDoNotFit() {
+        Task task = createTaskInDb("Write report", TestAuthenticationConfig.TEST_USER_ID);
+
+        ResponseEntity<String> clearedTitle = patch("/api/tasks/" + task.getId(), "{\"title\": null}", String.class);
+        ResponseEntity<String> badDate = patch("/api/tasks/" + task.getId(), "{\"scheduledDate\": \"soon\"}", String.class);
+        ResponseEntity<String> notAnObject = patch("/api/tasks/" + task.getId(), "[]", String.class);
+
+        assertThat(clearedTitle.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(clearedTitle.getBody()).contains("\"field\":\"title\"");
+        assertThat(badDate.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(notAnObject.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getTitle()).isEqualTo("Write report");
+    }
+
+    @Test
+    @MaxStatements(1)
+    void patchTask_ShouldReturnNotFoundForAnotherUsersTask() {
+        Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
+
+        ResponseEntity<Void> response = patch("/api/tasks/" + othersTask.getId(), "{\"completed\": true}", Void.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(taskRepository.findById(othersTask.getId()).orElseThrow().isCompleted()).isFalse();
+    }
+
+    // --- ownership checks: existence-only, cached per task, forgotten on delete ---
+
+    @Test
+    @MaxStatements(3)
+    void createSubtask_ShouldOnlyCheckTaskOwnershipOnce() {
+        Task task = createTaskInDb("Parent", TestAuthenticationConfig.TEST_USER_ID);
+        SubtaskRequestDTO requestDTO = new SubtaskRequestDTO();
+        requestDTO.setTitle("Step one");
+
+        // Ownership check + insert + outbox entry; the check's result is then cached
+        ResponseEntity<SubtaskResponseDTO> first = restTemplate.postForEntity(
+                "/api/tasks/" + task.getId() + "/subtasks", requestDTO, SubtaskResponseDTO.class);
+        requestDTO.setTitle("Step two");
+        ResponseEntity<SubtaskResponseDTO> second = restTemplate.postForEntity(
+                "/api/tasks/" + task.getId() + "/subtasks", requestDTO, SubtaskResponseDTO.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getHeaders().getFirst("X-DB-Statements")).isEqualTo("2");
+        assertThat(subtaskRepository.findByTaskIdOrderBySortOrderAsc(task.getId())).hasSize(2);
+    }
+
+    // --- single-statement subtask and time-entry mutations, scoped through task.user_id; each also
+    //     writes its change's outbox entry ---
+
+    @Test
+    @MaxStatements(2)
+    void updateSubtask_ShouldUpdateAndReturnTheRowInOneStatement() {
+        Task task = createTaskInDb("Parent", TestAuthenticationConfig.TEST_USER_ID);
+        Subtask subtask = createSubtaskInDb(task.getId(), "Step one", false);
+        SubtaskRequestDTO requestDTO = new SubtaskRequestDTO();
+        requestDTO.setTitle("Step one, renamed");
+        requestDTO.setCompleted(true);
+        requestDTO.setSortOrder(3);
+
+        ResponseEntity<SubtaskResponseDTO> response = restTemplate.exchange(
+                "/api/tasks/" + task.getId() + "/subtasks/" + subtask.getId(),
+                HttpMethod.PUT, new HttpEntity<>(requestDTO), SubtaskResponseDTO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).satisfies(updated -> {
+            assertThat(updated.getId()).isEqualTo(subtask.getId());
+            assertThat(updated.getTaskId()).isEqualTo(task.getId());
+            assertThat(updated.getTitle()).isEqualTo("Step one, renamed");
+            assertThat(updated.isCompleted()).isTrue();
+            assertThat(updated.getSortOrder()).isEqualTo(3);
+            assertThat(updated.getPlannedMinutes()).isNull();
+        });
+        assertThat(subtaskRepository.findById(subtask.getId()).orElseThrow().getTitle()).isEqualTo("Step one, renamed");
+    }
+
+    @Test
+    @MaxStatements(2)
+    void deleteSubtask_ShouldDeleteInOneStatement() {
+        Task task = createTaskInDb("Parent", TestAuthenticationConfig.TEST_USER_ID);
+        Subtask subtask = createSubtaskInDb(task.getId(), "Step one", false);
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/tasks/" + task.getId() + "/subtasks/" + subtask.getId(), HttpMethod.DELETE, null, Void.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(subtaskRepository.findById(subtask.getId())).isEmpty();
+    }
+
+    @Test
+    @MaxStatements(1)
+    void subtaskMutations_ShouldReturnNotFoundForAnotherUsersTaskOrAMismatchedTask() {
+        Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
+        Subtask othersSubtask = createSubtaskInDb(othersTask.getId(), "Their step", false);
+        Task ownTask = createTaskInDb("Mine", TestAuthenticationConfig.TEST_USER_ID);
+        SubtaskRequestDTO requestDTO = new SubtaskRequestDTO();
+        requestDTO.setTitle("Hijacked");
+
+        ResponseEntity<Void> updateOthers = restTemplate.exchange(
+                "/api/tasks/" + othersTask.getId() + "/subtasks/" + othersSubtask.getId(),
+                HttpMethod.PUT, new HttpEntity<>(requestDTO), Void.class);
+        ResponseEntity<Void> updateViaOwnTask = restTemplate.exchange(
+                "/api/tasks/" + ownTask.getId() + "/subtasks/" + othersSubtask.getId(),
+                HttpMethod.PUT, new HttpEntity<>(requestDTO), Void.class);
+        ResponseEntity<Void> deleteOthers = restTemplate.exchange(
+                "/api/tasks/" + othersTask.getId() + "/subtasks/" + othersSubtask.getId(),
+                HttpMethod.DELETE, null, Void.class);
+
+        assertThat(updateOthers.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(updateViaOwnTask.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(deleteOthers.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(subtaskRepository.findById(othersSubtask.getId()).orElseThrow().getTitle()).isEqualTo("Their step");
+    }
+
+    @Test
+    @MaxStatements(4)
+    void subtaskWrites_ShouldReturnNotFoundOnceTheTaskIsDeleted() {
+        Task task = createTaskInDb("Parent", TestAuthenticationConfig.TEST_USER_ID);
+        SubtaskRequestDTO requestDTO = new SubtaskRequestDTO();
+        requestDTO.setTitle("Step one");
+        restTemplate.postForEntity("/api/tasks/" + task.getId() + "/subtasks", requestDTO, SubtaskResponseDTO.class);
+
+        restTemplate.delete("/api/tasks/" + task.getId());
+        ResponseEntity<Void> response = restTemplate.postForEntity(
+                "/api/tasks/" + task.getId() + "/subtasks", requestDTO, Void.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(subtaskRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void subtaskWrites_ShouldReturnNotFoundWhenTheTaskWentAwayBehindTheCache() {
+        Task task = createTaskInDb("Parent", TestAuthenticationConfig.TEST_USER_ID);
+        SubtaskRequestDTO requestDTO = new SubtaskRequestDTO();
+        requestDTO.setTitle("Step one");
+        restTemplate.postForEntity("/api/tasks/" + task.getId() + "/subtasks", requestDTO, SubtaskResponseDTO.class);
+
+        // As if another instance had moved it to cold storage: the cached owner is now stale
+        subtaskRepository.deleteAll();
+        taskRepository.deleteById(task.getId());
+        ResponseEntity<Void> response = restTemplate.postForEntity(
+                "/api/tasks/" + task.getId() + "/subtasks", requestDTO, Void.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(subtaskRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @MaxStatements(1)
+    void subtaskWrites_ShouldReturnNotFoundForAnotherUsersTask() {
+        Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
+        SubtaskRequestDTO requestDTO = new SubtaskRequestDTO();
+        requestDTO.setTitle("Step one");
+
+        ResponseEntity<Void> response = restTemplate.postForEntity(
+                "/api/tasks/" + othersTask.getId() + "/subtasks", requestDTO, Void.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(subtaskRepository.findAll()).isEmpty();
+    }
+
     // --- time entries: stopwatch entries are history-only, manual entries drive actualMinutes ---
 
     @Test
+    @MaxStatements(3)
     void logTimeEntry_StopwatchEntry_ShouldNotChangeActualMinutes() {
         Task task = createTaskInDb("Deep work", TestAuthenticationConfig.TEST_USER_ID);
         task.setActualMinutes(25);
@@ -250,6 +688,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(4)
     void logTimeEntry_ManualEntry_ShouldAddToActualMinutes() {
         Task task = createTaskInDb("Deep work", TestAuthenticationConfig.TEST_USER_ID);
         task.setActualMinutes(10);
@@ -272,6 +711,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(2)
     void deleteTimeEntry_ManualEntry_ShouldSubtractFromActualMinutes() {
         Task task = createTaskInDb("Deep work", TestAuthenticationConfig.TEST_USER_ID);
         task.setActualMinutes(20);
@@ -279,7 +719,7 @@ class TaskIntegrationTest {
 
         TaskTimeEntry entry = new TaskTimeEntry();
         entry.setTaskId(task.getId());
-        entry.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        entry.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         entry.setMinutes(15);
         entry.setEntryDate(FIXED_DATE);
         entry.setSource(TimeEntrySource.MANUAL);
@@ -298,6 +738,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(2)
     void deleteTimeEntry_StopwatchEntry_ShouldLeaveActualMinutesUnchanged() {
         Task task = createTaskInDb("Deep work", TestAuthenticationConfig.TEST_USER_ID);
         task.setActualMinutes(30);
@@ -305,7 +746,7 @@ class TaskIntegrationTest {
 
         TaskTimeEntry entry = new TaskTimeEntry();
         entry.setTaskId(task.getId());
-        entry.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        entry.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         entry.setMinutes(30);
         entry.setEntryDate(FIXED_DATE);
         entry.setSource(TimeEntrySource.STOPWATCH);
@@ -323,12 +764,40 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
+    void deleteTimeEntry_ShouldReturnNotFoundForAnotherUsersEntry() {
+        Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
+        othersTask.setActualMinutes(20);
+        taskRepository.save(othersTask);
+
+        TaskTimeEntry entry = new TaskTimeEntry();
+        entry.setTaskId(othersTask.getId());
+        entry.setUserId(userIdFor(OTHER_USER_ID));
+        entry.setMinutes(15);
+        entry.setEntryDate(FIXED_DATE);
+        entry.setSource(TimeEntrySource.MANUAL);
+        entry = taskTimeEntryRepository.save(entry);
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/tasks/" + othersTask.getId() + "/time-entries/" + entry.getId(),
+                HttpMethod.DELETE,
+                null,
+                Void.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(taskTimeEntryRepository.findById(entry.getId())).isPresent();
+        assertThat(taskRepository.findById(othersTask.getId()).orElseThrow().getActualMinutes()).isEqualTo(20);
+    }
+
+    @Test
+    @MaxStatements(2)
     void getTimeEntries_ShouldReturnEntriesMostRecentDayFirst() {
         Task task = createTaskInDb("Deep work", TestAuthenticationConfig.TEST_USER_ID);
 
         TaskTimeEntry older = new TaskTimeEntry();
         older.setTaskId(task.getId());
-        older.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        older.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         older.setMinutes(10);
         older.setEntryDate(FIXED_DATE.minusDays(1));
         older.setSource(TimeEntrySource.MANUAL);
@@ -336,7 +805,7 @@ class TaskIntegrationTest {
 
         TaskTimeEntry newer = new TaskTimeEntry();
         newer.setTaskId(task.getId());
-        newer.setUserId(TestAuthenticationConfig.TEST_USER_ID);
+        newer.setUserId(userIdFor(TestAuthenticationConfig.TEST_USER_ID));
         newer.setMinutes(20);
         newer.setEntryDate(FIXED_DATE);
         newer.setSource(TimeEntrySource.MANUAL);
@@ -357,6 +826,7 @@ class TaskIntegrationTest {
     }
 
     @Test
+    @MaxStatements(1)
     void timeEntries_ShouldReturnNotFoundForAnotherUsersTask() {
         Task othersTask = createTaskInDb("Not mine", OTHER_USER_ID);
 
@@ -20,7 +20,7 @@ class TaskMapperTest {
     private TaskMapper mapper;
     private static final LocalDate FIXED_DATE = LocalDate.parse("2025-12-01");
     private static final Instant FIXED_NOW = Instant.parse("2025-12-01T09:00:00Z");
-    private static final String TEST_USER_ID = "user_test123";
+    private static final Long TEST_USER_ID = 42L;
 
     @BeforeEach
     void setUp() {
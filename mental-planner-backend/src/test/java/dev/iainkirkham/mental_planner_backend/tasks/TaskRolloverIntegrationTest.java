@@ -0,0 +1,190 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.config.MaxStatements;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.users.AppUser;
+import dev.iainkirkham.mental_planner_backend.users.AppUserRepository;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import dev.iainkirkham.mental_planner_backend.users.dto.UserSettingsRequestDTO;
+import dev.iainkirkham.mental_planner_backend.users.dto.UserSettingsResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for rolling opted-in users' unfinished tasks onto their today, and for the
+ * settings endpoint they opt in with. A small chunk size makes every run span several chunks.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "tasks.rollover.chunk-size=2")
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class TaskRolloverIntegrationTest {
+
+    /**
+     * The two zones furthest apart, so "today" differs between them for most of the day.
+     */
+    private static final ZoneId EAST = ZoneId.of("Pacific/Kiritimati");
+    private static final ZoneId WEST = ZoneId.of("Pacific/Pago_Pago");
+    private static final String EAST_USER_ID = "user_rollover_east";
+    private static final String OPTED_OUT_USER_ID = "user_rollover_opted_out";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TaskRollover taskRollover;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long optIn(String clerkUserId, ZoneId zone) {
+        AppUser user = appUserRepository.findById(appUserService.resolveOrCreate(clerkUserId)).orElseThrow();
+        user.setRolloverEnabled(true);
+        user.setTimeZone(zone.getId());
+        return appUserRepository.save(user).getId();
+    }
+
+    private Task createTaskInDb(Long userId, String title, LocalDate scheduledDate, boolean completed, boolean archived) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setScheduledDate(scheduledDate);
+        task.setCompleted(completed);
+        task.setArchived(archived);
+        task.setUserId(userId);
+        return taskRepository.save(task);
+    }
+
+    private Task reload(Task task) {
+        return taskRepository.findById(task.getId()).orElseThrow();
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        appUserRepository.findAll().forEach(user -> {
+            user.setRolloverEnabled(false);
+            user.setTimeZone("UTC");
+            appUserRepository.save(user);
+        });
+    }
+
+    @Test
+    void rollOverTasks_ShouldMoveOpenTasksFromPastDaysOntoEachUsersToday() {
+        Long westUser = optIn(TestAuthenticationConfig.TEST_USER_ID, WEST);
+        Long eastUser = optIn(EAST_USER_ID, EAST);
+        Long optedOutUser = appUserService.resolveOrCreate(OPTED_OUT_USER_ID);
+        LocalDate westToday = LocalDate.now(WEST);
+        LocalDate eastToday = LocalDate.now(EAST);
+
+        Task westOverdue = createTaskInDb(westUser, "Overdue", westToday.minusDays(30), false, false);
+        westOverdue.setStartTime(Instant.parse("2025-01-01T09:00:00Z"));
+        westOverdue.setEndTime(Instant.parse("2025-01-01T10:00:00Z"));
+        westOverdue = taskRepository.save(westOverdue);
+        Task westCurrent = createTaskInDb(westUser, "Today", westToday, false, false);
+        Task westAhead = createTaskInDb(westUser, "East's today", eastToday, false, false);
+        Task westCompleted = createTaskInDb(westUser, "Done", westToday.minusDays(1), true, false);
+        Task westArchived = createTaskInDb(westUser, "Archived", westToday.minusDays(1), false, true);
+        Task eastBehind = createTaskInDb(eastUser, "West's today", westToday, false, false);
+        Task eastYesterday = createTaskInDb(eastUser, "Yesterday", eastToday.minusDays(1), false, false);
+        Task optedOut = createTaskInDb(optedOutUser, "Left alone", westToday.minusDays(1), false, false);
+
+        int moved = taskRollover.rollOverTasks();
+
+        assertThat(moved).isEqualTo(3);
+        assertThat(reload(westOverdue)).satisfies(task -> {
+            assertThat(task.getScheduledDate()).isEqualTo(westToday);
+            assertThat(task.getStartTime()).isNull();
+            assertThat(task.getEndTime()).isNull();
+        });
+        assertThat(reload(westCurrent).getScheduledDate()).isEqualTo(westToday);
+        assertThat(reload(westAhead).getScheduledDate()).isEqualTo(eastToday);
+        assertThat(reload(westCompleted).getScheduledDate()).isEqualTo(westToday.minusDays(1));
+        assertThat(reload(westArchived).getScheduledDate()).isEqualTo(westToday.minusDays(1));
+        assertThat(reload(eastBehind).getScheduledDate()).isEqualTo(eastToday);
+        assertThat(reload(eastYesterday).getScheduledDate()).isEqualTo(eastToday);
+        assertThat(reload(optedOut).getScheduledDate()).isEqualTo(westToday.minusDays(1));
+
+        assertThat(taskRollover.rollOverTasks()).isZero();
+    }
+
+    @Test
+    void rollOverTasks_ShouldSkipTasksLockedByARequestAndMoveThemOnTheNextRun() throws Exception {
+        Long userId = optIn(TestAuthenticationConfig.TEST_USER_ID, WEST);
+        LocalDate today = LocalDate.now(WEST);
+        Task locked = createTaskInDb(userId, "Being edited", today.minusDays(1), false, false);
+        for (int i = 0; i < 3; i++) {
+            createTaskInDb(userId, "Overdue " + i, today.minusDays(2), false, false);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement lock = connection.prepareStatement("SELECT id FROM task WHERE id = ? FOR UPDATE")) {
+                lock.setLong(1, locked.getId());
+                lock.executeQuery().close();
+            }
+            assertThat(taskRollover.rollOverTasks()).isEqualTo(3);
+            connection.rollback();
+        }
+
+        assertThat(reload(locked).getScheduledDate()).isEqualTo(today.minusDays(1));
+        assertThat(taskRollover.rollOverTasks()).isEqualTo(1);
+        assertThat(reload(locked).getScheduledDate()).isEqualTo(today);
+    }
+
+    @Test
+    @MaxStatements(3)
+    void settings_ShouldDefaultToOptedOutInUtcAndAcceptOnlyRegionZones() {
+        ResponseEntity<UserSettingsResponseDTO> defaults =
+                restTemplate.getForEntity("/api/settings", UserSettingsResponseDTO.class);
+        assertThat(defaults.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(defaults.getBody()).isEqualTo(new UserSettingsResponseDTO(false, "UTC"));
+
+        ResponseEntity<UserSettingsResponseDTO> updated = restTemplate.exchange("/api/settings", HttpMethod.PUT,
+                new HttpEntity<>(new UserSettingsRequestDTO(true, "Europe/London")), UserSettingsResponseDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getBody()).isEqualTo(new UserSettingsResponseDTO(true, "Europe/London"));
+        assertThat(restTemplate.getForObject("/api/settings", UserSettingsResponseDTO.class))
+                .isEqualTo(new UserSettingsResponseDTO(true, "Europe/London"));
+
+        for (String zone : new String[] {"+02:00", "Mars/Olympus_Mons", ""}) {
+            ResponseEntity<Map<String, Object>> rejected = restTemplate.exchange("/api/settings", HttpMethod.PUT,
+                    new HttpEntity<>(new UserSettingsRequestDTO(true, zone)), new ParameterizedTypeReference<>() {});
+            assertThat(rejected.getStatusCode()).as(zone).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(rejected.getBody()).containsEntry("error", "Validation failed");
+        }
+    }
+}
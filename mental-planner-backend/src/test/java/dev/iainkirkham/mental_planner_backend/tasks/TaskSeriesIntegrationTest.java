@@ -0,0 +1,199 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import dev.iainkirkham.mental_planner_backend.config.MaxStatements;
+import dev.iainkirkham.mental_planner_backend.config.TestAuthenticationConfig;
+import dev.iainkirkham.mental_planner_backend.config.TestSecurityConfiguration;
+import dev.iainkirkham.mental_planner_backend.config.TestcontainersConfiguration;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.CompletionRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskResponseDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesRequestDTO;
+import dev.iainkirkham.mental_planner_backend.tasks.dto.TaskSeriesResponseDTO;
+import dev.iainkirkham.mental_planner_backend.users.AppUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for recurring tasks: occurrences expanded into the week view, and
+ * materializing, skipping and deleting them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestRestTemplate
+@Import({TestcontainersConfiguration.class, TestAuthenticationConfig.class, TestSecurityConfiguration.class})
+@org.springframework.test.context.ActiveProfiles("test")
+class TaskSeriesIntegrationTest {
+
+    private static final LocalDate MONDAY = LocalDate.parse("2025-12-01");
+    private static final LocalDate WEDNESDAY = MONDAY.plusDays(2);
+    private static final String OTHER_USER_ID = "user_series_other";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSeriesRepository taskSeriesRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        taskSeriesRepository.deleteAll();
+    }
+
+    private TaskSeriesResponseDTO createSeries(String title, String recurrenceRule, LocalDate startDate) {
+        TaskSeriesRequestDTO request = new TaskSeriesRequestDTO();
+        request.setTitle(title);
+        request.setRecurrenceRule(recurrenceRule);
+        request.setStartDate(startDate);
+        request.setPlannedMinutes(5);
+        ResponseEntity<TaskSeriesResponseDTO> response =
+                restTemplate.postForEntity("/api/task-series", request, TaskSeriesResponseDTO.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+
+    private List<TaskResponseDTO> week() {
+        ResponseEntity<List<TaskResponseDTO>> response = restTemplate.exchange(
+                "/api/tasks?startDate=" + MONDAY + "&endDate=" + MONDAY.plusDays(6),
+                HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+        return response.getBody() == null ? List.of() : response.getBody();
+    }
+
+    private ResponseEntity<TaskResponseDTO> materialize(Long seriesId, LocalDate date) {
+        return restTemplate.postForEntity(
+                "/api/task-series/" + seriesId + "/occurrences/" + date, null, TaskResponseDTO.class);
+    }
+
+    private HttpStatus materializeStatus(Long seriesId, LocalDate date) {
+        return (HttpStatus) restTemplate.postForEntity(
+                "/api/task-series/" + seriesId + "/occurrences/" + date, null, Void.class).getStatusCode();
+    }
+
+    @Test
+    @MaxStatements(3)
+    void weekView_ShouldShowOccurrencesAfterEachDaysTasksWithoutStoringThem() {
+        Task task = new Task();
+        task.setTitle("One-off");
+        task.setScheduledDate(MONDAY);
+        task.setUserId(appUserService.resolveOrCreate(TestAuthenticationConfig.TEST_USER_ID));
+        taskRepository.save(task);
+        TaskSeriesResponseDTO series = createSeries("Take meds", "FREQ=WEEKLY;BYDAY=WE,MO", MONDAY.minusYears(5));
+        createSeries("Ended", "FREQ=DAILY;COUNT=3", MONDAY.minusDays(10));
+
+        List<TaskResponseDTO> week = week();
+
+        assertThat(series.getRecurrenceRule()).isEqualTo("FREQ=WEEKLY;BYDAY=MO,WE");
+        assertThat(week).extracting(TaskResponseDTO::getTitle, TaskResponseDTO::getScheduledDate)
+                .containsExactly(
+                        tuple("One-off", MONDAY),
+                        tuple("Take meds", MONDAY),
+                        tuple("Take meds", WEDNESDAY));
+        assertThat(week.get(1)).satisfies(occurrence -> {
+            assertThat(occurrence.getId()).isNull();
+            assertThat(occurrence.getSeriesId()).isEqualTo(series.getId());
+            assertThat(occurrence.getOccurrenceDate()).isEqualTo(MONDAY);
+            assertThat(occurrence.getPlannedMinutes()).isEqualTo(5);
+            assertThat(occurrence.getSubtasks()).isEmpty();
+        });
+        assertThat(taskRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @MaxStatements(4)
+    void materializeOccurrence_ShouldCreateOneTaskThatReplacesTheOccurrence() {
+        TaskSeriesResponseDTO series = createSeries("Weekly review", "FREQ=WEEKLY;BYDAY=MO,WE", MONDAY);
+
+        ResponseEntity<TaskResponseDTO> first = materialize(series.getId(), WEDNESDAY);
+        ResponseEntity<TaskResponseDTO> again = materialize(series.getId(), WEDNESDAY);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getId()).isNotNull();
+        assertThat(first.getBody().getOccurrenceDate()).isEqualTo(WEDNESDAY);
+        assertThat(again.getBody().getId()).isEqualTo(first.getBody().getId());
+
+        restTemplate.put("/api/tasks/" + first.getBody().getId() + "/completion", new CompletionRequestDTO(true));
+        assertThat(week()).filteredOn(task -> WEDNESDAY.equals(task.getScheduledDate()))
+                .singleElement()
+                .satisfies(task -> {
+                    assertThat(task.getId()).isEqualTo(first.getBody().getId());
+                    assertThat(task.isCompleted()).isTrue();
+                });
+
+        restTemplate.delete("/api/tasks/" + first.getBody().getId());
+        assertThat(week()).extracting(TaskResponseDTO::getScheduledDate).containsExactly(MONDAY);
+        assertThat(materializeStatus(series.getId(), WEDNESDAY)).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @MaxStatements(3)
+    void skipOccurrence_ShouldHideItFromTheWeek() {
+        TaskSeriesResponseDTO series = createSeries("Plan the day", "FREQ=DAILY", MONDAY);
+
+        ResponseEntity<Void> skipped = restTemplate.exchange(
+                "/api/task-series/" + series.getId() + "/occurrences/" + WEDNESDAY, HttpMethod.DELETE, null, Void.class);
+
+        assertThat(skipped.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(week()).extracting(TaskResponseDTO::getScheduledDate).hasSize(6).doesNotContain(WEDNESDAY);
+        assertThat(materializeStatus(series.getId(), WEDNESDAY)).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void deleteSeries_ShouldKeepMaterializedOccurrencesAsOrdinaryTasks() {
+        TaskSeriesResponseDTO series = createSeries("Stretch", "FREQ=DAILY", MONDAY);
+        Long materializedId = materialize(series.getId(), MONDAY).getBody().getId();
+
+        restTemplate.delete("/api/task-series/" + series.getId());
+
+        assertThat(week()).singleElement().satisfies(task -> {
+            assertThat(task.getId()).isEqualTo(materializedId);
+            assertThat(task.getSeriesId()).isNull();
+        });
+    }
+
+    @Test
+    void invalidRequests_ShouldBeRejected() {
+        TaskSeriesRequestDTO request = new TaskSeriesRequestDTO();
+        request.setTitle("Yearly");
+        request.setRecurrenceRule("FREQ=YEARLY");
+        request.setStartDate(MONDAY);
+        ResponseEntity<Map<String, Object>> invalidRule = restTemplate.exchange("/api/task-series", HttpMethod.POST,
+                new HttpEntity<>(request), new ParameterizedTypeReference<>() {});
+        assertThat(invalidRule.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(invalidRule.getBody()).containsEntry("error", "Invalid recurrence rule");
+
+        TaskSeriesResponseDTO series = createSeries("Mondays", "FREQ=WEEKLY;BYDAY=MO", MONDAY);
+        assertThat(materializeStatus(series.getId(), WEDNESDAY)).isEqualTo(HttpStatus.NOT_FOUND);
+
+        HttpHeaders otherUser = new HttpHeaders();
+        otherUser.set(TestAuthenticationConfig.TEST_USER_HEADER, OTHER_USER_ID);
+        ResponseEntity<Void> othersMaterialize = restTemplate.exchange(
+                "/api/task-series/" + series.getId() + "/occurrences/" + MONDAY, HttpMethod.POST,
+                new HttpEntity<>(otherUser), Void.class);
+        assertThat(othersMaterialize.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(taskRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,86 @@
+package dev.iainkirkham.mental_planner_backend.tasks;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link Timeline}'s overlap and gap queries.
+ */
+class TimelineTest {
+
+    private static final Instant DAY = Instant.parse("2025-12-01T00:00:00Z");
+
+    private static Instant at(int hour, int minute) {
+        return DAY.plus(Duration.ofHours(hour).plusMinutes(minute));
+    }
+
+    private static TimelineBlock block(long taskId, int startHour, int startMinute, int endHour, int endMinute) {
+        return new TimelineBlock(taskId, at(startHour, startMinute), at(endHour, endMinute));
+    }
+
+    @Test
+    void overlapping_ShouldFindBlocksReachingIntoTheRangeButNotOnesThatOnlyTouchIt() {
+        Timeline timeline = Timeline.of(List.of(
+                block(3, 13, 0, 14, 0),
+                block(1, 8, 0, 17, 0),
+                block(2, 9, 0, 10, 0),
+                block(4, 10, 0, 11, 0)));
+
+        assertThat(timeline.overlapping(null, at(10, 0), at(13, 0))).containsExactly(1L, 4L);
+        assertThat(timeline.overlapping(1L, at(9, 30), at(10, 30))).containsExactly(2L, 4L);
+        assertThat(timeline.overlapping(null, at(17, 0), at(18, 0))).isEmpty();
+    }
+
+    @Test
+    void overlapping_ShouldMatchABruteForceCheck() {
+        Random random = new Random(7);
+        List<TimelineBlock> blocks = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            int start = random.nextInt(24 * 60 * 7);
+            blocks.add(new TimelineBlock(id, DAY.plus(Duration.ofMinutes(start)),
+                    DAY.plus(Duration.ofMinutes(start + 5 + random.nextInt(240)))));
+        }
+        Timeline timeline = Timeline.of(blocks);
+
+        for (int i = 0; i < 200; i++) {
+            Instant start = DAY.plus(Duration.ofMinutes(random.nextInt(24 * 60 * 7)));
+            Instant end = start.plus(Duration.ofMinutes(1 + random.nextInt(120)));
+            List<Long> expected = blocks.stream()
+                    .filter(block -> block.start().isBefore(end) && block.end().isAfter(start))
+                    .map(TimelineBlock::taskId)
+                    .toList();
+
+            assertThat(timeline.overlapping(null, start, end)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void freeSlots_ShouldReturnGapsOfAtLeastTheMinimumWithinTheWindow() {
+        Timeline timeline = Timeline.of(List.of(
+                block(1, 7, 0, 9, 30),
+                block(2, 9, 0, 10, 0),
+                block(3, 10, 15, 12, 0),
+                block(4, 11, 0, 11, 30),
+                block(5, 16, 0, 19, 0)));
+
+        assertThat(timeline.freeSlots(at(8, 0), at(18, 0), Duration.ofMinutes(30)))
+                .containsExactly(new Timeline.Slot(at(12, 0), at(16, 0)));
+        assertThat(timeline.freeSlots(at(8, 0), at(20, 0), Duration.ZERO)).containsExactly(
+                new Timeline.Slot(at(10, 0), at(10, 15)),
+                new Timeline.Slot(at(12, 0), at(16, 0)),
+                new Timeline.Slot(at(19, 0), at(20, 0)));
+    }
+
+    @Test
+    void freeSlots_ShouldReturnTheWholeWindowForAnEmptyDay() {
+        assertThat(Timeline.of(List.of()).freeSlots(at(0, 0), at(24, 0), Duration.ofMinutes(15)))
+                .containsExactly(new Timeline.Slot(at(0, 0), at(24, 0)));
+    }
+}